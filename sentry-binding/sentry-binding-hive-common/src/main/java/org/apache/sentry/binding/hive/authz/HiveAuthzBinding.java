@@ -17,6 +17,7 @@
 package org.apache.sentry.binding.hive.authz;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -385,6 +386,53 @@ public class HiveAuthzBinding implements AutoCloseable {
 
   }
 
+  /**
+   * Validate the input privileges of the given operation on each of the given hierarchies.
+   * Unlike {@link #authorize(HiveOperation, HiveAuthzPrivileges, Subject, Set, Set)} the
+   * privileges of the subject are looked up once for all the hierarchies of a type, which
+   * makes it suitable for filtering long lists of objects.
+   * Hierarchies whose type has no required input privilege are not authorized.
+   * @param hiveOp
+   * @param stmtAuthPrivileges
+   * @param subject
+   * @param inputHierarchyList
+   * @return for each element of inputHierarchyList, true if the subject is authorized
+   */
+  public boolean[] authorizeBulk(HiveOperation hiveOp, HiveAuthzPrivileges stmtAuthPrivileges,
+      Subject subject, List<List<DBModelAuthorizable>> inputHierarchyList) {
+    if (!open) {
+      throw new IllegalStateException("Binding has been closed");
+    }
+    if(LOG.isDebugEnabled()) {
+      LOG.debug("Going to authorize " + inputHierarchyList.size() + " objects of statement " +
+          hiveOp.name() + " for subject " + subject.getName());
+    }
+
+    boolean[] result = new boolean[inputHierarchyList.size()];
+    Map<AuthorizableType, EnumSet<DBModelAction>> requiredInputPrivileges =
+        stmtAuthPrivileges.getInputPrivileges();
+    for (Map.Entry<AuthorizableType, EnumSet<DBModelAction>> entry : requiredInputPrivileges.entrySet()) {
+      List<Integer> indexes = new ArrayList<Integer>();
+      List<List<DBModelAuthorizable>> hierarchies = new ArrayList<List<DBModelAuthorizable>>();
+      for (int i = 0; i < inputHierarchyList.size(); i++) {
+        if (getAuthzType(inputHierarchyList.get(i)).equals(entry.getKey())) {
+          indexes.add(i);
+          hierarchies.add(inputHierarchyList.get(i));
+        }
+      }
+      if (hierarchies.isEmpty()) {
+        continue;
+      }
+
+      boolean[] granted = authProvider.hasAccessBulk(subject, hierarchies, entry.getValue(),
+          stmtAuthPrivileges.getGrantOption(), activeRoleSet);
+      for (int i = 0; i < granted.length; i++) {
+        result[indexes.get(i)] = granted[i];
+      }
+    }
+    return result;
+  }
+
   public void setActiveRoleSet(String activeRoleSet,
       Set<TSentryRole> allowedRoles) throws SentryUserException {
     this.activeRoleSet = parseActiveRoleSet(activeRoleSet, allowedRoles);
@@ -25,7 +25,6 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import org.apache.hadoop.hbase.util.Strings;
-import org.apache.hadoop.hive.ql.metadata.AuthorizationException;
 import org.apache.hadoop.hive.ql.plan.HiveOperation;
 import org.apache.sentry.binding.hive.authz.HiveAuthzPrivileges.HiveOperationScope;
 import org.apache.sentry.binding.hive.authz.HiveAuthzPrivileges.HiveOperationType;
@@ -140,6 +139,7 @@ public class MetastoreAuthzObjectFilter<T> {
 
   /**
    * Filter a list of {@code dbNames} objects based on the authorization privileges of {@code subject}.
+   * The privileges of the user are looked up once for the whole list.
    *
    * @param username The username to request authorization from.
    * @param dbNames A list of databases that must be filtered based on the user privileges.
@@ -151,19 +151,30 @@ public class MetastoreAuthzObjectFilter<T> {
       return Collections.emptyList();
     }
 
-    List<T> filteredDatabases = Lists.newArrayList();
-    for (T dbName : dbNames) {
-      String objName = extractor.getDatabaseName(dbName);
-      if (Strings.isEmpty(objName) || authorizeDatabase(username, objName)) {
-        filteredDatabases.add(dbName);
+    // Objects that need a privilege check, and their position in dbNames
+    List<Integer> indexes = Lists.newArrayList();
+    List<List<DBModelAuthorizable>> authorizables = Lists.newArrayList();
+    for (int i = 0; i < dbNames.size(); i++) {
+      String objName = extractor.getDatabaseName(dbNames.get(i));
+      if (Strings.isEmpty(objName)
+          || (!DEFAULT_DATABASE_RESTRICTED && objName.equalsIgnoreCase(DEFAULT_DATABASE_NAME))) {
+        continue;
       }
+
+      indexes.add(i);
+      authorizables.add(Arrays.asList(AUTH_SERVER, new Database(objName), Table.ALL, Column.ALL));
     }
 
-    return filteredDatabases;
+    boolean[] authorized = authorize(HiveOperation.SHOWDATABASES,
+        SHOWDATABASES_ON_SELECT_ONLY ? LIST_DATABASES_PRIVILEGES_ON_SELECT : LIST_DATABASES_PRIVILEGES,
+        username, authorizables);
+
+    return filter(dbNames, indexes, authorized);
   }
 
   /**
    * Filter a list of {@code tableNames} objects based on the authorization privileges of {@code subject}.
+   * The privileges of the user are looked up once for the whole list.
    *
    * @param username The username to request authorization from.
    * @param tables A list of tables that must be filtered based on the user privileges.
@@ -175,73 +186,58 @@ public class MetastoreAuthzObjectFilter<T> {
       return Collections.emptyList();
     }
 
-    List<T> filteredTables = Lists.newArrayList();
-    for (T table : tables) {
+    // Objects that need a privilege check, and their position in tables
+    List<Integer> indexes = Lists.newArrayList();
+    List<List<DBModelAuthorizable>> authorizables = Lists.newArrayList();
+    for (int i = 0; i < tables.size(); i++) {
+      T table = tables.get(i);
       String dbName = extractor.getDatabaseName(table);
-      String tableName = extractor.getTableName(table);
-      if (Strings.isEmpty(dbName) || authorizeTable(username, dbName, tableName)) {
-        filteredTables.add(table);
+      if (Strings.isEmpty(dbName)) {
+        continue;
       }
-    }
 
-    return filteredTables;
-  }
-
-  /**
-   * Checks if a database is authorized to be accessed by the specific user.
-   * @return True if it is authorized, false otherwise.
-   */
-  private boolean authorizeDatabase(String username, String dbName) {
-    if (!DEFAULT_DATABASE_RESTRICTED && dbName.equalsIgnoreCase(DEFAULT_DATABASE_NAME)) {
-      return true;
+      String tableName = extractor.getTableName(table);
+      indexes.add(i);
+      authorizables.add(Arrays.asList(
+          AUTH_SERVER, new Database(dbName), new Table(tableName), Column.ALL));
     }
 
-    Database database = new Database(dbName);
-    List<DBModelAuthorizable> authorizable = Arrays.asList(
-      AUTH_SERVER, database, Table.ALL, Column.ALL
-    );
-
-    if (SHOWDATABASES_ON_SELECT_ONLY) {
-      return authorize(HiveOperation.SHOWDATABASES, LIST_DATABASES_PRIVILEGES_ON_SELECT, username,
-          authorizable);
+    boolean[] authorized = authorize(HiveOperation.SHOWTABLES, getListTablePrivileges(),
+        username, authorizables);
 
-    } else {
-      return authorize(HiveOperation.SHOWDATABASES, LIST_DATABASES_PRIVILEGES, username,
-          authorizable);
-    }
+    return filter(tables, indexes, authorized);
   }
 
   /**
-   * Checks if a table is authorized to be accessed by the specific user.
-   * @return True if it is authorized, false otherwise.
+   * Removes from {@code objects} the elements at {@code indexes} which are not authorized.
+   * @return The filtered list, keeping the original order.
    */
-  private boolean authorizeTable(String username, String dbName, String tableName) {
-    Database database = new Database(dbName);
-    Table table = new Table(tableName);
-
-    List<DBModelAuthorizable> authorizable = Arrays.asList(
-      AUTH_SERVER, database, table, Column.ALL
-    );
+  private List<T> filter(List<T> objects, List<Integer> indexes, boolean[] authorized) {
+    boolean[] denied = new boolean[objects.size()];
+    for (int i = 0; i < authorized.length; i++) {
+      denied[indexes.get(i)] = !authorized[i];
+    }
 
-    if (SHOWTABLES_ON_SELECT_ONLY) {
-      return authorize(HiveOperation.SHOWTABLES, LIST_TABLES_PRIVILEGES_ON_SELECT, username, authorizable);
-    } else {
-      return authorize(HiveOperation.SHOWTABLES, LIST_TABLES_PRIVILEGES, username, authorizable);
+    List<T> filteredObjects = Lists.newArrayListWithCapacity(objects.size());
+    for (int i = 0; i < objects.size(); i++) {
+      if (!denied[i]) {
+        filteredObjects.add(objects.get(i));
+      }
     }
+
+    return filteredObjects;
   }
 
   /**
-   * Calls the authorization method of Sentry to check the access to a specific authorizable.
-   * @return True if it is authorized, false otherwise.
+   * Calls the authorization method of Sentry to check the access to a list of authorizables.
+   * @return For each authorizable, true if it is authorized, false otherwise.
    */
-  private boolean authorize(HiveOperation op, HiveAuthzPrivileges privs, String username, List<DBModelAuthorizable> authorizable) {
-    try {
-      authzBinding.authorize(op, privs, new Subject(username),
-        Collections.singleton(authorizable), Collections.emptySet());
-    } catch (AuthorizationException e) {
-      return false;
+  private boolean[] authorize(HiveOperation op, HiveAuthzPrivileges privs, String username,
+      List<List<DBModelAuthorizable>> authorizables) {
+    if (authorizables.isEmpty()) {
+      return new boolean[0];
     }
 
-    return true;
+    return authzBinding.authorizeBulk(op, privs, new Subject(username), authorizables);
   }
 }
@@ -19,11 +19,13 @@ package org.apache.sentry.binding.hive.authz;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
-import org.apache.hadoop.hive.ql.metadata.AuthorizationException;
 import org.apache.hadoop.hive.ql.plan.HiveOperation;
 import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObject;
 import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObject.HivePrivilegeObjectType;
@@ -44,12 +46,16 @@ import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class TestMetastoreAuthzObjectFilter {
   // Mock the HiveAuthzBinding to avoid making real connections to a Sentry server
   private HiveAuthzBinding mockBinding = Mockito.mock(HiveAuthzBinding.class);
 
   private HiveAuthzConf authzConf = new HiveAuthzConf();
+  private ListMultimap<String, List<DBModelAuthorizable>> restrictedAuthorizables =
+    ArrayListMultimap.create();
   private final Server SERVER1 = new Server("server1");
 
   private final MetastoreAuthzObjectFilter.ObjectExtractor<String> DB_NAME_EXTRACTOR =
@@ -136,7 +142,7 @@ public class TestMetastoreAuthzObjectFilter {
     };
   }
 
-  // Mock the authorize() method to throw an exception for the following list of databases
+  // Mock the authorizeBulk() method to deny access to the following list of databases
   private void restrictDatabaseNamesOnBinding(String username, List<String> dbNames) {
     for (String dbName : dbNames) {
       Database database = new Database(dbName);
@@ -144,13 +150,11 @@ public class TestMetastoreAuthzObjectFilter {
         SERVER1, database, Table.ALL, Column.ALL
       );
 
-      Mockito.doThrow(new AuthorizationException())
-        .when(mockBinding).authorize(HiveOperation.SHOWDATABASES,
-        LIST_DATABASES_PRIVILEGES, new Subject(username), Collections.singleton(authorizable), Collections.emptySet());
+      restrictedAuthorizables.put(username, authorizable);
     }
   }
 
-  // Mock the authorize() method to throw an exception for the following list of databases
+  // Mock the authorizeBulk() method to deny access to the following list of tables
   private void restrictTablesNamesOnBinding(String username, String dbName, List<String> tableNames) {
     Database database = new Database(dbName);
 
@@ -160,9 +164,7 @@ public class TestMetastoreAuthzObjectFilter {
         SERVER1, database, table, Column.ALL
       );
 
-      Mockito.doThrow(new AuthorizationException())
-        .when(mockBinding).authorize(HiveOperation.SHOWTABLES,
-        LIST_TABLES_PRIVILEGES, new Subject(username), Collections.singleton(authorizable), Collections.emptySet());
+      restrictedAuthorizables.put(username, authorizable);
     }
   }
 
@@ -190,6 +192,26 @@ public class TestMetastoreAuthzObjectFilter {
   public void setup() {
     // Reset the mocks in case it was modified on the test methods
     Mockito.reset(mockBinding);
+    restrictedAuthorizables.clear();
+
+    // Deny access only to the authorizables added by the restrict*() methods
+    Mockito.when(mockBinding.authorizeBulk(Mockito.any(HiveOperation.class),
+      Mockito.any(HiveAuthzPrivileges.class), Mockito.any(Subject.class), Mockito.anyList()))
+      .thenAnswer(new Answer<boolean[]>() {
+        @Override
+        public boolean[] answer(InvocationOnMock invocation) {
+          Subject subject = (Subject) invocation.getArguments()[2];
+          List<List<DBModelAuthorizable>> authorizables =
+            (List<List<DBModelAuthorizable>>) invocation.getArguments()[3];
+          List<List<DBModelAuthorizable>> restricted =
+            restrictedAuthorizables.get(subject.getName());
+          boolean[] result = new boolean[authorizables.size()];
+          for (int i = 0; i < result.length; i++) {
+            result[i] = !restricted.contains(authorizables.get(i));
+          }
+          return result;
+        }
+      });
 
     Mockito.when(mockBinding.getAuthServer()).thenReturn(SERVER1);
     Mockito.when(mockBinding.getAuthzConf()).thenReturn(authzConf);
@@ -18,6 +18,7 @@ package org.apache.sentry.policy.hive;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -180,6 +181,29 @@ public class TestResourceAuthorizationProviderGeneralCases {
     doTestResourceAuthorizationProvider(SUB_JUNIOR_ANALYST, SVR_ALL, DB_JR_ANALYST, TBL_PURCHASES, SELECT, true);
   }
 
+  @Test
+  public void testHasAccessBulk() throws Exception {
+    List<List<Authorizable>> hierarchies = new ArrayList<List<Authorizable>>();
+    for (Server server : Arrays.asList(SVR_SERVER1, SVR_ALL)) {
+      for (Database database : Arrays.asList(DB_CUSTOMERS, DB_ANALYST, DB_JR_ANALYST)) {
+        hierarchies.add(Arrays.<Authorizable>asList(server, database, TBL_PURCHASES));
+      }
+    }
+
+    for (Subject subject : Arrays.asList(SUB_ADMIN, SUB_MANAGER, SUB_ANALYST, SUB_JUNIOR_ANALYST)) {
+      for (Set<? extends Action> privileges : Arrays.asList(ALL, SELECT, INSERT)) {
+        boolean[] granted = authzProvider.hasAccessBulk(subject, hierarchies, privileges,
+            false, ActiveRoleSet.ALL);
+        Assert.assertEquals(hierarchies.size(), granted.length);
+        for (int i = 0; i < granted.length; i++) {
+          Assert.assertEquals(subject + " " + hierarchies.get(i) + " " + privileges,
+              authzProvider.hasAccess(subject, hierarchies.get(i), privileges, ActiveRoleSet.ALL),
+              granted[i]);
+        }
+      }
+    }
+  }
+
   public class MockGroupMappingServiceProvider implements GroupMappingService {
     private final Multimap<String, String> userToGroupMap;
 
@@ -95,6 +95,9 @@ public class SentryKafkaAuthorizer implements Authorizer {
 
   @Override
   public void close() {
+    if (binding != null) {
+      binding.close();
+    }
   }
 
   @Override
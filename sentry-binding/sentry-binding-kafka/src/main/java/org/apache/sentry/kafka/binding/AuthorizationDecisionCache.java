@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.kafka.binding;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches the authorization decisions of a broker, keyed by principal, host, resource and
+ * operation, so that the produce and fetch requests of a client do not go through the
+ * authorization provider every time.
+ * <p>
+ * Every decision is tagged with the generation of the privileges cache it was made from,
+ * and is only reused while that generation is current. Decisions are therefore dropped
+ * as soon as a refresh of the privileges cache brings any change of roles or privileges.
+ * Decisions also expire after a fixed time, since the groups of a user may change
+ * without any change of privileges.
+ */
+final class AuthorizationDecisionCache {
+  static final String METRICS_GROUP = "authorizer-decision-cache";
+
+  private final Cache<Key, Decision> decisions;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  AuthorizationDecisionCache(long maxSize, long ttlMs) {
+    this(maxSize, ttlMs, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  AuthorizationDecisionCache(long maxSize, long ttlMs, Ticker ticker) {
+    decisions = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build();
+  }
+
+  /**
+   * @return the cached decision, or null if there is none for the given generation
+   */
+  Boolean get(Key key, long generation) {
+    Decision decision = decisions.getIfPresent(key);
+    if (decision == null || decision.generation != generation) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return decision.allowed;
+  }
+
+  /**
+   * Caches a decision made from the privileges of the given generation. The generation
+   * must be read before making the decision.
+   */
+  void put(Key key, long generation, boolean allowed) {
+    decisions.put(key, new Decision(generation, allowed));
+  }
+
+  long getHits() {
+    return hits.get();
+  }
+
+  long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Registers the hit, miss and size metrics of the cache.
+   */
+  void registerMetrics(Metrics metrics) {
+    addMetric(metrics, "hits", "Number of decisions served from the cache", new Measurable() {
+      @Override
+      public double measure(MetricConfig config, long now) {
+        return hits.get();
+      }
+    });
+    addMetric(metrics, "misses", "Number of decisions made by the authorization provider",
+        new Measurable() {
+          @Override
+          public double measure(MetricConfig config, long now) {
+            return misses.get();
+          }
+        });
+    addMetric(metrics, "size", "Number of cached decisions", new Measurable() {
+      @Override
+      public double measure(MetricConfig config, long now) {
+        return decisions.size();
+      }
+    });
+  }
+
+  private static void addMetric(Metrics metrics, String name, String description,
+      Measurable measurable) {
+    MetricName metricName = metrics.metricName(name, METRICS_GROUP, description);
+    metrics.addMetric(metricName, measurable);
+  }
+
+  /**
+   * The request an authorization decision was made for.
+   */
+  static final class Key {
+    private final String principal;
+    private final String host;
+    private final String resourceType;
+    private final String resourceName;
+    private final String operation;
+    private final int hashCode;
+
+    Key(String principal, String host, String resourceType, String resourceName,
+        String operation) {
+      this.principal = principal;
+      this.host = host;
+      this.resourceType = resourceType;
+      this.resourceName = resourceName;
+      this.operation = operation;
+      this.hashCode = Objects.hash(principal, host, resourceType, resourceName, operation);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode
+          && Objects.equals(principal, other.principal)
+          && Objects.equals(host, other.host)
+          && Objects.equals(resourceType, other.resourceType)
+          && Objects.equals(resourceName, other.resourceName)
+          && Objects.equals(operation, other.operation);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Decision {
+    private final long generation;
+    private final boolean allowed;
+
+    private Decision(long generation, boolean allowed) {
+      this.generation = generation;
+      this.allowed = allowed;
+    }
+  }
+}
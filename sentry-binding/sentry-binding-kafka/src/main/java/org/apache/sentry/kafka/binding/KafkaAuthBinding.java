@@ -36,6 +36,8 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.SecurityUtil;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.security.auth.KafkaPrincipal;
 import org.apache.sentry.core.common.exception.SentryUserException;
 import org.apache.sentry.core.common.ActiveRoleSet;
@@ -78,6 +80,7 @@ public class KafkaAuthBinding {
   private static final Logger LOG = LoggerFactory.getLogger(KafkaAuthBinding.class);
   private static final String COMPONENT_TYPE = AuthorizationComponent.KAFKA;
   private static final String COMPONENT_NAME = COMPONENT_TYPE;
+  private static final String METRICS_PREFIX = "kafka.sentry";
 
   private static Boolean kerberosInit;
 
@@ -86,6 +89,9 @@ public class KafkaAuthBinding {
   private final KafkaActionFactory actionFactory = KafkaActionFactory.getInstance();
 
   private ProviderBackend providerBackend;
+  private final AuthorizationDecisionCache decisionCache;
+  // Reports the metrics of the decision cache, null if decisions are not cached
+  private Metrics decisionCacheMetrics;
   private String instanceName;
   private String requestorName;
   private java.util.Map<String, ?> kafkaConfigs;
@@ -97,6 +103,7 @@ public class KafkaAuthBinding {
     this.authConf = authConf;
     this.kafkaConfigs = kafkaConfigs;
     this.authProvider = createAuthProvider();
+    this.decisionCache = createDecisionCache();
   }
 
   /**
@@ -219,9 +226,77 @@ public class KafkaAuthBinding {
    * Authorize access to a Kafka privilege
    */
   public boolean authorize(RequestChannel.Session session, Operation operation, Resource resource) {
-      List<Authorizable> authorizables = ConvertUtil.convertResourceToAuthorizable(session.clientAddress().getHostAddress(), resource);
-      Set<KafkaAction> actions = Sets.newHashSet(actionFactory.getActionByName(operation.name()));
-      return authProvider.hasAccess(new Subject(getName(session)), authorizables, actions, ActiveRoleSet.ALL);
+    String name = getName(session);
+    String host = session.clientAddress().getHostAddress();
+    if (decisionCache == null) {
+      return checkAccess(name, host, operation, resource);
+    }
+
+    AuthorizationDecisionCache.Key key = new AuthorizationDecisionCache.Key(name, host,
+        resource.resourceType().name(), resource.name(), operation.name());
+    // Read the generation first, so that a decision made while the privileges are being
+    // refreshed is never cached as a decision of the new privileges
+    long generation = ((SentryGenericProviderBackend) providerBackend).getCacheGeneration();
+    Boolean allowed = decisionCache.get(key, generation);
+    if (allowed == null) {
+      allowed = checkAccess(name, host, operation, resource);
+      decisionCache.put(key, generation, allowed);
+    }
+    return allowed;
+  }
+
+  private boolean checkAccess(String name, String host, Operation operation, Resource resource) {
+    List<Authorizable> authorizables = ConvertUtil.convertResourceToAuthorizable(host, resource);
+    Set<KafkaAction> actions = Sets.newHashSet(actionFactory.getActionByName(operation.name()));
+    return authProvider.hasAccess(new Subject(name), authorizables, actions, ActiveRoleSet.ALL);
+  }
+
+  /**
+   * Create the cache of authorization decisions. Decisions are only cached when the
+   * provider backend caches the privileges as well, since they are invalidated by the
+   * refreshes of that cache.
+   *
+   * @return the decision cache, or null if decisions are not cached
+   */
+  private AuthorizationDecisionCache createDecisionCache() {
+    Object enableConfig = kafkaConfigs.get(AuthzConfVars.AUTHZ_DECISION_CACHE_ENABLE_NAME.getVar());
+    String enable = enableConfig != null ? enableConfig.toString()
+        : AuthzConfVars.AUTHZ_DECISION_CACHE_ENABLE_NAME.getDefault();
+    if (!Boolean.parseBoolean(enable)) {
+      return null;
+    }
+    if (!(providerBackend instanceof SentryGenericProviderBackend)
+        || ((SentryGenericProviderBackend) providerBackend).getCacheGeneration() < 0) {
+      LOG.info("Not caching authorization decisions, as the privileges are not cached. Set "
+          + AuthzConfVars.AUTHZ_CACHING_ENABLE_NAME.getVar() + " to cache them.");
+      return null;
+    }
+
+    Object maxSizeConfig = kafkaConfigs.get(AuthzConfVars.AUTHZ_DECISION_CACHE_MAX_SIZE_NAME.getVar());
+    long maxSize = Long.parseLong(maxSizeConfig != null ? maxSizeConfig.toString()
+        : AuthzConfVars.AUTHZ_DECISION_CACHE_MAX_SIZE_NAME.getDefault());
+    // Cached decisions skip the group lookup of the user, so they expire with the TTL of
+    // the privileges cache to pick up changes of group membership
+    long ttlMs = authConf.getLong(ApiConstants.ClientConfig.CACHE_TTL_MS,
+        ApiConstants.ClientConfig.CACHING_TTL_MS_DEFAULT);
+    AuthorizationDecisionCache cache = new AuthorizationDecisionCache(maxSize, ttlMs);
+
+    decisionCacheMetrics = new Metrics();
+    decisionCacheMetrics.addReporter(new JmxReporter(METRICS_PREFIX));
+    cache.registerMetrics(decisionCacheMetrics);
+    LOG.info("Caching up to " + maxSize + " authorization decisions for " + ttlMs + " ms");
+    return cache;
+  }
+
+  /**
+   * Release the resources of the binding. The metrics of the decision cache are no longer
+   * reported once the binding is closed.
+   */
+  public synchronized void close() {
+    if (decisionCacheMetrics != null) {
+      decisionCacheMetrics.close();
+      decisionCacheMetrics = null;
+    }
   }
 
   public void addAcls(scala.collection.immutable.Set<Acl> acls, final Resource resource) {
@@ -60,8 +60,12 @@ public class KafkaAuthBindingSingleton {
   public void configure(String instanceName, String requestorName, String sentry_site, Map<String, ?> kafkaConfigs) {
     try {
       kafkaAuthConf = loadAuthzConf(sentry_site);
+      KafkaAuthBinding oldBinding = binding;
       binding = new KafkaAuthBinding(instanceName, requestorName, kafkaAuthConf, kafkaConfigs);
       log.info("KafkaAuthBinding created successfully");
+      if (oldBinding != null) {
+        oldBinding.close();
+      }
     } catch (Exception ex) {
       log.error("Unable to create KafkaAuthBinding", ex);
       throw new RuntimeException("Unable to create KafkaAuthBinding: " + ex.getMessage(), ex);
@@ -36,6 +36,8 @@ public class KafkaAuthConf extends Configuration {
   public static final String SENTRY_KAFKA_CACHING_ENABLE_NAME = "sentry.kafka.caching.enable";
   public static final String SENTRY_KAFKA_CACHING_TTL_MS_NAME = "sentry.kafka.caching.ttl.ms";
   public static final String SENTRY_KAFKA_CACHING_UPDATE_FAILURES_COUNT_NAME = "sentry.kafka.caching.update.failures.count";
+  public static final String SENTRY_KAFKA_DECISION_CACHE_ENABLE_NAME = "sentry.kafka.decision.cache.enable";
+  public static final String SENTRY_KAFKA_DECISION_CACHE_MAX_SIZE_NAME = "sentry.kafka.decision.cache.max.size";
 
   /**
    * Config setting definitions
@@ -52,7 +54,9 @@ public class KafkaAuthConf extends Configuration {
     AUTHZ_KEYTAB_FILE_NAME(KAFKA_KEYTAB_FILE_NAME, null),
     AUTHZ_CACHING_ENABLE_NAME(SENTRY_KAFKA_CACHING_ENABLE_NAME, "false"),
     AUTHZ_CACHING_TTL_MS_NAME(SENTRY_KAFKA_CACHING_TTL_MS_NAME, "30000"),
-    AUTHZ_CACHING_UPDATE_FAILURES_COUNT_NAME(SENTRY_KAFKA_CACHING_UPDATE_FAILURES_COUNT_NAME, "3");
+    AUTHZ_CACHING_UPDATE_FAILURES_COUNT_NAME(SENTRY_KAFKA_CACHING_UPDATE_FAILURES_COUNT_NAME, "3"),
+    AUTHZ_DECISION_CACHE_ENABLE_NAME(SENTRY_KAFKA_DECISION_CACHE_ENABLE_NAME, "true"),
+    AUTHZ_DECISION_CACHE_MAX_SIZE_NAME(SENTRY_KAFKA_DECISION_CACHE_MAX_SIZE_NAME, "100000");
 
     private final String varName;
     private final String defaultVal;
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.kafka.binding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class TestAuthorizationDecisionCache {
+  private static final long TTL_MS = 1000;
+
+  private final ManualTicker ticker = new ManualTicker();
+  private final AuthorizationDecisionCache.Key key =
+      new AuthorizationDecisionCache.Key("user1", "127.0.0.1", "Topic", "t1", "Read");
+  private AuthorizationDecisionCache cache;
+
+  @Before
+  public void setup() {
+    cache = new AuthorizationDecisionCache(100, TTL_MS, ticker);
+  }
+
+  @Test
+  public void testDecisionsAreCached() {
+    assertNull(cache.get(key, 1));
+    cache.put(key, 1, true);
+    assertEquals(Boolean.TRUE, cache.get(key, 1));
+    assertEquals(Boolean.TRUE, cache.get(
+        new AuthorizationDecisionCache.Key("user1", "127.0.0.1", "Topic", "t1", "Read"), 1));
+    assertNull(cache.get(
+        new AuthorizationDecisionCache.Key("user1", "127.0.0.1", "Topic", "t1", "Write"), 1));
+
+    cache.put(key, 1, false);
+    assertEquals(Boolean.FALSE, cache.get(key, 1));
+    assertEquals(3, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  public void testDecisionsOfOldGenerationsAreNotUsed() {
+    cache.put(key, 1, true);
+    assertNull(cache.get(key, 2));
+
+    // A decision of the new generation replaces the old one
+    cache.put(key, 2, false);
+    assertEquals(Boolean.FALSE, cache.get(key, 2));
+    assertNull(cache.get(key, 1));
+  }
+
+  @Test
+  public void testDecisionsExpire() {
+    cache.put(key, 1, true);
+    ticker.advance(TTL_MS - 1);
+    assertEquals(Boolean.TRUE, cache.get(key, 1));
+    ticker.advance(2);
+    assertNull(cache.get(key, 1));
+  }
+
+  @Test
+  public void testMetrics() {
+    Metrics metrics = new Metrics();
+    try {
+      cache.registerMetrics(metrics);
+      cache.put(key, 1, true);
+      cache.get(key, 1);
+      cache.get(key, 2);
+
+      assertEquals(1.0, metricValue(metrics, "hits"), 0);
+      assertEquals(1.0, metricValue(metrics, "misses"), 0);
+      assertEquals(1.0, metricValue(metrics, "size"), 0);
+    } finally {
+      metrics.close();
+    }
+  }
+
+  private static double metricValue(Metrics metrics, String name) {
+    MetricName metricName = metrics.metricName(name, AuthorizationDecisionCache.METRICS_GROUP);
+    return metrics.metrics().get(metricName).value();
+  }
+
+  private static final class ManualTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+}
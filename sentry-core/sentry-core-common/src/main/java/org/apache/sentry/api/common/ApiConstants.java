@@ -60,6 +60,22 @@ public class ApiConstants {
     public static final String SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE = "sentry.policy.client.thrift.max.message.size";
     public static final long SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE_DEFAULT = 100 * 1024 * 1024;
 
+    // asynchronous client settings: number of connections used per client factory, and
+    // time after which a request fails if it has not completed
+    public static final String SENTRY_ASYNC_CLIENT_CONNECTIONS =
+        "sentry.service.client.async.connections";
+    public static final int SENTRY_ASYNC_CLIENT_CONNECTIONS_DEFAULT = 4;
+    public static final String SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS =
+        "sentry.service.client.async.request-timeout-ms";
+    public static final long SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS_DEFAULT = 60000;
+
+    // maximum number of authorizable hierarchies sent in one bulk privilege request; the
+    // client uses the maximum returned by the server instead when it is lower
+    public static final String SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES =
+        ServiceConstants.ServerConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES;
+    public static final int SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES_DEFAULT =
+        ServiceConstants.ServerConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES_DEFAULT;
+
     // client retry settings
     public static final String RETRY_COUNT_CONF = "sentry.provider.backend.db.retry.count";
     public static final int RETRY_COUNT_DEFAULT = 3;
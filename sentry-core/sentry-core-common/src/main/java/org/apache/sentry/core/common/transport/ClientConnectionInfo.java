@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.core.common.transport;
+
+import java.net.InetAddress;
+
+/**
+ * Information about the client of a server side transport that is not backed by a
+ * {@link org.apache.thrift.transport.TSocket}, such as the connections of a
+ * non-blocking server.
+ */
+public interface ClientConnectionInfo {
+  /**
+   * @return address of the client
+   */
+  InetAddress getClientAddress();
+
+  /**
+   * @return authorization id negotiated by SASL, or null if the connection is not
+   * authenticated
+   */
+  String getAuthorizationId();
+}
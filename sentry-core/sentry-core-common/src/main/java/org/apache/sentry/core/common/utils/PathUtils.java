@@ -20,6 +20,8 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang.StringUtils;
@@ -57,57 +59,79 @@ public class PathUtils {
    * Therefore the test is "/a/b".startsWith("/a");
    */
   private static boolean _impliesURI(String privilege, String request) {
-
-    URI privilegeURI;
-    URI requestURI;
-    try {
-      // build privilege URI, add default scheme and/or authority if missing
-      privilegeURI = makeFullQualifiedURI(privilege);
-      if (privilegeURI == null) {
-        LOGGER.warn("Privilege URI " + privilege + " is not valid. Path is not absolute.");
-        return false;
-      }
-
-      // build request URI, add default scheme and/or authority if missing
-      requestURI = makeFullQualifiedURI(request);
-      if (requestURI == null) {
-        LOGGER.warn("Request URI " + request + " is not valid. Path is not absolute.");
-        return false;
-      }
-    } catch (IOException e) {
-      LOGGER.warn("Unable to get the configured filesystem implementation", e);
+    // build privilege URI, add default scheme and/or authority if missing
+    QualifiedURI privilegeURI = qualifyURI(privilege, "Privilege");
+    if (privilegeURI == null) {
       return false;
     }
 
-    // scheme and path must be present in privilege URI
-    if (privilegeURI.getScheme() == null || privilegeURI.getPath() == null) {
-      LOGGER.warn("Privilege URI " + request + " is not valid. Missing scheme or path.");
-      return false;
-    }
-
-    // scheme and path must be present in request URI
-    if (requestURI.getScheme() == null || requestURI.getPath() == null) {
-      LOGGER.warn("Request URI " + request + " is not valid. Missing scheme or path.");
+    // build request URI, add default scheme and/or authority if missing
+    QualifiedURI requestURI = qualifyURI(request, "Request");
+    if (requestURI == null) {
       return false;
     }
+    return impliesURI(privilegeURI, requestURI);
+  }
 
+  /**
+   * Same as {@link #impliesURI(String, String)} for URIs qualified in advance with
+   * {@link #qualifyPrivilegeURI(String)} and {@link #qualifyRequestURI(String)}.
+   */
+  public static boolean impliesURI(QualifiedURI privilegeURI, QualifiedURI requestURI) {
     // schemes in privilege and request URIs must be equal
-    if (privilegeURI.getScheme() != null && !privilegeURI.getScheme().equals(requestURI.getScheme())) {
+    if (!privilegeURI.getScheme().equals(requestURI.getScheme())) {
       return false;
     }
 
     // request path does not contain relative parts /a/../b &&
     // request path starts with privilege path &&
     // authorities (nullable) are equal
-    String requestPath = ensureEndsWithSeparator(requestURI.getPath()).replace("//", "/");
-    String privilegePath = ensureEndsWithSeparator(privilegeURI.getPath()).replace("//", "/");
-    if (requestURI.getPath().equals(requestURI.normalize().getPath())
-        && requestPath.startsWith(privilegePath)
-        && Strings.nullToEmpty(privilegeURI.getAuthority()).equals(
-            Strings.nullToEmpty(requestURI.getAuthority()))) {
-          return true;
+    return requestURI.isNormalized()
+        && requestURI.getPath().startsWith(privilegeURI.getPath())
+        && privilegeURI.getAuthority().equals(requestURI.getAuthority());
+  }
+
+  /**
+   * Qualify the URI of a granted privilege once, so that it can be matched against many
+   * requests. System properties referenced in the URI are substituted first, like
+   * {@link #impliesURI(String, String)} does.
+   *
+   * @return the qualified URI, or null if the URI can never imply a request
+   */
+  public static QualifiedURI qualifyPrivilegeURI(String privilege) {
+    return qualifyURI(new StrSubstitutor(System.getProperties()).replace(privilege), "Privilege");
+  }
+
+  /**
+   * Qualify a requested URI once, so that it can be matched against many privileges.
+   *
+   * @return the qualified URI, or null if the URI can never be implied by a privilege
+   */
+  public static QualifiedURI qualifyRequestURI(String request) {
+    return qualifyURI(request, "Request");
+  }
+
+  private static QualifiedURI qualifyURI(String uriName, String kind) {
+    URI uri;
+    try {
+      uri = makeFullQualifiedURI(uriName);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to get the configured filesystem implementation", e);
+      return null;
+    }
+    if (uri == null) {
+      LOGGER.warn(kind + " URI " + uriName + " is not valid. Path is not absolute.");
+      return null;
+    }
+
+    // scheme and path must be present in URI
+    if (uri.getScheme() == null || uri.getPath() == null) {
+      LOGGER.warn(kind + " URI " + uriName + " is not valid. Missing scheme or path.");
+      return null;
     }
-    return false;
+    return new QualifiedURI(uri.getScheme(), Strings.nullToEmpty(uri.getAuthority()),
+        ensureEndsWithSeparator(uri.getPath()).replace("//", "/"),
+        uri.getPath().equals(uri.normalize().getPath()));
   }
 
   /**
@@ -224,4 +248,66 @@ public class PathUtils {
     path = path.replaceAll("(^/+)|(/+$)", "");
     return path.split("/+");
   }
+
+  /**
+   * A URI qualified with the default file system scheme and authority, reduced to the
+   * parts compared when matching URI privileges.
+   */
+  public static final class QualifiedURI {
+    private final String scheme;
+    private final String authority;
+    private final String path;
+    private final boolean normalized;
+
+    private QualifiedURI(String scheme, String authority, String path, boolean normalized) {
+      this.scheme = scheme;
+      this.authority = authority;
+      this.path = path;
+      this.normalized = normalized;
+    }
+
+    public String getScheme() {
+      return scheme;
+    }
+
+    /**
+     * @return the authority, or an empty string if the URI has none
+     */
+    public String getAuthority() {
+      return authority;
+    }
+
+    /**
+     * @return the path, always ending with a separator
+     */
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * @return true if the path has no relative parts such as /a/../b
+     */
+    public boolean isNormalized() {
+      return normalized;
+    }
+
+    /**
+     * @return the non-empty components of the path, so that a privilege path only
+     * implies request paths which start with all of its components
+     */
+    public List<String> getPathComponents() {
+      List<String> components = new ArrayList<>();
+      for (String component : path.split("/")) {
+        if (!component.isEmpty()) {
+          components.add(component);
+        }
+      }
+      return components;
+    }
+
+    @Override
+    public String toString() {
+      return scheme + AUTHORITY_PREFIX + authority + path;
+    }
+  }
 }
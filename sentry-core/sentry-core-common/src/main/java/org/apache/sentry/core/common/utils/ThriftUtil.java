@@ -19,6 +19,7 @@
 package org.apache.sentry.core.common.utils;
 
 import com.google.common.net.HostAndPort;
+import org.apache.sentry.core.common.transport.ClientConnectionInfo;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.transport.TSaslClientTransport;
 import org.apache.thrift.transport.TSaslServerTransport;
@@ -40,6 +41,8 @@ public final class ThriftUtil {
         String impersonator = ((TSaslServerTransport) transport).getSaslServer()
             .getAuthorizationID();
         setImpersonator(impersonator);
+      } else if (transport instanceof ClientConnectionInfo) {
+        setImpersonator(((ClientConnectionInfo) transport).getAuthorizationId());
       }
     } catch (Exception e) {
       // If there has exception when get impersonator info, log the error information.
@@ -50,6 +53,10 @@ public final class ThriftUtil {
   public static void setIpAddress(final TProtocol in) {
     try {
       TTransport transport = in.getTransport();
+      if (transport instanceof ClientConnectionInfo) {
+        setIpAddress(((ClientConnectionInfo) transport).getClientAddress().toString());
+        return;
+      }
       TSocket tSocket = getUnderlyingSocketFromTransport(transport);
       if (tSocket != null) {
         setIpAddress(tSocket.getSocket().getInetAddress().toString());
@@ -66,6 +66,26 @@ public class ServiceConstants {
     public static final int RPC_MAX_THREADS_DEFAULT = 500;
     public static final String RPC_MIN_THREADS = "sentry.service.server-min-threads";
     public static final int RPC_MIN_THREADS_DEFAULT = 10;
+    /**
+     * Thrift server used for client requests. "threadpool" serves every connection on its
+     * own thread, "selector" multiplexes all connections over a few selector threads and
+     * runs requests on a fixed pool of worker threads. The selector server requires
+     * kerberos, the thread pool server is used otherwise.
+     */
+    public static final String RPC_SERVER_TYPE = "sentry.service.server.rpc-server-type";
+    public static final String RPC_SERVER_TYPE_THREAD_POOL = "threadpool";
+    public static final String RPC_SERVER_TYPE_SELECTOR = "selector";
+    public static final String RPC_SERVER_TYPE_DEFAULT = RPC_SERVER_TYPE_THREAD_POOL;
+    public static final String RPC_SELECTOR_THREADS = "sentry.service.server-selector-threads";
+    public static final int RPC_SELECTOR_THREADS_DEFAULT = 2;
+    public static final String RPC_WORKER_THREADS = "sentry.service.server-worker-threads";
+    public static final int RPC_WORKER_THREADS_DEFAULT = 64;
+    /**
+     * Maximum number of requests waiting for a worker thread of the selector server. The
+     * selector server stops reading from the clients while the queue is full.
+     */
+    public static final String RPC_WORKER_QUEUE_SIZE = "sentry.service.server-worker-queue-size";
+    public static final int RPC_WORKER_QUEUE_SIZE_DEFAULT = 1024;
     public static final String ALLOW_CONNECT = "sentry.service.allow.connect";
 
     public static final String SENTRY_POLICY_STORE_PLUGINS = "sentry.policy.store.plugins";
@@ -96,6 +116,44 @@ public class ServiceConstants {
     public static final String SENTRY_STORE_TRANSACTION_RETRY_WAIT_TIME_MILLIS =
         "sentry.store.transaction.retry.wait.time.millis";
     public static final int SENTRY_STORE_TRANSACTION_RETRY_WAIT_TIME_MILLIS_DEFAULT = 250;
+    // The maximum number of concurrent permission changes committed in one db transaction
+    public static final String SENTRY_STORE_GROUP_COMMIT_MAX_SIZE =
+        "sentry.store.group.commit.max.size";
+    public static final int SENTRY_STORE_GROUP_COMMIT_MAX_SIZE_DEFAULT = 100;
+    // Format in which permission and path deltas are written to the db: "json", which all
+    // versions read, or "compact", the deflated thrift compact protocol, which is smaller
+    // and faster to parse but not read by older versions. Both formats are always read.
+    // Keep "json" until every Sentry server sharing the db is upgraded.
+    public static final String SENTRY_STORE_DELTA_FORMAT = "sentry.store.delta.format";
+    public static final String SENTRY_STORE_DELTA_FORMAT_JSON = "json";
+    public static final String SENTRY_STORE_DELTA_FORMAT_COMPACT = "compact";
+    public static final String SENTRY_STORE_DELTA_FORMAT_DEFAULT = SENTRY_STORE_DELTA_FORMAT_JSON;
+    // Number of threads writing a new HMS paths snapshot, and number of authorization objects
+    // each of them persists in one db transaction
+    public static final String SENTRY_STORE_FULL_SNAPSHOT_WRITER_THREADS =
+        "sentry.store.full.snapshot.writer.threads";
+    public static final int SENTRY_STORE_FULL_SNAPSHOT_WRITER_THREADS_DEFAULT = 4;
+    public static final String SENTRY_STORE_FULL_SNAPSHOT_BATCH_SIZE =
+        "sentry.store.full.snapshot.batch.size";
+    public static final int SENTRY_STORE_FULL_SNAPSHOT_BATCH_SIZE_DEFAULT = 1000;
+    // Whether privileges for providers are looked up in an in-memory index of all roles,
+    // groups, users and privileges instead of the db. The index is checked against the
+    // last permission change in the db before every lookup, and the roles and users
+    // changed since, through this server or any other, are reloaded
+    public static final String SENTRY_STORE_PROVIDER_INDEX_ENABLED =
+        "sentry.store.provider.index.enabled";
+    public static final boolean SENTRY_STORE_PROVIDER_INDEX_ENABLED_DEFAULT = false;
+    // Number of consecutive IDs of delta changes, notification IDs or HMS snapshot objects
+    // deleted in one db transaction when the tables are purged, and the pause between two
+    // such transactions, so that a large purge does not hold up the writers of the tables.
+    // A transaction also deletes at most this many paths of HMS snapshot objects, unless a
+    // single object has more
+    public static final String SENTRY_STORE_PURGE_BATCH_SIZE =
+        "sentry.store.purge.batch.size";
+    public static final long SENTRY_STORE_PURGE_BATCH_SIZE_DEFAULT = 10000;
+    public static final String SENTRY_STORE_PURGE_BATCH_INTERVAL_MS =
+        "sentry.store.purge.batch.interval.ms";
+    public static final long SENTRY_STORE_PURGE_BATCH_INTERVAL_MS_DEFAULT = 100;
 
     public static final String JAVAX_JDO_URL = "javax.jdo.option.ConnectionURL";
     public static final String JAVAX_JDO_USER = "javax.jdo.option.ConnectionUserName";
@@ -121,6 +179,56 @@ public class ServiceConstants {
     public static final String SENTRY_STORE_LOCAL_GROUP_MAPPING = "org.apache.sentry.provider.file.LocalGroupMappingService";
     public static final String SENTRY_STORE_GROUP_MAPPING_DEFAULT = SENTRY_STORE_HADOOP_GROUP_MAPPING;
 
+    /**
+     * How long the groups of a user are cached by the server. With the default of 0 the
+     * groups are looked up on every request, which sees group changes immediately.
+     * Otherwise a single group mapping instance is shared by all requests, and entries
+     * are refreshed in the background once they are three quarters of this age.
+     */
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS =
+        "sentry.store.group.mapping.cache.ttl.ms";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS_DEFAULT = 0;
+    /** How long the lack of groups for a user is cached, at most the TTL above */
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS =
+        "sentry.store.group.mapping.cache.negative.ttl.ms";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS_DEFAULT = 30000;
+    /** Maximum number of users in the group cache */
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_MAX_SIZE =
+        "sentry.store.group.mapping.cache.max.size";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_MAX_SIZE_DEFAULT = 10000;
+    /**
+     * Maximum number of authorizable hierarchies in one list_sentry_privileges_for_provider_bulk
+     * request. Clients split longer lists into several requests.
+     */
+    public static final String SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES =
+        "sentry.service.privileges.bulk.max.authorizables";
+    public static final int SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES_DEFAULT = 1000;
+
+    /**
+     * Whether the audit log entries are written by a dedicated thread instead of the threads
+     * serving the requests. Entries still queued when the server dies are lost.
+     */
+    public static final String SENTRY_AUDIT_LOG_ASYNC_ENABLED = "sentry.audit.log.async.enabled";
+    public static final boolean SENTRY_AUDIT_LOG_ASYNC_ENABLED_DEFAULT = false;
+
+    /** Maximum number of audit log entries waiting for the writer thread */
+    public static final String SENTRY_AUDIT_LOG_ASYNC_QUEUE_SIZE =
+        "sentry.audit.log.async.queue.size";
+    public static final int SENTRY_AUDIT_LOG_ASYNC_QUEUE_SIZE_DEFAULT = 10000;
+
+    /** Maximum number of audit log entries the writer thread takes from the queue at once */
+    public static final String SENTRY_AUDIT_LOG_ASYNC_BATCH_SIZE =
+        "sentry.audit.log.async.batch.size";
+    public static final int SENTRY_AUDIT_LOG_ASYNC_BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * What a request does with its audit log entry when the queue is full: "block" waits for
+     * the writer thread, "drop" discards the entry, and "sync" writes it itself.
+     */
+    public static final String SENTRY_AUDIT_LOG_ASYNC_QUEUE_FULL_POLICY =
+        "sentry.audit.log.async.queue.full.policy";
+    public static final String SENTRY_AUDIT_LOG_ASYNC_QUEUE_FULL_POLICY_DEFAULT = "block";
+
     public static final String SENTRY_STORE_ORPHANED_PRIVILEGE_REMOVAL = "sentry.store.orphaned.privilege.removal";
     public static final String SENTRY_STORE_ORPHANED_PRIVILEGE_REMOVAL_DEFAULT = "false";
     public static final String SENTRY_STORE_CLEAN_PERIOD_SECONDS =
@@ -71,6 +71,35 @@ public class TestPathUtils {
       assertFalse(PathUtils.impliesURI(new URI(privilege), new URI(request)));
       assertFalse(PathUtils.impliesURI(privilege, request));
     }
+    assertEquals(implies, impliesQualifiedURI(privilege, request));
+  }
+
+  private static boolean impliesQualifiedURI(String privilege, String request) {
+    PathUtils.QualifiedURI privilegeURI = PathUtils.qualifyPrivilegeURI(privilege);
+    PathUtils.QualifiedURI requestURI = PathUtils.qualifyRequestURI(request);
+    return privilegeURI != null && requestURI != null
+        && PathUtils.impliesURI(privilegeURI, requestURI);
+  }
+
+  @Test
+  public void testQualifiedURI() throws Exception {
+    PathUtils.QualifiedURI uri = PathUtils.qualifyRequestURI("hdfs://nn:8020/a/b/c");
+    assertEquals("hdfs", uri.getScheme());
+    assertEquals("nn:8020", uri.getAuthority());
+    assertEquals("/a/b/c/", uri.getPath());
+    assertEquals(Arrays.asList("a", "b", "c"), uri.getPathComponents());
+    assertTrue(uri.isNormalized());
+
+    assertEquals(null, PathUtils.qualifyRequestURI("a/b"));
+    assertEquals(null, PathUtils.qualifyPrivilegeURI("hdfs://nn:8020/a/../b"));
+
+    System.setProperty("test.qualified.uri.dir", "/data");
+    try {
+      assertEquals("/data/a/",
+          PathUtils.qualifyPrivilegeURI("file://${test.qualified.uri.dir}/a").getPath());
+    } finally {
+      System.clearProperty("test.qualified.uri.dir");
+    }
   }
 
   @Test
@@ -41,6 +41,7 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
   private static final org.apache.thrift.protocol.TField PERM_SEQ_NUM_FIELD_DESC = new org.apache.thrift.protocol.TField("permSeqNum", org.apache.thrift.protocol.TType.I64, (short)1);
   private static final org.apache.thrift.protocol.TField PATH_SEQ_NUM_FIELD_DESC = new org.apache.thrift.protocol.TField("pathSeqNum", org.apache.thrift.protocol.TType.I64, (short)2);
   private static final org.apache.thrift.protocol.TField PATH_IMG_NUM_FIELD_DESC = new org.apache.thrift.protocol.TField("pathImgNum", org.apache.thrift.protocol.TType.I64, (short)3);
+  private static final org.apache.thrift.protocol.TField PATHS_IMAGE_CHUNK_SIZE_FIELD_DESC = new org.apache.thrift.protocol.TField("pathsImageChunkSize", org.apache.thrift.protocol.TType.I32, (short)4);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -51,12 +52,14 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
   private long permSeqNum; // required
   private long pathSeqNum; // required
   private long pathImgNum; // required
+  private int pathsImageChunkSize; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     PERM_SEQ_NUM((short)1, "permSeqNum"),
     PATH_SEQ_NUM((short)2, "pathSeqNum"),
-    PATH_IMG_NUM((short)3, "pathImgNum");
+    PATH_IMG_NUM((short)3, "pathImgNum"),
+    PATHS_IMAGE_CHUNK_SIZE((short)4, "pathsImageChunkSize");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -77,6 +80,8 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
           return PATH_SEQ_NUM;
         case 3: // PATH_IMG_NUM
           return PATH_IMG_NUM;
+        case 4: // PATHS_IMAGE_CHUNK_SIZE
+          return PATHS_IMAGE_CHUNK_SIZE;
         default:
           return null;
       }
@@ -120,7 +125,9 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
   private static final int __PERMSEQNUM_ISSET_ID = 0;
   private static final int __PATHSEQNUM_ISSET_ID = 1;
   private static final int __PATHIMGNUM_ISSET_ID = 2;
+  private static final int __PATHSIMAGECHUNKSIZE_ISSET_ID = 3;
   private byte __isset_bitfield = 0;
+  private static final _Fields optionals[] = {_Fields.PATHS_IMAGE_CHUNK_SIZE};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -130,6 +137,8 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     tmpMap.put(_Fields.PATH_IMG_NUM, new org.apache.thrift.meta_data.FieldMetaData("pathImgNum", org.apache.thrift.TFieldRequirementType.REQUIRED, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.PATHS_IMAGE_CHUNK_SIZE, new org.apache.thrift.meta_data.FieldMetaData("pathsImageChunkSize", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TAuthzUpdateRequest.class, metaDataMap);
   }
@@ -159,6 +168,7 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     this.permSeqNum = other.permSeqNum;
     this.pathSeqNum = other.pathSeqNum;
     this.pathImgNum = other.pathImgNum;
+    this.pathsImageChunkSize = other.pathsImageChunkSize;
   }
 
   public TAuthzUpdateRequest deepCopy() {
@@ -173,6 +183,8 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     this.pathSeqNum = 0;
     setPathImgNumIsSet(false);
     this.pathImgNum = 0;
+    setPathsImageChunkSizeIsSet(false);
+    this.pathsImageChunkSize = 0;
   }
 
   public long getPermSeqNum() {
@@ -241,6 +253,28 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PATHIMGNUM_ISSET_ID, value);
   }
 
+  public int getPathsImageChunkSize() {
+    return this.pathsImageChunkSize;
+  }
+
+  public void setPathsImageChunkSize(int pathsImageChunkSize) {
+    this.pathsImageChunkSize = pathsImageChunkSize;
+    setPathsImageChunkSizeIsSet(true);
+  }
+
+  public void unsetPathsImageChunkSize() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PATHSIMAGECHUNKSIZE_ISSET_ID);
+  }
+
+  /** Returns true if field pathsImageChunkSize is set (has been assigned a value) and false otherwise */
+  public boolean isSetPathsImageChunkSize() {
+    return EncodingUtils.testBit(__isset_bitfield, __PATHSIMAGECHUNKSIZE_ISSET_ID);
+  }
+
+  public void setPathsImageChunkSizeIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PATHSIMAGECHUNKSIZE_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case PERM_SEQ_NUM:
@@ -267,6 +301,14 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
       }
       break;
 
+    case PATHS_IMAGE_CHUNK_SIZE:
+      if (value == null) {
+        unsetPathsImageChunkSize();
+      } else {
+        setPathsImageChunkSize((Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -281,6 +323,9 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     case PATH_IMG_NUM:
       return getPathImgNum();
 
+    case PATHS_IMAGE_CHUNK_SIZE:
+      return getPathsImageChunkSize();
+
     }
     throw new IllegalStateException();
   }
@@ -298,6 +343,8 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
       return isSetPathSeqNum();
     case PATH_IMG_NUM:
       return isSetPathImgNum();
+    case PATHS_IMAGE_CHUNK_SIZE:
+      return isSetPathsImageChunkSize();
     }
     throw new IllegalStateException();
   }
@@ -342,6 +389,15 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
         return false;
     }
 
+    boolean this_present_pathsImageChunkSize = true && this.isSetPathsImageChunkSize();
+    boolean that_present_pathsImageChunkSize = true && that.isSetPathsImageChunkSize();
+    if (this_present_pathsImageChunkSize || that_present_pathsImageChunkSize) {
+      if (!(this_present_pathsImageChunkSize && that_present_pathsImageChunkSize))
+        return false;
+      if (this.pathsImageChunkSize != that.pathsImageChunkSize)
+        return false;
+    }
+
     return true;
   }
 
@@ -364,6 +420,11 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     if (present_pathImgNum)
       list.add(pathImgNum);
 
+    boolean present_pathsImageChunkSize = true && (isSetPathsImageChunkSize());
+    list.add(present_pathsImageChunkSize);
+    if (present_pathsImageChunkSize)
+      list.add(pathsImageChunkSize);
+
     return list.hashCode();
   }
 
@@ -405,6 +466,16 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetPathsImageChunkSize()).compareTo(other.isSetPathsImageChunkSize());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPathsImageChunkSize()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.pathsImageChunkSize, other.pathsImageChunkSize);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -436,6 +507,12 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
     sb.append("pathImgNum:");
     sb.append(this.pathImgNum);
     first = false;
+    if (isSetPathsImageChunkSize()) {
+      if (!first) sb.append(", ");
+      sb.append("pathsImageChunkSize:");
+      sb.append(this.pathsImageChunkSize);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -517,6 +594,14 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 4: // PATHS_IMAGE_CHUNK_SIZE
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.pathsImageChunkSize = iprot.readI32();
+              struct.setPathsImageChunkSizeIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -539,6 +624,11 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
       oprot.writeFieldBegin(PATH_IMG_NUM_FIELD_DESC);
       oprot.writeI64(struct.pathImgNum);
       oprot.writeFieldEnd();
+      if (struct.isSetPathsImageChunkSize()) {
+        oprot.writeFieldBegin(PATHS_IMAGE_CHUNK_SIZE_FIELD_DESC);
+        oprot.writeI32(struct.pathsImageChunkSize);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -559,6 +649,14 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
       oprot.writeI64(struct.permSeqNum);
       oprot.writeI64(struct.pathSeqNum);
       oprot.writeI64(struct.pathImgNum);
+      BitSet optionals = new BitSet();
+      if (struct.isSetPathsImageChunkSize()) {
+        optionals.set(0);
+      }
+      oprot.writeBitSet(optionals, 1);
+      if (struct.isSetPathsImageChunkSize()) {
+        oprot.writeI32(struct.pathsImageChunkSize);
+      }
     }
 
     @Override
@@ -570,6 +668,11 @@ public class TAuthzUpdateRequest implements org.apache.thrift.TBase<TAuthzUpdate
       struct.setPathSeqNumIsSet(true);
       struct.pathImgNum = iprot.readI64();
       struct.setPathImgNumIsSet(true);
+      BitSet incoming = iprot.readBitSet(1);
+      if (incoming.get(0)) {
+        struct.pathsImageChunkSize = iprot.readI32();
+        struct.setPathsImageChunkSizeIsSet(true);
+      }
     }
   }
 
@@ -43,6 +43,8 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
   private static final org.apache.thrift.protocol.TField SEQ_NUM_FIELD_DESC = new org.apache.thrift.protocol.TField("seqNum", org.apache.thrift.protocol.TType.I64, (short)3);
   private static final org.apache.thrift.protocol.TField PATH_CHANGES_FIELD_DESC = new org.apache.thrift.protocol.TField("pathChanges", org.apache.thrift.protocol.TType.LIST, (short)4);
   private static final org.apache.thrift.protocol.TField IMG_NUM_FIELD_DESC = new org.apache.thrift.protocol.TField("imgNum", org.apache.thrift.protocol.TType.I64, (short)5);
+  private static final org.apache.thrift.protocol.TField PATHS_IMAGE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("pathsImageId", org.apache.thrift.protocol.TType.I64, (short)6);
+  private static final org.apache.thrift.protocol.TField PATHS_IMAGE_SIZE_FIELD_DESC = new org.apache.thrift.protocol.TField("pathsImageSize", org.apache.thrift.protocol.TType.I32, (short)7);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -55,6 +57,8 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
   private long seqNum; // required
   private List<TPathChanges> pathChanges; // required
   private long imgNum; // optional
+  private long pathsImageId; // optional
+  private int pathsImageSize; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -62,7 +66,9 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
     PATHS_DUMP((short)2, "pathsDump"),
     SEQ_NUM((short)3, "seqNum"),
     PATH_CHANGES((short)4, "pathChanges"),
-    IMG_NUM((short)5, "imgNum");
+    IMG_NUM((short)5, "imgNum"),
+    PATHS_IMAGE_ID((short)6, "pathsImageId"),
+    PATHS_IMAGE_SIZE((short)7, "pathsImageSize");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -87,6 +93,10 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
           return PATH_CHANGES;
         case 5: // IMG_NUM
           return IMG_NUM;
+        case 6: // PATHS_IMAGE_ID
+          return PATHS_IMAGE_ID;
+        case 7: // PATHS_IMAGE_SIZE
+          return PATHS_IMAGE_SIZE;
         default:
           return null;
       }
@@ -130,8 +140,10 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
   private static final int __HASFULLIMAGE_ISSET_ID = 0;
   private static final int __SEQNUM_ISSET_ID = 1;
   private static final int __IMGNUM_ISSET_ID = 2;
+  private static final int __PATHSIMAGEID_ISSET_ID = 3;
+  private static final int __PATHSIMAGESIZE_ISSET_ID = 4;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.PATHS_DUMP,_Fields.IMG_NUM};
+  private static final _Fields optionals[] = {_Fields.PATHS_DUMP,_Fields.IMG_NUM,_Fields.PATHS_IMAGE_ID,_Fields.PATHS_IMAGE_SIZE};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -146,6 +158,10 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
             new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TPathChanges.class))));
     tmpMap.put(_Fields.IMG_NUM, new org.apache.thrift.meta_data.FieldMetaData("imgNum", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.PATHS_IMAGE_ID, new org.apache.thrift.meta_data.FieldMetaData("pathsImageId", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.PATHS_IMAGE_SIZE, new org.apache.thrift.meta_data.FieldMetaData("pathsImageSize", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TPathsUpdate.class, metaDataMap);
   }
@@ -186,6 +202,8 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
       this.pathChanges = __this__pathChanges;
     }
     this.imgNum = other.imgNum;
+    this.pathsImageId = other.pathsImageId;
+    this.pathsImageSize = other.pathsImageSize;
   }
 
   public TPathsUpdate deepCopy() {
@@ -202,6 +220,10 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
     this.pathChanges = null;
     this.imgNum = -1L;
 
+    setPathsImageIdIsSet(false);
+    this.pathsImageId = 0;
+    setPathsImageSizeIsSet(false);
+    this.pathsImageSize = 0;
   }
 
   public boolean isHasFullImage() {
@@ -331,6 +353,50 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
     __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __IMGNUM_ISSET_ID, value);
   }
 
+  public long getPathsImageId() {
+    return this.pathsImageId;
+  }
+
+  public void setPathsImageId(long pathsImageId) {
+    this.pathsImageId = pathsImageId;
+    setPathsImageIdIsSet(true);
+  }
+
+  public void unsetPathsImageId() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PATHSIMAGEID_ISSET_ID);
+  }
+
+  /** Returns true if field pathsImageId is set (has been assigned a value) and false otherwise */
+  public boolean isSetPathsImageId() {
+    return EncodingUtils.testBit(__isset_bitfield, __PATHSIMAGEID_ISSET_ID);
+  }
+
+  public void setPathsImageIdIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PATHSIMAGEID_ISSET_ID, value);
+  }
+
+  public int getPathsImageSize() {
+    return this.pathsImageSize;
+  }
+
+  public void setPathsImageSize(int pathsImageSize) {
+    this.pathsImageSize = pathsImageSize;
+    setPathsImageSizeIsSet(true);
+  }
+
+  public void unsetPathsImageSize() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PATHSIMAGESIZE_ISSET_ID);
+  }
+
+  /** Returns true if field pathsImageSize is set (has been assigned a value) and false otherwise */
+  public boolean isSetPathsImageSize() {
+    return EncodingUtils.testBit(__isset_bitfield, __PATHSIMAGESIZE_ISSET_ID);
+  }
+
+  public void setPathsImageSizeIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PATHSIMAGESIZE_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case HAS_FULL_IMAGE:
@@ -373,6 +439,22 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
       }
       break;
 
+    case PATHS_IMAGE_ID:
+      if (value == null) {
+        unsetPathsImageId();
+      } else {
+        setPathsImageId((Long)value);
+      }
+      break;
+
+    case PATHS_IMAGE_SIZE:
+      if (value == null) {
+        unsetPathsImageSize();
+      } else {
+        setPathsImageSize((Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -393,6 +475,12 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
     case IMG_NUM:
       return getImgNum();
 
+    case PATHS_IMAGE_ID:
+      return getPathsImageId();
+
+    case PATHS_IMAGE_SIZE:
+      return getPathsImageSize();
+
     }
     throw new IllegalStateException();
   }
@@ -414,6 +502,10 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
       return isSetPathChanges();
     case IMG_NUM:
       return isSetImgNum();
+    case PATHS_IMAGE_ID:
+      return isSetPathsImageId();
+    case PATHS_IMAGE_SIZE:
+      return isSetPathsImageSize();
     }
     throw new IllegalStateException();
   }
@@ -476,6 +568,24 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
         return false;
     }
 
+    boolean this_present_pathsImageId = true && this.isSetPathsImageId();
+    boolean that_present_pathsImageId = true && that.isSetPathsImageId();
+    if (this_present_pathsImageId || that_present_pathsImageId) {
+      if (!(this_present_pathsImageId && that_present_pathsImageId))
+        return false;
+      if (this.pathsImageId != that.pathsImageId)
+        return false;
+    }
+
+    boolean this_present_pathsImageSize = true && this.isSetPathsImageSize();
+    boolean that_present_pathsImageSize = true && that.isSetPathsImageSize();
+    if (this_present_pathsImageSize || that_present_pathsImageSize) {
+      if (!(this_present_pathsImageSize && that_present_pathsImageSize))
+        return false;
+      if (this.pathsImageSize != that.pathsImageSize)
+        return false;
+    }
+
     return true;
   }
 
@@ -508,6 +618,16 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
     if (present_imgNum)
       list.add(imgNum);
 
+    boolean present_pathsImageId = true && (isSetPathsImageId());
+    list.add(present_pathsImageId);
+    if (present_pathsImageId)
+      list.add(pathsImageId);
+
+    boolean present_pathsImageSize = true && (isSetPathsImageSize());
+    list.add(present_pathsImageSize);
+    if (present_pathsImageSize)
+      list.add(pathsImageSize);
+
     return list.hashCode();
   }
 
@@ -569,6 +689,26 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetPathsImageId()).compareTo(other.isSetPathsImageId());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPathsImageId()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.pathsImageId, other.pathsImageId);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetPathsImageSize()).compareTo(other.isSetPathsImageSize());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPathsImageSize()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.pathsImageSize, other.pathsImageSize);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -620,6 +760,18 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
       sb.append(this.imgNum);
       first = false;
     }
+    if (isSetPathsImageId()) {
+      if (!first) sb.append(", ");
+      sb.append("pathsImageId:");
+      sb.append(this.pathsImageId);
+      first = false;
+    }
+    if (isSetPathsImageSize()) {
+      if (!first) sb.append(", ");
+      sb.append("pathsImageSize:");
+      sb.append(this.pathsImageSize);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -732,6 +884,22 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 6: // PATHS_IMAGE_ID
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.pathsImageId = iprot.readI64();
+              struct.setPathsImageIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 7: // PATHS_IMAGE_SIZE
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.pathsImageSize = iprot.readI32();
+              struct.setPathsImageSizeIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -775,6 +943,16 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
         oprot.writeI64(struct.imgNum);
         oprot.writeFieldEnd();
       }
+      if (struct.isSetPathsImageId()) {
+        oprot.writeFieldBegin(PATHS_IMAGE_ID_FIELD_DESC);
+        oprot.writeI64(struct.pathsImageId);
+        oprot.writeFieldEnd();
+      }
+      if (struct.isSetPathsImageSize()) {
+        oprot.writeFieldBegin(PATHS_IMAGE_SIZE_FIELD_DESC);
+        oprot.writeI32(struct.pathsImageSize);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -808,13 +986,25 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
       if (struct.isSetImgNum()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetPathsImageId()) {
+        optionals.set(2);
+      }
+      if (struct.isSetPathsImageSize()) {
+        optionals.set(3);
+      }
+      oprot.writeBitSet(optionals, 4);
       if (struct.isSetPathsDump()) {
         struct.pathsDump.write(oprot);
       }
       if (struct.isSetImgNum()) {
         oprot.writeI64(struct.imgNum);
       }
+      if (struct.isSetPathsImageId()) {
+        oprot.writeI64(struct.pathsImageId);
+      }
+      if (struct.isSetPathsImageSize()) {
+        oprot.writeI32(struct.pathsImageSize);
+      }
     }
 
     @Override
@@ -836,7 +1026,7 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
         }
       }
       struct.setPathChangesIsSet(true);
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(4);
       if (incoming.get(0)) {
         struct.pathsDump = new TPathsDump();
         struct.pathsDump.read(iprot);
@@ -846,6 +1036,14 @@ public class TPathsUpdate implements org.apache.thrift.TBase<TPathsUpdate, TPath
         struct.imgNum = iprot.readI64();
         struct.setImgNumIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.pathsImageId = iprot.readI64();
+        struct.setPathsImageIdIsSet(true);
+      }
+      if (incoming.get(3)) {
+        struct.pathsImageSize = iprot.readI32();
+        struct.setPathsImageSizeIsSet(true);
+      }
     }
   }
 
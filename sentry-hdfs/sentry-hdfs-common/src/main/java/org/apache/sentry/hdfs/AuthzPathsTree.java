@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.List;
+
+/**
+ * The modifiable tree of paths behind {@link UpdateableAuthzPaths}. Implementations are
+ * not thread-safe, all updates are made by {@link UpdateableAuthzPaths}.
+ */
+interface AuthzPathsTree extends AuthzPaths {
+
+  /**
+   * Adds paths to an authorizable object. Paths outside of the prefixes are ignored.
+   *
+   * @param authzObj the authorizable object
+   * @param authzObjPathElements the paths, split into segments
+   * @param createNew if false, paths are only added to already known objects
+   */
+  void addPathsToAuthzObject(String authzObj, List<List<String>> authzObjPathElements,
+      boolean createNew);
+
+  /**
+   * Removes paths from an authorizable object, and deletes the entries of the paths
+   * that are no longer associated with any object.
+   */
+  void deletePathsFromAuthzObject(String authzObj, List<List<String>> authzObjPathElements);
+
+  /**
+   * Removes an authorizable object from all of its paths.
+   */
+  void deleteAuthzObject(String authzObj);
+
+  /**
+   * Renames an authorizable object, moving its entry when its path changes as well.
+   */
+  void renameAuthzObject(String oldName, List<List<String>> oldPathElems,
+      String newName, List<List<String>> newPathElems);
+
+  @Override
+  AuthzPathsDumper<? extends AuthzPathsTree> getPathsDump();
+
+  /**
+   * @return all entries of the tree, for logging
+   */
+  String dumpContent();
+}
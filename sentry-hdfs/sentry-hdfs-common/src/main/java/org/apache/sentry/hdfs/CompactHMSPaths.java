@@ -0,0 +1,1067 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.sentry.hdfs.HMSPaths.EntryType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * A non thread-safe implementation of {@link AuthzPaths} with the same behavior as
+ * {@link HMSPaths}, for a large number of paths. Instead of an object with a map of
+ * children and a set of authorizable objects per entry, the tree is kept in a few
+ * primitive arrays indexed by entry id:
+ * <ul>
+ *   <li>path elements are stored once in a dictionary, and entries refer to them by id</li>
+ *   <li>the children of all entries are found in a single open addressing table, keyed by
+ *   parent id and path element id, and linked into a list of siblings for traversals</li>
+ *   <li>authorizable objects are stored once as well, entries refer to them by id</li>
+ * </ul>
+ * An entry takes about 30 bytes this way, instead of the few hundred bytes of an
+ * {@link HMSPaths.Entry}, and lookups neither allocate nor hash anything but the
+ * path elements themselves.
+ * <p>
+ * The ids of entries, path elements and authorizable objects are reused once they are
+ * no longer referenced. As for {@link HMSPaths}, all updates are made by the thread safe
+ * {@link UpdateableAuthzPaths} class.
+ */
+public class CompactHMSPaths implements AuthzPathsTree {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CompactHMSPaths.class);
+
+  static final int NONE = -1;
+  // Marks the entries with more than one authorizable object, see multipleAuthzObjs
+  private static final int MULTIPLE_AUTHZ_OBJS = -2;
+  static final int ROOT = 0;
+  private static final EntryType[] ENTRY_TYPES = EntryType.values();
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final String[] prefixes;
+
+  // Entries, indexed by entry id. The next sibling of a free entry is the next free entry.
+  private int[] parents;
+  private int[] pathElements;
+  private byte[] types;
+  private int[] authzObjs;
+  private int[] firstChildren;
+  private int[] nextSiblings;
+  private int[] prevSiblings;
+  private int entryCapacity;
+  private int nextEntryId;
+  private int freeEntry = NONE;
+  private int entryCount;
+
+  // Entry id -> ids of its authorizable objects, for the few entries that have more than one
+  private final Map<Integer, int[]> multipleAuthzObjs = new HashMap<>();
+
+  private final PathElementDictionary dictionary = new PathElementDictionary();
+  private final ChildTable children = new ChildTable();
+
+  // Authorizable objects are case insensitive, like in HMSPaths
+  private final Map<String, Integer> authzObjIds =
+      new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  private String[] authzObjNames = new String[INITIAL_CAPACITY];
+  // Number of entries that have the object
+  private int[] authzObjRefs = new int[INITIAL_CAPACITY];
+  // Entries of the paths added for the object, null if no paths were added
+  private NodeSet[] authzObjEntries = new NodeSet[INITIAL_CAPACITY];
+  private int nextAuthzObjId;
+  private int[] freeAuthzObjIds = new int[INITIAL_CAPACITY];
+  private int freeAuthzObjIdCount;
+
+  public CompactHMSPaths(String[] pathPrefixes) {
+    boolean rootPrefix = false;
+    // Copy the array to avoid external modification
+    this.prefixes = Arrays.copyOf(pathPrefixes, pathPrefixes.length);
+    for (String pathPrefix : pathPrefixes) {
+      rootPrefix = rootPrefix || pathPrefix.equals(Path.SEPARATOR);
+    }
+    if (rootPrefix && pathPrefixes.length > 1) {
+      throw new IllegalArgumentException(
+          "Root is a path prefix, there cannot be other path prefixes");
+    }
+
+    allocateEntries(INITIAL_CAPACITY);
+    newEntry(NONE, Path.SEPARATOR, rootPrefix ? EntryType.PREFIX : EntryType.DIR);
+    if (!rootPrefix) {
+      for (String pathPrefix : pathPrefixes) {
+        List<String> pathElements = HMSPaths.getPathElements(pathPrefix);
+        int prefix = findPrefixEntry(pathElements);
+        if (prefix != NONE) {
+          throw new IllegalArgumentException(String.format(
+              "%s: cannot add prefix %s under an existing prefix '%s'",
+              this, pathPrefix, getFullPath(prefix)));
+        }
+        createChild(pathElements, EntryType.PREFIX, NONE);
+      }
+    }
+    LOG.info("Sentry managed prefixes: " + Arrays.toString(prefixes));
+  }
+
+  @Override
+  public void addPathsToAuthzObject(String authzObj,
+      List<List<String>> authzObjPathElements, boolean createNew) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(String.format("%s addPathsToAuthzObject(%s, %s, %b)",
+          this, authzObj, HMSPaths.assemblePaths(authzObjPathElements), createNew));
+    }
+    int authzObjId = findAuthzObjId(authzObj);
+    NodeSet entries = authzObjId != NONE ? authzObjEntries[authzObjId] : null;
+    if (entries != null) {
+      for (List<String> pathElements : authzObjPathElements) {
+        int entry = createAuthzObjPath(pathElements, authzObjId);
+        if (entry != NONE) {
+          entries.add(entry);
+        }
+      }
+    } else if (createNew) {
+      addAuthzObject(authzObj, authzObjPathElements);
+    } else {
+      LOG.warn(String.format("%s addPathsToAuthzObject(%s, %s, %b):" +
+          " Path was not added to AuthzObject, could not find key in authzObjToPath",
+          this, authzObj, HMSPaths.assemblePaths(authzObjPathElements), createNew));
+    }
+  }
+
+  @VisibleForTesting
+  void addAuthzObject(String authzObj, List<List<String>> authzObjPathElements) {
+    int authzObjId = acquireAuthzObjId(authzObj);
+    NodeSet previousEntries = authzObjEntries[authzObjId];
+    NodeSet newEntries = new NodeSet(authzObjPathElements.size());
+    authzObjEntries[authzObjId] = newEntries;
+    for (List<String> pathElements : authzObjPathElements) {
+      int entry = createAuthzObjPath(pathElements, authzObjId);
+      if (entry != NONE) {
+        newEntries.add(entry);
+      } else {
+        LOG.warn(String.format("%s addAuthzObject(%s, %s):" +
+            " Ignoring path %s, no prefix",
+            this, authzObj, HMSPaths.assemblePaths(authzObjPathElements), pathElements));
+      }
+    }
+    if (previousEntries != null) {
+      for (int entry : previousEntries.toArray()) {
+        if (!newEntries.contains(entry)) {
+          deleteAuthzObject(entry, authzObjId);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void deletePathsFromAuthzObject(String authzObj,
+      List<List<String>> authzObjPathElements) {
+    int authzObjId = findAuthzObjId(authzObj);
+    NodeSet entries = authzObjId != NONE ? authzObjEntries[authzObjId] : null;
+    if (entries == null) {
+      LOG.warn(String.format("%s deletePathsFromAuthzObject(%s, %s):" +
+          " Path was not deleted from AuthzObject, could not find key in authzObjToPath",
+          this, authzObj, HMSPaths.assemblePaths(authzObjPathElements)));
+      return;
+    }
+    for (List<String> pathElements : authzObjPathElements) {
+      int entry = find(pathElements.toArray(new String[pathElements.size()]), false);
+      if (entry != NONE) {
+        entries.remove(entry);
+        deleteAuthzObject(entry, authzObjId);
+      } else {
+        LOG.warn(String.format("%s deletePathsFromAuthzObject(%s, %s):" +
+            " Path %s was not deleted from AuthzObject, path not registered." +
+            " This is possible for implicit partition locations",
+            this, authzObj, HMSPaths.assemblePaths(authzObjPathElements), pathElements));
+      }
+    }
+    if (entries.size() == 0) {
+      authzObjEntries[authzObjId] = null;
+      releaseAuthzObjIdIfUnused(authzObjId);
+    }
+  }
+
+  @Override
+  public void deleteAuthzObject(String authzObj) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(String.format("%s deleteAuthzObject(%s)", this, authzObj));
+    }
+    int authzObjId = findAuthzObjId(authzObj);
+    if (authzObjId == NONE || authzObjEntries[authzObjId] == null) {
+      return;
+    }
+    int[] entries = authzObjEntries[authzObjId].toArray();
+    authzObjEntries[authzObjId] = null;
+    for (int entry : entries) {
+      deleteAuthzObject(entry, authzObjId);
+    }
+    releaseAuthzObjIdIfUnused(authzObjId);
+  }
+
+  @Override
+  public void renameAuthzObject(String oldName, List<List<String>> oldPathElems,
+      String newName, List<List<String>> newPathElems) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(String.format("%s renameAuthzObject({%s, %s} -> {%s, %s})",
+          this, oldName, HMSPaths.assemblePaths(oldPathElems), newName,
+          HMSPaths.assemblePaths(newPathElems)));
+    }
+    if (oldPathElems == null || oldPathElems.isEmpty() ||
+        newPathElems == null || newPathElems.isEmpty() ||
+        newName == null || newName.equals(oldName)) {
+      LOG.warn(String.format("%s renameAuthzObject({%s, %s} -> {%s, %s})" +
+          ": invalid inputs, skipping",
+          this, oldName, HMSPaths.assemblePaths(oldPathElems), newName,
+          HMSPaths.assemblePaths(newPathElems)));
+      return;
+    }
+
+    // if oldPath == newPath, that is path has not changed as part of rename and hence new table
+    // needs to have old paths => new_table.add(old_table_partition_paths)
+    List<String> oldPathElements = oldPathElems.get(0);
+    List<String> newPathElements = newPathElems.get(0);
+    if (!oldPathElements.equals(newPathElements)) {
+      int oldEntry = find(oldPathElements.toArray(new String[0]), false);
+      int newParent = createParent(newPathElements);
+      if (oldEntry == NONE) {
+        LOG.warn(String.format("%s Moving old paths for renameAuthzObject({%s, %s} -> {%s, %s})" +
+            " is skipped. Cannot find entry for old name",
+            this, oldName, HMSPaths.assemblePaths(oldPathElems), newName,
+            HMSPaths.assemblePaths(newPathElems)));
+      } else {
+        moveTo(oldEntry, newParent, newPathElements.get(newPathElements.size() - 1));
+      }
+    }
+
+    // Re-write authObj from oldName to newName.
+    int oldId = findAuthzObjId(oldName);
+    NodeSet entries = oldId != NONE ? authzObjEntries[oldId] : null;
+    if (entries == null) {
+      LOG.warn(String.format("%s renameAuthzObject({%s, %s} -> {%s, %s}):" +
+          " cannot find oldName %s in authzObjToPath",
+          this, oldName, HMSPaths.assemblePaths(oldPathElems), newName,
+          HMSPaths.assemblePaths(newPathElems), oldName));
+      return;
+    }
+    int newId = acquireAuthzObjId(newName);
+    if (newId == oldId) {
+      // The names only differ in case
+      authzObjIds.remove(oldName);
+      authzObjIds.put(newName, newId);
+      authzObjNames[newId] = newName;
+      return;
+    }
+    NodeSet newEntries = authzObjEntries[newId];
+    if (newEntries == null) {
+      authzObjEntries[newId] = newEntries = new NodeSet(entries.size());
+    }
+    authzObjEntries[oldId] = null;
+    for (int entry : entries.toArray()) {
+      addAuthzObj(entry, newId);
+      newEntries.add(entry);
+      if (hasAuthzObj(entry, oldId)) {
+        removeAuthzObj(entry, oldId);
+      } else {
+        LOG.warn(String.format("%s renameAuthzObject({%s, %s} -> {%s, %s}):" +
+            " Unexpected state: authzObjToPath has an " +
+            "entry %s where one of the authz objects does not have oldName",
+            this, oldName, HMSPaths.assemblePaths(oldPathElems), newName,
+            HMSPaths.assemblePaths(newPathElems), entryToString(entry)));
+      }
+    }
+    releaseAuthzObjIdIfUnused(oldId);
+  }
+
+  @Override
+  public boolean isUnderPrefix(String[] pathElements) {
+    return findPrefixEntry(Arrays.asList(pathElements)) != NONE;
+  }
+
+  @Override
+  public Set<String> findAuthzObject(String[] pathElements) {
+    return findAuthzObject(pathElements, true);
+  }
+
+  @Override
+  public Set<String> findAuthzObjectExactMatches(String[] pathElements) {
+    return findAuthzObject(pathElements, false);
+  }
+
+  /**
+   * @see HMSPaths#findAuthzObject(String[], boolean)
+   */
+  public Set<String> findAuthzObject(String[] pathElements, boolean isPartialOk) {
+    // Handle '/'
+    if (pathElements == null || pathElements.length == 0) {
+      return null;
+    }
+    int entry = find(pathElements, isPartialOk);
+    return entry != NONE ? getAuthzObjs(entry) : null;
+  }
+
+  @Override
+  public CompactHMSPathsDumper getPathsDump() {
+    return new CompactHMSPathsDumper(this);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s:%s", getClass().getSimpleName(), Arrays.toString(prefixes));
+  }
+
+  @Override
+  public String dumpContent() {
+    List<String> entries = new ArrayList<>(entryCount);
+    collectEntries(ROOT, entries);
+    return toString() + ": " + entries;
+  }
+
+  private void collectEntries(int entry, List<String> entries) {
+    entries.add(entryToString(entry));
+    for (int child = firstChildren[entry]; child != NONE; child = nextSiblings[child]) {
+      collectEntries(child, entries);
+    }
+  }
+
+  // Used by the serializer
+  String[] getPrefixes() {
+    return prefixes;
+  }
+
+  int getEntryCount() {
+    return entryCount;
+  }
+
+  int getFirstChild(int entry) {
+    return firstChildren[entry];
+  }
+
+  int getNextSibling(int entry) {
+    return nextSiblings[entry];
+  }
+
+  EntryType getType(int entry) {
+    return ENTRY_TYPES[types[entry]];
+  }
+
+  String getPathElement(int entry) {
+    return dictionary.get(pathElements[entry]);
+  }
+
+  int getPathElementId(int entry) {
+    return pathElements[entry];
+  }
+
+  /**
+   * @return the number of entries with the same path element as the given entry
+   */
+  int getPathElementRefs(int entry) {
+    return dictionary.getRefs(pathElements[entry]);
+  }
+
+  int getPathElementIdCapacity() {
+    return dictionary.getIdCapacity();
+  }
+
+  /**
+   * @return the child of an entry with the given path element, or {@link #NONE}
+   */
+  int getChild(int parent, String pathElement) {
+    int pathElementId = dictionary.find(pathElement);
+    return pathElementId != NONE ? children.find(parent, pathElementId) : NONE;
+  }
+
+  /**
+   * Adds a new child to an entry, which must not have a child with the same path element.
+   */
+  int addChild(int parent, String pathElement, EntryType type) {
+    return newEntry(parent, pathElement, type);
+  }
+
+  /**
+   * Adds an authorizable object to an entry, and the entry to the paths of the object.
+   */
+  void addAuthzObjPath(int entry, String authzObj) {
+    int authzObjId = acquireAuthzObjId(authzObj);
+    addAuthzObj(entry, authzObjId);
+    NodeSet entries = authzObjEntries[authzObjId];
+    if (entries == null) {
+      authzObjEntries[authzObjId] = entries = new NodeSet(1);
+    }
+    entries.add(entry);
+  }
+
+  boolean hasAuthzObjs(int entry) {
+    return authzObjs[entry] != NONE;
+  }
+
+  /**
+   * @return the authorizable objects of an entry. The returned set must not be modified.
+   */
+  Set<String> getAuthzObjs(int entry) {
+    int authzObjId = authzObjs[entry];
+    if (authzObjId == NONE) {
+      return Collections.emptySet();
+    } else if (authzObjId != MULTIPLE_AUTHZ_OBJS) {
+      return Collections.singleton(authzObjNames[authzObjId]);
+    }
+    Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    for (int id : multipleAuthzObjs.get(entry)) {
+      result.add(authzObjNames[id]);
+    }
+    return result;
+  }
+
+  // Tree operations, following the ones of HMSPaths.Entry
+
+  private int findPrefixEntry(List<String> pathElements) {
+    Preconditions.checkArgument(pathElements != null, "pathElements cannot be NULL");
+    if (types[ROOT] == EntryType.PREFIX.ordinal()) {
+      return ROOT;
+    }
+    int entry = ROOT;
+    for (String pathElement : pathElements) {
+      entry = getChild(entry, pathElement);
+      if (entry == NONE || types[entry] == EntryType.PREFIX.ordinal()) {
+        return entry;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Finds the entry of a path, or the closest of its ancestors with authorizable objects.
+   * Ancestors are only considered when the path does not exist if isPartialMatchOk is true.
+   */
+  private int find(String[] pathElements, boolean isPartialMatchOk) {
+    Preconditions.checkArgument(pathElements != null && pathElements.length > 0,
+        "pathElements cannot be NULL or empty");
+    int entry = ROOT;
+    int lastAuthzObjEntry = NONE;
+    for (String pathElement : pathElements) {
+      entry = getChild(entry, pathElement);
+      if (entry == NONE) {
+        return isPartialMatchOk ? lastAuthzObjEntry : NONE;
+      }
+      if (hasAuthzObjs(entry)) {
+        lastAuthzObjEntry = entry;
+      }
+    }
+    return lastAuthzObjEntry;
+  }
+
+  /**
+   * Creates all missing parent entries of a path, and returns the direct parent.
+   */
+  private int createParent(List<String> pathElements) {
+    int parent = ROOT;
+    for (int i = 0; i < pathElements.size() - 1; i++) {
+      String pathElement = pathElements.get(i);
+      int child = getChild(parent, pathElement);
+      if (child == NONE) {
+        child = newEntry(parent, pathElement, EntryType.DIR);
+      }
+      parent = child;
+    }
+    return parent;
+  }
+
+  private int createChild(List<String> pathElements, EntryType type, int authzObjId) {
+    int parent = createParent(pathElements);
+    String lastPathElement = pathElements.get(pathElements.size() - 1);
+    int child = getChild(parent, lastPathElement);
+
+    // Create the child entry if not found. If found and the entry is
+    // already a prefix or authzObj type, then only add the authzObj.
+    // If the entry already existed as dir, we change it to be a authzObj,
+    // and add the authzObj.
+    if (child == NONE) {
+      child = newEntry(parent, lastPathElement, type);
+      addAuthzObj(child, authzObjId);
+    } else if (type == EntryType.AUTHZ_OBJECT) {
+      EntryType childType = getType(child);
+      if (childType == EntryType.PREFIX || childType == EntryType.AUTHZ_OBJECT) {
+        addAuthzObj(child, authzObjId);
+      } else if (childType == EntryType.DIR) {
+        addAuthzObj(child, authzObjId);
+        types[child] = (byte) EntryType.AUTHZ_OBJECT.ordinal();
+      }
+    }
+    return child;
+  }
+
+  private int createAuthzObjPath(List<String> pathElements, int authzObjId) {
+    // we only create the entry if is under a prefix, else we ignore it
+    if (findPrefixEntry(pathElements) != NONE) {
+      return createChild(pathElements, EntryType.AUTHZ_OBJECT, authzObjId);
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(String.format("%s createAuthzObjPath(%s, %s): outside of prefix, skipping",
+          this, authzObjNames[authzObjId], pathElements));
+    }
+    return NONE;
+  }
+
+  private void deleteAuthzObject(int entry, int authzObjId) {
+    if (!hasAuthzObj(entry, authzObjId) || parents[entry] == NONE) {
+      return;
+    }
+    if (firstChildren[entry] == NONE) {
+      // Remove the authzObj on the path entry. If the path
+      // entry no longer maps to any authzObj, removes the
+      // entry recursively.
+      removeAuthzObj(entry, authzObjId);
+      if (!hasAuthzObjs(entry)) {
+        deleteFromParent(entry);
+      }
+    } else if (types[entry] == EntryType.AUTHZ_OBJECT.ordinal()) {
+      // if the entry was for an authz object and has children, we
+      // change it to be a dir entry. And remove the authzObj on
+      // the path entry.
+      removeAuthzObj(entry, authzObjId);
+      if (!hasAuthzObjs(entry)) {
+        types[entry] = (byte) EntryType.DIR.ordinal();
+      }
+    }
+  }
+
+  private void deleteFromParent(int entry) {
+    int parent = parents[entry];
+    if (parent == NONE) {
+      LOG.warn("Parent for {} not found", entryToString(entry));
+      return;
+    }
+    unlink(entry);
+    freeEntry(entry);
+    deleteIfDangling(parent);
+  }
+
+  private void deleteIfDangling(int entry) {
+    if (firstChildren[entry] == NONE && getType(entry).isRemoveIfDangling()) {
+      delete(entry);
+    }
+  }
+
+  private void delete(int entry) {
+    if (parents[entry] == NONE) {
+      return;
+    }
+    if (firstChildren[entry] == NONE) {
+      deleteFromParent(entry);
+    } else if (types[entry] == EntryType.AUTHZ_OBJECT.ordinal()) {
+      // if the entry was for an authz object and has children, we
+      // change it to be a dir entry.
+      types[entry] = (byte) EntryType.DIR.ordinal();
+      clearAuthzObjs(entry);
+    }
+  }
+
+  /**
+   * Moves an entry and its subtree under a new parent. Unlike HMSPaths, the entry is added
+   * to the new parent before the old parent is checked for being dangling, so that the
+   * new parent is never removed in between.
+   */
+  private void moveTo(int entry, int newParent, String pathElement) {
+    Preconditions.checkArgument(!pathElement.isEmpty());
+    if (getChild(newParent, pathElement) != NONE) {
+      LOG.warn(String.format(
+          "Attempt to move %s to %s: entry with the same name %s already exists",
+          entryToString(entry), entryToString(newParent), pathElement));
+      return;
+    }
+    int oldParent = parents[entry];
+    unlink(entry);
+    dictionary.release(pathElements[entry]);
+    pathElements[entry] = dictionary.acquire(pathElement);
+    link(newParent, entry);
+    if (oldParent != NONE) {
+      deleteIfDangling(oldParent);
+    }
+  }
+
+  private String getFullPath(int entry) {
+    if (parents[entry] == NONE) {
+      return Path.SEPARATOR;
+    }
+    StringBuilder sb = new StringBuilder();
+    appendFullPath(entry, sb);
+    return sb.toString();
+  }
+
+  private void appendFullPath(int entry, StringBuilder sb) {
+    if (parents[entry] != NONE) {
+      appendFullPath(parents[entry], sb);
+      sb.append(Path.SEPARATOR).append(getPathElement(entry));
+    }
+  }
+
+  private String entryToString(int entry) {
+    StringBuilder authzObjsStr = new StringBuilder();
+    for (String authzObj : getAuthzObjs(entry)) {
+      if (authzObjsStr.length() > 0) {
+        authzObjsStr.append(",");
+      }
+      authzObjsStr.append(authzObj);
+    }
+    return String.format("Entry[%s:%s -> authObj: %s]",
+        getType(entry), getFullPath(entry), authzObjsStr);
+  }
+
+  // Entry storage
+
+  private void allocateEntries(int capacity) {
+    parents = Arrays.copyOf(parents != null ? parents : new int[0], capacity);
+    pathElements = Arrays.copyOf(pathElements != null ? pathElements : new int[0], capacity);
+    types = Arrays.copyOf(types != null ? types : new byte[0], capacity);
+    authzObjs = Arrays.copyOf(authzObjs != null ? authzObjs : new int[0], capacity);
+    firstChildren = Arrays.copyOf(firstChildren != null ? firstChildren : new int[0], capacity);
+    nextSiblings = Arrays.copyOf(nextSiblings != null ? nextSiblings : new int[0], capacity);
+    prevSiblings = Arrays.copyOf(prevSiblings != null ? prevSiblings : new int[0], capacity);
+    entryCapacity = capacity;
+  }
+
+  private int newEntry(int parent, String pathElement, EntryType type) {
+    int entry;
+    if (freeEntry != NONE) {
+      entry = freeEntry;
+      freeEntry = nextSiblings[entry];
+    } else {
+      if (nextEntryId == entryCapacity) {
+        allocateEntries(entryCapacity + (entryCapacity >> 1));
+      }
+      entry = nextEntryId++;
+    }
+    pathElements[entry] = dictionary.acquire(pathElement);
+    types[entry] = (byte) type.ordinal();
+    authzObjs[entry] = NONE;
+    firstChildren[entry] = NONE;
+    parents[entry] = NONE;
+    nextSiblings[entry] = NONE;
+    prevSiblings[entry] = NONE;
+    if (parent != NONE) {
+      link(parent, entry);
+    }
+    entryCount++;
+    return entry;
+  }
+
+  private void freeEntry(int entry) {
+    // Entries are only deleted once they have no authorizable objects left,
+    // this only guards the ids of the objects against stale references
+    clearAuthzObjs(entry);
+    dictionary.release(pathElements[entry]);
+    pathElements[entry] = NONE;
+    nextSiblings[entry] = freeEntry;
+    freeEntry = entry;
+    entryCount--;
+  }
+
+  private void link(int parent, int entry) {
+    parents[entry] = parent;
+    int next = firstChildren[parent];
+    nextSiblings[entry] = next;
+    prevSiblings[entry] = NONE;
+    if (next != NONE) {
+      prevSiblings[next] = entry;
+    }
+    firstChildren[parent] = entry;
+    children.add(entry);
+  }
+
+  private void unlink(int entry) {
+    // Remove it from the table while its key is still valid
+    children.remove(entry);
+    int prev = prevSiblings[entry];
+    int next = nextSiblings[entry];
+    if (prev != NONE) {
+      nextSiblings[prev] = next;
+    } else {
+      firstChildren[parents[entry]] = next;
+    }
+    if (next != NONE) {
+      prevSiblings[next] = prev;
+    }
+    parents[entry] = NONE;
+    nextSiblings[entry] = NONE;
+    prevSiblings[entry] = NONE;
+  }
+
+  // Authorizable objects of entries
+
+  private boolean hasAuthzObj(int entry, int authzObjId) {
+    int current = authzObjs[entry];
+    if (current == MULTIPLE_AUTHZ_OBJS) {
+      for (int id : multipleAuthzObjs.get(entry)) {
+        if (id == authzObjId) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return current == authzObjId && authzObjId != NONE;
+  }
+
+  private void addAuthzObj(int entry, int authzObjId) {
+    if (authzObjId == NONE || hasAuthzObj(entry, authzObjId)) {
+      return;
+    }
+    int current = authzObjs[entry];
+    if (current == NONE) {
+      authzObjs[entry] = authzObjId;
+    } else if (current == MULTIPLE_AUTHZ_OBJS) {
+      int[] ids = multipleAuthzObjs.get(entry);
+      ids = Arrays.copyOf(ids, ids.length + 1);
+      ids[ids.length - 1] = authzObjId;
+      multipleAuthzObjs.put(entry, ids);
+    } else {
+      authzObjs[entry] = MULTIPLE_AUTHZ_OBJS;
+      multipleAuthzObjs.put(entry, new int[] { current, authzObjId });
+    }
+    authzObjRefs[authzObjId]++;
+  }
+
+  private void removeAuthzObj(int entry, int authzObjId) {
+    int current = authzObjs[entry];
+    if (current == MULTIPLE_AUTHZ_OBJS) {
+      int[] ids = multipleAuthzObjs.get(entry);
+      int index = 0;
+      while (index < ids.length && ids[index] != authzObjId) {
+        index++;
+      }
+      if (index == ids.length) {
+        return;
+      }
+      if (ids.length == 2) {
+        multipleAuthzObjs.remove(entry);
+        authzObjs[entry] = ids[1 - index];
+      } else {
+        int[] remaining = new int[ids.length - 1];
+        System.arraycopy(ids, 0, remaining, 0, index);
+        System.arraycopy(ids, index + 1, remaining, index, remaining.length - index);
+        multipleAuthzObjs.put(entry, remaining);
+      }
+    } else if (current == authzObjId && current != NONE) {
+      authzObjs[entry] = NONE;
+    } else {
+      return;
+    }
+    authzObjRefs[authzObjId]--;
+    releaseAuthzObjIdIfUnused(authzObjId);
+  }
+
+  /**
+   * Removes all authorizable objects of an entry, and the entry from the paths of the objects.
+   */
+  private void clearAuthzObjs(int entry) {
+    int current = authzObjs[entry];
+    if (current == NONE) {
+      return;
+    }
+    int[] ids = current == MULTIPLE_AUTHZ_OBJS
+        ? multipleAuthzObjs.remove(entry) : new int[] { current };
+    authzObjs[entry] = NONE;
+    for (int id : ids) {
+      if (authzObjEntries[id] != null) {
+        authzObjEntries[id].remove(entry);
+      }
+      authzObjRefs[id]--;
+      releaseAuthzObjIdIfUnused(id);
+    }
+  }
+
+  // Authorizable object ids
+
+  private int findAuthzObjId(String authzObj) {
+    Integer id = authzObjIds.get(authzObj);
+    return id != null ? id : NONE;
+  }
+
+  private int acquireAuthzObjId(String authzObj) {
+    int id = findAuthzObjId(authzObj);
+    if (id != NONE) {
+      return id;
+    }
+    if (freeAuthzObjIdCount > 0) {
+      id = freeAuthzObjIds[--freeAuthzObjIdCount];
+    } else {
+      id = nextAuthzObjId++;
+      if (id == authzObjNames.length) {
+        int capacity = id + (id >> 1);
+        authzObjNames = Arrays.copyOf(authzObjNames, capacity);
+        authzObjRefs = Arrays.copyOf(authzObjRefs, capacity);
+        authzObjEntries = Arrays.copyOf(authzObjEntries, capacity);
+      }
+    }
+    authzObjNames[id] = authzObj;
+    authzObjIds.put(authzObj, id);
+    return id;
+  }
+
+  private void releaseAuthzObjIdIfUnused(int id) {
+    if (authzObjNames[id] == null || authzObjRefs[id] > 0 || authzObjEntries[id] != null) {
+      return;
+    }
+    authzObjIds.remove(authzObjNames[id]);
+    authzObjNames[id] = null;
+    if (freeAuthzObjIdCount == freeAuthzObjIds.length) {
+      freeAuthzObjIds = Arrays.copyOf(freeAuthzObjIds, freeAuthzObjIdCount * 2);
+    }
+    freeAuthzObjIds[freeAuthzObjIdCount++] = id;
+  }
+
+  private static int[] newSlots(int capacity) {
+    int[] slots = new int[capacity];
+    Arrays.fill(slots, NONE);
+    return slots;
+  }
+
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Open addressing hash table of ids, with linear probing. The keys are not stored but
+   * derived from the ids, so that every slot takes a single int.
+   */
+  private abstract static class IdTable {
+    private int[] slots;
+    private int size;
+
+    IdTable(int expectedSize) {
+      int capacity = 4;
+      while (capacity * 3 < expectedSize * 4) {
+        capacity <<= 1;
+      }
+      slots = newSlots(capacity);
+    }
+
+    abstract int hashOf(int id);
+
+    final int firstSlot(int hash) {
+      return mix(hash) & (slots.length - 1);
+    }
+
+    final int nextSlot(int slot) {
+      return (slot + 1) & (slots.length - 1);
+    }
+
+    final int idAt(int slot) {
+      return slots[slot];
+    }
+
+    final int size() {
+      return size;
+    }
+
+    final boolean contains(int id) {
+      for (int slot = firstSlot(hashOf(id)); slots[slot] != NONE; slot = nextSlot(slot)) {
+        if (slots[slot] == id) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Adds an id, unless the table already contains it.
+     */
+    final void add(int id) {
+      if (contains(id)) {
+        return;
+      }
+      if ((size + 1) * 4 > slots.length * 3) {
+        int[] oldSlots = slots;
+        slots = newSlots(oldSlots.length * 2);
+        for (int oldId : oldSlots) {
+          if (oldId != NONE) {
+            insert(oldId);
+          }
+        }
+      }
+      insert(id);
+      size++;
+    }
+
+    private void insert(int id) {
+      int slot = firstSlot(hashOf(id));
+      while (slots[slot] != NONE) {
+        slot = nextSlot(slot);
+      }
+      slots[slot] = id;
+    }
+
+    final void remove(int id) {
+      int slot = firstSlot(hashOf(id));
+      while (slots[slot] != id) {
+        if (slots[slot] == NONE) {
+          return;
+        }
+        slot = nextSlot(slot);
+      }
+      // Move back the ids that follow in the probe sequence, so that no lookup
+      // stops early at the emptied slot
+      int mask = slots.length - 1;
+      int empty = slot;
+      for (int next = nextSlot(slot); slots[next] != NONE; next = nextSlot(next)) {
+        int home = firstSlot(hashOf(slots[next]));
+        if (((next - home) & mask) >= ((next - empty) & mask)) {
+          slots[empty] = slots[next];
+          empty = next;
+        }
+      }
+      slots[empty] = NONE;
+      size--;
+    }
+
+    final int[] toArray() {
+      int[] ids = new int[size];
+      int i = 0;
+      for (int id : slots) {
+        if (id != NONE) {
+          ids[i++] = id;
+        }
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * A set of entry ids.
+   */
+  private static final class NodeSet extends IdTable {
+    NodeSet(int expectedSize) {
+      super(expectedSize);
+    }
+
+    @Override
+    int hashOf(int id) {
+      return id;
+    }
+  }
+
+  /**
+   * The children of all entries, keyed by parent id and path element id.
+   */
+  private final class ChildTable extends IdTable {
+    ChildTable() {
+      super(INITIAL_CAPACITY);
+    }
+
+    @Override
+    int hashOf(int entry) {
+      return hash(parents[entry], pathElements[entry]);
+    }
+
+    int find(int parent, int pathElement) {
+      for (int slot = firstSlot(hash(parent, pathElement)); ; slot = nextSlot(slot)) {
+        int entry = idAt(slot);
+        if (entry == NONE
+            || (parents[entry] == parent && pathElements[entry] == pathElement)) {
+          return entry;
+        }
+      }
+    }
+
+    private int hash(int parent, int pathElement) {
+      return parent * 31 + pathElement;
+    }
+  }
+
+  /**
+   * Path elements, each stored once, with the number of entries that refer to them.
+   */
+  private static final class PathElementDictionary extends IdTable {
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] refs = new int[INITIAL_CAPACITY];
+    private int nextId;
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount;
+
+    PathElementDictionary() {
+      super(INITIAL_CAPACITY);
+    }
+
+    @Override
+    int hashOf(int id) {
+      return names[id].hashCode();
+    }
+
+    int find(String name) {
+      for (int slot = firstSlot(name.hashCode()); ; slot = nextSlot(slot)) {
+        int id = idAt(slot);
+        if (id == NONE || names[id].equals(name)) {
+          return id;
+        }
+      }
+    }
+
+    int acquire(String name) {
+      int id = find(name);
+      if (id == NONE) {
+        if (freeIdCount > 0) {
+          id = freeIds[--freeIdCount];
+        } else {
+          id = nextId++;
+          if (id == names.length) {
+            names = Arrays.copyOf(names, id + (id >> 1));
+            refs = Arrays.copyOf(refs, names.length);
+          }
+        }
+        names[id] = name;
+        add(id);
+      }
+      refs[id]++;
+      return id;
+    }
+
+    void release(int id) {
+      if (--refs[id] > 0) {
+        return;
+      }
+      remove(id);
+      names[id] = null;
+      if (freeIdCount == freeIds.length) {
+        freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+      }
+      freeIds[freeIdCount++] = id;
+    }
+
+    String get(int id) {
+      return names[id];
+    }
+
+    int getRefs(int id) {
+      return refs[id];
+    }
+
+    int getIdCapacity() {
+      return nextId;
+    }
+  }
+}
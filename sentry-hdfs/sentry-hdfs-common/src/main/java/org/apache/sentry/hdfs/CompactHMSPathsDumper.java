@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import static org.apache.sentry.hdfs.CompactHMSPaths.NONE;
+import static org.apache.sentry.hdfs.CompactHMSPaths.ROOT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sentry.hdfs.HMSPaths.EntryType;
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
+import org.apache.sentry.hdfs.service.thrift.TPathsDump;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the same {@link TPathsDump} messages as {@link HMSPathsDumper}, so that
+ * {@link CompactHMSPaths} and {@link HMSPaths} can be used on either side of the wire.
+ * <p>
+ * Since path elements are already stored once in {@link CompactHMSPaths}, duplicate
+ * strings are found from the number of entries using each of them, instead of a
+ * separate pass over the tree.
+ */
+public class CompactHMSPathsDumper implements AuthzPathsDumper<CompactHMSPaths> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CompactHMSPathsDumper.class);
+
+  // Same thresholds as HMSPathsDumper: strings that are not longer than the average
+  // replacement ID, or that are not repeated, are not replaced
+  private static final int AVG_ID_LENGTH = 4;
+  private static final int MIN_NUM_DUPLICATES = 2;
+
+  private final CompactHMSPaths paths;
+
+  public CompactHMSPathsDumper(CompactHMSPaths paths) {
+    this.paths = paths;
+  }
+
+  @Override
+  public TPathsDump createPathsDump(boolean minimizeSize) {
+    DupStrings dups = minimizeSize ? new DupStrings(paths.getPathElementIdCapacity()) : null;
+    AtomicInteger counter = new AtomicInteger(0);
+    Map<Integer, TPathEntry> idMap = new HashMap<>(paths.getEntryCount() * 4 / 3 + 1);
+    int rootId = cloneToTPathEntry(ROOT, counter, idMap, dups);
+    TPathsDump dump = new TPathsDump(rootId, idMap);
+
+    String stringDupMsg = "";
+    if (minimizeSize) {
+      dump.setDupStringValues(dups.values);
+      stringDupMsg = String.format(" %d total path strings, %d duplicate strings found, " +
+          "compacted to %d unique strings.", counter.get(), dups.nDupStrings,
+          dups.values.size());
+    }
+    LOG.info("Paths Dump created." + stringDupMsg);
+    return dump;
+  }
+
+  private int cloneToTPathEntry(int entry, AtomicInteger idCounter,
+      Map<Integer, TPathEntry> idMap, DupStrings dups) {
+    int myId = idCounter.incrementAndGet();
+    int child = paths.getFirstChild(entry);
+    List<Integer> children = child != NONE ?
+        new ArrayList<Integer>() : Collections.<Integer>emptyList();
+    String pathElement = dups != null ?
+        dups.getReplacementString(entry) : paths.getPathElement(entry);
+    TPathEntry tEntry = new TPathEntry(paths.getType(entry).getByte(), pathElement, children);
+    if (paths.hasAuthzObjs(entry)) {
+      tEntry.setAuthzObjs(new ArrayList<>(paths.getAuthzObjs(entry)));
+    }
+    idMap.put(myId, tEntry);
+    for (; child != NONE; child = paths.getNextSibling(child)) {
+      tEntry.addToChildren(cloneToTPathEntry(child, idCounter, idMap, dups));
+    }
+    return myId;
+  }
+
+  @Override
+  public CompactHMSPaths initializeFromDump(TPathsDump pathDump) {
+    CompactHMSPaths newPaths = new CompactHMSPaths(paths.getPrefixes());
+    TPathEntry tRootEntry = pathDump.getNodeMap().get(pathDump.getRootId());
+    cloneToEntry(newPaths, tRootEntry, ROOT, pathDump.getNodeMap(),
+        pathDump.getDupStringValues(), newPaths.getType(ROOT) == EntryType.PREFIX);
+    return newPaths;
+  }
+
+  private void cloneToEntry(CompactHMSPaths newPaths, TPathEntry tParent, int parent,
+      Map<Integer, TPathEntry> idMap, List<String> dupStringValues,
+      boolean hasCrossedPrefix) {
+    for (Integer id : tParent.getChildren()) {
+      TPathEntry tChild = idMap.get(id);
+
+      String tChildPathElement = tChild.getPathElement();
+      if (!tChildPathElement.isEmpty() &&
+          tChildPathElement.charAt(0) == HMSPathsDumper.REPLACEMENT_STRING_PREFIX) {
+        int dupStrIdx = Integer.parseInt(tChildPathElement.substring(1), 16);
+        tChildPathElement = dupStringValues.get(dupStrIdx);
+      }
+
+      int child = newPaths.getChild(parent, tChildPathElement);
+      boolean isChildPrefix = hasCrossedPrefix;
+      if (!hasCrossedPrefix) {
+        // If we haven't reached a prefix entry yet, then child should
+        // already exists.. else it is not part of the prefix
+        if (child == NONE) {
+          continue;
+        }
+        isChildPrefix = newPaths.getType(child) == EntryType.PREFIX;
+      }
+      // Entries under a prefix, and the prefix entries themselves, take the authz objects
+      // of the dump. For Eg (default table mapped to /user/hive/warehouse)
+      if (isChildPrefix) {
+        if (child == NONE) {
+          child = newPaths.addChild(parent, tChildPathElement,
+              EntryType.fromByte(tChild.getType()));
+        }
+        if (tChild.getAuthzObjs() != null) {
+          for (String authzObj : tChild.getAuthzObjs()) {
+            newPaths.addAuthzObjPath(child, authzObj);
+          }
+        }
+      }
+      cloneToEntry(newPaths, tChild, child, idMap, dupStringValues, isChildPrefix);
+    }
+  }
+
+  /**
+   * The path elements of the dump that are replaced by the index of their value.
+   */
+  private final class DupStrings {
+    // Path element id -> index in values, or NONE
+    private final int[] indexes;
+    private final List<String> values = new ArrayList<>();
+    private int nDupStrings;
+
+    DupStrings(int pathElementIdCapacity) {
+      indexes = new int[pathElementIdCapacity];
+      Arrays.fill(indexes, NONE);
+    }
+
+    /**
+     * @return the replacement ID of the path element of an entry, such as ":1f", if the
+     *         path element is duplicate, or the path element itself otherwise
+     */
+    String getReplacementString(int entry) {
+      String pathElement = paths.getPathElement(entry);
+      if (pathElement.length() <= AVG_ID_LENGTH
+          || paths.getPathElementRefs(entry) < MIN_NUM_DUPLICATES) {
+        return pathElement;
+      }
+      int pathElementId = paths.getPathElementId(entry);
+      if (indexes[pathElementId] == NONE) {
+        indexes[pathElementId] = values.size();
+        values.add(pathElement);
+      }
+      nDupStrings++;
+      return HMSPathsDumper.REPLACEMENT_STRING_PREFIX +
+          Integer.toHexString(indexes[pathElementId]);
+    }
+  }
+}
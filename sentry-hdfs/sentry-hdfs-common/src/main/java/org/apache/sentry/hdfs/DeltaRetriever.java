@@ -29,7 +29,7 @@ import static org.apache.sentry.hdfs.Updateable.Update;
  * Sentry permissions are represented as {@link PermissionsUpdate} and HMS Paths
  * are represented as {@link PathsUpdate}. The delta update contains change
  * from a state to another.
- * The {@link #retrieveDelta(long,long)} method obtains such delta update from a persistent storage.
+ * The {@link #retrieveDelta(long,long,long)} method obtains such delta update from a persistent storage.
  * Delta update is propagated to a consumer of Sentry, such as HDFS NameNode whenever
  * the consumer needs to synchronize the update.
  */
@@ -43,10 +43,13 @@ public interface DeltaRetriever<K extends Update> {
    *
    * @param seqNum the given seq number
    * @param imgNum the given img number
+   * @param latestSeqNum the latest seq number already read by the caller, as returned by
+   *        {@link #getLatestDeltaID()}. The implementation may skip reading the persistent
+   *        storage when it already has the deltas up to it.
    * @return delta updates of type K
    * @throws Exception when there is an error in operation on persistent storage
    */
-  List<K> retrieveDelta(long seqNum, long imgNum) throws Exception;
+  List<K> retrieveDelta(long seqNum, long imgNum, long latestSeqNum) throws Exception;
 
   /**
    * Checks if there the delta update is available, given the sequence number/change
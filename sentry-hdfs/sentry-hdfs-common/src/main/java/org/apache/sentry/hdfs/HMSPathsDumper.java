@@ -40,6 +40,10 @@ public class HMSPathsDumper implements AuthzPathsDumper<HMSPaths> {
 
   private static final Logger LOG = LoggerFactory.getLogger(HMSPathsDumper.class);
 
+  // The prefix that we use to distinguish between real path element
+  // strings and replacement string IDs used for duplicate strings
+  static final char REPLACEMENT_STRING_PREFIX = ':';
+
   static class Tuple {
     private final TPathEntry entry;
     private final int id;
@@ -189,9 +193,7 @@ public class HMSPathsDumper implements AuthzPathsDumper<HMSPaths> {
    * the real values of encoded duplicate strings.
    */
   private static class DupDetector {
-    // The prefix that we use to distinguish between real path element
-    // strings and replacement string IDs used for duplicate strings
-    static final char REPLACEMENT_STRING_PREFIX = ':';
+    static final char REPLACEMENT_STRING_PREFIX = HMSPathsDumper.REPLACEMENT_STRING_PREFIX;
     // Hash map size chosen as a compromise between not using too much memory
     // and catching enough of duplicate strings. Should be a power of two.
     private static final int TABLE_SIZE = 16 * 1024;
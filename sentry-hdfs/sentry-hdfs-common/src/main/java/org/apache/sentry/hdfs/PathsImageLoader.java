@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Builds the paths of a full image that is received in chunks, see
+ * {@link PathsUpdate#hasChunkedImage()}. Every chunk is added to the paths as soon as it
+ * is received, so neither the whole {@link org.apache.sentry.hdfs.service.thrift.TPathsDump}
+ * nor a message holding it is ever kept in memory.
+ * <p>
+ * Entries must be received in the order of their ids, as assigned by the paths dumpers,
+ * so that every entry comes after its parent. Not thread-safe.
+ */
+public class PathsImageLoader {
+  private static final Logger LOG = LoggerFactory.getLogger(PathsImageLoader.class);
+
+  private final AuthzPathsTree paths;
+  private final long seqNum;
+  private final long imgNum;
+  // Path elements of the parents of the entries still to be received, by entry id
+  private final Map<Integer, List<String>> parentPaths = new HashMap<>();
+  private int rootId;
+  private List<String> dupStringValues = Collections.emptyList();
+  private int chunkCount;
+  private int entryCount;
+  private boolean complete;
+
+  PathsImageLoader(AuthzPathsTree paths, long seqNum, long imgNum) {
+    this.paths = paths;
+    this.seqNum = seqNum;
+    this.imgNum = imgNum;
+  }
+
+  /**
+   * Adds the entries of the next chunk of the image to the paths.
+   */
+  public void addChunk(TPathsImageChunk chunk) {
+    Preconditions.checkState(!complete, "All chunks of the paths image were already added");
+    if (chunkCount == 0) {
+      Preconditions.checkArgument(chunk.isSetRootId(),
+          "The first chunk of a paths image has no root id");
+      rootId = chunk.getRootId();
+      if (chunk.isSetDupStringValues()) {
+        dupStringValues = chunk.getDupStringValues();
+      }
+    }
+    chunkCount++;
+
+    List<Integer> ids = new ArrayList<>(chunk.getNodeMap().keySet());
+    Collections.sort(ids);
+    for (Integer id : ids) {
+      addEntry(id, chunk.getNodeMap().get(id));
+    }
+    complete = !chunk.isHasMore();
+  }
+
+  private void addEntry(int id, TPathEntry tEntry) {
+    List<String> pathElements;
+    if (id == rootId) {
+      // As in the dumpers, the authz objects of the root are not restored
+      pathElements = Collections.emptyList();
+    } else {
+      List<String> parentPath = parentPaths.remove(id);
+      if (parentPath == null) {
+        throw new IllegalArgumentException("Entry " + id +
+            " of the paths image was received before its parent");
+      }
+      pathElements = new ArrayList<>(parentPath.size() + 1);
+      pathElements.addAll(parentPath);
+      pathElements.add(getPathElement(tEntry));
+      if (tEntry.isSetAuthzObjs() && !tEntry.getAuthzObjs().isEmpty() &&
+          paths.isUnderPrefix(pathElements.toArray(new String[pathElements.size()]))) {
+        List<List<String>> authzObjPaths = Collections.singletonList(pathElements);
+        for (String authzObj : tEntry.getAuthzObjs()) {
+          paths.addPathsToAuthzObject(authzObj, authzObjPaths, true);
+        }
+      }
+    }
+    for (Integer child : tEntry.getChildren()) {
+      parentPaths.put(child, pathElements);
+    }
+    entryCount++;
+  }
+
+  private String getPathElement(TPathEntry tEntry) {
+    String pathElement = tEntry.getPathElement();
+    if (!pathElement.isEmpty() &&
+        pathElement.charAt(0) == HMSPathsDumper.REPLACEMENT_STRING_PREFIX) {
+      int dupStrIdx = Integer.parseInt(pathElement.substring(1), 16);
+      pathElement = dupStringValues.get(dupStrIdx);
+    }
+    return pathElement;
+  }
+
+  /**
+   * @return true once the last chunk of the image was added
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * @return the paths of the image, once all of its chunks were added
+   */
+  public UpdateableAuthzPaths build() {
+    Preconditions.checkState(complete, "The paths image is missing chunks");
+    Preconditions.checkState(parentPaths.isEmpty(),
+        "The paths image is missing %s entries", parentPaths.size());
+    LOG.info("Loaded paths image [seqNum={}, imgNum={}] with {} entries in {} chunks",
+        seqNum, imgNum, entryCount, chunkCount);
+    return UpdateableAuthzPaths.fromImage(paths, seqNum, imgNum);
+  }
+}
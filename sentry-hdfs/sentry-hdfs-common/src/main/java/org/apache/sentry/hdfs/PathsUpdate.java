@@ -72,6 +72,18 @@ public class PathsUpdate implements Updateable.Update {
     return tPathsUpdate.isHasFullImage();
   }
 
+  /**
+   * @return true if the full image of this update is not part of it, but has to be
+   * fetched in chunks, see {@link PathsImageLoader}
+   */
+  public boolean hasChunkedImage() {
+    return tPathsUpdate.isHasFullImage() && tPathsUpdate.isSetPathsImageId();
+  }
+
+  public long getPathsImageId() {
+    return tPathsUpdate.getPathsImageId();
+  }
+
   public TPathChanges newPathChange(String authzObject) {
 
     TPathChanges pathChanges = new TPathChanges(authzObject,
@@ -193,6 +205,16 @@ public class PathsUpdate implements Updateable.Update {
     return ThriftSerializer.serializeToJSON(tPathsUpdate);
   }
 
+  @Override
+  public void deltaDeserialize(String update) throws TException {
+    ThriftSerializer.deserializeFromDelta(tPathsUpdate, update);
+  }
+
+  @Override
+  public String deltaSerialize() throws TException {
+    return ThriftSerializer.serializeToDelta(tPathsUpdate);
+  }
+
   @Override
   public int hashCode() {
     return (tPathsUpdate == null) ? 0 : tPathsUpdate.hashCode();
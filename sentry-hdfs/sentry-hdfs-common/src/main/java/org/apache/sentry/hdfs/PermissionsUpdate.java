@@ -21,8 +21,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
+import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
 import org.apache.sentry.hdfs.service.thrift.TPermissionsUpdate;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegeChanges;
 import org.apache.sentry.hdfs.service.thrift.TRoleChanges;
@@ -36,6 +39,12 @@ public class PermissionsUpdate implements Updateable.Update {
   public static final String ALL_PRIVS = "__ALL_PRIVS__";
   public static final String ALL_ROLES = "__ALL_ROLES__";
   public static final String ALL_GROUPS = "__ALL_GROUPS__";
+  // Authz object of the changes which only name the roles and users whose privileges,
+  // groups or users changed, as principals of deleted privileges. They record the policy
+  // changes which do not affect HDFS permissions, e.g. of server, URI or column privileges,
+  // and are ignored when applied to them. No principal means any role or user may have
+  // changed.
+  public static final String PRINCIPAL_CHANGES = "__PRINCIPAL_CHANGES__";
 
   private final TPermissionsUpdate tPermUpdate;
 
@@ -98,6 +107,64 @@ public class PermissionsUpdate implements Updateable.Update {
     return roleUpdate;
   }
 
+  /**
+   * Create a change which names the roles and users that changed, see
+   * {@link #PRINCIPAL_CHANGES}.
+   * @param principals changed roles and users, none if any may have changed
+   */
+  public static PermissionsUpdate newPrincipalChanges(Collection<TPrivilegePrincipal> principals) {
+    PermissionsUpdate update = new PermissionsUpdate();
+    TPrivilegeChanges changes = update.addPrivilegeUpdate(PRINCIPAL_CHANGES);
+    for (TPrivilegePrincipal principal : principals) {
+      changes.putToDelPrivileges(principal, "");
+    }
+    return update;
+  }
+
+  /**
+   * @return the roles and users whose privileges, groups or users are changed by this
+   * update, or null if they are not known, e.g. when all privileges of an authz object
+   * are dropped or renamed
+   */
+  public Set<TPrivilegePrincipal> getChangedPrincipals() {
+    Set<TPrivilegePrincipal> principals = new HashSet<>();
+    for (TPrivilegeChanges privilegeChanges : getPrivilegeUpdates()) {
+      if (privilegeChanges.getAuthzObj().equals(RENAME_PRIVS)) {
+        return null;
+      }
+      if (privilegeChanges.getAuthzObj().equals(PRINCIPAL_CHANGES) &&
+          privilegeChanges.getDelPrivilegesSize() == 0) {
+        return null;
+      }
+      if (!addPrincipals(principals, privilegeChanges.getAddPrivileges().keySet()) ||
+          !addPrincipals(principals, privilegeChanges.getDelPrivileges().keySet())) {
+        return null;
+      }
+    }
+    for (TRoleChanges roleChanges : getRoleUpdates()) {
+      if (roleChanges.getRole().equals(ALL_ROLES)) {
+        return null;
+      }
+      principals.add(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, roleChanges.getRole()));
+    }
+    return principals;
+  }
+
+  /**
+   * @return false if the changed principals include all roles or authz objects
+   */
+  private static boolean addPrincipals(Set<TPrivilegePrincipal> principals,
+      Collection<TPrivilegePrincipal> changed) {
+    for (TPrivilegePrincipal principal : changed) {
+      if (principal.getType() == TPrivilegePrincipalType.AUTHZ_OBJ ||
+          principal.getValue().equals(ALL_ROLES) || principal.getValue().equals(ALL_PRIVS)) {
+        return false;
+      }
+      principals.add(principal);
+    }
+    return true;
+  }
+
   Collection<TRoleChanges> getRoleUpdates() {
     return tPermUpdate.getRoleChanges().values();
   }
@@ -130,6 +197,16 @@ public class PermissionsUpdate implements Updateable.Update {
     return ThriftSerializer.serializeToJSON(tPermUpdate);
   }
 
+  @Override
+  public void deltaDeserialize(String update) throws TException {
+    ThriftSerializer.deserializeFromDelta(tPermUpdate, update);
+  }
+
+  @Override
+  public String deltaSerialize() throws TException {
+    return ThriftSerializer.serializeToDelta(tPermUpdate);
+  }
+
   @Override
   public int hashCode() {
     return (tPermUpdate == null) ? 0 : tPermUpdate.hashCode();
@@ -53,8 +53,43 @@ public class ServiceConstants {
     public static final String[] SENTRY_HDFS_INTEGRATION_PATH_PREFIXES_DEFAULT =
             new String[]{"/user/hive/warehouse"};
 
+    // Keep the last full paths/permissions update in memory and send it to every NameNode
+    // that needs it, instead of building it again for each of them
+    public static final String SENTRY_HDFS_FULL_IMAGE_CACHE_ENABLED =
+        "sentry.hdfs.sync.full-image-cache.enabled";
+    public static final boolean SENTRY_HDFS_FULL_IMAGE_CACHE_ENABLED_DEFAULT = true;
+
+    // Number of the most recent path and permission deltas kept in memory for the
+    // NameNodes polling for them, 0 reads every delta request from the database
+    public static final String SENTRY_HDFS_DELTA_CACHE_SIZE = "sentry.hdfs.sync.delta-cache.size";
+    public static final int SENTRY_HDFS_DELTA_CACHE_SIZE_DEFAULT = 1000;
+    // Maximum total size in bytes of the persisted form of the path deltas, and separately
+    // of the permission deltas, kept in memory. The deltas take several times their
+    // persisted size on the heap, more so in the compressed compact delta format. A
+    // delta larger than this, e.g. the rename of a large table, is never kept
+    public static final String SENTRY_HDFS_DELTA_CACHE_MAX_BYTES =
+        "sentry.hdfs.sync.delta-cache.max-bytes";
+    public static final long SENTRY_HDFS_DELTA_CACHE_MAX_BYTES_DEFAULT = 64L * 1024 * 1024;
+
+    // Assemble full paths images in a CompactHMSPaths, which takes much less heap
+    // than an HMSPaths
+    public static final String SENTRY_HDFS_COMPACT_PATHS = "sentry.hdfs.sync.compact-paths";
+    public static final boolean SENTRY_HDFS_COMPACT_PATHS_DEFAULT = false;
+
+    // Full paths images sent in chunks are dropped if their next chunk is not
+    // requested within this time
+    public static final String SENTRY_HDFS_PATHS_IMAGE_TIMEOUT_MS =
+        "sentry.hdfs.sync.paths-image.timeout.ms";
+    public static final long SENTRY_HDFS_PATHS_IMAGE_TIMEOUT_MS_DEFAULT = 5 * 60 * 1000L;
+
     public static final String SENTRY_HMS_FETCH_SIZE = "sentry.hms.fetch.size";
     public static final int SENTRY_HMS_FETCH_SIZE_DEFAULT = -1;
+
+    // Maximum number of consecutive HMS notifications whose path changes are persisted
+    // in a single transaction, 1 persists every notification on its own
+    public static final String SENTRY_HMS_NOTIFICATION_BATCH_SIZE =
+        "sentry.hms.notification.batch.size";
+    public static final int SENTRY_HMS_NOTIFICATION_BATCH_SIZE_DEFAULT = 1000;
   }
 
   public static class ClientConfig {
@@ -74,5 +109,11 @@ public class ServiceConstants {
     // max message size for thrift messages
     static final String SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE = "sentry.hdfs.thrift.max.message.size";
     static final long SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE_DEFAULT = 100 * 1024 * 1024;
+
+    // Fetch full paths images in chunks of at most this many entries instead of in
+    // a single message, 0 disables chunks
+    public static final String SENTRY_HDFS_PATHS_IMAGE_CHUNK_SIZE =
+        "sentry.hdfs.service.client.paths-image.chunk-size";
+    public static final int SENTRY_HDFS_PATHS_IMAGE_CHUNK_SIZE_DEFAULT = 100000;
   }
 }
@@ -61,6 +61,25 @@ public interface Updateable<K extends Updateable.Update> {
      * @throws TException
      */
     String JSONSerialize() throws TException;
+
+    /**
+     * Serialize the update to the compact, compressed form in which deltas are
+     * persisted when the delta format of the store is compact. Older versions only
+     * read deltas in JSON format.
+     *
+     * @return the string representation of the delta
+     * @throws TException
+     */
+    String deltaSerialize() throws TException;
+
+    /**
+     * Deserialize a persisted delta, in either the form produced by
+     * {@link #deltaSerialize()} or the JSON format of older versions.
+     *
+     * @param update the given string representation of the delta
+     * @throws TException
+     */
+    void deltaDeserialize(String update) throws TException;
   }
 
   /**
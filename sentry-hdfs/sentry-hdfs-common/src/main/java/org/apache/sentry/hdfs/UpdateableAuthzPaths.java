@@ -18,16 +18,21 @@
 package org.apache.sentry.hdfs;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.sentry.hdfs.HMSPaths.EntryType;
 import org.apache.sentry.hdfs.service.thrift.TPathChanges;
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
 import org.apache.sentry.hdfs.service.thrift.TPathsDump;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
+
 import static org.apache.sentry.hdfs.ServiceConstants.IMAGE_NUMBER_UPDATE_UNINITIALIZED;
 import static org.apache.sentry.hdfs.ServiceConstants.SEQUENCE_NUMBER_UPDATE_UNINITIALIZED;
 
@@ -35,15 +40,25 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
   private static final int MAX_UPDATES_PER_LOCK_USE = 99;
   private static final String UPDATABLE_TYPE_NAME = "path_update";
   private static final Logger LOG = LoggerFactory.getLogger(UpdateableAuthzPaths.class);
-  private volatile HMSPaths paths;
+  private volatile AuthzPathsTree paths;
   private final AtomicLong seqNum = new AtomicLong(SEQUENCE_NUMBER_UPDATE_UNINITIALIZED);
   private final AtomicLong imgNum = new AtomicLong(IMAGE_NUMBER_UPDATE_UNINITIALIZED);
+  // Incremented whenever the paths are changed in place
+  private final AtomicLong version = new AtomicLong();
 
   public UpdateableAuthzPaths(String[] pathPrefixes) {
-    this.paths = new HMSPaths(pathPrefixes);
+    this(pathPrefixes, false);
+  }
+
+  /**
+   * @param compact if true, the paths are kept in a {@link CompactHMSPaths},
+   *                which takes much less memory than an {@link HMSPaths}
+   */
+  public UpdateableAuthzPaths(String[] pathPrefixes, boolean compact) {
+    this.paths = compact ? new CompactHMSPaths(pathPrefixes) : new HMSPaths(pathPrefixes);
   }
 
-  UpdateableAuthzPaths(HMSPaths paths) {
+  UpdateableAuthzPaths(AuthzPathsTree paths) {
     this.paths = paths;
   }
 
@@ -64,6 +79,8 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
 
   @Override
   public UpdateableAuthzPaths updateFull(PathsUpdate update) {
+    Preconditions.checkArgument(!update.hasChunkedImage(),
+        "Chunked paths images are loaded with a PathsImageLoader");
     UpdateableAuthzPaths other = getPathsDump().initializeFromDump(
             update.toThrift().getPathsDump());
     other.seqNum.set(update.getSeqNum());
@@ -71,6 +88,28 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
     return other;
   }
 
+  /**
+   * Starts loading the full image of an update that is sent in chunks. The image is
+   * loaded into the same kind of paths, with the same prefixes, as these paths.
+   */
+  public PathsImageLoader newPathsImageLoader(PathsUpdate update) {
+    Preconditions.checkArgument(update.hasChunkedImage(),
+        "Update %s has no chunked image", update.getSeqNum());
+    // Paths without any entry besides their prefixes
+    int rootId = 1;
+    TPathsDump emptyDump = new TPathsDump(rootId, Collections.singletonMap(rootId,
+        new TPathEntry(EntryType.DIR.getByte(), "/", Collections.<Integer>emptyList())));
+    return new PathsImageLoader(paths.getPathsDump().initializeFromDump(emptyDump),
+        update.getSeqNum(), update.getImgNum());
+  }
+
+  static UpdateableAuthzPaths fromImage(AuthzPathsTree paths, long seqNum, long imgNum) {
+    UpdateableAuthzPaths authzPaths = new UpdateableAuthzPaths(paths);
+    authzPaths.seqNum.set(seqNum);
+    authzPaths.imgNum.set(imgNum);
+    return authzPaths;
+  }
+
   @Override
   public void updatePartial(Iterable<PathsUpdate> updates, ReadWriteLock lock) {
     lock.writeLock().lock();
@@ -78,11 +117,8 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
       int counter = 0;
       for (PathsUpdate update : updates) {
         applyPartialUpdate(update);
-        if (++counter > MAX_UPDATES_PER_LOCK_USE) {
-          counter = 0;
-          lock.writeLock().unlock();
-          lock.writeLock().lock();
-        }
+        // The numbers are updated before the lock is released, so that readers always
+        // see the numbers of the updates applied to the paths
         seqNum.set(update.getSeqNum());
 
         // Update the image ID only if the update has a new one
@@ -90,6 +126,11 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
           imgNum.set(update.getImgNum());
         }
         LOG.debug("##### Updated paths seq Num [{}] img Num [{}]", seqNum.get(), imgNum.get());
+        if (++counter > MAX_UPDATES_PER_LOCK_USE) {
+          counter = 0;
+          lock.writeLock().unlock();
+          lock.writeLock().lock();
+        }
       }
     } finally {
       lock.writeLock().unlock();
@@ -97,6 +138,7 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
   }
 
   private void applyPartialUpdate(PathsUpdate update) {
+    version.incrementAndGet();
     // Handle alter table rename : will have exactly 2 path changes
     // 1 is add path and the other is del path and oldName != newName
     if (update.getPathChanges().size() == 2) {
@@ -155,9 +197,18 @@ public class UpdateableAuthzPaths implements AuthzPaths, Updateable<PathsUpdate>
   }
 
   public void applyAddChanges(String objName, List<List<String>> changes) {
+    version.incrementAndGet();
     paths.addPathsToAuthzObject(objName, changes, true);
   }
 
+  /**
+   * @return a number which changes whenever these paths are changed in place, so that
+   * results of lookups can be reused as long as it does not change
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
   @Override
   public long getLastUpdatedSeqNum() {
     return seqNum.get();
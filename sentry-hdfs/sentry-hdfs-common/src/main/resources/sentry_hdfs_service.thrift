@@ -85,6 +85,13 @@ struct TPathsUpdate {
 3: required i64 seqNum;
 4: required list<TPathChanges> pathChanges;
 5: optional i64 imgNum = UNUSED_PATH_UPDATE_IMG_NUM;
+
+# Set instead of pathsDump when a full image is sent in chunks, the chunks are
+# fetched with get_paths_image_chunk()
+6: optional i64 pathsImageId;
+
+# The number of entries of a full image sent in chunks
+7: optional i32 pathsImageSize;
 }
 
 struct TPrivilegeChanges {
@@ -129,6 +136,25 @@ struct TAuthzUpdateRequest {
 1: required i64 permSeqNum;
 2: required i64 pathSeqNum;
 3: required i64 pathImgNum;
+
+# If set, full paths images are sent in chunks of at most this many entries
+4: optional i32 pathsImageChunkSize;
+}
+
+struct TPathsImageChunkRequest {
+1: required i64 pathsImageId;
+2: required i32 chunkIndex;
+}
+
+# A part of the node map of a TPathsDump. Entries are sent in the order of their
+# ids, so that parents are always sent before their children
+struct TPathsImageChunk {
+1: required map<i32,TPathEntry> nodeMap;
+2: required bool hasMore;
+
+# Only set in the first chunk
+3: optional i32 rootId;
+4: optional list<string> dupStringValues;
 }
 
 service SentryHDFSService
@@ -138,5 +164,6 @@ service SentryHDFSService
   i64 check_hms_seq_num(1:i64 pathSeqNum);
   TAuthzUpdateResponse get_all_authz_updates_from(1:i64 permSeqNum, 2:i64 pathSeqNum);
   TAuthzUpdateResponse get_authz_updates(1:TAuthzUpdateRequest request);
+  TPathsImageChunk get_paths_image_chunk(1:TPathsImageChunkRequest request);
   map<string, list<string>> get_all_related_paths(1:string path, 2:bool exactMatch);
 }
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares looking up the authorizable objects of HDFS paths in {@link HMSPaths} and in
+ * {@link CompactHMSPaths}, for a warehouse with the given number of partition paths.
+ * Before running the benchmarks, the heap used by both implementations for each number
+ * of paths is printed.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=org.apache.sentry.hdfs.AuthzPathsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthzPathsBenchmark {
+  private static final String[] PREFIXES = {"/user/hive/warehouse"};
+  private static final int TABLES_PER_DB = 100;
+  private static final int PARTITIONS_PER_TABLE = 100;
+  private static final int LOOKUPS = 1024;
+
+  @Param({"hms", "compact"})
+  private String impl;
+
+  @Param({"10000", "1000000"})
+  private int pathCount;
+
+  private AuthzPathsTree paths;
+  private String[][] lookups;
+  private int next;
+
+  @Setup
+  public void setup() {
+    paths = createPaths(impl, pathCount);
+    // Lookups of partitions and of files within partitions, in random order
+    Random random = new Random(0);
+    lookups = new String[LOOKUPS][];
+    for (int i = 0; i < LOOKUPS; i++) {
+      int partition = random.nextInt(pathCount);
+      List<String> pathElements = partitionPath(partition);
+      if (random.nextBoolean()) {
+        pathElements.add("part-00000");
+      }
+      lookups[i] = pathElements.toArray(new String[pathElements.size()]);
+    }
+  }
+
+  @Benchmark
+  public Object findAuthzObject() {
+    next = (next + 1) & (LOOKUPS - 1);
+    return paths.findAuthzObject(lookups[next]);
+  }
+
+  @Benchmark
+  public Object findAuthzObjectExactMatches() {
+    next = (next + 1) & (LOOKUPS - 1);
+    return paths.findAuthzObjectExactMatches(lookups[next]);
+  }
+
+  static AuthzPathsTree createPaths(String impl, int pathCount) {
+    AuthzPathsTree paths = "compact".equals(impl) ?
+        new CompactHMSPaths(PREFIXES) : new HMSPaths(PREFIXES);
+    int tableCount = (pathCount + PARTITIONS_PER_TABLE - 1) / PARTITIONS_PER_TABLE;
+    for (int table = 0; table < tableCount; table++) {
+      List<List<String>> tablePaths = new ArrayList<>(PARTITIONS_PER_TABLE + 1);
+      List<String> tablePath = partitionPath(table * PARTITIONS_PER_TABLE);
+      tablePath.remove(tablePath.size() - 1);
+      tablePaths.add(tablePath);
+      for (int partition = table * PARTITIONS_PER_TABLE;
+          partition < Math.min(pathCount, (table + 1) * PARTITIONS_PER_TABLE); partition++) {
+        tablePaths.add(partitionPath(partition));
+      }
+      String authzObj = "db" + table / TABLES_PER_DB + ".tbl" + table % TABLES_PER_DB;
+      paths.addPathsToAuthzObject(authzObj, tablePaths, true);
+    }
+    return paths;
+  }
+
+  private static List<String> partitionPath(int partition) {
+    int table = partition / PARTITIONS_PER_TABLE;
+    List<String> pathElements = new ArrayList<>(8);
+    Collections.addAll(pathElements, "user", "hive", "warehouse",
+        "db" + table / TABLES_PER_DB + ".db", "tbl" + table % TABLES_PER_DB,
+        "ds=2019-01-" + (partition % PARTITIONS_PER_TABLE));
+    return pathElements;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int pathCount : new int[] {10000, 1000000}) {
+      for (String impl : new String[] {"hms", "compact"}) {
+        long before = usedMemory();
+        AuthzPathsTree paths = createPaths(impl, pathCount);
+        long after = usedMemory();
+        System.out.printf("%s with %d paths: %d KB of heap%n", paths.getClass().getSimpleName(),
+            pathCount, (after - before) / 1024);
+      }
+    }
+    new Runner(new OptionsBuilder()
+        .include(AuthzPathsBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import org.apache.sentry.hdfs.service.thrift.TPathChanges;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares persisting and retrieving the path delta of renaming a table with the given
+ * number of partitions in JSON format and in the format of
+ * {@link PathsUpdate#deltaSerialize()}. Before running the benchmarks, the size of the
+ * delta in both formats is printed.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=org.apache.sentry.hdfs.DeltaSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaSerializationBenchmark {
+
+  @Param({"1000", "100000"})
+  private int partitionCount;
+
+  private PathsUpdate update;
+  private String json;
+  private String delta;
+
+  @Setup
+  public void setup() throws TException {
+    update = createRenameUpdate(partitionCount);
+    json = update.JSONSerialize();
+    delta = update.deltaSerialize();
+  }
+
+  @Benchmark
+  public String serializeJSON() throws TException {
+    return update.JSONSerialize();
+  }
+
+  @Benchmark
+  public String serializeDelta() throws TException {
+    return update.deltaSerialize();
+  }
+
+  @Benchmark
+  public PathsUpdate deserializeJSON() throws TException {
+    PathsUpdate pathsUpdate = new PathsUpdate();
+    pathsUpdate.deltaDeserialize(json);
+    return pathsUpdate;
+  }
+
+  @Benchmark
+  public PathsUpdate deserializeDelta() throws TException {
+    PathsUpdate pathsUpdate = new PathsUpdate();
+    pathsUpdate.deltaDeserialize(delta);
+    return pathsUpdate;
+  }
+
+  /**
+   * @return the update of renaming db1.tbl1 to db1.tbl2, with the given number of
+   * partitions
+   */
+  static PathsUpdate createRenameUpdate(int partitionCount) {
+    PathsUpdate update = new PathsUpdate(1, false);
+    TPathChanges delPaths = update.newPathChange("db1.tbl1");
+    TPathChanges addPaths = update.newPathChange("db1.tbl2");
+    for (int partition = 0; partition < partitionCount; partition++) {
+      String partitionName = "ds=2019-01-" + partition % 100 + "-" + partition;
+      delPaths.addToDelPaths(Lists.newArrayList(
+          "user", "hive", "warehouse", "db1.db", "tbl1", partitionName));
+      addPaths.addToAddPaths(Lists.newArrayList(
+          "user", "hive", "warehouse", "db1.db", "tbl2", partitionName));
+    }
+    return update;
+  }
+
+  public static void main(String[] args) throws RunnerException, TException {
+    for (int partitionCount : new int[] {1000, 100000}) {
+      PathsUpdate update = createRenameUpdate(partitionCount);
+      System.out.printf("Rename of %d partitions: %d KB in JSON, %d KB as delta%n",
+          partitionCount, update.JSONSerialize().length() / 1024,
+          update.deltaSerialize().length() / 1024);
+    }
+    new Runner(new OptionsBuilder()
+        .include(DeltaSerializationBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import static org.apache.sentry.hdfs.HMSPaths.getPathElements;
+import static org.apache.sentry.hdfs.HMSPaths.getPathsElements;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.sentry.hdfs.service.thrift.TPathsDump;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class TestCompactHMSPaths {
+  private static final String[] PREFIXES = {"/user/hive/warehouse", "/user/hive/w2"};
+
+  private static final List<String> PATHS = Arrays.asList(
+      "/user/hive/warehouse",
+      "/user/hive/warehouse/db1",
+      "/user/hive/warehouse/db1/tbl11",
+      "/user/hive/warehouse/db1/tbl11/p1=1",
+      "/user/hive/warehouse/db1/tbl11/p1=1/p2=x",
+      "/user/hive/warehouse/db1/tbl11/p1=2",
+      "/user/hive/warehouse/db1/tbl12",
+      "/user/hive/warehouse/db1/tbl12/part",
+      "/user/hive/warehouse/db2",
+      "/user/hive/warehouse/db2/tbl21",
+      "/user/hive/warehouse/db2/tbl21/p1=1",
+      "/user/hive/warehouse/db2/tbl22",
+      "/user/hive/w2/db3",
+      "/user/hive/w2/db3/tbl31",
+      "/user/hive/w2/db3/tbl31/p1=1",
+      "/user/hive/other",
+      "/tmp/external");
+
+  private HMSPaths hmsPaths;
+  private CompactHMSPaths compactPaths;
+
+  @Before
+  public void setup() {
+    hmsPaths = new HMSPaths(PREFIXES);
+    compactPaths = new CompactHMSPaths(PREFIXES);
+  }
+
+  @Test
+  public void testAddAndFind() {
+    add("db1", "/user/hive/warehouse/db1");
+    add("db1.tbl11", "/user/hive/warehouse/db1/tbl11", "/user/hive/warehouse/db1/tbl11/p1=1",
+        "/user/hive/warehouse/db1/tbl11/p1=1/p2=x");
+    add("db1.tbl12", "/user/hive/warehouse/db1/tbl12");
+    // A path shared by two objects
+    add("db1.view", "/user/hive/warehouse/db1/tbl12");
+    add("db3.tbl31", "/user/hive/w2/db3/tbl31", "/tmp/external");
+    assertSameContent();
+
+    Assert.assertEquals(Sets.newHashSet("db1.tbl12", "db1.view"),
+        compactPaths.findAuthzObject(
+            new String[] {"user", "hive", "warehouse", "db1", "tbl12", "part"}, true));
+    Assert.assertNull(compactPaths.findAuthzObject(
+        new String[] {"user", "hive", "warehouse", "db1", "tbl12", "part"}, false));
+    Assert.assertFalse(compactPaths.isUnderPrefix(new String[] {"tmp", "external"}));
+  }
+
+  @Test
+  public void testDelete() {
+    add("db1", "/user/hive/warehouse/db1");
+    add("db1.tbl11", "/user/hive/warehouse/db1/tbl11", "/user/hive/warehouse/db1/tbl11/p1=1",
+        "/user/hive/warehouse/db1/tbl11/p1=1/p2=x", "/user/hive/warehouse/db1/tbl11/p1=2");
+    add("db2.tbl21", "/user/hive/warehouse/db2/tbl21", "/user/hive/warehouse/db2/tbl21/p1=1");
+    assertSameContent();
+
+    deletePaths("db1.tbl11", "/user/hive/warehouse/db1/tbl11/p1=2");
+    assertSameContent();
+    // The table entry has children, so it is kept as a directory
+    deletePaths("db1.tbl11", "/user/hive/warehouse/db1/tbl11");
+    assertSameContent();
+    deleteAuthzObject("db1.tbl11");
+    assertSameContent();
+    deleteAuthzObject("db2.tbl21");
+    deleteAuthzObject("unknown");
+    assertSameContent();
+    Assert.assertEquals(Sets.newHashSet("db1"), compactPaths.findAuthzObject(
+        new String[] {"user", "hive", "warehouse", "db1", "tbl11", "p1=1"}, true));
+  }
+
+  @Test
+  public void testRename() {
+    add("db1", "/user/hive/warehouse/db1");
+    add("db1.tbl11", "/user/hive/warehouse/db1/tbl11", "/user/hive/warehouse/db1/tbl11/p1=1",
+        "/user/hive/warehouse/db1/tbl11/p1=1/p2=x");
+    add("db2", "/user/hive/warehouse/db2");
+
+    // Rename with a new location moves the partitions as well
+    rename("db1.tbl11", "/user/hive/warehouse/db1/tbl11",
+        "db2.tbl21", "/user/hive/warehouse/db2/tbl21");
+    assertSameContent();
+    Assert.assertEquals(Sets.newHashSet("db2.tbl21"), compactPaths.findAuthzObject(
+        new String[] {"user", "hive", "warehouse", "db2", "tbl21", "p1=1", "p2=x"}, false));
+    Assert.assertEquals(Sets.newHashSet("db1"), compactPaths.findAuthzObject(
+        new String[] {"user", "hive", "warehouse", "db1", "tbl11", "p1=1"}, true));
+
+    // Rename without a new location only changes the name
+    rename("db2.tbl21", "/user/hive/warehouse/db2/tbl21",
+        "db2.tbl22", "/user/hive/warehouse/db2/tbl21");
+    assertSameContent();
+    deleteAuthzObject("db2.tbl22");
+    assertSameContent();
+  }
+
+  @Test
+  public void testDumpCompatibility() throws Exception {
+    add("db1", "/user/hive/warehouse/db1");
+    add("db1.tbl11", "/user/hive/warehouse/db1/tbl11", "/user/hive/warehouse/db1/tbl11/p1=1",
+        "/user/hive/warehouse/db1/tbl11/p1=1/p2=x", "/user/hive/warehouse/db1/tbl11/p1=2");
+    add("db1.tbl12", "/user/hive/warehouse/db1/tbl12", "/user/hive/warehouse/db1/tbl12/p1=1",
+        "/user/hive/warehouse/db1/tbl12/p1=1/p2=x");
+    add("db3.tbl31", "/user/hive/w2/db3/tbl31", "/user/hive/w2/db3/tbl31/p1=1");
+
+    for (boolean minimizeSize : new boolean[] {false, true}) {
+      // Dumps of either implementation can be read by the other one
+      TPathsDump hmsDump = hmsPaths.getPathsDump().createPathsDump(minimizeSize);
+      TPathsDump compactDump = compactPaths.getPathsDump().createPathsDump(minimizeSize);
+      Assert.assertEquals(hmsDump.getNodeMapSize(), compactDump.getNodeMapSize());
+      Assert.assertEquals(hmsDump.getDupStringValues(), compactDump.getDupStringValues());
+      assertSameContent(hmsPaths.getPathsDump().initializeFromDump(compactDump),
+          compactPaths.getPathsDump().initializeFromDump(hmsDump));
+    }
+
+    // Objects outside of the prefixes of the new instance are dropped
+    TPathsDump dump = compactPaths.getPathsDump().createPathsDump(true);
+    CompactHMSPaths newPaths = new CompactHMSPaths(new String[] {"/user/hive/warehouse"})
+        .getPathsDump().initializeFromDump(dump);
+    Assert.assertNull(newPaths.findAuthzObject(
+        new String[] {"user", "hive", "w2", "db3", "tbl31"}, false));
+    Assert.assertEquals(Sets.newHashSet("db1.tbl11"), newPaths.findAuthzObject(
+        new String[] {"user", "hive", "warehouse", "db1", "tbl11", "p1=2"}, false));
+  }
+
+  private void add(String authzObj, String... paths) {
+    List<List<String>> pathsElements = getPathsElements(Arrays.asList(paths));
+    hmsPaths.addPathsToAuthzObject(authzObj, pathsElements, true);
+    compactPaths.addPathsToAuthzObject(authzObj, pathsElements, true);
+  }
+
+  private void deletePaths(String authzObj, String... paths) {
+    List<List<String>> pathsElements = getPathsElements(Arrays.asList(paths));
+    hmsPaths.deletePathsFromAuthzObject(authzObj, pathsElements);
+    compactPaths.deletePathsFromAuthzObject(authzObj, pathsElements);
+  }
+
+  private void deleteAuthzObject(String authzObj) {
+    hmsPaths.deleteAuthzObject(authzObj);
+    compactPaths.deleteAuthzObject(authzObj);
+  }
+
+  private void rename(String oldName, String oldPath, String newName, String newPath) {
+    List<List<String>> oldPathElements = getPathsElements(Lists.newArrayList(oldPath));
+    List<List<String>> newPathElements = getPathsElements(Lists.newArrayList(newPath));
+    hmsPaths.renameAuthzObject(oldName, oldPathElements, newName, newPathElements);
+    compactPaths.renameAuthzObject(oldName, oldPathElements, newName, newPathElements);
+  }
+
+  private void assertSameContent() {
+    assertSameContent(hmsPaths, compactPaths);
+  }
+
+  private static void assertSameContent(AuthzPaths expected, AuthzPaths actual) {
+    for (String path : PATHS) {
+      String[] pathElements = getPathElements(path).toArray(new String[0]);
+      Assert.assertEquals(path, expected.findAuthzObject(pathElements),
+          actual.findAuthzObject(pathElements));
+      Assert.assertEquals(path, expected.findAuthzObjectExactMatches(pathElements),
+          actual.findAuthzObjectExactMatches(pathElements));
+      Assert.assertEquals(path, expected.isUnderPrefix(pathElements),
+          actual.isUnderPrefix(pathElements));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import static org.apache.sentry.hdfs.HMSPaths.getPathElements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
+import org.apache.sentry.hdfs.service.thrift.TPathsDump;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TestPathsImageLoader {
+  private static final String[] PREFIXES = {"/user/hive/warehouse", "/user/hive/w2"};
+
+  private static final List<String> PATHS = Arrays.asList(
+      "/user/hive/warehouse",
+      "/user/hive/warehouse/db1",
+      "/user/hive/warehouse/db1/tbl11",
+      "/user/hive/warehouse/db1/tbl11/p1=1",
+      "/user/hive/warehouse/db1/tbl11/p1=1/p2=x",
+      "/user/hive/warehouse/db1/tbl11/p1=2",
+      "/user/hive/warehouse/db1/tbl12",
+      "/user/hive/warehouse/db1/tbl12/p1=1",
+      "/user/hive/warehouse/db2",
+      "/user/hive/warehouse/db2/tbl21",
+      "/user/hive/warehouse/db2/tbl21/p1=1",
+      "/user/hive/w2/db3/tbl31",
+      "/user/hive/other");
+
+  private TPathsDump pathsDump;
+
+  @Before
+  public void setup() {
+    HMSPaths hmsPaths = new HMSPaths(PREFIXES);
+    hmsPaths._addAuthzObject("db1", Lists.newArrayList("/user/hive/warehouse/db1"));
+    hmsPaths._addAuthzObject("db1.tbl11", Lists.newArrayList("/user/hive/warehouse/db1/tbl11",
+        "/user/hive/warehouse/db1/tbl11/p1=1", "/user/hive/warehouse/db1/tbl11/p1=1/p2=x"));
+    hmsPaths._addAuthzObject("db1.tbl12", Lists.newArrayList("/user/hive/warehouse/db1/tbl12",
+        "/user/hive/warehouse/db1/tbl12/p1=1"));
+    hmsPaths._addAuthzObject("db2.tbl21", Lists.newArrayList("/user/hive/warehouse/db2/tbl21",
+        "/user/hive/warehouse/db2/tbl21/p1=1"));
+    hmsPaths._addAuthzObject("db3.tbl31", Lists.newArrayList("/user/hive/w2/db3/tbl31"));
+    pathsDump = hmsPaths.getPathsDump().createPathsDump(true);
+  }
+
+  @Test
+  public void testChunkedImageMatchesFullImage() {
+    PathsUpdate fullUpdate = new PathsUpdate(5, 2, true);
+    fullUpdate.toThrift().setPathsDump(pathsDump);
+    UpdateableAuthzPaths expected = new UpdateableAuthzPaths(PREFIXES).updateFull(fullUpdate);
+
+    for (boolean compact : new boolean[] {false, true}) {
+      for (int chunkSize : new int[] {1, 3, pathsDump.getNodeMapSize()}) {
+        PathsImageLoader loader = new UpdateableAuthzPaths(PREFIXES, compact)
+            .newPathsImageLoader(newChunkedUpdate());
+        for (TPathsImageChunk chunk : split(pathsDump, chunkSize)) {
+          Assert.assertFalse(loader.isComplete());
+          loader.addChunk(chunk);
+        }
+        Assert.assertTrue(loader.isComplete());
+        UpdateableAuthzPaths actual = loader.build();
+
+        Assert.assertEquals(5, actual.getLastUpdatedSeqNum());
+        Assert.assertEquals(2, actual.getLastUpdatedImgNum());
+        for (String path : PATHS) {
+          String[] pathElements = getPathElements(path).toArray(new String[0]);
+          Assert.assertEquals(path, expected.findAuthzObject(pathElements),
+              actual.findAuthzObject(pathElements));
+          Assert.assertEquals(path, expected.findAuthzObjectExactMatches(pathElements),
+              actual.findAuthzObjectExactMatches(pathElements));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIncompleteImage() {
+    PathsImageLoader loader = new UpdateableAuthzPaths(PREFIXES)
+        .newPathsImageLoader(newChunkedUpdate());
+    loader.addChunk(split(pathsDump, 2).get(0));
+    try {
+      loader.build();
+      Assert.fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testChildBeforeParent() {
+    List<TPathsImageChunk> chunks = split(pathsDump, 1);
+    PathsImageLoader loader = new UpdateableAuthzPaths(PREFIXES)
+        .newPathsImageLoader(newChunkedUpdate());
+    loader.addChunk(chunks.get(0));
+    loader.addChunk(chunks.get(chunks.size() - 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFullUpdateRejectsChunkedImage() {
+    new UpdateableAuthzPaths(PREFIXES).updateFull(newChunkedUpdate());
+  }
+
+  private PathsUpdate newChunkedUpdate() {
+    PathsUpdate update = new PathsUpdate(5, 2, true);
+    update.toThrift().setPathsImageId(1);
+    update.toThrift().setPathsImageSize(pathsDump.getNodeMapSize());
+    return update;
+  }
+
+  /**
+   * Splits a dump into chunks as the Sentry server does.
+   */
+  private static List<TPathsImageChunk> split(TPathsDump dump, int chunkSize) {
+    List<Integer> ids = new ArrayList<>(dump.getNodeMap().keySet());
+    Collections.sort(ids);
+    List<TPathsImageChunk> chunks = new ArrayList<>();
+    for (int start = 0; start < ids.size(); start += chunkSize) {
+      Map<Integer, TPathEntry> nodeMap = new HashMap<>();
+      for (int id : ids.subList(start, Math.min(start + chunkSize, ids.size()))) {
+        nodeMap.put(id, dump.getNodeMap().get(id));
+      }
+      TPathsImageChunk chunk = new TPathsImageChunk(nodeMap, start + chunkSize < ids.size());
+      if (start == 0) {
+        chunk.setRootId(dump.getRootId());
+        chunk.setDupStringValues(dump.getDupStringValues());
+      }
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+}
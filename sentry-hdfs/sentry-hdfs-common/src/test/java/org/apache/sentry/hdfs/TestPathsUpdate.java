@@ -93,4 +93,40 @@ public class TestPathsUpdate {
     update.JSONDeserialize(update.JSONSerialize());
     junit.framework.Assert.assertEquals(before, update.toThrift());
   }
+
+  @Test
+  public void testSerializeDeserializeDelta() throws SentryMalformedPathException, TException {
+    PathsUpdate update = new PathsUpdate(1, true);
+    TPathChanges pathChange = update.newPathChange("db1.tbl12");
+    String path = PathsUpdate.parsePath("hdfs:///db1/tbl12/part121");
+    pathChange.addToAddPaths(Lists.newArrayList(path.split("/")));
+
+    TPathsUpdate before = update.toThrift();
+    PathsUpdate deserialized = new PathsUpdate();
+    deserialized.deltaDeserialize(update.deltaSerialize());
+    Assert.assertEquals(before, deserialized.toThrift());
+
+    // Deltas persisted in JSON format by older versions are still accepted
+    deserialized = new PathsUpdate();
+    deserialized.deltaDeserialize(update.JSONSerialize());
+    Assert.assertEquals(before, deserialized.toThrift());
+  }
+
+  @Test
+  public void testDeltaIsSmallerThanJSON() throws TException {
+    PathsUpdate update = DeltaSerializationBenchmark.createRenameUpdate(10000);
+    String delta = update.deltaSerialize();
+    Assert.assertTrue(delta.startsWith(ThriftSerializer.DELTA_FORMAT_COMPACT_DEFLATE));
+    Assert.assertTrue("Delta of " + delta.length() + " chars",
+        delta.length() * 5 < update.JSONSerialize().length());
+
+    PathsUpdate deserialized = new PathsUpdate();
+    deserialized.deltaDeserialize(delta);
+    Assert.assertEquals(update.toThrift(), deserialized.toThrift());
+  }
+
+  @Test(expected = TException.class)
+  public void testDeserializeUnknownDeltaFormat() throws TException {
+    new PathsUpdate().deltaDeserialize("9:AAAA");
+  }
 }
@@ -18,6 +18,8 @@
 package org.apache.sentry.hdfs;
 
 
+import java.util.Collections;
+
 import junit.framework.Assert;
 import org.apache.sentry.hdfs.service.thrift.TPermissionsUpdate;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegeChanges;
@@ -26,6 +28,8 @@ import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
 import org.apache.thrift.TException;
 import org.junit.Test;
 
+import com.google.common.collect.Sets;
+
 public class TestPermissionUpdate {
 
   @Test
@@ -40,4 +44,54 @@ public class TestPermissionUpdate {
     update.JSONDeserialize(update.JSONSerialize());
     Assert.assertEquals(before, update.toThrift());
   }
+
+  @Test
+  public void testSerializeDeserializeDelta() throws TException {
+    PermissionsUpdate update = new PermissionsUpdate(0, false);
+    TPrivilegeChanges privUpdate = update.addPrivilegeUpdate(PermissionsUpdate.RENAME_PRIVS);
+    privUpdate.putToAddPrivileges(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "newAuthz"), "newAuthz");
+    privUpdate.putToDelPrivileges(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "oldAuthz"), "oldAuthz");
+
+    TPermissionsUpdate before = update.toThrift();
+    PermissionsUpdate deserialized = new PermissionsUpdate();
+    deserialized.deltaDeserialize(update.deltaSerialize());
+    Assert.assertEquals(before, deserialized.toThrift());
+
+    // Deltas persisted in JSON format by older versions are still accepted
+    deserialized = new PermissionsUpdate();
+    deserialized.deltaDeserialize(update.JSONSerialize());
+    Assert.assertEquals(before, deserialized.toThrift());
+  }
+
+  @Test
+  public void testChangedPrincipals() throws TException {
+    TPrivilegePrincipal role = new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1");
+    TPrivilegePrincipal user = new TPrivilegePrincipal(TPrivilegePrincipalType.USER, "user1");
+    PermissionsUpdate update = new PermissionsUpdate(0, false);
+    update.addPrivilegeUpdate("db1.tbl1").putToAddPrivileges(role, "SELECT");
+    update.addPrivilegeUpdate("db1").putToDelPrivileges(user, "INSERT");
+    update.addRoleUpdate("role2").addToAddGroups("group1");
+    Assert.assertEquals(Sets.newHashSet(role, user,
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role2")),
+        update.getChangedPrincipals());
+
+    // Changes of principals which are not synchronized with HDFS survive serialization
+    PermissionsUpdate principalChanges =
+        PermissionsUpdate.newPrincipalChanges(Collections.singleton(user));
+    PermissionsUpdate deserialized = new PermissionsUpdate();
+    deserialized.deltaDeserialize(principalChanges.deltaSerialize());
+    Assert.assertEquals(Collections.singleton(user), deserialized.getChangedPrincipals());
+
+    // Changes of unknown principals
+    Assert.assertNull(PermissionsUpdate.newPrincipalChanges(
+        Collections.<TPrivilegePrincipal>emptySet()).getChangedPrincipals());
+    update = new PermissionsUpdate(0, false);
+    update.addPrivilegeUpdate("db1.tbl1").putToDelPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, PermissionsUpdate.ALL_PRIVS),
+        PermissionsUpdate.ALL_PRIVS);
+    Assert.assertNull(update.getChangedPrincipals());
+    update = new PermissionsUpdate(0, false);
+    update.addRoleUpdate(PermissionsUpdate.ALL_ROLES).addToDelGroups("group1");
+    Assert.assertNull(update.getChangedPrincipals());
+  }
 }
@@ -53,6 +53,22 @@ public final class SentryAuthorizationConstants {
       "include-hdfs-authz-as-acl";
   public static final boolean INCLUDE_HDFS_AUTHZ_AS_ACL_DEFAULT = false;
 
+  // Keep the paths in a CompactHMSPaths, which takes much less heap than an HMSPaths
+  public static final String COMPACT_PATHS_KEY = CONFIG_PREFIX + "compact-paths";
+  public static final boolean COMPACT_PATHS_DEFAULT = false;
+
+  // Local directory of the checkpoint of paths and permissions loaded on restart,
+  // checkpoints are disabled if it is not set
+  public static final String CHECKPOINT_DIR_KEY = CONFIG_PREFIX + "checkpoint.dir";
+
+  public static final String CHECKPOINT_INTERVAL_KEY = CONFIG_PREFIX +
+      "checkpoint.interval.ms";
+  public static final long CHECKPOINT_INTERVAL_DEFAULT = 10 * 60 * 1000;
+
+  // Older checkpoints are ignored, and a full image is fetched instead
+  public static final String CHECKPOINT_MAX_AGE_KEY = CONFIG_PREFIX + "checkpoint.max-age.ms";
+  public static final long CHECKPOINT_MAX_AGE_DEFAULT = 24 * 60 * 60 * 1000;
+
   private SentryAuthorizationConstants() {
     // Make constructor private to avoid instantiation
   }
@@ -18,11 +18,15 @@
 
 package org.apache.sentry.hdfs;
 
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -44,6 +48,10 @@ public class SentryAuthorizationInfo implements Runnable {
       LoggerFactory.getLogger(SentryAuthorizationInfo.class);
 
   private static final String SENTRY_AUTHORIZATION_INFO_THREAD_NAME = "sentry-auth-info-refresher";
+  private static final String SENTRY_AUTHORIZATION_CHECKPOINT_THREAD_NAME =
+      "sentry-auth-info-checkpoint";
+  // Apparently setFAcl throws error if 'group::---' is not present
+  private static final AclEntry NO_GROUP_ACL = AclEntry.parseAclEntry("group::---", true);
 
   private SentryUpdater updater;
   private volatile UpdateableAuthzPaths authzPaths;
@@ -63,12 +71,33 @@ public class SentryAuthorizationInfo implements Runnable {
 
   private String[][] pathPrefixes;
 
+  private SentryAuthzCheckpoint checkpoint;
+  private long checkpointIntervalMillisec;
+  // Checkpoints are saved by their own thread, so that the updates are not delayed
+  private ExecutorService checkpointExecutor;
+  private final AtomicBoolean checkpointPending = new AtomicBoolean();
+  // Only accessed by the thread applying the updates
+  private long lastCheckpoint;
+  // Set by the thread saving the checkpoints
+  private volatile long checkpointPathsSeqNum;
+  private volatile long checkpointPathsImgNum;
+  private volatile long checkpointPermsSeqNum;
+
   // For use only for testing !!
   @VisibleForTesting
   SentryAuthorizationInfo(String[] pathPrefixes) {
     setPrefixPaths(pathPrefixes);
   }
 
+  // For use only for testing !!
+  @VisibleForTesting
+  SentryAuthorizationInfo(String[] pathPrefixes, UpdateableAuthzPaths authzPaths,
+      UpdateableAuthzPermissions authzPermissions) {
+    this(pathPrefixes);
+    this.authzPaths = authzPaths;
+    this.authzPermissions = authzPermissions;
+  }
+
   public SentryAuthorizationInfo(Configuration conf) throws Exception {
     String[] newPathPrefixes = conf.getTrimmedStrings(
         SentryAuthorizationConstants.HDFS_PATH_PREFIXES_KEY, 
@@ -96,11 +125,29 @@ public class SentryAuthorizationInfo implements Runnable {
           refreshIntervalMillisec, retryWaitMillisec);
       LOG.info("stale threshold [{}]ms", staleThresholdMillisec);
 
-      authzPaths = new UpdateableAuthzPaths(newPathPrefixes);
+      authzPaths = new UpdateableAuthzPaths(newPathPrefixes,
+          conf.getBoolean(SentryAuthorizationConstants.COMPACT_PATHS_KEY,
+              SentryAuthorizationConstants.COMPACT_PATHS_DEFAULT));
       authzPermissions = new UpdateableAuthzPermissions();
       waitUntil = System.currentTimeMillis();
       lastStaleReport = 0;
       updater = new SentryUpdater(conf, this);
+
+      String checkpointDir = conf.getTrimmed(SentryAuthorizationConstants.CHECKPOINT_DIR_KEY);
+      if (checkpointDir != null && !checkpointDir.isEmpty()) {
+        checkpoint = new SentryAuthzCheckpoint(new File(checkpointDir),
+            conf.getLong(SentryAuthorizationConstants.CHECKPOINT_MAX_AGE_KEY,
+                SentryAuthorizationConstants.CHECKPOINT_MAX_AGE_DEFAULT));
+        checkpointIntervalMillisec = conf.getLong(
+            SentryAuthorizationConstants.CHECKPOINT_INTERVAL_KEY,
+            SentryAuthorizationConstants.CHECKPOINT_INTERVAL_DEFAULT);
+        LOG.info("Authorization checkpoint [{}], interval [{}]ms",
+            checkpoint.getFile(), checkpointIntervalMillisec);
+        checkpointExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat(SENTRY_AUTHORIZATION_CHECKPOINT_THREAD_NAME)
+            .setDaemon(true)
+            .build());
+      }
     }
   }
 
@@ -140,8 +187,17 @@ public class SentryAuthorizationInfo implements Runnable {
       LOG.info("Received updates from Sentry Server. Size of PathUpdates {} PermUpdates {}",
           updates.getPathUpdates().size(), updates.getPermUpdates().size());
       LOG.debug("Processing updates " + updates.dumpContent());
-      UpdateableAuthzPaths newAuthzPaths = processUpdates(
-          updates.getPathUpdates(), authzPaths);
+      // A full paths image sent in chunks is fetched before anything is updated, so that
+      // all updates are fetched again if that fails
+      UpdateableAuthzPaths basePaths = authzPaths;
+      List<PathsUpdate> pathUpdates = updates.getPathUpdates();
+      if (!pathUpdates.isEmpty() && pathUpdates.get(0).hasChunkedImage()) {
+        basePaths = updater.getPathsImage(pathUpdates.remove(0), authzPaths);
+        if (basePaths == null) {
+          return false;
+        }
+      }
+      UpdateableAuthzPaths newAuthzPaths = processUpdates(pathUpdates, basePaths);
       UpdateableAuthzPermissions newAuthzPerms = processUpdates(
           updates.getPermUpdates(), authzPermissions);
 
@@ -227,6 +283,9 @@ public class SentryAuthorizationInfo implements Runnable {
         Thread.sleep(waitUntil - currTime);
       }
       success = update();
+      if (success) {
+        saveCheckpoint();
+      }
     } catch (Exception ex) {
       success = false;
       LOG.warn("Failed to update, will retry in [{}]ms, error: ", 
@@ -247,9 +306,13 @@ public class SentryAuthorizationInfo implements Runnable {
 
   public void start() {
     if (authzPaths != null || authzPermissions != null) {
+      loadCheckpoint();
       boolean success = false;
       try {
         success = update();
+        if (success) {
+          saveCheckpoint();
+        }
       } catch (Exception ex) {
         success = false;
         LOG.warn("Failed to do initial update, will retry in [{}]ms, error: ",
@@ -268,10 +331,106 @@ public class SentryAuthorizationInfo implements Runnable {
     }
   }
 
+  /**
+   * Starts from the paths and permissions of the checkpoint, if there is one. They are
+   * served until the updates made since the checkpoint are fetched, instead of the
+   * fallback permissions of stale authorization information.
+   */
+  private void loadCheckpoint() {
+    if (checkpoint == null) {
+      return;
+    }
+    SentryAuthzCheckpoint.Images images = checkpoint.load();
+    if (images == null) {
+      return;
+    }
+    UpdateableAuthzPaths newAuthzPaths = authzPaths.updateFull(images.getPathsImage());
+    UpdateableAuthzPermissions newAuthzPerms =
+        authzPermissions.updateFull(images.getPermsImage());
+    lock.writeLock().lock();
+    try {
+      authzPaths = newAuthzPaths;
+      authzPermissions = newAuthzPerms;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    // The checkpoint is only as fresh as when it was created
+    lastUpdate = images.getCreateTime();
+    lastCheckpoint = images.getCreateTime();
+    checkpointPathsSeqNum = newAuthzPaths.getLastUpdatedSeqNum();
+    checkpointPathsImgNum = newAuthzPaths.getLastUpdatedImgNum();
+    checkpointPermsSeqNum = newAuthzPerms.getLastUpdatedSeqNum();
+  }
+
+  /**
+   * Saves a checkpoint once the checkpoint interval has passed, or right away after a
+   * new full image of the paths, if anything changed since the last checkpoint and no
+   * checkpoint is being saved. Called by the thread applying the updates, the checkpoint
+   * is saved by the checkpoint thread.
+   */
+  private void saveCheckpoint() {
+    if (checkpoint == null || checkpointPending.get()) {
+      return;
+    }
+    long pathsSeqNum = authzPaths.getLastUpdatedSeqNum();
+    long pathsImgNum = authzPaths.getLastUpdatedImgNum();
+    long permsSeqNum = authzPermissions.getLastUpdatedSeqNum();
+    if (pathsSeqNum == checkpointPathsSeqNum && pathsImgNum == checkpointPathsImgNum &&
+        permsSeqNum == checkpointPermsSeqNum) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    if (now - lastCheckpoint < checkpointIntervalMillisec &&
+        pathsImgNum == checkpointPathsImgNum) {
+      return;
+    }
+    lastCheckpoint = now;
+    checkpointPending.set(true);
+    try {
+      checkpointExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          writeCheckpoint();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      checkpointPending.set(false);
+      LOG.debug("Not saving authorization checkpoint while stopping", e);
+    }
+  }
+
+  /**
+   * Saves a checkpoint of the current paths and permissions. The images are created
+   * under the read lock, so no update is half applied to them, and written without it.
+   */
+  private void writeCheckpoint() {
+    try {
+      SentryAuthzCheckpoint.Images images;
+      lock.readLock().lock();
+      try {
+        images = SentryAuthzCheckpoint.createImages(authzPaths, authzPermissions);
+      } finally {
+        lock.readLock().unlock();
+      }
+      checkpoint.save(images);
+      checkpointPathsSeqNum = images.getPathsImage().getSeqNum();
+      checkpointPathsImgNum = images.getPathsImage().getImgNum();
+      checkpointPermsSeqNum = images.getPermsImage().getSeqNum();
+    } catch (Exception e) {
+      LOG.warn("Failed to save authorization checkpoint, will retry in [{}]ms",
+          checkpointIntervalMillisec, e);
+    } finally {
+      checkpointPending.set(false);
+    }
+  }
+
   public void stop() {
     if (authzPaths != null) {
       LOG.info(getClass().getSimpleName() + ": Stopping");
       executor.shutdownNow();
+      if (checkpointExecutor != null) {
+        checkpointExecutor.shutdown();
+      }
     }
   }
 
@@ -319,31 +478,112 @@ public class SentryAuthorizationInfo implements Runnable {
     }
   }
 
+  /**
+   * Resolves everything about a path that is needed to serve its attributes, with a single
+   * acquisition of the read lock and a single lookup in the paths tree. The result is a
+   * consistent view of the path that can be used without further locking.
+   */
+  public ResolvedPath resolvePath(String[] pathElements) {
+    lock.readLock().lock();
+    try {
+      if (!authzPaths.isUnderPrefix(pathElements)) {
+        return new ResolvedPath(pathElements, false, null, authzPaths, authzPaths.getVersion());
+      }
+      // The authorizable objects are not copied, they are only read again while the
+      // paths have not changed since, see ResolvedPath#getAuthzObjects()
+      return new ResolvedPath(pathElements, true, authzPaths.findAuthzObject(pathElements),
+          authzPaths, authzPaths.getVersion());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
   @SuppressWarnings("unchecked")
   public List<AclEntry> getAclEntries(String[] pathElements) {
     lock.readLock().lock();
     try {
       Set<String> authzObjs = authzPaths.findAuthzObject(pathElements);
-      // Apparently setFAcl throws error if 'group::---' is not present
-      AclEntry noGroup = AclEntry.parseAclEntry("group::---", true);
-
-      Set<AclEntry> retSet = new HashSet<>();
-      retSet.add(noGroup);
+      return getAclEntriesCore(authzObjs);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
 
-      if (authzObjs == null) {
-        retSet.addAll(Collections.<AclEntry>emptyList());
-        return new ArrayList<>(retSet);
-      }
+  /**
+   * Returns the ACLs of a path resolved by {@link #resolvePath(String[])}. The authorizable
+   * objects of the path and their permissions are read under the same lock, the objects are
+   * only looked up again if the paths changed since the path was resolved.
+   */
+  public List<AclEntry> getAclEntries(ResolvedPath resolvedPath) {
+    lock.readLock().lock();
+    try {
+      return getAclEntriesCore(resolvedPath.getAuthzObjects(authzPaths));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
 
-      // No duplicate acls should be added.
-      for (String authzObj: authzObjs) {
-        retSet.addAll(authzPermissions.getAcls(authzObj));
-      }
+  private List<AclEntry> getAclEntriesCore(Set<String> authzObjs) {
+    Set<AclEntry> retSet = new HashSet<>();
+    retSet.add(NO_GROUP_ACL);
 
+    if (authzObjs == null) {
       return new ArrayList<>(retSet);
-    } finally {
-      lock.readLock().unlock();
     }
+
+    // No duplicate acls should be added.
+    for (String authzObj: authzObjs) {
+      retSet.addAll(authzPermissions.getAcls(authzObj));
+    }
+
+    return new ArrayList<>(retSet);
   }
 
+  /**
+   * Authorization state of a path as resolved by {@link #resolvePath(String[])}.
+   */
+  public static final class ResolvedPath {
+    private final String[] pathElements;
+    private final boolean underPrefix;
+    // Owned by the paths, only valid as long as their version does not change
+    private final Set<String> authzObjects;
+    private final UpdateableAuthzPaths paths;
+    private final long pathsVersion;
+
+    ResolvedPath(String[] pathElements, boolean underPrefix, Set<String> authzObjects,
+        UpdateableAuthzPaths paths, long pathsVersion) {
+      this.pathElements = pathElements;
+      this.underPrefix = underPrefix;
+      this.authzObjects = authzObjects;
+      this.paths = paths;
+      this.pathsVersion = pathsVersion;
+    }
+
+    public String[] getPathElements() {
+      return pathElements;
+    }
+
+    public boolean isUnderPrefix() {
+      return underPrefix;
+    }
+
+    public boolean belongsToAuthzObject() {
+      return authzObjects != null;
+    }
+
+    public boolean isSentryManaged() {
+      return underPrefix && authzObjects != null;
+    }
+
+    /**
+     * @return the authorizable objects of the path in the current paths, or null if it does
+     * not belong to any. Must be called with the read lock held.
+     */
+    private Set<String> getAuthzObjects(UpdateableAuthzPaths currentPaths) {
+      if (currentPaths == paths && currentPaths.getVersion() == pathsVersion) {
+        return authzObjects;
+      }
+      return currentPaths.findAuthzObject(pathElements);
+    }
+  }
 }
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import org.apache.sentry.hdfs.service.thrift.TPathsUpdate;
+import org.apache.sentry.hdfs.service.thrift.TPermissionsUpdate;
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * A local checkpoint of the paths and permissions applied by {@link SentryAuthorizationInfo}.
+ * <p>
+ * The checkpoint holds a full image of both, with their sequence and image numbers, so that
+ * after a restart the NameNode can serve the last known ACLs right away and only ask the
+ * Sentry server for the updates made since then. The file is written to a temporary file
+ * that replaces the previous checkpoint atomically. The images are deserialized while the
+ * file is read, without holding the whole file in memory.
+ * <p>
+ * File layout: magic, version, creation time, length of the paths image, length of the
+ * permissions image, CRC32 of both images, followed by the two thrift serialized images.
+ */
+class SentryAuthzCheckpoint {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SentryAuthzCheckpoint.class);
+
+  static final String FILE_NAME = "sentry-authz.checkpoint";
+
+  private static final int MAGIC = 0x53414350;
+  private static final int VERSION = 1;
+  // magic, version, creation time, two lengths and the checksum
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 8;
+
+  private final File file;
+  private final long maxAgeMillisec;
+
+  SentryAuthzCheckpoint(File dir, long maxAgeMillisec) {
+    this.file = new File(dir, FILE_NAME);
+    this.maxAgeMillisec = maxAgeMillisec;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Writes the full images of paths and permissions, replacing the previous checkpoint.
+   * Must not run concurrently with updates of the paths and permissions.
+   */
+  void save(UpdateableAuthzPaths paths, UpdateableAuthzPermissions perms) throws IOException {
+    save(createImages(paths, perms));
+  }
+
+  /**
+   * Creates the full images of paths and permissions to be saved. Must not run
+   * concurrently with updates of the paths and permissions, the images can then be saved
+   * while they are updated.
+   */
+  static Images createImages(UpdateableAuthzPaths paths, UpdateableAuthzPermissions perms) {
+    long createTime = System.currentTimeMillis();
+    PathsUpdate pathsImage = paths.createFullImageUpdate(paths.getLastUpdatedSeqNum());
+    pathsImage.setImgNum(paths.getLastUpdatedImgNum());
+    PermissionsUpdate permsImage = perms.createFullImageUpdate(perms.getLastUpdatedSeqNum());
+    return new Images(pathsImage, permsImage, createTime);
+  }
+
+  /**
+   * Writes the images, replacing the previous checkpoint.
+   */
+  void save(Images images) throws IOException {
+    long start = System.currentTimeMillis();
+    PathsUpdate pathsImage = images.getPathsImage();
+    PermissionsUpdate permsImage = images.getPermsImage();
+    byte[] pathsData = pathsImage.serialize();
+    byte[] permsData = permsImage.serialize();
+    CRC32 crc = new CRC32();
+    crc.update(pathsData);
+    crc.update(permsData);
+
+    File parent = file.getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Cannot create checkpoint directory " + parent);
+    }
+    File tmpFile = new File(file.getPath() + ".tmp");
+    try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(images.getCreateTime());
+      out.writeInt(pathsData.length);
+      out.writeInt(permsData.length);
+      out.writeLong(crc.getValue());
+      out.write(pathsData);
+      out.write(permsData);
+      out.flush();
+      fileOut.getFD().sync();
+    }
+    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    LOG.info("Saved authorization checkpoint {} with paths seq Num [{}] img Num [{}]" +
+        " and perms seq Num [{}], {} bytes in {}ms", file, pathsImage.getSeqNum(),
+        pathsImage.getImgNum(), permsImage.getSeqNum(),
+        HEADER_SIZE + pathsData.length + permsData.length,
+        System.currentTimeMillis() - start);
+  }
+
+  /**
+   * @return the images of the checkpoint, or null if there is no usable checkpoint
+   */
+  Images load() {
+    if (!file.isFile()) {
+      LOG.info("No authorization checkpoint found at {}", file);
+      return null;
+    }
+    long start = System.currentTimeMillis();
+    long size = file.length();
+    if (size < HEADER_SIZE) {
+      LOG.warn("Ignoring truncated authorization checkpoint {}", file);
+      return null;
+    }
+    try (InputStream fileIn = new BufferedInputStream(new FileInputStream(file))) {
+      DataInputStream header = new DataInputStream(fileIn);
+      int magic = header.readInt();
+      int version = header.readInt();
+      if (magic != MAGIC || version != VERSION) {
+        LOG.warn("Ignoring authorization checkpoint {} with unknown format {}/{}",
+            file, magic, version);
+        return null;
+      }
+      long createTime = header.readLong();
+      if (start - createTime > maxAgeMillisec) {
+        LOG.info("Ignoring authorization checkpoint {} created {}s ago", file,
+            (start - createTime) / 1000);
+        return null;
+      }
+      int pathsLength = header.readInt();
+      int permsLength = header.readInt();
+      long checksum = header.readLong();
+      if (pathsLength < 0 || permsLength < 0 ||
+          HEADER_SIZE + (long) pathsLength + permsLength != size) {
+        LOG.warn("Ignoring truncated authorization checkpoint {}", file);
+        return null;
+      }
+
+      // The images are deserialized as they are read, and only used if the checksum of
+      // everything read matches
+      CRC32 crc = new CRC32();
+      InputStream in = new CheckedInputStream(fileIn, crc);
+      TPathsUpdate tPathsImage = new TPathsUpdate();
+      readImage(tPathsImage, in, pathsLength);
+      TPermissionsUpdate tPermsImage = new TPermissionsUpdate();
+      readImage(tPermsImage, in, permsLength);
+      if (crc.getValue() != checksum) {
+        LOG.warn("Ignoring corrupt authorization checkpoint {}", file);
+        return null;
+      }
+
+      PathsUpdate pathsImage = new PathsUpdate(tPathsImage);
+      PermissionsUpdate permsImage = new PermissionsUpdate(tPermsImage);
+      LOG.info("Loaded authorization checkpoint {} with paths seq Num [{}] img Num [{}]" +
+          " and perms seq Num [{}] in {}ms", file, pathsImage.getSeqNum(),
+          pathsImage.getImgNum(), permsImage.getSeqNum(), System.currentTimeMillis() - start);
+      return new Images(pathsImage, permsImage, createTime);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to load authorization checkpoint " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Reads an image of the given length, and everything after it up to that length, so that
+   * all its bytes are checksummed even if the image is corrupt.
+   */
+  @SuppressWarnings("rawtypes")
+  private static void readImage(TBase image, InputStream in, int length)
+      throws IOException {
+    InputStream imageIn = ByteStreams.limit(in, length);
+    try {
+      ThriftSerializer.deserialize(image, imageIn);
+    } finally {
+      ByteStreams.exhaust(imageIn);
+    }
+  }
+
+  /**
+   * Full images of paths and permissions of a checkpoint.
+   */
+  static final class Images {
+    private final PathsUpdate pathsImage;
+    private final PermissionsUpdate permsImage;
+    private final long createTime;
+
+    Images(PathsUpdate pathsImage, PermissionsUpdate permsImage, long createTime) {
+      this.pathsImage = pathsImage;
+      this.permsImage = permsImage;
+      this.createTime = createTime;
+    }
+
+    /**
+     * @return the time the images were created at, in milliseconds since the epoch
+     */
+    long getCreateTime() {
+      return createTime;
+    }
+
+    PathsUpdate getPathsImage() {
+      return pathsImage;
+    }
+
+    PermissionsUpdate getPermsImage() {
+      return permsImage;
+    }
+  }
+}
@@ -105,11 +105,19 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
 
     private final INodeAttributes defaultAttributes;
     private final String[] pathElements;
+    // Resolved once, so that all the attributes are served from the same view of the path
+    private final SentryAuthorizationInfo.ResolvedPath resolvedPath;
 
     public SentryINodeAttributes(INodeAttributes defaultAttributes, String[]
             pathElements) {
+      this(defaultAttributes, authzInfo.resolvePath(pathElements));
+    }
+
+    SentryINodeAttributes(INodeAttributes defaultAttributes,
+            SentryAuthorizationInfo.ResolvedPath resolvedPath) {
       this.defaultAttributes = defaultAttributes;
-      this.pathElements = pathElements;
+      this.pathElements = resolvedPath.getPathElements();
+      this.resolvedPath = resolvedPath;
     }
 
     @Override
@@ -124,13 +132,13 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
 
     @Override
     public String getUserName() {
-      return isSentryManaged(pathElements)?
+      return resolvedPath.isSentryManaged()?
           SentryINodeAttributesProvider.this.user : defaultAttributes.getUserName();
     }
 
     @Override
     public String getGroupName() {
-      return isSentryManaged(pathElements)?
+      return resolvedPath.isSentryManaged()?
           SentryINodeAttributesProvider.this.group : defaultAttributes.getGroupName();
     }
 
@@ -138,7 +146,7 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
     public FsPermission getFsPermission() {
       FsPermission permission;
 
-      if (!isSentryManaged(pathElements)) {
+      if (!resolvedPath.isSentryManaged()) {
         permission = defaultAttributes.getFsPermission();
       } else {
         FsPermission returnPerm = SentryINodeAttributesProvider.this.permission;
@@ -191,10 +199,10 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
       Map<String, AclEntry> aclMap = null;
 
       // If path is not under prefix, return hadoop acls.
-      if (!authzInfo.isUnderPrefix(pathElements)) {
+      if (!resolvedPath.isUnderPrefix()) {
         isPrefixed = false;
         aclFeature = defaultAttributes.getAclFeature();
-      } else if (!authzInfo.doesBelongToAuthzObject(pathElements)) {
+      } else if (!resolvedPath.belongsToAuthzObject()) {
         // If path is not managed, return hadoop acls.
         isPrefixed = true;
         aclFeature = defaultAttributes.getAclFeature();
@@ -215,7 +223,7 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
         if (!authzInfo.isStale()) {
           // if not stale return sentry acls.
           isStale = false;
-          addToACLMap(aclMap, authzInfo.getAclEntries(pathElements));
+          addToACLMap(aclMap, authzInfo.getAclEntries(resolvedPath));
           aclFeature = new SentryAclFeature(ImmutableList.copyOf(aclMap.values()));
         } else {
           // if stale return hive:hive
@@ -261,10 +269,6 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
   public SentryINodeAttributesProvider() {
   }
 
-  private boolean isSentryManaged(final String[] pathElements) {
-    return authzInfo.isSentryManaged(pathElements);
-  }
-
   @VisibleForTesting
   SentryINodeAttributesProvider(SentryAuthorizationInfo authzInfo) {
     this.authzInfo = authzInfo;
@@ -339,8 +343,9 @@ public class SentryINodeAttributesProvider extends INodeAttributeProvider
     pathElements = "".equals(pathElements[0]) && pathElements.length > 1 ?
             Arrays.copyOfRange(pathElements, 1, pathElements.length) :
             pathElements;
-    return isSentryManaged(pathElements) ? new SentryINodeAttributes
-            (inode, pathElements) : inode;
+    SentryAuthorizationInfo.ResolvedPath resolvedPath = authzInfo.resolvePath(pathElements);
+    return resolvedPath.isSentryManaged() ? new SentryINodeAttributes
+            (inode, resolvedPath) : inode;
   }
 
   @Override
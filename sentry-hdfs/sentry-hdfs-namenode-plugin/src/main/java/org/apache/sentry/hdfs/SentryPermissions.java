@@ -18,7 +18,10 @@
 package org.apache.sentry.hdfs;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.hadoop.fs.permission.AclEntry;
 import org.apache.hadoop.fs.permission.AclEntryScope;
 import org.apache.hadoop.fs.permission.AclEntryType;
@@ -167,6 +170,20 @@ public class SentryPermissions implements AuthzPermissions {
 
   // RoleInfo should be case insensitive.
   private final Map<String, RoleInfo> roles = new TreeMap<String, RoleInfo>(String.CASE_INSENSITIVE_ORDER);
+
+  // Objects on which each role has privileges, so that a change of the groups of a role only
+  // drops the ACL's of these objects. Roles removed in place from a PrivilegeInfo are dropped
+  // from it when the groups of the role change.
+  private final Map<String, Set<String>> roleAuthzObjs =
+      new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+
+  // ACLs built by getAcls(), grouped by the parent object (database) so that a change on a
+  // database drops the ACLs of all its tables as well. Keys are case folded, as the comparison
+  // of authorizable objects is case insensitive. Readers may fill it concurrently, changes to
+  // the permissions (and so the invalidations) are made by a single writer. Changes made in
+  // place to a PrivilegeInfo or RoleInfo must be followed by the matching invalidation.
+  private final ConcurrentMap<String, ConcurrentMap<String, List<AclEntry>>> aclCache =
+      new ConcurrentHashMap<String, ConcurrentMap<String, List<AclEntry>>>();
   private static Logger LOG =
           LoggerFactory.getLogger(SentryINodeAttributesProvider.class);
 
@@ -233,15 +250,41 @@ public class SentryPermissions implements AuthzPermissions {
 
   /**
    * Constructs HDFS ACL's based on the permissions granted to the object directly
-   * and inherited from the parents.
+   * and inherited from the parents. The ACL's are cached until the permissions of the object,
+   * of its parent or of one of the roles granted on them change.
    * @param authzObj Object name for which ACL are needed
    * @return HDFS ACL's
    */
   @Override
   public List<AclEntry> getAcls(String authzObj) {
+    String parent = getParentAuthzObject(authzObj);
+    if (parent == null) {
+      return buildAcls(authzObj);
+    }
+
+    String parentKey = foldCase(parent);
+    ConcurrentMap<String, List<AclEntry>> parentAcls = aclCache.get(parentKey);
+    if (parentAcls == null) {
+      parentAcls = new ConcurrentHashMap<String, List<AclEntry>>();
+      ConcurrentMap<String, List<AclEntry>> existing = aclCache.putIfAbsent(parentKey, parentAcls);
+      if (existing != null) {
+        parentAcls = existing;
+      }
+    }
+
+    String key = foldCase(authzObj);
+    List<AclEntry> acls = parentAcls.get(key);
+    if (acls == null) {
+      acls = buildAcls(authzObj);
+      parentAcls.put(key, acls);
+    }
+    return acls;
+  }
+
+  private List<AclEntry> buildAcls(String authzObj) {
     Map<HdfsAclEntity, FsAction> permissions = getPerms(authzObj);
 
-    List<AclEntry> retList = new LinkedList<AclEntry>();
+    ImmutableList.Builder<AclEntry> retList = ImmutableList.builder();
     for (Map.Entry<HdfsAclEntity, FsAction> permission : permissions.entrySet()) {
       AclEntry.Builder builder = new AclEntry.Builder();
       if(permission.getKey().getType() == AclEntryType.GROUP) {
@@ -263,7 +306,119 @@ public class SentryPermissions implements AuthzPermissions {
       builder.setPermission(action);
       retList.add(builder.build());
     }
-    return retList;
+    return retList.build();
+  }
+
+  /**
+   * Drops the cached ACL's of an object. The ACL's of a database are dropped together with
+   * the ACL's of all its tables, which inherit its permissions.
+   * @param authzObj Object whose permissions changed
+   */
+  void invalidateAcls(String authzObj) {
+    String parent = getParentAuthzObject(authzObj);
+    if (parent == null || aclCache.isEmpty()) {
+      return;
+    }
+    if (parent.equals(authzObj)) {
+      aclCache.remove(foldCase(parent));
+    } else {
+      Map<String, List<AclEntry>> parentAcls = aclCache.get(foldCase(parent));
+      if (parentAcls != null) {
+        parentAcls.remove(foldCase(authzObj));
+      }
+    }
+  }
+
+  /**
+   * Drops the cached ACL's of all the objects the role has privileges on.
+   * @param role Role whose groups changed
+   */
+  void invalidateAclsForRole(String role) {
+    Set<String> authzObjs = roleAuthzObjs.get(role);
+    if (authzObjs == null) {
+      return;
+    }
+    Iterator<String> it = authzObjs.iterator();
+    while (it.hasNext()) {
+      String authzObj = it.next();
+      if (hasRolePermission(privileges.get(authzObj), role)) {
+        invalidateAcls(authzObj);
+      } else {
+        it.remove();
+      }
+    }
+    if (authzObjs.isEmpty()) {
+      roleAuthzObjs.remove(role);
+    }
+  }
+
+  private static boolean hasRolePermission(PrivilegeInfo privilegeInfo, String role) {
+    if (privilegeInfo != null) {
+      for (TPrivilegePrincipal principal : privilegeInfo.getAllPermissions().keySet()) {
+        if (principal.getType() == TPrivilegePrincipalType.ROLE
+            && String.CASE_INSENSITIVE_ORDER.compare(principal.getValue(), role) == 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void addRoleAuthzObjs(PrivilegeInfo privilegeInfo) {
+    for (TPrivilegePrincipal principal : privilegeInfo.getAllPermissions().keySet()) {
+      if (principal.getType() == TPrivilegePrincipalType.ROLE) {
+        Set<String> authzObjs = roleAuthzObjs.get(principal.getValue());
+        if (authzObjs == null) {
+          authzObjs = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+          roleAuthzObjs.put(principal.getValue(), authzObjs);
+        }
+        authzObjs.add(privilegeInfo.getAuthzObj());
+      }
+    }
+  }
+
+  private void delRoleAuthzObjs(PrivilegeInfo privilegeInfo) {
+    for (TPrivilegePrincipal principal : privilegeInfo.getAllPermissions().keySet()) {
+      if (principal.getType() == TPrivilegePrincipalType.ROLE) {
+        Set<String> authzObjs = roleAuthzObjs.get(principal.getValue());
+        if (authzObjs != null) {
+          authzObjs.remove(privilegeInfo.getAuthzObj());
+          if (authzObjs.isEmpty()) {
+            roleAuthzObjs.remove(principal.getValue());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Drops all the cached ACL's.
+   */
+  void invalidateAllAcls() {
+    aclCache.clear();
+  }
+
+  /**
+   * Folds the case of an object name the same way {@link String#CASE_INSENSITIVE_ORDER}
+   * compares it, so it can be used as a hash key.
+   */
+  private static String foldCase(String str) {
+    int i = 0;
+    while (i < str.length() && foldCase(str.charAt(i)) == str.charAt(i)) {
+      i++;
+    }
+    if (i == str.length()) {
+      return str;
+    }
+    char[] chars = str.toCharArray();
+    for (; i < chars.length; i++) {
+      chars[i] = foldCase(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private static char foldCase(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
   }
 
   /**
@@ -315,11 +470,17 @@ public class SentryPermissions implements AuthzPermissions {
   }
 
   public void delPrivilegeInfo(String authzObj) {
-    privileges.remove(authzObj);
+    PrivilegeInfo privilegeInfo = privileges.remove(authzObj);
+    if (privilegeInfo != null) {
+      delRoleAuthzObjs(privilegeInfo);
+    }
+    invalidateAcls(authzObj);
   }
 
   public void addPrivilegeInfo(PrivilegeInfo privilegeInfo) {
     privileges.put(privilegeInfo.authzObj, privilegeInfo);
+    addRoleAuthzObjs(privilegeInfo);
+    invalidateAcls(privilegeInfo.authzObj);
   }
 
   public Set<String> getChildren(String authzObj) {
@@ -332,10 +493,12 @@ public class SentryPermissions implements AuthzPermissions {
 
   public void delRoleInfo(String role) {
     roles.remove(role);
+    invalidateAclsForRole(role);
   }
 
   public void addRoleInfo(RoleInfo roleInfo) {
     roles.put(roleInfo.role, roleInfo);
+    invalidateAclsForRole(roleInfo.role);
   }
 
   public String dumpContent() {
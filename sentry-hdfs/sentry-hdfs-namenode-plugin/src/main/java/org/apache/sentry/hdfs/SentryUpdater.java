@@ -18,6 +18,7 @@
 package org.apache.sentry.hdfs;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,4 +58,38 @@ class SentryUpdater {
     }
   }
 
+  /**
+   * Fetches the full image of a paths update that is sent in chunks.
+   *
+   * @param update The update with the chunked image
+   * @param authzPaths The current paths, whose kind and prefixes are used for the image
+   * @return The paths of the image, or null if it could not be fetched
+   */
+  UpdateableAuthzPaths getPathsImage(PathsUpdate update, UpdateableAuthzPaths authzPaths) {
+    if (sentryClient == null) {
+      LOG.error("Not connected to Sentry, unable to fetch paths image {}",
+          update.getPathsImageId());
+      return null;
+    }
+    long startTime = System.currentTimeMillis();
+    PathsImageLoader loader = authzPaths.newPathsImageLoader(update);
+    int chunkIndex = 0;
+    try {
+      while (!loader.isComplete()) {
+        TPathsImageChunk chunk =
+            sentryClient.getPathsImageChunk(update.getPathsImageId(), chunkIndex++);
+        loader.addChunk(chunk);
+      }
+      UpdateableAuthzPaths paths = loader.build();
+      LOG.info("Received paths image {} [seqNum={}, imgNum={}] in {} chunks in {} ms",
+          update.getPathsImageId(), update.getSeqNum(), update.getImgNum(), chunkIndex,
+          System.currentTimeMillis() - startTime);
+      return paths;
+    } catch (Exception e) {
+      sentryClient = null;
+      LOG.error("Error receiving chunk {} of paths image {} from Sentry",
+          chunkIndex - 1, update.getPathsImageId(), e);
+      return null;
+    }
+  }
 }
@@ -73,13 +73,14 @@ public class UpdateableAuthzPermissions implements AuthzPermissions, Updateable<
       int counter = 0;
       for (PermissionsUpdate update : updates) {
         applyPartialUpdate(update);
+        // Updated before the lock is released, like the sequence number of the paths
+        seqNum.set(update.getSeqNum());
+        LOG.debug("##### Updated perms seq Num [" + seqNum.get() + "]");
         if (++counter > MAX_UPDATES_PER_LOCK_USE) {
           counter = 0;
           lock.writeLock().unlock();
           lock.writeLock().lock();
         }
-        seqNum.set(update.getSeqNum());
-        LOG.debug("##### Updated perms seq Num [" + seqNum.get() + "]");
       }
     } finally {
       lock.writeLock().unlock();
@@ -103,6 +104,7 @@ public class UpdateableAuthzPermissions implements AuthzPermissions, Updateable<
         for (RoleInfo rInfo : perms.getAllRoles()) {
           rInfo.delGroup(groupToRemove);
         }
+        perms.invalidateAllAcls();
       }
       RoleInfo rInfo = perms.getRoleInfo(rUpdate.getRole());
       LOG.debug("RoleInfo Before: " + ((rInfo != null)  ? rInfo.toString() : "null"));
@@ -134,6 +136,10 @@ public class UpdateableAuthzPermissions implements AuthzPermissions, Updateable<
       LOG.debug("Applying privilege update on object:{} add privileges {}, delete privileges {}", pUpdate.getAuthzObj(),
       pUpdate.getAddPrivileges(), pUpdate.getDelPrivileges());
 
+      if (pUpdate.getAuthzObj().equals(PermissionsUpdate.PRINCIPAL_CHANGES)) {
+        // Changes of privileges which are not mapped to HDFS permissions
+        continue;
+      }
       if (pUpdate.getAuthzObj().equals(PermissionsUpdate.RENAME_PRIVS)) {
         addPrivEntity = pUpdate.getAddPrivileges().keySet().iterator().next();
         delPrivEntity = pUpdate.getDelPrivileges().keySet().iterator().next();
@@ -172,7 +178,10 @@ public class UpdateableAuthzPermissions implements AuthzPermissions, Updateable<
         delPrivEntity = pUpdate.getDelPrivileges().keySet().iterator().next();
         for (PrivilegeInfo pInfo : perms.getAllPrivileges()) {
           LOG.debug("Role {} is revoked permission on {}", delPrivEntity.getValue(), pInfo.getAuthzObj());
-          pInfo.removePermission(delPrivEntity);
+          if (pInfo.getPermission(delPrivEntity) != null) {
+            pInfo.removePermission(delPrivEntity);
+            perms.invalidateAcls(pInfo.getAuthzObj());
+          }
         }
       }
       logPermissionInfo("BEFORE-UPDATE",  pUpdate.getAuthzObj());
@@ -246,6 +255,10 @@ public class UpdateableAuthzPermissions implements AuthzPermissions, Updateable<
     FsAction retVal = FsAction.NONE;
     for (String strPriv : strPrivs) {
       FsAction action = ACTION_MAPPING.get(strPriv.toUpperCase());
+      if (action == null) {
+        // Full images created by createFullImageUpdate() have the symbols of the actions
+        action = FsAction.getFsAction(strPriv);
+      }
       if (action == null) {
         // Encountered a privilege that is not supported. Since we do not know what
         // to do with it we just drop all access.
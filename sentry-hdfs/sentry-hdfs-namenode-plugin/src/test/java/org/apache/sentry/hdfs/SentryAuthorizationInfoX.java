@@ -18,6 +18,7 @@
 package org.apache.sentry.hdfs;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hadoop.fs.permission.AclEntry;
@@ -81,6 +82,17 @@ public class SentryAuthorizationInfoX extends SentryAuthorizationInfo {
     return isUnderPrefix(pathElements) && doesBelongToAuthzObject(pathElements);
   }
 
+  @Override
+  public ResolvedPath resolvePath(String[] pathElements) {
+    return new ResolvedPath(pathElements, isUnderPrefix(pathElements),
+        doesBelongToAuthzObject(pathElements) ? Collections.singleton("obj") : null, null, 0);
+  }
+
+  @Override
+  public List<AclEntry> getAclEntries(ResolvedPath resolvedPath) {
+    return getAclEntries(resolvedPath.getPathElements());
+  }
+
   @Override
   public List<AclEntry> getAclEntries(String[] pathElements) {
     AclEntry acl = new AclEntry.Builder().setType(AclEntryType.USER).
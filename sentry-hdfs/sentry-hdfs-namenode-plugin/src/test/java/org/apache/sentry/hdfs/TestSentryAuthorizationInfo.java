@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.hadoop.fs.permission.AclEntry;
+import org.apache.hadoop.fs.permission.AclEntryType;
+import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
+import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class TestSentryAuthorizationInfo {
+  private static final String[] PREFIXES = {"/user/hive/warehouse"};
+  private static final String[] TABLE_PATH = {"user", "hive", "warehouse", "db1.db", "tbl1"};
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private UpdateableAuthzPaths paths;
+  private SentryAuthorizationInfo authzInfo;
+
+  @Before
+  public void setup() {
+    paths = new UpdateableAuthzPaths(PREFIXES);
+    PathsUpdate dbUpdate = new PathsUpdate(4, 3, false);
+    dbUpdate.newPathChange("db1").addToAddPaths(
+        Lists.newArrayList("user", "hive", "warehouse", "db1.db"));
+    PathsUpdate tableUpdate = new PathsUpdate(5, 3, false);
+    tableUpdate.newPathChange("db1.tbl1").addToAddPaths(Lists.newArrayList(TABLE_PATH));
+    paths.updatePartial(Lists.newArrayList(dbUpdate, tableUpdate), lock);
+
+    UpdateableAuthzPermissions perms = new UpdateableAuthzPermissions();
+    PermissionsUpdate permsUpdate = new PermissionsUpdate(7, false);
+    permsUpdate.addPrivilegeUpdate("db1").putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1"), "SELECT");
+    permsUpdate.addPrivilegeUpdate("db1.tbl1").putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role2"), "INSERT,SELECT");
+    permsUpdate.addRoleUpdate("role1").addToAddGroups("group1");
+    permsUpdate.addRoleUpdate("role2").addToAddGroups("group2");
+    perms.updatePartial(Lists.newArrayList(permsUpdate), lock);
+
+    authzInfo = new SentryAuthorizationInfo(PREFIXES, paths, perms);
+  }
+
+  @Test
+  public void testAclEntriesOfResolvedPath() {
+    SentryAuthorizationInfo.ResolvedPath resolvedPath = authzInfo.resolvePath(TABLE_PATH);
+    assertTrue(resolvedPath.isSentryManaged());
+    assertEquals(Sets.newHashSet("group2"), getGroups(authzInfo.getAclEntries(resolvedPath)));
+
+    SentryAuthorizationInfo.ResolvedPath otherPath =
+        authzInfo.resolvePath(new String[] {"user", "other"});
+    assertFalse(otherPath.isUnderPrefix());
+    assertEquals(Sets.newHashSet(), getGroups(authzInfo.getAclEntries(otherPath)));
+  }
+
+  @Test
+  public void testAclEntriesAfterPathsChange() {
+    SentryAuthorizationInfo.ResolvedPath resolvedPath = authzInfo.resolvePath(TABLE_PATH);
+
+    // The table is dropped after the path is resolved, its directory now belongs to the
+    // database, and the ACLs follow the paths the permissions are read with
+    PathsUpdate dropUpdate = new PathsUpdate(6, 3, false);
+    dropUpdate.newPathChange("db1.tbl1").addToDelPaths(
+        Lists.newArrayList(PathsUpdate.ALL_PATHS));
+    paths.updatePartial(Lists.newArrayList(dropUpdate), lock);
+
+    assertEquals(Sets.newHashSet("group1"), getGroups(authzInfo.getAclEntries(resolvedPath)));
+  }
+
+  private static Set<String> getGroups(List<AclEntry> aclEntries) {
+    Set<String> groups = new HashSet<>();
+    for (AclEntry aclEntry : aclEntries) {
+      // Skip the entry for the owning group, which every path has
+      if (aclEntry.getType() == AclEntryType.GROUP && aclEntry.getName() != null
+          && !aclEntry.getName().isEmpty()) {
+        groups.add(aclEntry.getName());
+      }
+    }
+    return groups;
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
+import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+public class TestSentryAuthzCheckpoint {
+  private static final String[] PREFIXES = {"/user/hive/warehouse"};
+  private static final long MAX_AGE_MS = 60 * 1000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private UpdateableAuthzPaths paths;
+  private UpdateableAuthzPermissions perms;
+
+  @Before
+  public void setup() {
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    paths = new UpdateableAuthzPaths(PREFIXES);
+    PathsUpdate dbUpdate = new PathsUpdate(4, 3, false);
+    dbUpdate.newPathChange("db1").addToAddPaths(
+        Lists.newArrayList("user", "hive", "warehouse", "db1.db"));
+    PathsUpdate tableUpdate = new PathsUpdate(5, 3, false);
+    tableUpdate.newPathChange("db1.tbl1").addToAddPaths(
+        Lists.newArrayList("user", "hive", "warehouse", "db1.db", "tbl1"));
+    paths.updatePartial(Lists.newArrayList(dbUpdate, tableUpdate), lock);
+
+    perms = new UpdateableAuthzPermissions();
+    PermissionsUpdate permsUpdate = new PermissionsUpdate(7, false);
+    permsUpdate.addPrivilegeUpdate("db1").putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1"), "SELECT");
+    permsUpdate.addPrivilegeUpdate("db1.tbl1").putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role2"), "INSERT,SELECT");
+    permsUpdate.addRoleUpdate("role1").addToAddGroups("group1");
+    permsUpdate.addRoleUpdate("role2").addToAddGroups("group2");
+    perms.updatePartial(Lists.newArrayList(permsUpdate), lock);
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    SentryAuthzCheckpoint checkpoint = new SentryAuthzCheckpoint(folder.getRoot(), MAX_AGE_MS);
+    assertNull(checkpoint.load());
+    SentryAuthzCheckpoint.Images saved = SentryAuthzCheckpoint.createImages(paths, perms);
+    checkpoint.save(saved);
+
+    SentryAuthzCheckpoint.Images images = checkpoint.load();
+    assertNotNull(images);
+    // The time the images were created is kept, so their age is known when loaded
+    assertEquals(saved.getCreateTime(), images.getCreateTime());
+    UpdateableAuthzPaths loadedPaths =
+        new UpdateableAuthzPaths(PREFIXES).updateFull(images.getPathsImage());
+    UpdateableAuthzPermissions loadedPerms =
+        new UpdateableAuthzPermissions().updateFull(images.getPermsImage());
+
+    assertEquals(5, loadedPaths.getLastUpdatedSeqNum());
+    assertEquals(3, loadedPaths.getLastUpdatedImgNum());
+    assertEquals(7, loadedPerms.getLastUpdatedSeqNum());
+    assertTrue(loadedPaths.findAuthzObject(new String[] {"user", "hive", "warehouse", "db1.db",
+        "tbl1", "part1"}).contains("db1.tbl1"));
+    for (String authzObj : new String[] {"db1", "db1.tbl1"}) {
+      assertEquals(new HashSet<>(perms.getAcls(authzObj)),
+          new HashSet<>(loadedPerms.getAcls(authzObj)));
+    }
+  }
+
+  @Test
+  public void testInvalidCheckpointsAreIgnored() throws Exception {
+    SentryAuthzCheckpoint checkpoint = new SentryAuthzCheckpoint(folder.getRoot(), MAX_AGE_MS);
+    checkpoint.save(paths, perms);
+    File file = checkpoint.getFile();
+
+    // Too old
+    assertNull(new SentryAuthzCheckpoint(folder.getRoot(), -1).load());
+
+    // Corrupt
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(raf.length() - 1);
+      int last = raf.read();
+      raf.seek(raf.length() - 1);
+      raf.write(last ^ 0xff);
+    }
+    assertNull(checkpoint.load());
+
+    // Truncated
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 1);
+    }
+    assertNull(checkpoint.load());
+
+    // Replaced by a new checkpoint
+    checkpoint.save(paths, perms);
+    assertNotNull(checkpoint.load());
+  }
+}
@@ -155,4 +155,83 @@ public class TestSentryPermissions {
     Assert.assertEquals("Unexpected number of User ACL", 1, userAclCount);
     Assert.assertEquals("Unexpected number of Group ACL", 2, groupAclCount);
   }
+
+  /**
+   * Checks that the cached ACL are dropped when the permissions they are built from change.
+   */
+  @Test
+  public void testAclsAreRebuiltAfterChanges() {
+    TPrivilegePrincipal roleEntity = new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1");
+    TPrivilegePrincipal userEntity = new TPrivilegePrincipal(TPrivilegePrincipalType.USER, "user1");
+    SentryPermissions perms = new SentryPermissions();
+    SentryPermissions.RoleInfo roleInfo = new SentryPermissions.RoleInfo("role1");
+    roleInfo.addGroup("group1");
+    perms.addRoleInfo(roleInfo);
+
+    SentryPermissions.PrivilegeInfo pInfo = new SentryPermissions.PrivilegeInfo("db1.tb1");
+    pInfo.setPermission(roleEntity, FsAction.READ_EXECUTE);
+    perms.addPrivilegeInfo(pInfo);
+
+    List<AclEntry> acls = perms.getAcls("db1.tb1");
+    Assert.assertEquals("Unexpected number of ACL entries received", 1, acls.size());
+    Assert.assertSame("ACL entries should be cached", acls, perms.getAcls("DB1.TB1"));
+
+    // A new group for the role
+    roleInfo = perms.getRoleInfo("ROLE1");
+    roleInfo.addGroup("group2");
+    perms.addRoleInfo(roleInfo);
+    acls = perms.getAcls("db1.tb1");
+    Assert.assertEquals("Unexpected number of ACL entries received", 2, acls.size());
+
+    // A new privilege on the parent database
+    SentryPermissions.PrivilegeInfo dbInfo = new SentryPermissions.PrivilegeInfo("db1");
+    dbInfo.setPermission(userEntity, FsAction.WRITE_EXECUTE);
+    perms.addPrivilegeInfo(dbInfo);
+    acls = perms.getAcls("db1.tb1");
+    Assert.assertEquals("Unexpected number of ACL entries received", 3, acls.size());
+
+    // The table privileges are removed
+    perms.delPrivilegeInfo("db1.tb1");
+    acls = perms.getAcls("db1.tb1");
+    Assert.assertEquals("Unexpected number of ACL entries received", 1, acls.size());
+    Assert.assertEquals("Unexpected permission", FsAction.WRITE_EXECUTE,
+        acls.get(0).getPermission());
+  }
+
+  /**
+   * Checks that a change of the groups of a role keeps the cached ACL of the objects the
+   * role has no privileges on.
+   */
+  @Test
+  public void testRoleChangeKeepsAclsOfOtherObjects() {
+    SentryPermissions perms = new SentryPermissions();
+    for (String role : new String[] {"role1", "role2"}) {
+      perms.addRoleInfo(new SentryPermissions.RoleInfo(role).addGroup("group1"));
+    }
+    SentryPermissions.PrivilegeInfo pInfo1 = new SentryPermissions.PrivilegeInfo("db1.tb1");
+    pInfo1.setPermission(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1"),
+        FsAction.READ_EXECUTE);
+    perms.addPrivilegeInfo(pInfo1);
+    SentryPermissions.PrivilegeInfo pInfo2 = new SentryPermissions.PrivilegeInfo("db2.tb2");
+    pInfo2.setPermission(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role2"),
+        FsAction.READ_EXECUTE);
+    perms.addPrivilegeInfo(pInfo2);
+
+    List<AclEntry> acls1 = perms.getAcls("db1.tb1");
+    List<AclEntry> acls2 = perms.getAcls("db2.tb2");
+    perms.addRoleInfo(perms.getRoleInfo("ROLE1").addGroup("group2"));
+    Assert.assertEquals("Unexpected number of ACL entries received", 2,
+        perms.getAcls("db1.tb1").size());
+    Assert.assertNotSame(acls1, perms.getAcls("db1.tb1"));
+    Assert.assertSame("ACL entries of other objects should stay cached", acls2,
+        perms.getAcls("db2.tb2"));
+
+    // The role no longer has privileges on the object
+    pInfo1.removePermission(new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1"));
+    perms.invalidateAcls("db1.tb1");
+    acls1 = perms.getAcls("db1.tb1");
+    perms.addRoleInfo(perms.getRoleInfo("role1").delGroup("group2"));
+    Assert.assertSame(acls1, perms.getAcls("db1.tb1"));
+    Assert.assertSame(acls2, perms.getAcls("db2.tb2"));
+  }
 }
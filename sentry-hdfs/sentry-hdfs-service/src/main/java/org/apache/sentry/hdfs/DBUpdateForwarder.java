@@ -40,21 +40,38 @@ import org.slf4j.LoggerFactory;
  * Sentry client, e.g HDFS NameNode.
  * <p>
  * It is a thread safe class, as all the underlying database operation is thread safe.
+ * <p>
+ * Building a full update is expensive, and all the NameNodes that need one at the same time
+ * (e.g. after restarting together) need the same one. Unless disabled, the last full update
+ * is kept and handed out to every requester for as long as there is no newer image or delta
+ * persisted, so it is built only once per (image number, sequence number).
  */
 @ThreadSafe
 class DBUpdateForwarder<K extends Updateable.Update> {
 
   private final ImageRetriever<K> imageRetriever;
   private final DeltaRetriever<K> deltaRetriever;
+  private final boolean fullImageCacheEnabled;
   private static final Logger LOGGER = LoggerFactory.getLogger(DBUpdateForwarder.class);
 
+  // Last full update retrieved, shared by all the requesters while it is up to date
+  private volatile K cachedFullImage;
+  // Makes concurrent requesters wait for a single full update to be built
+  private final Object fullImageLock = new Object();
+
   //For logging purposes
   private String retrieverType;
 
   DBUpdateForwarder(final ImageRetriever<K> imageRetriever,
       final DeltaRetriever<K> deltaRetriever) {
+    this(imageRetriever, deltaRetriever, true);
+  }
+
+  DBUpdateForwarder(final ImageRetriever<K> imageRetriever,
+      final DeltaRetriever<K> deltaRetriever, boolean fullImageCacheEnabled) {
     this.imageRetriever = imageRetriever;
     this.deltaRetriever = deltaRetriever;
+    this.fullImageCacheEnabled = fullImageCacheEnabled;
     this.retrieverType = imageRetriever.getClass().getName();
   }
 
@@ -126,7 +143,7 @@ class DBUpdateForwarder<K extends Updateable.Update> {
     // Checks if newer deltas exist in the persistent storage.
     // If there are, return the list of delta updates.
     if (seqNum > SEQUENCE_NUMBER_FULL_UPDATE_REQUEST && deltaRetriever.isDeltaAvailable(seqNum)) {
-      List<K> deltas = deltaRetriever.retrieveDelta(seqNum, imgNum);
+      List<K> deltas = deltaRetriever.retrieveDelta(seqNum, imgNum, curSeqNum);
       if (!deltas.isEmpty()) {
         LOGGER.info("({}) Newer delta updates are found up to sequence number {} and being sent to HDFS", retrieverType, curSeqNum);
         return deltas;
@@ -155,10 +172,53 @@ class DBUpdateForwarder<K extends Updateable.Update> {
       return Collections.emptyList();
     }
     else {
-      return Collections.singletonList(imageRetriever.retrieveFullImage());
+      return Collections.singletonList(getFullImage());
     }
   }
 
+  /**
+   * Returns the cached full update if it is still up to date, otherwise retrieves a new one.
+   * Only one full update is retrieved at a time, concurrent requesters wait for it and get
+   * the same update.
+   */
+  private K getFullImage() throws Exception {
+    if (!fullImageCacheEnabled) {
+      return imageRetriever.retrieveFullImage();
+    }
+
+    K fullImage = cachedFullImage;
+    if (isUpToDate(fullImage)) {
+      SentryHdfsMetricsUtil.getFullImageCacheHitCounter.inc();
+      return fullImage;
+    }
+
+    synchronized (fullImageLock) {
+      fullImage = cachedFullImage;
+      if (isUpToDate(fullImage)) {
+        SentryHdfsMetricsUtil.getFullImageCacheHitCounter.inc();
+        return fullImage;
+      }
+
+      SentryHdfsMetricsUtil.getFullImageCacheMissCounter.inc();
+      // Drop the stale image before building the new one, so both are not kept in memory
+      cachedFullImage = null;
+      fullImage = imageRetriever.retrieveFullImage();
+      cachedFullImage = fullImage;
+      LOGGER.info("({}) Cached full update with sequence number {} and image number {}",
+          retrieverType, fullImage.getSeqNum(), fullImage.getImgNum());
+      return fullImage;
+    }
+  }
+
+  /**
+   * A full update is up to date if no newer image nor delta has been persisted after it.
+   */
+  private boolean isUpToDate(K fullImage) throws Exception {
+    return fullImage != null
+        && fullImage.getImgNum() == imageRetriever.getLatestImageID()
+        && fullImage.getSeqNum() == deltaRetriever.getLatestDeltaID();
+  }
+
   /**
    * Translate Owner Privilege
    * @param privMap Collection of privileges on an privilege entity.
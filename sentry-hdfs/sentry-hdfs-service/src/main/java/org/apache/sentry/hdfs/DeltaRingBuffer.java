@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.Preconditions;
+
+import static org.apache.sentry.hdfs.Updateable.Update;
+
+/**
+ * DeltaRingBuffer keeps the most recent delta updates retrieved from a persistent storage,
+ * ordered by sequence number, so that the NameNodes polling for the same tail of deltas
+ * do not each read and deserialize it again.
+ * <p>
+ * Only the deltas newer than the last buffered one are read from the persistent storage,
+ * and none are read when the buffer already reaches the latest sequence number known to
+ * the requester.
+ * Requests for deltas older than the first buffered one are answered from the persistent
+ * storage alone. The buffer holds deltas of a single image number, and starts over when
+ * deltas of another image number are requested.
+ * <p>
+ * The buffer is bounded both by a number of deltas and by the total size of their
+ * persisted form. A delta larger than that total is not buffered at all.
+ * <p>
+ * Buffered deltas are shared by all the requesters and must not be modified.
+ */
+@ThreadSafe
+class DeltaRingBuffer<K extends Update> {
+
+  /**
+   * Reads the deltas from the given sequence number (inclusive) from a persistent storage.
+   */
+  interface Loader<K> {
+    List<Loaded<K>> load(long seqNum) throws Exception;
+  }
+
+  /**
+   * A delta read from the persistent storage, with the size of its persisted form.
+   */
+  static final class Loaded<K> {
+    private final K delta;
+    private final long size;
+
+    Loaded(K delta, long size) {
+      this.delta = delta;
+      this.size = size;
+    }
+  }
+
+  private final long maxBytes;
+  @GuardedBy("this")
+  private final Object[] deltas;
+  @GuardedBy("this")
+  private final long[] sizes;
+  // Total size of the buffered deltas
+  @GuardedBy("this")
+  private long bytes;
+  // Index of the delta with the smallest sequence number
+  @GuardedBy("this")
+  private int head;
+  @GuardedBy("this")
+  private int size;
+  @GuardedBy("this")
+  private long firstSeqNum;
+  @GuardedBy("this")
+  private long imgNum;
+
+  /**
+   * @param capacity the maximum number of deltas kept, 0 disables the buffer
+   * @param maxBytes the maximum total size of the persisted form of the deltas kept
+   */
+  DeltaRingBuffer(int capacity, long maxBytes) {
+    Preconditions.checkArgument(capacity >= 0, "capacity must be a non-negative number");
+    Preconditions.checkArgument(maxBytes >= 0, "maxBytes must be a non-negative number");
+    this.deltas = new Object[capacity];
+    this.sizes = new long[capacity];
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return the deltas without their sizes
+   */
+  static <K> List<K> deltas(List<Loaded<K>> loaded) {
+    List<K> result = new ArrayList<>(loaded.size());
+    for (Loaded<K> delta : loaded) {
+      result.add(delta.delta);
+    }
+    return result;
+  }
+
+  /**
+   * Retrieves all deltas from the given sequence number (inclusive), from the buffer as far
+   * as it has them and from the persistent storage for the rest.
+   *
+   * @param seqNum the requested sequence number
+   * @param imgNum the image number of the requested deltas
+   * @param latestSeqNum the latest sequence number in the persistent storage, as read by
+   *        the requester
+   * @param loader reads the deltas the buffer does not have from the persistent storage
+   * @return the deltas ordered by sequence number
+   */
+  List<K> retrieve(long seqNum, long imgNum, long latestSeqNum, Loader<K> loader)
+      throws Exception {
+    List<K> buffered = getFrom(seqNum, imgNum);
+    if (buffered == null) {
+      SentryHdfsMetricsUtil.getDeltaCacheMissCounter.inc();
+      List<Loaded<K>> loaded = loader.load(seqNum);
+      add(loaded, imgNum);
+      return deltas(loaded);
+    }
+
+    SentryHdfsMetricsUtil.getDeltaCacheHitCounter.inc();
+    if (seqNum + buffered.size() > latestSeqNum) {
+      // The buffer already has every delta the requester knows of
+      return buffered;
+    }
+    List<Loaded<K>> loaded = loader.load(seqNum + buffered.size());
+    add(loaded, imgNum);
+    for (Loaded<K> delta : loaded) {
+      buffered.add(delta.delta);
+    }
+    return buffered;
+  }
+
+  /**
+   * @return the buffered deltas from the given sequence number, which may be none if the
+   * buffer ends right before it, or null if the buffer does not cover the sequence number
+   */
+  @SuppressWarnings("unchecked")
+  private synchronized List<K> getFrom(long seqNum, long imgNum) {
+    if (size == 0 || imgNum != this.imgNum
+        || seqNum < firstSeqNum || seqNum > firstSeqNum + size) {
+      return null;
+    }
+    int skip = (int) (seqNum - firstSeqNum);
+    List<K> result = new ArrayList<>(size - skip);
+    for (int i = skip; i < size; i++) {
+      result.add((K) deltas[(head + i) % deltas.length]);
+    }
+    return result;
+  }
+
+  /**
+   * Appends the deltas following the last buffered one, dropping the oldest deltas once the
+   * buffer is full. The buffer starts over from the given deltas if they do not follow the
+   * buffered ones, or after a delta too large to be buffered.
+   */
+  private synchronized void add(List<Loaded<K>> loaded, long imgNum) {
+    if (deltas.length == 0) {
+      return;
+    }
+    if (imgNum != this.imgNum) {
+      clear(imgNum);
+    }
+    for (Loaded<K> delta : loaded) {
+      long seqNum = delta.delta.getSeqNum();
+      long nextSeqNum = firstSeqNum + size;
+      if (size > 0 && seqNum < nextSeqNum) {
+        // Already buffered, e.g. read by a concurrent requester
+        continue;
+      }
+      if ((size > 0 && seqNum > nextSeqNum) || delta.size > maxBytes) {
+        clear(imgNum);
+      }
+      if (delta.size > maxBytes) {
+        continue;
+      }
+      if (size == 0) {
+        firstSeqNum = seqNum;
+      }
+      while (size == deltas.length || bytes + delta.size > maxBytes) {
+        bytes -= sizes[head];
+        deltas[head] = null;
+        head = (head + 1) % deltas.length;
+        firstSeqNum++;
+        size--;
+      }
+      int tail = (head + size) % deltas.length;
+      deltas[tail] = delta.delta;
+      sizes[tail] = delta.size;
+      bytes += delta.size;
+      size++;
+    }
+  }
+
+  private void clear(long imgNum) {
+    for (int i = 0; i < size; i++) {
+      deltas[(head + i) % deltas.length] = null;
+    }
+    head = 0;
+    size = 0;
+    bytes = 0;
+    this.imgNum = imgNum;
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.sentry.hdfs;
 
 import com.codahale.metrics.Timer.Context;
+import org.apache.sentry.hdfs.DeltaRingBuffer.Loaded;
 import org.apache.sentry.provider.db.service.model.MSentryPathChange;
 import org.apache.sentry.provider.db.service.persistent.SentryStoreInterface;
 
@@ -26,6 +27,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.apache.sentry.hdfs.ServiceConstants.IMAGE_NUMBER_UPDATE_UNINITIALIZED;
+
 /**
  * PathDeltaRetriever retrieves delta updates of Hive Paths from a persistent
  * storage.
@@ -33,18 +36,39 @@ import java.util.List;
  * consumers, such as HDFS NameNode, can understand.
  * <p>
  * It is a thread safe class, as all the underlying database operation are thread safe.
+ * <p>
+ * Unless disabled, the most recent deltas are kept in a {@link DeltaRingBuffer}, and only
+ * the deltas newer than the buffered ones are read from the persistent storage.
  */
 @ThreadSafe
 public class PathDeltaRetriever implements DeltaRetriever<PathsUpdate> {
 
   private final SentryStoreInterface sentryStore;
+  // Most recent deltas, shared by the NameNodes polling for them
+  private final DeltaRingBuffer<PathsUpdate> recentDeltas;
 
   PathDeltaRetriever(SentryStoreInterface sentryStore) {
+    this(sentryStore, 0, 0);
+  }
+
+  PathDeltaRetriever(SentryStoreInterface sentryStore, int deltaCacheSize,
+      long deltaCacheMaxBytes) {
     this.sentryStore = sentryStore;
+    this.recentDeltas = new DeltaRingBuffer<>(deltaCacheSize, deltaCacheMaxBytes);
   }
 
   @Override
-  public List<PathsUpdate> retrieveDelta(long seqNum, long imgNum) throws Exception {
+  public List<PathsUpdate> retrieveDelta(long seqNum, long imgNum, long latestSeqNum)
+      throws Exception {
+    if (imgNum < IMAGE_NUMBER_UPDATE_UNINITIALIZED) {
+      // Without an image number, path deltas numbered again after a new image cannot be
+      // told apart from the buffered ones
+      return DeltaRingBuffer.deltas(loadDelta(seqNum, imgNum));
+    }
+    return recentDeltas.retrieve(seqNum, imgNum, latestSeqNum, from -> loadDelta(from, imgNum));
+  }
+
+  private List<Loaded<PathsUpdate>> loadDelta(long seqNum, long imgNum) throws Exception {
     try (final Context timerContext =
                  SentryHdfsMetricsUtil.getDeltaPathChangesTimer.time()) {
       List<MSentryPathChange> mSentryPathChanges =
@@ -56,18 +80,19 @@ public class PathDeltaRetriever implements DeltaRetriever<PathsUpdate> {
         return Collections.emptyList();
       }
 
-      List<PathsUpdate> updates = new ArrayList<>(mSentryPathChanges.size());
+      List<Loaded<PathsUpdate>> updates = new ArrayList<>(mSentryPathChanges.size());
       for (MSentryPathChange mSentryPathChange : mSentryPathChanges) {
         // Gets the changeID from the persisted MSentryPathChange.
         long changeID = mSentryPathChange.getChangeID();
         // Creates a corresponding PathsUpdate and deserialize the
-        // persisted delta update in JSON format to TPathsUpdate with
+        // persisted delta update to TPathsUpdate with
         // associated changeID.
         PathsUpdate pathsUpdate = new PathsUpdate();
-        pathsUpdate.JSONDeserialize(mSentryPathChange.getPathChange());
+        pathsUpdate.deltaDeserialize(mSentryPathChange.getPathChange());
         pathsUpdate.setSeqNum(changeID);
         pathsUpdate.setImgNum(imgNum);
-        updates.add(pathsUpdate);
+        updates.add(new Loaded<>(pathsUpdate,
+            mSentryPathChange.getPathChange().length()));
       }
       return updates;
     }
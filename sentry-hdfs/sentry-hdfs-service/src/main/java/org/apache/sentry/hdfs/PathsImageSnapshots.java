@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.hdfs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
+import org.apache.sentry.hdfs.service.thrift.TPathsDump;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Full paths images that are sent to HDFS NameNodes in chunks. An image is registered
+ * when the update holding it is sent, and dropped after its last chunk is fetched or
+ * when no chunk of it was fetched for the configured timeout, e.g. because the NameNode
+ * restarted.
+ * <p>
+ * Chunks hold the entries of the image in the order of their ids, which the paths
+ * dumpers assign so that parents always come before their children.
+ */
+class PathsImageSnapshots {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PathsImageSnapshots.class);
+
+  private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis());
+  private final Cache<Long, Snapshot> snapshots;
+
+  PathsImageSnapshots(long timeoutMs) {
+    snapshots = CacheBuilder.newBuilder()
+        .expireAfterAccess(timeoutMs, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  /**
+   * Registers an image to be sent in chunks of at most chunkSize entries.
+   *
+   * @return the id of the image, to be passed to {@link #getChunk(long, int)}
+   */
+  long register(TPathsDump pathsDump, int chunkSize) {
+    Preconditions.checkArgument(chunkSize > 0, "Invalid chunk size %s", chunkSize);
+    long id = nextId.incrementAndGet();
+    snapshots.put(id, new Snapshot(pathsDump, chunkSize));
+    LOGGER.debug("Registered paths image {} with {} entries", id, pathsDump.getNodeMapSize());
+    return id;
+  }
+
+  /**
+   * @return the chunk, or null if the image is unknown or expired
+   * @throws IllegalArgumentException if the image has no such chunk
+   */
+  TPathsImageChunk getChunk(long id, int chunkIndex) {
+    Snapshot snapshot = snapshots.getIfPresent(id);
+    if (snapshot == null) {
+      return null;
+    }
+    TPathsImageChunk chunk = snapshot.getChunk(chunkIndex);
+    if (!chunk.isHasMore()) {
+      snapshots.invalidate(id);
+      LOGGER.debug("Sent the last chunk of paths image {}", id);
+    }
+    return chunk;
+  }
+
+  long size() {
+    return snapshots.size();
+  }
+
+  private static final class Snapshot {
+    private final TPathsDump pathsDump;
+    private final int[] ids;
+    private final int chunkSize;
+
+    private Snapshot(TPathsDump pathsDump, int chunkSize) {
+      this.pathsDump = pathsDump;
+      this.chunkSize = chunkSize;
+      ids = new int[pathsDump.getNodeMapSize()];
+      int i = 0;
+      for (Integer id : pathsDump.getNodeMap().keySet()) {
+        ids[i++] = id;
+      }
+      Arrays.sort(ids);
+    }
+
+    private TPathsImageChunk getChunk(int chunkIndex) {
+      long start = (long) chunkIndex * chunkSize;
+      if (chunkIndex < 0 || (start >= ids.length && chunkIndex > 0)) {
+        throw new IllegalArgumentException("Invalid paths image chunk " + chunkIndex);
+      }
+      int end = (int) Math.min(start + chunkSize, ids.length);
+      Map<Integer, TPathEntry> nodeMap = new HashMap<>(Math.max(end - (int) start, 0) * 2);
+      for (int i = (int) start; i < end; i++) {
+        nodeMap.put(ids[i], pathsDump.getNodeMap().get(ids[i]));
+      }
+      TPathsImageChunk chunk = new TPathsImageChunk(nodeMap, end < ids.length);
+      if (chunkIndex == 0) {
+        chunk.setRootId(pathsDump.getRootId());
+        if (pathsDump.isSetDupStringValues()) {
+          chunk.setDupStringValues(pathsDump.getDupStringValues());
+        }
+      }
+      return chunk;
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.sentry.hdfs;
 
 import com.codahale.metrics.Timer.Context;
+import org.apache.sentry.hdfs.DeltaRingBuffer.Loaded;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegeChanges;
 import org.apache.sentry.provider.db.service.model.MSentryPermChange;
 import org.apache.sentry.provider.db.service.persistent.SentryStoreInterface;
@@ -34,18 +35,34 @@ import java.util.List;
  * consumers, such as HDFS NameNode, can understand.
  * <p>
  * It is a thread safe class, as all the underlying database operation is thread safe.
+ * <p>
+ * Unless disabled, the most recent deltas are kept in a {@link DeltaRingBuffer}, and only
+ * the deltas newer than the buffered ones are read from the persistent storage.
  */
 @ThreadSafe
 public class PermDeltaRetriever implements DeltaRetriever<PermissionsUpdate> {
 
   private final SentryStoreInterface sentryStore;
+  // Most recent deltas, shared by the NameNodes polling for them
+  private final DeltaRingBuffer<PermissionsUpdate> recentDeltas;
 
   PermDeltaRetriever(SentryStoreInterface sentryStore) {
+    this(sentryStore, 0, 0);
+  }
+
+  PermDeltaRetriever(SentryStoreInterface sentryStore, int deltaCacheSize,
+      long deltaCacheMaxBytes) {
     this.sentryStore = sentryStore;
+    this.recentDeltas = new DeltaRingBuffer<>(deltaCacheSize, deltaCacheMaxBytes);
   }
 
   @Override
-  public List<PermissionsUpdate> retrieveDelta(long seqNum, long imgNum) throws Exception {
+  public List<PermissionsUpdate> retrieveDelta(long seqNum, long imgNum, long latestSeqNum)
+      throws Exception {
+    return recentDeltas.retrieve(seqNum, imgNum, latestSeqNum, this::loadDelta);
+  }
+
+  private List<Loaded<PermissionsUpdate>> loadDelta(long seqNum) throws Exception {
     try (final Context timerContext =
                  SentryHdfsMetricsUtil.getDeltaPermChangesTimer.time()) {
       Collection<MSentryPermChange> mSentryPermChanges =
@@ -57,22 +74,23 @@ public class PermDeltaRetriever implements DeltaRetriever<PermissionsUpdate> {
         return Collections.emptyList();
       }
 
-      List<PermissionsUpdate> updates = new ArrayList<>(mSentryPermChanges.size());
+      List<Loaded<PermissionsUpdate>> updates = new ArrayList<>(mSentryPermChanges.size());
       for (MSentryPermChange mSentryPermChange : mSentryPermChanges) {
         // Get the changeID from the persisted MSentryPermChange
         long changeID = mSentryPermChange.getChangeID();
         // Create a corresponding PermissionsUpdate and deserialize the
-        // persisted delta update in JSON format to TPermissionsUpdate with
+        // persisted delta update to TPermissionsUpdate with
         // associated changeID.
         PermissionsUpdate permsUpdate = new PermissionsUpdate();
-        permsUpdate.JSONDeserialize(mSentryPermChange.getPermChange());
+        permsUpdate.deltaDeserialize(mSentryPermChange.getPermChange());
         permsUpdate.setSeqNum(changeID);
         Collection<TPrivilegeChanges> privChanges = permsUpdate.getPrivilegeUpdates();
         for(TPrivilegeChanges privChange : privChanges) {
           DBUpdateForwarder.translateOwnerPrivileges(privChange.getAddPrivileges());
           DBUpdateForwarder.translateOwnerPrivileges(privChange.getDelPrivileges());
         }
-        updates.add(permsUpdate);
+        updates.add(new Loaded<>(permsUpdate,
+            mSentryPermChange.getPermChange().length()));
       }
       return updates;
     }
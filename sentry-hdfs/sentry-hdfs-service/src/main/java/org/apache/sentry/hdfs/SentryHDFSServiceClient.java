@@ -18,6 +18,7 @@
 package org.apache.sentry.hdfs;
 
 import org.apache.sentry.core.common.exception.SentryHdfsServiceException;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
 
 /**
  * Private interface between HDFS NameNode and the Sentry Server.
@@ -50,5 +51,17 @@ public interface SentryHDFSServiceClient extends AutoCloseable {
    */
   SentryAuthzUpdate getAllUpdatesFrom(long permSeqNum, long pathSeqNum, long pathImgNum)
       throws SentryHdfsServiceException;
+
+  /**
+   * Get a chunk of a full paths image that was not sent with its update,
+   * see {@link PathsUpdate#hasChunkedImage()}. Chunks must be fetched in order.
+   * @param pathsImageId Id of the image, as set in the paths update
+   * @param chunkIndex Index of the chunk, starting at 0
+   * @return The entries of the chunk
+   * @throws SentryHdfsServiceException if a connection exception happens, or the image
+   *         is no longer available
+   */
+  TPathsImageChunk getPathsImageChunk(long pathsImageId, int chunkIndex)
+      throws SentryHdfsServiceException;
 }
 
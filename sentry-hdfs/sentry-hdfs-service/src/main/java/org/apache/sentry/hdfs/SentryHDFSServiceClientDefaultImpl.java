@@ -26,6 +26,8 @@ import org.apache.sentry.hdfs.ServiceConstants.ClientConfig;
 import org.apache.sentry.hdfs.service.thrift.SentryHDFSService.Client;
 import org.apache.sentry.hdfs.service.thrift.TAuthzUpdateRequest;
 import org.apache.sentry.hdfs.service.thrift.TAuthzUpdateResponse;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunkRequest;
 import org.apache.sentry.hdfs.service.thrift.TPathsUpdate;
 import org.apache.sentry.hdfs.service.thrift.TPermissionsUpdate;
 import org.apache.thrift.protocol.TBinaryProtocol;
@@ -57,6 +59,7 @@ public class SentryHDFSServiceClientDefaultImpl
   private final SentryTransportPool transportPool;
   private TTransportWrapper transport;
   private final long maxMessageSize;
+  private final int pathsImageChunkSize;
 
   SentryHDFSServiceClientDefaultImpl(Configuration conf,
                                      SentryTransportPool transportPool) {
@@ -64,6 +67,8 @@ public class SentryHDFSServiceClientDefaultImpl
             ClientConfig.SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
     useCompactTransport = conf.getBoolean(ClientConfig.USE_COMPACT_TRANSPORT,
             ClientConfig.USE_COMPACT_TRANSPORT_DEFAULT);
+    pathsImageChunkSize = conf.getInt(ClientConfig.SENTRY_HDFS_PATHS_IMAGE_CHUNK_SIZE,
+            ClientConfig.SENTRY_HDFS_PATHS_IMAGE_CHUNK_SIZE_DEFAULT);
     this.transportPool = transportPool;
   }
 
@@ -104,6 +109,9 @@ public class SentryHDFSServiceClientDefaultImpl
       LOGGER.debug("Requesting updates: Perm sequence num:{}, Path sequence num: {}, Path Image Number: {})",
               permSeqNum, pathSeqNum, pathImgNum);
       TAuthzUpdateRequest updateRequest = new TAuthzUpdateRequest(permSeqNum, pathSeqNum, pathImgNum);
+      if (pathsImageChunkSize > 0) {
+        updateRequest.setPathsImageChunkSize(pathsImageChunkSize);
+      }
       TAuthzUpdateResponse sentryUpdates = client.get_authz_updates(updateRequest);
 
       List<PathsUpdate> pathsUpdates = Collections.emptyList();
@@ -141,6 +149,17 @@ public class SentryHDFSServiceClientDefaultImpl
     }
   }
 
+  @Override
+  public TPathsImageChunk getPathsImageChunk(long pathsImageId, int chunkIndex)
+          throws SentryHdfsServiceException {
+    try {
+      LOGGER.debug("Requesting chunk {} of paths image {}", chunkIndex, pathsImageId);
+      return client.get_paths_image_chunk(new TPathsImageChunkRequest(pathsImageId, chunkIndex));
+    } catch (Exception e) {
+      throw new SentryHdfsServiceException("Thrift Exception occurred !!", e);
+    }
+  }
+
   @Override
   public void close() {
     done();
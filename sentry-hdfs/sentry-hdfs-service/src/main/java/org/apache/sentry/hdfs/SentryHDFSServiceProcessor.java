@@ -25,9 +25,13 @@ import java.util.Map;
 
 import com.codahale.metrics.Timer.Context;
 import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.hdfs.ServiceConstants.ServerConfig;
 import org.apache.sentry.hdfs.service.thrift.SentryHDFSService;
 import org.apache.sentry.hdfs.service.thrift.TAuthzUpdateRequest;
 import org.apache.sentry.hdfs.service.thrift.TAuthzUpdateResponse;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunkRequest;
 import org.apache.sentry.hdfs.service.thrift.TPathsUpdate;
 import org.apache.sentry.hdfs.service.thrift.TPermissionsUpdate;
 import org.apache.thrift.TException;
@@ -45,6 +49,19 @@ public class SentryHDFSServiceProcessor implements SentryHDFSService.Iface {
   // This helps to reduce memory consumption on large path images.
   private static final AtomicBoolean pathsRetrieverBusy = new AtomicBoolean(false);
 
+  // Full paths images that are sent in chunks
+  private final PathsImageSnapshots pathsImages;
+
+  public SentryHDFSServiceProcessor() {
+    this(new Configuration());
+  }
+
+  public SentryHDFSServiceProcessor(Configuration conf) {
+    pathsImages = new PathsImageSnapshots(
+        conf.getLong(ServerConfig.SENTRY_HDFS_PATHS_IMAGE_TIMEOUT_MS,
+            ServerConfig.SENTRY_HDFS_PATHS_IMAGE_TIMEOUT_MS_DEFAULT));
+  }
+
   @Override
   public TAuthzUpdateResponse get_all_authz_updates_from(long permSeqNum, long pathSeqNum) throws TException {
    throw new UnsupportedOperationException(
@@ -135,7 +152,7 @@ public class SentryHDFSServiceProcessor implements SentryHDFSService.Iface {
       for (PathsUpdate update : pathUpdates) {
         LOGGER.debug("Sending PATH preUpdate seq [{}], [{}]",
             update.getSeqNum(), update.getImgNum());
-        retPathUpdates.add(update.toThrift());
+        retPathUpdates.add(toThrift(update, request));
       }
 
       SentryHdfsMetricsUtil.getPathUpdateHistogram.update(pathUpdates.size());
@@ -147,6 +164,49 @@ public class SentryHDFSServiceProcessor implements SentryHDFSService.Iface {
     }
   }
 
+  /**
+   * Returns the thrift object of a paths update. If the update holds a full image and the
+   * request asks for chunked images, the image is registered to be fetched with
+   * {@link #get_paths_image_chunk(TPathsImageChunkRequest)} and not sent with the update.
+   */
+  private TPathsUpdate toThrift(PathsUpdate update, TAuthzUpdateRequest request) {
+    TPathsUpdate tUpdate = update.toThrift();
+    if (!request.isSetPathsImageChunkSize() || request.getPathsImageChunkSize() <= 0 ||
+        !tUpdate.isHasFullImage() || !tUpdate.isSetPathsDump()) {
+      return tUpdate;
+    }
+
+    // Full images may be cached and shared by requests, so they are never modified
+    TPathsUpdate chunkedUpdate = new TPathsUpdate(tUpdate.isHasFullImage(),
+        tUpdate.getSeqNum(), tUpdate.getPathChanges());
+    chunkedUpdate.setImgNum(tUpdate.getImgNum());
+    chunkedUpdate.setPathsImageId(pathsImages.register(tUpdate.getPathsDump(),
+        request.getPathsImageChunkSize()));
+    chunkedUpdate.setPathsImageSize(tUpdate.getPathsDump().getNodeMapSize());
+    LOGGER.info("Sending PATH full image [{}] with {} entries in chunks of {}",
+        chunkedUpdate.getPathsImageId(), chunkedUpdate.getPathsImageSize(),
+        request.getPathsImageChunkSize());
+    return chunkedUpdate;
+  }
+
+  @Override
+  public TPathsImageChunk get_paths_image_chunk(TPathsImageChunkRequest request)
+      throws TException {
+    TPathsImageChunk chunk;
+    try {
+      chunk = pathsImages.getChunk(request.getPathsImageId(), request.getChunkIndex());
+    } catch (IllegalArgumentException e) {
+      throw new TException(e.getMessage(), e);
+    }
+    if (chunk == null) {
+      throw new TException("Paths image " + request.getPathsImageId() +
+          " is unknown or has expired");
+    }
+    LOGGER.debug("Sending chunk {} of PATH full image [{}] with {} entries",
+        request.getChunkIndex(), request.getPathsImageId(), chunk.getNodeMapSize());
+    return chunk;
+  }
+
   @Override
   public void handle_hms_notification(TPathsUpdate update) throws TException {
     throw new UnsupportedOperationException("handle_hms_notification");
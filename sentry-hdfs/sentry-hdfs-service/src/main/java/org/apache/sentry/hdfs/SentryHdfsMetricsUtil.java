@@ -102,6 +102,22 @@ final class SentryHdfsMetricsUtil {
   static final Histogram getDeltaPermChangesHistogram = sentryMetrics.getHistogram(
           MetricRegistry.name(PermDeltaRetriever.class, "perm", "delta", "size"));
 
+  // Number of full updates served from the DBUpdateForwarder cache
+  static final Counter getFullImageCacheHitCounter = sentryMetrics.getCounter(
+      MetricRegistry.name(DBUpdateForwarder.class, "full-image-cache", "hits"));
+
+  // Number of full updates built because the DBUpdateForwarder cache was stale or empty
+  static final Counter getFullImageCacheMissCounter = sentryMetrics.getCounter(
+      MetricRegistry.name(DBUpdateForwarder.class, "full-image-cache", "misses"));
+
+  // Number of delta requests answered at least partly from the DeltaRingBuffer
+  static final Counter getDeltaCacheHitCounter = sentryMetrics.getCounter(
+      MetricRegistry.name(DeltaRingBuffer.class, "delta-cache", "hits"));
+
+  // Number of delta requests answered from the persistent storage alone
+  static final Counter getDeltaCacheMissCounter = sentryMetrics.getCounter(
+      MetricRegistry.name(DeltaRingBuffer.class, "delta-cache", "misses"));
+
   private SentryHdfsMetricsUtil() {
     // Make constructor private to avoid instantiation
   }
@@ -126,10 +126,20 @@ public class SentryPlugin implements SentryPolicyStorePlugin, SigUtils.SigListen
                     SENTRY_HDFS_INTEGRATION_PATH_PREFIXES_DEFAULT);
     PermImageRetriever permImageRetriever = new PermImageRetriever(sentryStore);
     PathImageRetriever pathImageRetriever = new PathImageRetriever(sentryStore, prefixes);
-    PermDeltaRetriever permDeltaRetriever = new PermDeltaRetriever(sentryStore);
-    PathDeltaRetriever pathDeltaRetriever = new PathDeltaRetriever(sentryStore);
-    pathsUpdater = new DBUpdateForwarder<>(pathImageRetriever, pathDeltaRetriever);
-    permsUpdater = new DBUpdateForwarder<>(permImageRetriever, permDeltaRetriever);
+    int deltaCacheSize = conf.getInt(ServerConfig.SENTRY_HDFS_DELTA_CACHE_SIZE,
+        ServerConfig.SENTRY_HDFS_DELTA_CACHE_SIZE_DEFAULT);
+    long deltaCacheMaxBytes = conf.getLong(ServerConfig.SENTRY_HDFS_DELTA_CACHE_MAX_BYTES,
+        ServerConfig.SENTRY_HDFS_DELTA_CACHE_MAX_BYTES_DEFAULT);
+    PermDeltaRetriever permDeltaRetriever =
+        new PermDeltaRetriever(sentryStore, deltaCacheSize, deltaCacheMaxBytes);
+    PathDeltaRetriever pathDeltaRetriever =
+        new PathDeltaRetriever(sentryStore, deltaCacheSize, deltaCacheMaxBytes);
+    boolean fullImageCacheEnabled = conf.getBoolean(ServerConfig.SENTRY_HDFS_FULL_IMAGE_CACHE_ENABLED,
+        ServerConfig.SENTRY_HDFS_FULL_IMAGE_CACHE_ENABLED_DEFAULT);
+    pathsUpdater = new DBUpdateForwarder<>(pathImageRetriever, pathDeltaRetriever,
+        fullImageCacheEnabled);
+    permsUpdater = new DBUpdateForwarder<>(permImageRetriever, permDeltaRetriever,
+        fullImageCacheEnabled);
 
     LOGGER.info("Sentry HDFS plugin initialized !!");
     instance = this;
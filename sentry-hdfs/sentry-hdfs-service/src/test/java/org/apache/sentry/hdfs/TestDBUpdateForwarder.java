@@ -32,6 +32,7 @@ import static org.apache.sentry.hdfs.ServiceConstants.SEQUENCE_NUMBER_UPDATE_UNI
 import static org.apache.sentry.hdfs.service.thrift.sentry_hdfs_serviceConstants.UNUSED_PATH_UPDATE_IMG_NUM;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class TestDBUpdateForwarder {
@@ -186,7 +187,7 @@ public class TestDBUpdateForwarder {
     Mockito.when(imageRetriever.getLatestImageID()).thenReturn(1L);
     Mockito.when(deltaRetriever.getLatestDeltaID()).thenReturn(3L);
     Mockito.when(deltaRetriever.isDeltaAvailable(2L)).thenReturn(true);
-    Mockito.when(deltaRetriever.retrieveDelta(2L, 1L))
+    Mockito.when(deltaRetriever.retrieveDelta(2L, 1L, 3L))
         .thenReturn(Arrays.asList(new PathsUpdate(3, 1, false)));
 
     List<PathsUpdate> updates = updater.getAllUpdatesFrom(2, 1);
@@ -209,4 +210,53 @@ public class TestDBUpdateForwarder {
     assertEquals(UNUSED_PATH_UPDATE_IMG_NUM, updates.get(0).getImgNum());
     assertTrue(updates.get(0).hasFullImage());
   }
+
+  @Test
+  public void testFullImageIsRetrievedOnceWhileUpToDate() throws Exception {
+    PathsUpdate fullImage = new PathsUpdate(3, 1, true);
+    Mockito.when(imageRetriever.getLatestImageID()).thenReturn(1L);
+    Mockito.when(deltaRetriever.getLatestDeltaID()).thenReturn(3L);
+    Mockito.when(imageRetriever.retrieveFullImage()).thenReturn(fullImage);
+
+    List<PathsUpdate> updates = updater.getAllUpdatesFrom(0, SentryConstants.EMPTY_PATHS_SNAPSHOT_ID);
+    assertEquals(1, updates.size());
+    assertSame(fullImage, updates.get(0));
+
+    updates = updater.getAllUpdatesFrom(SEQUENCE_NUMBER_UPDATE_UNINITIALIZED, 1);
+    assertEquals(1, updates.size());
+    assertSame(fullImage, updates.get(0));
+    Mockito.verify(imageRetriever, Mockito.times(1)).retrieveFullImage();
+  }
+
+  @Test
+  public void testFullImageIsRetrievedAgainWhenNewDeltasArePersisted() throws Exception {
+    Mockito.when(imageRetriever.getLatestImageID()).thenReturn(1L);
+    Mockito.when(deltaRetriever.getLatestDeltaID()).thenReturn(3L);
+    Mockito.when(imageRetriever.retrieveFullImage())
+        .thenReturn(new PathsUpdate(3, 1, true));
+
+    List<PathsUpdate> updates = updater.getAllUpdatesFrom(0, SentryConstants.EMPTY_PATHS_SNAPSHOT_ID);
+    assertEquals(3, updates.get(0).getSeqNum());
+
+    Mockito.when(deltaRetriever.getLatestDeltaID()).thenReturn(4L);
+    Mockito.when(imageRetriever.retrieveFullImage())
+        .thenReturn(new PathsUpdate(4, 1, true));
+
+    updates = updater.getAllUpdatesFrom(0, SentryConstants.EMPTY_PATHS_SNAPSHOT_ID);
+    assertEquals(4, updates.get(0).getSeqNum());
+    Mockito.verify(imageRetriever, Mockito.times(2)).retrieveFullImage();
+  }
+
+  @Test
+  public void testFullImageIsNotCachedWhenDisabled() throws Exception {
+    updater = new DBUpdateForwarder<>(imageRetriever, deltaRetriever, false);
+    Mockito.when(imageRetriever.getLatestImageID()).thenReturn(1L);
+    Mockito.when(deltaRetriever.getLatestDeltaID()).thenReturn(3L);
+    Mockito.when(imageRetriever.retrieveFullImage())
+        .thenReturn(new PathsUpdate(3, 1, true));
+
+    updater.getAllUpdatesFrom(0, SentryConstants.EMPTY_PATHS_SNAPSHOT_ID);
+    updater.getAllUpdatesFrom(0, SentryConstants.EMPTY_PATHS_SNAPSHOT_ID);
+    Mockito.verify(imageRetriever, Mockito.times(2)).retrieveFullImage();
+  }
 }
@@ -53,7 +53,7 @@ public class TestDeltaRetriever {
         .thenReturn(Collections.<MSentryPathChange>emptyList());
 
     PathDeltaRetriever deltaRetriever = new PathDeltaRetriever(sentryStoreMock);
-    List<PathsUpdate> pathsUpdates = deltaRetriever.retrieveDelta(1, 1);
+    List<PathsUpdate> pathsUpdates = deltaRetriever.retrieveDelta(1, 1, 0);
 
     assertTrue(pathsUpdates.isEmpty());
   }
@@ -72,7 +72,7 @@ public class TestDeltaRetriever {
         .thenReturn(deltaPathChanges);
 
     deltaRetriever = new PathDeltaRetriever(sentryStoreMock);
-    pathsUpdates = deltaRetriever.retrieveDelta(1, 3);
+    pathsUpdates = deltaRetriever.retrieveDelta(1, 3, 2);
 
     assertEquals(2, pathsUpdates.size());
     assertEquals(1, pathsUpdates.get(0).getSeqNum());
@@ -114,7 +114,7 @@ public class TestDeltaRetriever {
             });
 
     deltaRetriever = new PermDeltaRetriever(sentryStoreMock);
-    permUpdates = deltaRetriever.retrieveDelta(0, 3);
+    permUpdates = deltaRetriever.retrieveDelta(0, 3, 2);
     assertEquals(3, permUpdates.size());
     assertEquals(1, permUpdates.get(0).getSeqNum());
 
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestDeltaRingBuffer {
+
+  @Test
+  public void testOnlyNewerDeltasAreLoaded() throws Exception {
+    DeltaRingBuffer<PermissionsUpdate> buffer = new DeltaRingBuffer<>(10, Long.MAX_VALUE);
+    CountingLoader loader = new CountingLoader(5);
+
+    assertSeqNums(retrieve(buffer, 1, 0, loader), 1, 5);
+    assertEquals(1, loader.loadedFrom);
+
+    // Every requester of the same tail gets it from the buffer, without reading the
+    // persistent storage when the buffer reaches the latest sequence number
+    assertSeqNums(retrieve(buffer, 3, 0, loader), 3, 5);
+    assertSeqNums(retrieve(buffer, 6, 0, loader), 6, 5);
+    assertEquals(1, loader.loads);
+
+    loader.lastSeqNum = 7;
+    assertSeqNums(retrieve(buffer, 4, 0, loader), 4, 7);
+    assertEquals(6, loader.loadedFrom);
+    assertSeqNums(retrieve(buffer, 4, 0, loader), 4, 7);
+    assertEquals(2, loader.loads);
+
+    // A requester gets the deltas up to the latest sequence number it read, and the newer
+    // ones already buffered for other requesters
+    loader.lastSeqNum = 8;
+    assertSeqNums(buffer.retrieve(5, 0, 7, loader), 5, 7);
+    assertEquals(2, loader.loads);
+    assertSeqNums(buffer.retrieve(5, 0, 8, loader), 5, 8);
+    assertEquals(8, loader.loadedFrom);
+    assertSeqNums(buffer.retrieve(5, 0, 7, loader), 5, 8);
+    assertEquals(3, loader.loads);
+  }
+
+  @Test
+  public void testOldestDeltasAreDropped() throws Exception {
+    DeltaRingBuffer<PermissionsUpdate> buffer = new DeltaRingBuffer<>(3, Long.MAX_VALUE);
+    CountingLoader loader = new CountingLoader(5);
+
+    assertSeqNums(retrieve(buffer, 1, 0, loader), 1, 5);
+    assertSeqNums(retrieve(buffer, 3, 0, loader), 3, 5);
+    assertEquals(1, loader.loads);
+
+    // Laggards are answered from the persistent storage
+    assertSeqNums(retrieve(buffer, 2, 0, loader), 2, 5);
+    assertEquals(2, loader.loadedFrom);
+
+    loader.lastSeqNum = 9;
+    assertSeqNums(retrieve(buffer, 5, 0, loader), 5, 9);
+    assertEquals(6, loader.loadedFrom);
+    assertSeqNums(retrieve(buffer, 7, 0, loader), 7, 9);
+    assertEquals(3, loader.loads);
+  }
+
+  @Test
+  public void testBufferIsBoundedBySize() throws Exception {
+    DeltaRingBuffer<PermissionsUpdate> buffer = new DeltaRingBuffer<>(10, 10);
+    CountingLoader loader = new CountingLoader(5);
+    loader.sizes.put(2L, 4L);
+    loader.sizes.put(4L, 4L);
+
+    // Deltas 2 to 5 take 10 bytes
+    assertSeqNums(retrieve(buffer, 1, 0, loader), 1, 5);
+    assertSeqNums(retrieve(buffer, 2, 0, loader), 2, 5);
+    assertEquals(1, loader.loads);
+    assertSeqNums(retrieve(buffer, 1, 0, loader), 1, 5);
+    assertEquals(2, loader.loads);
+
+    // A delta larger than the buffer is not kept, the buffer starts after it
+    loader.lastSeqNum = 8;
+    loader.sizes.put(7L, 11L);
+    assertSeqNums(retrieve(buffer, 5, 0, loader), 5, 8);
+    assertEquals(3, loader.loads);
+    assertSeqNums(retrieve(buffer, 8, 0, loader), 8, 8);
+    assertEquals(3, loader.loads);
+    assertSeqNums(retrieve(buffer, 7, 0, loader), 7, 8);
+    assertEquals(4, loader.loads);
+  }
+
+  @Test
+  public void testBufferStartsOverForAnotherImage() throws Exception {
+    DeltaRingBuffer<PermissionsUpdate> buffer = new DeltaRingBuffer<>(10, Long.MAX_VALUE);
+    CountingLoader loader = new CountingLoader(5);
+
+    assertSeqNums(retrieve(buffer, 1, 1, loader), 1, 5);
+    assertSeqNums(retrieve(buffer, 1, 2, loader), 1, 5);
+    assertEquals(2, loader.loads);
+    assertSeqNums(retrieve(buffer, 1, 2, loader), 1, 5);
+    assertEquals(2, loader.loads);
+  }
+
+  @Test
+  public void testDisabledBuffer() throws Exception {
+    DeltaRingBuffer<PermissionsUpdate> buffer = new DeltaRingBuffer<>(0, Long.MAX_VALUE);
+    CountingLoader loader = new CountingLoader(5);
+
+    assertSeqNums(retrieve(buffer, 1, 0, loader), 1, 5);
+    assertSeqNums(retrieve(buffer, 3, 0, loader), 3, 5);
+    assertEquals(3, loader.loadedFrom);
+  }
+
+  /**
+   * Retrieves the deltas with the last sequence number of the loader as the latest one.
+   */
+  private static List<PermissionsUpdate> retrieve(DeltaRingBuffer<PermissionsUpdate> buffer,
+      long seqNum, long imgNum, CountingLoader loader) throws Exception {
+    return buffer.retrieve(seqNum, imgNum, loader.lastSeqNum, loader);
+  }
+
+  private static void assertSeqNums(List<PermissionsUpdate> updates, long first, long last) {
+    assertEquals(last - first + 1, updates.size());
+    for (int i = 0; i < updates.size(); i++) {
+      assertEquals(first + i, updates.get(i).getSeqNum());
+    }
+  }
+
+  /**
+   * Loads the deltas up to the last sequence number, and remembers how often and where it
+   * loaded from.
+   */
+  private static final class CountingLoader implements DeltaRingBuffer.Loader<PermissionsUpdate> {
+    private long lastSeqNum;
+    private long loadedFrom;
+    private int loads;
+    // Size of the persisted form of the deltas, 1 unless set
+    private final Map<Long, Long> sizes = new HashMap<>();
+
+    private CountingLoader(long lastSeqNum) {
+      this.lastSeqNum = lastSeqNum;
+    }
+
+    @Override
+    public List<DeltaRingBuffer.Loaded<PermissionsUpdate>> load(long seqNum) {
+      loads++;
+      loadedFrom = seqNum;
+      List<DeltaRingBuffer.Loaded<PermissionsUpdate>> updates = new ArrayList<>();
+      for (long i = seqNum; i <= lastSeqNum; i++) {
+        updates.add(new DeltaRingBuffer.Loaded<>(new PermissionsUpdate(i, false),
+            sizes.containsKey(i) ? sizes.get(i) : 1));
+      }
+      return updates;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.hdfs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.sentry.hdfs.service.thrift.TPathEntry;
+import org.apache.sentry.hdfs.service.thrift.TPathsDump;
+import org.apache.sentry.hdfs.service.thrift.TPathsImageChunk;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestPathsImageSnapshots {
+
+  @Test
+  public void testChunksHoldEntriesInIdOrder() {
+    PathsImageSnapshots snapshots = new PathsImageSnapshots(60000);
+    TPathsDump dump = newDump(5);
+    long id = snapshots.register(dump, 2);
+    assertEquals(1, snapshots.size());
+
+    TPathsImageChunk chunk = snapshots.getChunk(id, 0);
+    assertEquals(dump.getRootId(), chunk.getRootId());
+    assertEquals(dump.getDupStringValues(), chunk.getDupStringValues());
+    assertEquals(Lists.newArrayList(1, 2), Lists.newArrayList(chunk.getNodeMap().keySet()));
+    assertTrue(chunk.isHasMore());
+
+    chunk = snapshots.getChunk(id, 1);
+    assertFalse(chunk.isSetRootId());
+    assertFalse(chunk.isSetDupStringValues());
+    assertEquals(dump.getNodeMap().get(3), chunk.getNodeMap().get(3));
+    assertEquals(2, chunk.getNodeMapSize());
+    assertTrue(chunk.isHasMore());
+
+    chunk = snapshots.getChunk(id, 2);
+    assertEquals(1, chunk.getNodeMapSize());
+    assertTrue(chunk.getNodeMap().containsKey(5));
+    assertFalse(chunk.isHasMore());
+
+    // The image is dropped once its last chunk was sent
+    assertNull(snapshots.getChunk(id, 0));
+    assertEquals(0, snapshots.size());
+  }
+
+  @Test
+  public void testUnknownImage() {
+    PathsImageSnapshots snapshots = new PathsImageSnapshots(60000);
+    long id = snapshots.register(newDump(3), 10);
+    assertNull(snapshots.getChunk(id + 1, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidChunk() {
+    PathsImageSnapshots snapshots = new PathsImageSnapshots(60000);
+    long id = snapshots.register(newDump(3), 2);
+    snapshots.getChunk(id, 2);
+  }
+
+  /**
+   * A dump of a chain of directories, with ids assigned in preorder as the dumpers do.
+   */
+  private static TPathsDump newDump(int entryCount) {
+    Map<Integer, TPathEntry> nodeMap = new HashMap<>();
+    for (int id = 1; id <= entryCount; id++) {
+      TPathEntry entry = new TPathEntry(HMSPaths.EntryType.DIR.getByte(), id == 1 ? "/" : "dir" + id,
+          Lists.<Integer>newArrayList());
+      if (id < entryCount) {
+        entry.addToChildren(id + 1);
+      }
+      nodeMap.put(id, entry);
+    }
+    TPathsDump dump = new TPathsDump(1, nodeMap);
+    dump.setDupStringValues(Lists.newArrayList("dup"));
+    return dump;
+  }
+}
@@ -38,6 +38,7 @@ public class CommonPrivilege implements Privilege {
 
   private ImmutableList<KeyValue> parts;
   private boolean grantOption = false;
+  private volatile CompiledPrivilege compiled;
   private static final Logger LOGGER = LoggerFactory.getLogger(CommonPrivilege.class);
 
   public CommonPrivilege(String privilegeStr) {
@@ -135,6 +136,20 @@ public class CommonPrivilege implements Privilege {
     return true;
   }
 
+  /**
+   * Get this privilege resolved against the given model, for matching with
+   * {@link CompiledPrivilege#implies(CompiledPrivilege)}. The result is kept with the
+   * privilege, so it is only computed once for privileges that are reused.
+   */
+  public CompiledPrivilege compile(Model model) {
+    CompiledPrivilege result = compiled;
+    if (result == null || result.getModel() != model) {
+      result = CompiledPrivilege.compile(parts, grantOption, model);
+      compiled = result;
+    }
+    return result;
+  }
+
   /**
    * Check if the action part in a privilege is ALL. Owner privilege is
    * treated as ALL for authorization
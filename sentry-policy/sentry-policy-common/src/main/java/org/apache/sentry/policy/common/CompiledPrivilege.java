@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.policy.common;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.sentry.core.common.Action;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.BitFieldAction;
+import org.apache.sentry.core.common.BitFieldActionFactory;
+import org.apache.sentry.core.common.ImplyMethodType;
+import org.apache.sentry.core.common.Model;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.core.common.utils.PathUtils;
+import org.apache.sentry.core.common.utils.PathUtils.QualifiedURI;
+import org.apache.sentry.core.common.utils.SentryConstants;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A privilege resolved against a {@link Model} so that it can be matched without
+ * re-parsing or re-resolving anything. Authorizable types are mapped to small integer ids,
+ * actions are resolved to their {@link BitFieldAction} codes, the imply method of every
+ * resource is looked up once, the case-insensitive form of every value is computed up front and
+ * URIs are qualified and normalized once.
+ * <p>
+ * {@link #implies(CompiledPrivilege)} gives exactly the same answer as
+ * {@link CommonPrivilege#implies(Privilege, Model)} for the same privileges and model, but
+ * it neither allocates nor consults the model while matching.
+ */
+public final class CompiledPrivilege {
+
+  // Authorizable type name (case folded) -> id. The set of type names is bounded by the models.
+  private static final ConcurrentMap<String, Integer> KEY_IDS = new ConcurrentHashMap<>();
+  private static final int ACTION_KEY_ID = keyId(SentryConstants.PRIVILEGE_NAME);
+
+  private static final int POLICY_WILDCARD = 1;
+  private static final int REQUEST_WILDCARD = 1 << 1;
+  private static final int ACTION_RESOLVED = 1 << 2;
+  private static final int IMPLIES_ALL_ACTIONS = 1 << 3;
+  private static final int URI_INVALID = 1 << 4;
+
+  private final Model model;
+  private final boolean grantOption;
+  private final String[] keys;
+  private final String[] values;
+  private final int[] keyIds;
+  private final String[] foldedValues;
+  private final ImplyMethodType[] implyMethods;
+  private final int[] actionCodes;
+  private final int[] flags;
+  private final QualifiedURI[] uris;
+
+  private CompiledPrivilege(String[] keys, String[] values, boolean grantOption, Model model,
+      boolean granted) {
+    this.model = model;
+    this.grantOption = grantOption;
+    this.keys = keys;
+    this.values = values;
+    int size = keys.length;
+    keyIds = new int[size];
+    foldedValues = new String[size];
+    implyMethods = new ImplyMethodType[size];
+    actionCodes = new int[size];
+    flags = new int[size];
+    uris = new QualifiedURI[size];
+
+    BitFieldActionFactory actionFactory = model.getBitFieldActionFactory();
+    BitFieldAction allAction = granted ? resolveAction(actionFactory,
+        SentryConstants.PRIVILEGE_WILDCARD_VALUE) : null;
+    for (int i = 0; i < size; i++) {
+      String value = values[i];
+      keyIds[i] = keyId(keys[i]);
+      foldedValues[i] = fold(value);
+      if (keyIds[i] != ACTION_KEY_ID) {
+        implyMethods[i] = model.getImplyMethodMap().get(keys[i].toLowerCase());
+      }
+
+      int flag = 0;
+      if (SentryConstants.RESOURCE_WILDCARD_VALUE.equals(value)
+          || SentryConstants.RESOURCE_WILDCARD_VALUE_ALL.equalsIgnoreCase(value)) {
+        flag |= POLICY_WILDCARD | REQUEST_WILDCARD;
+      } else if (SentryConstants.RESOURCE_WILDCARD_VALUE_SOME.equals(value)) {
+        flag |= REQUEST_WILDCARD;
+      }
+      // Resource values of a granted privilege are only resolved as actions for the check of
+      // its trailing parts, which never applies to a requested privilege
+      BitFieldAction action = null;
+      if (keyIds[i] == ACTION_KEY_ID || granted) {
+        action = resolveAction(actionFactory, value);
+      }
+      if (action != null) {
+        flag |= ACTION_RESOLVED;
+        actionCodes[i] = action.getActionCode();
+        if (action.implies(allAction)) {
+          flag |= IMPLIES_ALL_ACTIONS;
+        }
+      }
+      if (implyMethods[i] == ImplyMethodType.URL && (flag & REQUEST_WILDCARD) == 0) {
+        flag |= qualifyURI(i, granted);
+      }
+      flags[i] = flag;
+    }
+  }
+
+  private int qualifyURI(int index, boolean granted) {
+    try {
+      uris[index] = granted ? PathUtils.qualifyPrivilegeURI(values[index])
+          : PathUtils.qualifyRequestURI(values[index]);
+      return uris[index] == null ? URI_INVALID : 0;
+    } catch (IllegalArgumentException e) {
+      // Malformed URIs are left to PathUtils.impliesURI(String, String) when matching, so
+      // that they fail the same way as with CommonPrivilege
+      return 0;
+    }
+  }
+
+  /**
+   * Compiles the parts of a parsed privilege, as returned by {@link CommonPrivilege#getParts()}.
+   */
+  static CompiledPrivilege compile(List<KeyValue> parts, boolean grantOption, Model model) {
+    String[] keys = new String[parts.size()];
+    String[] values = new String[parts.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = parts.get(i).getKey();
+      values[i] = parts.get(i).getValue();
+    }
+    return new CompiledPrivilege(keys, values, grantOption, model, true);
+  }
+
+  /**
+   * Builds the privilege requested by an access check directly from the authorizable
+   * hierarchy. This is equivalent to parsing
+   * "type1=name1->...->typeN=nameN->action=value->grantOption=bool" with
+   * {@link CommonPrivilege}, without building that string first.
+   */
+  public static CompiledPrivilege forRequest(List<? extends Authorizable> authorizables,
+      Action action, boolean grantOption, Model model) {
+    int size = authorizables.size();
+    String[] keys = new String[size + 1];
+    String[] values = new String[size + 1];
+    for (int i = 0; i < size; i++) {
+      Authorizable authorizable = authorizables.get(i);
+      keys[i] = checkPart(authorizable.getTypeName(), authorizable.getName());
+      values[i] = authorizable.getName().trim();
+    }
+    keys[size] = SentryConstants.PRIVILEGE_NAME;
+    values[size] = checkPart(SentryConstants.PRIVILEGE_NAME, action.getValue()).trim();
+    return new CompiledPrivilege(keys, values, grantOption, model, false);
+  }
+
+  private static String checkPart(String key, String value) {
+    Preconditions.checkNotNull(key, "Authorizable type cannot be null");
+    Preconditions.checkNotNull(value, "Authorizable name cannot be null");
+    String trimmedKey = key.trim();
+    if (trimmedKey.isEmpty() || value.trim().isEmpty()) {
+      throw new IllegalArgumentException("Invalid key value: " + key + "=" + value);
+    }
+    return trimmedKey;
+  }
+
+  /**
+   * @return true if this privilege, granted by the policy, implies the requested privilege.
+   */
+  public boolean implies(CompiledPrivilege request) {
+    if (request.grantOption && !grantOption) {
+      // the request needs grant option, but this privilege does not have grant option
+      return false;
+    }
+
+    if (hasSameParts(request)) {
+      return true;
+    }
+
+    int size = keyIds.length;
+    int index = 0;
+    for (int otherIndex = 0; otherIndex < request.keyIds.length; otherIndex++) {
+      // If this privilege has less parts than the request, everything after the
+      // number of parts contained in this privilege is automatically implied
+      if (index >= size) {
+        return true;
+      }
+      int keyId = keyIds[index];
+      if (keyId != request.keyIds[otherIndex]) {
+        // Support for action inheritance from parent to child
+        if (keyId == ACTION_KEY_ID) {
+          continue;
+        }
+        return false;
+      }
+
+      if (keyId == ACTION_KEY_ID) {
+        if (!impliesAction(index, request, otherIndex)) {
+          return false;
+        }
+      } else if (!impliesResource(index, request, otherIndex)) {
+        return false;
+      }
+      index++;
+    }
+
+    // If this privilege has more parts than the request, only imply it if
+    // all of the remaining parts are the ALL action
+    for (; index < size; index++) {
+      if ((flags[index] & IMPLIES_ALL_ACTIONS) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasSameParts(CompiledPrivilege other) {
+    if (keys.length != other.keys.length) {
+      return false;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (!keys[i].equals(other.keys[i]) || !values[i].equals(other.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean impliesAction(int index, CompiledPrivilege request, int otherIndex) {
+    if ((flags[index] & ACTION_RESOLVED) == 0
+        || (request.flags[otherIndex] & ACTION_RESOLVED) == 0) {
+      // the action in privilege is not supported
+      return false;
+    }
+    int requestCode = request.actionCodes[otherIndex];
+    return (actionCodes[index] & requestCode) == requestCode;
+  }
+
+  private boolean impliesResource(int index, CompiledPrivilege request, int otherIndex) {
+    if ((flags[index] & POLICY_WILDCARD) != 0
+        || (request.flags[otherIndex] & REQUEST_WILDCARD) != 0) {
+      return true;
+    }
+
+    ImplyMethodType implyMethodType = implyMethods[index];
+    if (ImplyMethodType.URL == implyMethodType) {
+      return impliesURI(index, request, otherIndex);
+    } else if (ImplyMethodType.STRING_CASE_SENSITIVE == implyMethodType) {
+      return values[index].equals(request.values[otherIndex]);
+    }
+    return foldedValues[index].equals(request.foldedValues[otherIndex]);
+  }
+
+  private boolean impliesURI(int index, CompiledPrivilege request, int otherIndex) {
+    if ((flags[index] & URI_INVALID) != 0) {
+      return false;
+    }
+    if (uris[index] != null) {
+      if (request.uris[otherIndex] != null) {
+        return PathUtils.impliesURI(uris[index], request.uris[otherIndex]);
+      }
+      if ((request.flags[otherIndex] & URI_INVALID) != 0) {
+        return false;
+      }
+    }
+    return PathUtils.impliesURI(values[index], request.values[otherIndex]);
+  }
+
+  Model getModel() {
+    return model;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        builder.append(SentryConstants.AUTHORIZABLE_SEPARATOR);
+      }
+      builder.append(keys[i]).append(SentryConstants.KV_SEPARATOR).append(values[i]);
+    }
+    return builder.toString();
+  }
+
+  private static BitFieldAction resolveAction(BitFieldActionFactory actionFactory, String name) {
+    try {
+      return actionFactory.getActionByName(name);
+    } catch (SentryUserException e) {
+      return null;
+    }
+  }
+
+  private static int keyId(String key) {
+    String foldedKey = fold(key);
+    Integer id = KEY_IDS.get(foldedKey);
+    if (id == null) {
+      synchronized (KEY_IDS) {
+        id = KEY_IDS.get(foldedKey);
+        if (id == null) {
+          id = KEY_IDS.size();
+          KEY_IDS.put(foldedKey, id);
+        }
+      }
+    }
+    return id;
+  }
+
+  /**
+   * Folds the case of a string so that two strings are equal after folding exactly when
+   * they are equal according to {@link String#equalsIgnoreCase(String)}.
+   */
+  static String fold(String str) {
+    int length = str.length();
+    int i = 0;
+    while (i < length && foldChar(str.charAt(i)) == str.charAt(i)) {
+      i++;
+    }
+    if (i == length) {
+      return str;
+    }
+    char[] chars = str.toCharArray();
+    for (; i < length; i++) {
+      chars[i] = foldChar(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private static char foldChar(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+}
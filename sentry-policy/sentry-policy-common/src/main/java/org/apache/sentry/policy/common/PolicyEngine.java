@@ -17,6 +17,8 @@
 
 package org.apache.sentry.policy.common;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 
@@ -94,6 +96,30 @@ public interface PolicyEngine {
   ImmutableSet<String> getPrivileges(Set<String> groups, Set<String> users, ActiveRoleSet roleSet,
       Authorizable... authorizableHierarchy) throws SentryConfigurationException;
 
+  /**
+   * Get privileges in string associated with groups and users for each of the given
+   * authorizable hierarchies. Implementations backed by a remote store should override
+   * this method to fetch the privileges of all hierarchies at once.
+   *
+   * @param groups
+   * @param users
+   * @param roleSet
+   * @param authorizableHierarchies
+   * @return one non-null immutable set of privileges per element of
+   *         {@code authorizableHierarchies}, in the same order
+   * @throws SentryConfigurationException
+   */
+  default List<ImmutableSet<String>> getPrivilegesBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryConfigurationException {
+    List<ImmutableSet<String>> result = new ArrayList<>(authorizableHierarchies.size());
+    for (List<? extends Authorizable> authorizableHierarchy : authorizableHierarchies) {
+      result.add(getPrivileges(groups, users, roleSet,
+          authorizableHierarchy.toArray(new Authorizable[0])));
+    }
+    return result;
+  }
+
   /**
    * Get privilege objects associated with groups and users. Returns Strings which can be resolved by the
    * caller.
@@ -108,6 +134,26 @@ public interface PolicyEngine {
   ImmutableSet<Privilege> getPrivilegeObjects(Set<String> groups, Set<String> users,
       ActiveRoleSet roleSet, Authorizable... authorizableHierarchy) throws SentryConfigurationException;
 
+  /**
+   * Get privilege objects associated with groups and users for each of the given
+   * authorizable hierarchies.
+   *
+   * @param groups
+   * @param users
+   * @param roleSet
+   * @param authorizableHierarchies
+   * @return one non-null immutable set of privilege objects per element of
+   *         {@code authorizableHierarchies}, in the same order, or null if privilege objects
+   *         are not available, in which case the caller should call getPrivilegesBulk()
+   * @throws SentryConfigurationException
+   */
+  default List<ImmutableSet<Privilege>> getPrivilegeObjectsBulk(Set<String> groups,
+      Set<String> users, ActiveRoleSet roleSet,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryConfigurationException {
+    return null;
+  }
+
   void close();
 
   void validatePolicy(boolean strictValidation) throws SentryConfigurationException;
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.policy.common;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.sentry.core.common.Model;
+import org.apache.sentry.core.model.db.AccessURI;
+import org.apache.sentry.core.model.db.Column;
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCompiledPrivilege {
+
+  private static final String[] PRIVILEGES = {
+      "server=server1",
+      "server=*",
+      "server=all",
+      "server=+",
+      "server=server1->action=select",
+      "server=server1->action=all",
+      "server=server1->action=*",
+      "server=server1->db=db1",
+      "server=server1->db=DB1",
+      "server=server1->db=*",
+      "server=server1->db=db1->action=select",
+      "server=server1->db=db1->action=insert",
+      "server=server1->db=db1->action=all",
+      "server=server1->db=db1->action=unknown",
+      "server=server1->db=db1->table=table1",
+      "server=server1->db=db1->table=table1->action=select",
+      "Server=Server1->Db=Db1->Table=Table1->Action=Select",
+      "server=server1->db=db1->table=table2->action=select",
+      "server=server1->db=db1->table=table1->action=insert->grantoption=true",
+      "server=server1->db=db1->table=table1->action=all->grantoption=true",
+      "server=server1->db=db1->table=table1->column=column1->action=select",
+      "server=server1->db=db1->table=table1->column=Column1->action=select",
+      "server=server1->db=db1->table=table1->column=*->action=select",
+      "server=server1->db=db1->table=table1->column=+->action=select",
+      "server=server1->db=all",
+      "server=server1->uri=hdfs:///url",
+      "server=server1->uri=hdfs:///url/for/request",
+      "server=server1->uri=hdfs:///url/unvalid/for/request",
+      "server=server1->uri=hdfs:///url->action=select",
+      "action=select",
+      "action=all",
+      "db=db1->action=select",
+  };
+
+  private Model testModel;
+
+  @Before
+  public void prepareData() {
+    testModel = new ModelForTest();
+  }
+
+  @Test
+  public void testImpliesLikeCommonPrivilege() throws Exception {
+    for (String policy : PRIVILEGES) {
+      CommonPrivilege policyPrivilege = new CommonPrivilege(policy);
+      for (String request : PRIVILEGES) {
+        CommonPrivilege requestPrivilege = new CommonPrivilege(request);
+        assertEquals(policy + " implies " + request,
+            policyPrivilege.implies(requestPrivilege, testModel),
+            policyPrivilege.compile(testModel).implies(requestPrivilege.compile(testModel)));
+      }
+    }
+  }
+
+  @Test
+  public void testRequestFromAuthorizables() throws Exception {
+    List<List<? extends DBModelAuthorizable>> hierarchies =
+        Arrays.<List<? extends DBModelAuthorizable>>asList(
+        Arrays.asList(new Server("server1")),
+        Arrays.asList(new Server("server1"), new Database("db1")),
+        Arrays.asList(new Server("server1"), new Database("DB1"), new Table("table1")),
+        Arrays.asList(new Server("server1"), new Database("db1"), new Table("table1"),
+            new Column("column1")),
+        Arrays.asList(new Server("server1"), new Database("db1"), new Table("table1"),
+            new Column("Column1")),
+        Arrays.asList(new Server("server1"), new Database("db1"), new Table("*")),
+        Arrays.asList(new Server("server1"), new Database("db1"), new Table("+")),
+        Arrays.asList(new Server("server1"), new AccessURI("hdfs:///url/for/request")));
+    List<DBModelAction> actions = Arrays.asList(DBModelAction.SELECT, DBModelAction.INSERT,
+        DBModelAction.ALL);
+
+    for (List<? extends DBModelAuthorizable> authorizables : hierarchies) {
+      for (DBModelAction action : actions) {
+        for (boolean grantOption : new boolean[] { false, true }) {
+          StringBuilder requestStr = new StringBuilder();
+          for (DBModelAuthorizable authorizable : authorizables) {
+            requestStr.append(authorizable.getTypeName()).append("=")
+                .append(authorizable.getName()).append("->");
+          }
+          requestStr.append("action=").append(action.getValue())
+              .append("->grantOption=").append(grantOption);
+          CommonPrivilege parsedRequest = new CommonPrivilege(requestStr.toString());
+          CompiledPrivilege request = CompiledPrivilege.forRequest(authorizables, action,
+              grantOption, testModel);
+          assertEquals(parsedRequest.toString(), request.toString());
+
+          for (String policy : PRIVILEGES) {
+            CommonPrivilege policyPrivilege = new CommonPrivilege(policy);
+            assertEquals(policy + " implies " + requestStr,
+                policyPrivilege.implies(parsedRequest, testModel),
+                policyPrivilege.compile(testModel).implies(request));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompileIsCachedPerModel() throws Exception {
+    CommonPrivilege privilege = new CommonPrivilege("server=server1->db=db1->action=select");
+    CompiledPrivilege compiled = privilege.compile(testModel);
+    assertTrue(compiled == privilege.compile(testModel));
+    assertFalse(compiled == privilege.compile(new ModelForTest()));
+  }
+
+  @Test
+  public void testFold() throws Exception {
+    String lowerCase = "db1";
+    assertTrue(lowerCase == CompiledPrivilege.fold(lowerCase));
+    assertEquals("db1", CompiledPrivilege.fold("DB1"));
+    assertEquals(CompiledPrivilege.fold("\u00e9cole"), CompiledPrivilege.fold("\u00c9COLE"));
+  }
+}
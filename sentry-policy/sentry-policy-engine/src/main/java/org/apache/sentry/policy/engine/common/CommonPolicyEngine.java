@@ -27,6 +27,7 @@ import org.apache.sentry.provider.common.ProviderBackend;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Set;
 
 public class CommonPolicyEngine implements PolicyEngine {
@@ -93,6 +94,30 @@ public class CommonPolicyEngine implements PolicyEngine {
     return result;
   }
 
+  @Override
+  public List<ImmutableSet<String>> getPrivilegesBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryConfigurationException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting permissions for groups: {}, users: {}, {} authorizable hierarchies",
+          groups, users, authorizableHierarchies.size());
+    }
+    return providerBackend.getPrivilegesBulk(groups, users, roleSet, authorizableHierarchies);
+  }
+
+  @Override
+  public List<ImmutableSet<Privilege>> getPrivilegeObjectsBulk(Set<String> groups,
+      Set<String> users, ActiveRoleSet roleSet,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryConfigurationException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting permissions for groups: {}, users: {}, {} authorizable hierarchies",
+          groups, users, authorizableHierarchies.size());
+    }
+    return providerBackend.getPrivilegeObjectsBulk(groups, users, roleSet,
+        authorizableHierarchies);
+  }
+
   @Override
   public ImmutableSet<Privilege> getPrivilegeObjects(Set<String> groups, Set<String> users,
       ActiveRoleSet roleSet, Authorizable... authorizableHierarchy)
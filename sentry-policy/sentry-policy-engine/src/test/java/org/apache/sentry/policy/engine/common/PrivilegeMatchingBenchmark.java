@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.policy.engine.common;
+
+import static org.apache.sentry.core.common.utils.SentryConstants.AUTHORIZABLE_JOINER;
+import static org.apache.sentry.core.common.utils.SentryConstants.GRANT_OPTION;
+import static org.apache.sentry.core.common.utils.SentryConstants.KV_JOINER;
+import static org.apache.sentry.core.common.utils.SentryConstants.PRIVILEGE_NAME;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.Model;
+import org.apache.sentry.core.model.db.Column;
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.HivePrivilegeModel;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.apache.sentry.policy.common.CommonPrivilege;
+import org.apache.sentry.policy.common.CompiledPrivilege;
+import org.apache.sentry.policy.common.Privilege;
+import org.apache.sentry.policy.common.PrivilegeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares matching a request against the privileges of a subject through
+ * {@link CommonPrivilege#implies}, with the request built as a string and parsed by the
+ * privilege factory, and through {@link CompiledPrivilege#implies}, with the request built
+ * from the authorizables. The request is not implied by any of the privileges, so every
+ * privilege is compared.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=org.apache.sentry.policy.engine.common.PrivilegeMatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrivilegeMatchingBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int privilegeCount;
+
+  private final Model model = HivePrivilegeModel.getInstance();
+  private final PrivilegeFactory privilegeFactory = new CommonPrivilegeFactory();
+  private final List<DBModelAuthorizable> authorizables = Arrays.<DBModelAuthorizable>asList(
+      new Server("server1"), new Database("db1"), new Table("unknown_table"),
+      new Column("col1"));
+  private final DBModelAction action = DBModelAction.SELECT;
+
+  private List<Privilege> privileges;
+  private List<CompiledPrivilege> compiledPrivileges;
+
+  @Setup
+  public void setup() {
+    privileges = new ArrayList<>(privilegeCount);
+    compiledPrivileges = new ArrayList<>(privilegeCount);
+    for (int i = 0; i < privilegeCount; i++) {
+      CommonPrivilege privilege = new CommonPrivilege(
+          "server=server1->db=db1->table=table" + i + "->column=col1->action=select");
+      privileges.add(privilege);
+      compiledPrivileges.add(privilege.compile(model));
+    }
+  }
+
+  @Benchmark
+  public boolean commonPrivilege() {
+    List<String> hierarchy = new ArrayList<>();
+    for (Authorizable authorizable : authorizables) {
+      hierarchy.add(KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
+    }
+    String requestStr = AUTHORIZABLE_JOINER.join(AUTHORIZABLE_JOINER.join(hierarchy),
+        KV_JOINER.join(PRIVILEGE_NAME, action.getValue()), KV_JOINER.join(GRANT_OPTION, false));
+    Privilege request = privilegeFactory.createPrivilege(requestStr);
+    for (Privilege privilege : privileges) {
+      if (privilege.implies(request, model)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public boolean compiledPrivilege() {
+    CompiledPrivilege request = CompiledPrivilege.forRequest(authorizables, action, false, model);
+    for (CompiledPrivilege privilege : compiledPrivileges) {
+      if (privilege.implies(request)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PrivilegeMatchingBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
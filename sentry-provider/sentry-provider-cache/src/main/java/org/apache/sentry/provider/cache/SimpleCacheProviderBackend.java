@@ -17,6 +17,8 @@
 
 package org.apache.sentry.provider.cache;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
@@ -103,6 +105,32 @@ public class SimpleCacheProviderBackend implements ProviderBackend {
     return ImmutableSet.of();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The privilege objects of all the hierarchies are read from the cache.
+   */
+  @Override
+  public List<ImmutableSet<Privilege>> getPrivilegeObjectsBulk(Set<String> groups,
+      Set<String> users, ActiveRoleSet roleSet,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies) {
+    if (!initialized()) {
+      throw new IllegalStateException(
+          "Backend has not been properly initialized");
+    }
+
+    if (!(cacheHandle instanceof FilteredPrivilegeCache)) {
+      return null;
+    }
+    FilteredPrivilegeCache filteredPrivilegeCache = (FilteredPrivilegeCache) cacheHandle;
+    List<ImmutableSet<Privilege>> result = new ArrayList<>(authorizableHierarchies.size());
+    for (List<? extends Authorizable> authorizableHierarchy : authorizableHierarchies) {
+      result.add(ImmutableSet.copyOf(filteredPrivilegeCache.listPrivilegeObjects(groups, users,
+          roleSet, authorizableHierarchy.toArray(new Authorizable[0]))));
+    }
+    return result;
+  }
+
   @Override
   public ImmutableSet<String> getRoles(Set<String> groups, ActiveRoleSet roleSet) {
     if (!initialized()) {
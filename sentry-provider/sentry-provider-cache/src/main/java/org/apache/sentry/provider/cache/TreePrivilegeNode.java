@@ -24,6 +24,7 @@ import java.util.Set;
 import org.apache.commons.lang.StringUtils;
 import org.apache.sentry.core.common.Authorizable;
 import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.core.common.utils.PathUtils.QualifiedURI;
 import org.apache.sentry.core.common.utils.SentryConstants;
 import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
 import org.apache.sentry.policy.common.Privilege;
@@ -56,6 +57,9 @@ public class TreePrivilegeNode {
    */
   Map<String, TreePrivilegeNode> childPrivileges;
 
+  /** URI privileges of this node whose URI can be qualified, which would otherwise be own privileges */
+  URIPrivilegeTrie uriPrivileges;
+
   private static final Logger LOGGER = LoggerFactory
     .getLogger(TreePrivilegeNode.class);
 
@@ -64,6 +68,10 @@ public class TreePrivilegeNode {
 
   public void addPrivilege(final Privilege inPrivilege, int partIndex) {
     if (isOwnPrivilege(inPrivilege, partIndex)) {
+      if (addURIPrivilege(inPrivilege, partIndex)) {
+        return;
+      }
+
       if (ownPrivileges == null) {
         ownPrivileges = new HashSet<>();
       }
@@ -118,6 +126,10 @@ public class TreePrivilegeNode {
       targetSet.addAll(ownPrivileges);
     }
 
+    if (uriPrivileges != null) {
+      addURIPrivilegeObjects(partIndex, authorizationhierarchy, targetSet);
+    }
+
     if ((childWildcardPrivileges != null) && (authorizationhierarchy.length > partIndex + 1)) {
       // only add when the child authorizable is included
       targetSet.addAll(childWildcardPrivileges);
@@ -132,6 +144,50 @@ public class TreePrivilegeNode {
     return targetSet;
   }
 
+  private boolean addURIPrivilege(Privilege inPrivilege, int partIndex) {
+    List<KeyValue> parts = inPrivilege.getParts();
+    if (!hasChild(partIndex, parts.size())) {
+      return false;
+    }
+
+    KeyValue childPart = parts.get(partIndex + 1);
+    if (!AuthorizableType.URI.toString().equalsIgnoreCase(childPart.getKey())) {
+      return false;
+    }
+
+    QualifiedURI uri = URIPrivilegeTrie.qualifyPrivilegeURI(childPart.getValue());
+    if (uri == null) {
+      // keep it with the own privileges, which are returned for every request
+      return false;
+    }
+
+    if (uriPrivileges == null) {
+      uriPrivileges = new URIPrivilegeTrie();
+    }
+    uriPrivileges.add(uri, inPrivilege);
+    return true;
+  }
+
+  // A URI privilege can only imply a requested URI under its path, so for URI requests
+  // only those are returned. Other requests get all URI privileges, like own privileges.
+  private void addURIPrivilegeObjects(int partIndex, Authorizable[] authorizationhierarchy,
+    Set<Privilege> targetSet) {
+    QualifiedURI requestURI = null;
+    if (hasChild(partIndex, authorizationhierarchy.length)) {
+      Authorizable childPart = authorizationhierarchy[partIndex + 1];
+      if ((childPart != null)
+        && AuthorizableType.URI.toString().equalsIgnoreCase(childPart.getTypeName())) {
+        requestURI = URIPrivilegeTrie.qualifyRequestURI(childPart.getName());
+      }
+    }
+
+    if (requestURI == null) {
+      uriPrivileges.addAll(targetSet);
+    } else {
+      uriPrivileges.addCandidates(requestURI, targetSet);
+    }
+  }
+
   // Check if there is child to process
   // true: yes; false: reach to the end of the hierarchy, and there is no more child to process
   private static boolean hasChild(int partIndex, int totalLevel) {
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.cache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sentry.core.common.utils.PathUtils;
+import org.apache.sentry.core.common.utils.PathUtils.QualifiedURI;
+import org.apache.sentry.policy.common.Privilege;
+
+/**
+ * URI privileges of a TreePrivilegeNode, organized by the scheme and authority and then
+ * by the path components of their qualified URI. A privilege can only imply a requested
+ * URI with the same scheme and authority whose path starts with all of its path
+ * components, so a lookup only returns the privileges found on the way from the root to
+ * the requested path, instead of all URI privileges.
+ */
+class URIPrivilegeTrie {
+  // scheme://authority -> root of the paths
+  private final Map<String, Node> roots = new HashMap<>();
+
+  private static final class Node {
+    private Set<Privilege> privileges;
+    private Map<String, Node> children;
+  }
+
+  void add(QualifiedURI uri, Privilege privilege) {
+    String rootKey = getRootKey(uri);
+    Node node = roots.get(rootKey);
+    if (node == null) {
+      node = new Node();
+      roots.put(rootKey, node);
+    }
+    for (String component : uri.getPathComponents()) {
+      if (node.children == null) {
+        node.children = new HashMap<>();
+      }
+      Node child = node.children.get(component);
+      if (child == null) {
+        child = new Node();
+        node.children.put(component, child);
+      }
+      node = child;
+    }
+    if (node.privileges == null) {
+      node.privileges = new HashSet<>();
+    }
+    node.privileges.add(privilege);
+  }
+
+  /**
+   * Add the privileges which may imply the requested URI to targetSet. The privileges are
+   * still matched against the request afterwards.
+   */
+  void addCandidates(QualifiedURI request, Set<Privilege> targetSet) {
+    Node node = roots.get(getRootKey(request));
+    if (node == null) {
+      return;
+    }
+    if (node.privileges != null) {
+      targetSet.addAll(node.privileges);
+    }
+    for (String component : request.getPathComponents()) {
+      node = node.children == null ? null : node.children.get(component);
+      if (node == null) {
+        return;
+      }
+      if (node.privileges != null) {
+        targetSet.addAll(node.privileges);
+      }
+    }
+  }
+
+  /**
+   * Add all privileges to targetSet, for requests whose URI cannot be qualified.
+   */
+  void addAll(Set<Privilege> targetSet) {
+    for (Node root : roots.values()) {
+      addAll(root, targetSet);
+    }
+  }
+
+  private static void addAll(Node node, Set<Privilege> targetSet) {
+    if (node.privileges != null) {
+      targetSet.addAll(node.privileges);
+    }
+    if (node.children != null) {
+      for (Node child : node.children.values()) {
+        addAll(child, targetSet);
+      }
+    }
+  }
+
+  private static String getRootKey(QualifiedURI uri) {
+    return uri.getScheme() + "://" + uri.getAuthority();
+  }
+
+  /**
+   * @return the qualified URI of a granted privilege, or null if it cannot be qualified
+   */
+  static QualifiedURI qualifyPrivilegeURI(String uri) {
+    try {
+      return PathUtils.qualifyPrivilegeURI(uri);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return the qualified URI of a request, or null if it cannot be qualified
+   */
+  static QualifiedURI qualifyRequestURI(String uri) {
+    try {
+      return PathUtils.qualifyRequestURI(uri);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
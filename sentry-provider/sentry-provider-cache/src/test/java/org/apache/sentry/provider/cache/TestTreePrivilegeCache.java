@@ -26,6 +26,7 @@ import java.util.Set;
 import org.apache.sentry.core.common.Authorizable;
 import org.apache.sentry.core.common.utils.KeyValue;
 import org.apache.sentry.core.common.utils.SentryConstants;
+import org.apache.sentry.core.model.db.AccessURI;
 import org.apache.sentry.core.model.db.Column;
 import org.apache.sentry.core.model.db.Database;
 import org.apache.sentry.core.model.db.Server;
@@ -121,6 +122,42 @@ public class TestTreePrivilegeCache {
     assertEquals(2, cache.listPrivileges(null, null, null, new Server("server1")).size());
   }
 
+  @Test
+  public void testListPrivilegesURIPrefix() {
+    CommonPrivilege root = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "hdfs://nn:8020/"), new KeyValue("action", "ALL"));
+    CommonPrivilege path1 = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "hdfs://nn:8020/path1"), new KeyValue("action", "ALL"));
+    CommonPrivilege path1Sub = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "hdfs://nn:8020/path1/sub"), new KeyValue("action", "ALL"));
+    CommonPrivilege path2 = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "hdfs://nn:8020/path2"), new KeyValue("action", "ALL"));
+    CommonPrivilege otherAuthority = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "hdfs://nn2:8020/path1"), new KeyValue("action", "ALL"));
+    CommonPrivilege allUris = create(new KeyValue("Server", "server1"),
+      new KeyValue("uri", "*"), new KeyValue("action", "ALL"));
+
+    TreePrivilegeCache cache = new TreePrivilegeCache(Sets.newHashSet(root.toString(),
+      path1.toString(), path1Sub.toString(), path2.toString(), otherAuthority.toString(),
+      allUris.toString()), null);
+
+    // Only the privileges on a prefix of the requested path may imply it
+    assertEquals(Sets.newHashSet(root.toString(), path1.toString(), path1Sub.toString(),
+      allUris.toString()), cache.listPrivileges(null, null, null, new Server("server1"),
+      new AccessURI("hdfs://nn:8020/path1/sub/file")));
+    assertEquals(Sets.newHashSet(root.toString(), allUris.toString()),
+      cache.listPrivileges(null, null, null, new Server("server1"),
+        new AccessURI("hdfs://nn:8020/path10")));
+    assertEquals(Sets.newHashSet(otherAuthority.toString(), allUris.toString()),
+      cache.listPrivileges(null, null, null, new Server("server1"),
+        new AccessURI("hdfs://nn2:8020/path1/file")));
+
+    // Requests for all URIs or for other resources still get all URI privileges
+    assertEquals(6, cache.listPrivileges(null, null, null, new Server("server1"),
+      AccessURI.ALL).size());
+    assertEquals(6, cache.listPrivileges(null, null, null, new Server("server1")).size());
+  }
+
   @Test
   @Ignore("This test should be run manually.")
   public void testListPrivilegesPerf() {
@@ -70,6 +70,32 @@ public interface AuthorizationProvider {
   boolean hasAccess(Subject subject, List<? extends Authorizable> authorizableHierarchy,
       Set<? extends Action> actions, boolean requireGrantOption, ActiveRoleSet roleSet);
 
+  /***
+   * Validates subject privileges on each of the given Authorizable objects. Providers
+   * which can resolve the privileges of the subject once for all the objects should
+   * override this method; by default each object is checked with
+   * {@link #hasAccess(Subject, List, Set, boolean, ActiveRoleSet)}.
+   *
+   * @param subject: UserID to validate privileges
+   * @param authorizableHierarchies : List of objects, each one a list according to
+   *        the namespace hierarchy. eg. Server->Db->Table or Server->Function
+   * @param actions : Privileges to validate
+   * @param requireGrantOption: true: require grant option of matching privilege; false: otherwise
+   * @param roleSet : Roles which should be used when obtaining privileges
+   * @return
+   *        For each object, true if the subject is authorized to perform requested action on it
+   */
+  default boolean[] hasAccessBulk(Subject subject,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies,
+      Set<? extends Action> actions, boolean requireGrantOption, ActiveRoleSet roleSet) {
+    boolean[] result = new boolean[authorizableHierarchies.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = hasAccess(subject, authorizableHierarchies.get(i), actions,
+          requireGrantOption, roleSet);
+    }
+    return result;
+  }
+
   /***
    * Get the GroupMappingService used by the AuthorizationProvider
    *
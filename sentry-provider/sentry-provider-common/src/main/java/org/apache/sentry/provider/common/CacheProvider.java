@@ -89,6 +89,16 @@ public class CacheProvider {
     return resultBuilder.build();
   }
 
+  /**
+   * @return generation of the cache, see {@link TableCache#getGeneration()}
+   */
+  public long getCacheGeneration() {
+    if (!initialized) {
+      throw new IllegalStateException("CacheProvider has not been properly initialized");
+    }
+    return cache.getGeneration();
+  }
+
   private Privilege getPrivilegeObject(String priString) {
     return new CommonPrivilege(priString);
   }
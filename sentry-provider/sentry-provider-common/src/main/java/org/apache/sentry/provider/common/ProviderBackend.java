@@ -16,6 +16,8 @@
  */
 package org.apache.sentry.provider.common;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -58,6 +60,24 @@ public interface ProviderBackend {
   ImmutableSet<String> getPrivileges(Set<String> groups, Set<String> users,
       ActiveRoleSet roleSet, Authorizable... authorizableHierarchy);
 
+  /**
+   * Get the privileges in string from the backend for users and groups, for each of the
+   * given authorizable hierarchies. Backends which can answer all the hierarchies with a
+   * single lookup should override this method.
+   *
+   * @return one set of privileges per element of {@code authorizableHierarchies}, in the
+   *         same order
+   */
+  default List<ImmutableSet<String>> getPrivilegesBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies) {
+    List<ImmutableSet<String>> result = new ArrayList<>(authorizableHierarchies.size());
+    for (List<? extends Authorizable> authorizableHierarchy : authorizableHierarchies) {
+      result.add(getPrivileges(groups, users, roleSet,
+          authorizableHierarchy.toArray(new Authorizable[0])));
+    }
+    return result;
+  }
+
   /**
    * Get the privilege objects from the backend for users, groups and authorizables.
    * If the returned result is empty set, the caller should call getPrivileges() in case its
@@ -66,6 +86,21 @@ public interface ProviderBackend {
   ImmutableSet<Privilege> getPrivilegeObjects(Set<String> groups, Set<String> users,
       ActiveRoleSet roleSet, Authorizable... authorizableHierarchy);
 
+  /**
+   * Get the privilege objects from the backend for users and groups, for each of the given
+   * authorizable hierarchies. Backends keeping privilege objects in memory should override
+   * this method.
+   *
+   * @return one set of privilege objects per element of {@code authorizableHierarchies}, in
+   *         the same order, or null if the backend does not keep privilege objects, in which
+   *         case the caller should call getPrivilegesBulk()
+   */
+  default List<ImmutableSet<Privilege>> getPrivilegeObjectsBulk(Set<String> groups,
+      Set<String> users, ActiveRoleSet roleSet,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies) {
+    return null;
+  }
+
   /**
    * Get the roles associated with the groups from the backend.
    */
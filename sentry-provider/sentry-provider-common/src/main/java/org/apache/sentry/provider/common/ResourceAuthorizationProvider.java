@@ -25,6 +25,7 @@ import static org.apache.sentry.core.common.utils.SentryConstants.PRIVILEGE_NAME
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.sentry.core.common.Action;
@@ -34,6 +35,8 @@ import org.apache.sentry.core.common.Model;
 import org.apache.sentry.core.common.exception.SentryConfigurationException;
 import org.apache.sentry.core.common.exception.SentryGroupNotFoundException;
 import org.apache.sentry.core.common.Subject;
+import org.apache.sentry.policy.common.CommonPrivilege;
+import org.apache.sentry.policy.common.CompiledPrivilege;
 import org.apache.sentry.policy.common.PolicyEngine;
 import org.apache.sentry.policy.common.Privilege;
 import org.apache.sentry.policy.common.PrivilegeFactory;
@@ -45,6 +48,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 public abstract class ResourceAuthorizationProvider implements AuthorizationProvider {
@@ -124,8 +128,6 @@ public abstract class ResourceAuthorizationProvider implements AuthorizationProv
       LOGGER.debug("Groups not found for " + subject);
     }
     Set<String> users = Sets.newHashSet(subject.getName());
-    List<String> requestPrivileges = buildPermissions(authorizables, actions, requireGrantOption);
-    LOGGER.debug("requestPrivileges={}", requestPrivileges);
     LOGGER.debug("PolicyEngine={}, PrivilegeFactory={}", policy.getClass().getName(), policy.getPrivilegeFactory().getClass().getName());
     LOGGER.debug("Get privileges for groups={}, users={}, roleSet={}", groups, users, roleSet);
 
@@ -133,28 +135,139 @@ public abstract class ResourceAuthorizationProvider implements AuthorizationProv
         authorizables.toArray(new Authorizable[0]));
     lastFailedPrivileges.get().clear();
 
-    for (String requestPrivilege : requestPrivileges) {
-      try {
-        Privilege priv = privilegeFactory.createPrivilege(requestPrivilege);
-        for (Privilege permission : privileges) {
+    if (impliesAny(privileges, authorizables, actions, requireGrantOption, roleSet)) {
+      return true;
+    }
+
+    lastFailedPrivileges.get().addAll(buildPermissions(authorizables, actions, requireGrantOption));
+    return false;
+  }
+
+  /***
+   * Validates subject privileges on each of the given Authorizable objects. The groups of
+   * the subject are resolved once, the privileges of all the objects are fetched from the
+   * policy engine with a single bulk lookup, and each distinct privilege string is parsed
+   * only once.
+   */
+  @Override
+  public boolean[] hasAccessBulk(Subject subject,
+      List<? extends List<? extends Authorizable>> authorizableHierarchies,
+      Set<? extends Action> actions, boolean requireGrantOption, ActiveRoleSet roleSet) {
+    Preconditions.checkNotNull(subject, "Subject cannot be null");
+    Preconditions.checkNotNull(authorizableHierarchies, "Authorizables cannot be null");
+    Preconditions.checkNotNull(actions, "Actions cannot be null");
+    Preconditions.checkArgument(!actions.isEmpty(), "Actions cannot be empty");
+    Preconditions.checkNotNull(roleSet, "ActiveRoleSet cannot be null");
+    for (List<? extends Authorizable> authorizableHierarchy : authorizableHierarchies) {
+      Preconditions.checkArgument(!authorizableHierarchy.isEmpty(), "Authorizable cannot be empty");
+    }
+
+    boolean[] result = new boolean[authorizableHierarchies.size()];
+    if (result.length == 0) {
+      return result;
+    }
+
+    Set<String> groups;
+    try {
+      groups = getGroups(subject);
+    } catch (SentryGroupNotFoundException e) {
+      groups = Collections.emptySet();
+      LOGGER.debug("Groups not found for " + subject);
+    }
+    Set<String> users = Sets.newHashSet(subject.getName());
+    LOGGER.debug("Get privileges for groups={}, users={}, roleSet={}, {} authorizables",
+        groups, users, roleSet, result.length);
+
+    // Privilege objects kept by the backend, like the cached ones, are used as they are,
+    // in the same way as for a single authorizable hierarchy
+    List<ImmutableSet<Privilege>> privilegeObjectsList =
+        policy.getPrivilegeObjectsBulk(groups, users, roleSet, authorizableHierarchies);
+    if (privilegeObjectsList != null) {
+      for (int i = 0; i < result.length; i++) {
+        List<? extends Authorizable> authorizables = authorizableHierarchies.get(i);
+        result[i] = impliesAny(appendDefaultDBPrivObject(privilegeObjectsList.get(i),
+            authorizables.toArray(new Authorizable[0])), authorizables, actions,
+            requireGrantOption, roleSet);
+      }
+      return result;
+    }
+
+    List<ImmutableSet<String>> privilegesList =
+        policy.getPrivilegesBulk(groups, users, roleSet, authorizableHierarchies);
+    Map<String, Privilege> parsedPrivileges = Maps.newHashMap();
+
+    for (int i = 0; i < result.length; i++) {
+      List<? extends Authorizable> authorizables = authorizableHierarchies.get(i);
+      ImmutableSet<String> privilegeStrings = appendDefaultDBPriv(privilegesList.get(i),
+          authorizables.toArray(new Authorizable[0]));
+      List<Privilege> privileges = new ArrayList<Privilege>(privilegeStrings.size());
+      for (String privilegeString : privilegeStrings) {
+        Privilege privilege = parsedPrivileges.get(privilegeString);
+        if (privilege == null) {
+          privilege = privilegeFactory.createPrivilege(privilegeString);
+          parsedPrivileges.put(privilegeString, privilege);
+        }
+        privileges.add(privilege);
+      }
+      result[i] = impliesAny(privileges, authorizables, actions, requireGrantOption, roleSet);
+    }
+    return result;
+  }
+
+  /**
+   * Does any of the permissions granted to the subject imply one of the requested privileges?
+   * Granted {@link CommonPrivilege}s are matched in their compiled form against requests built
+   * straight from the authorizables, other privileges against requests parsed by the
+   * privilege factory.
+   */
+  private boolean impliesAny(Iterable<Privilege> privileges,
+      List<? extends Authorizable> authorizables, Set<? extends Action> actions,
+      boolean requireGrantOption, ActiveRoleSet roleSet) {
+    try {
+      List<CompiledPrivilege> compiledPrivileges = new ArrayList<CompiledPrivilege>();
+      List<Privilege> otherPrivileges = new ArrayList<Privilege>();
+      for (Privilege permission : privileges) {
+        if (permission instanceof CommonPrivilege) {
+          compiledPrivileges.add(((CommonPrivilege) permission).compile(model));
+        } else {
+          otherPrivileges.add(permission);
+        }
+      }
+
+      for (Action action : actions) {
+        CompiledPrivilege request = CompiledPrivilege.forRequest(authorizables, action,
+            requireGrantOption, model);
+        for (CompiledPrivilege permission : compiledPrivileges) {
           /*
            * Does the permission granted in the policy file imply the requested action?
            */
-          boolean result = permission.implies(priv, model);
+          boolean result = permission.implies(request);
           LOGGER.debug("ProviderPrivilege {}, RequestPrivilege {}, RoleSet {}, Result {}",
-              new Object[]{ permission, requestPrivilege, roleSet, result});
+              new Object[]{ permission, request, roleSet, result});
           if (result) {
             return true;
           }
+        }
+      }
 
+      if (!otherPrivileges.isEmpty()) {
+        for (String requestPrivilege : buildPermissions(authorizables, actions,
+            requireGrantOption)) {
+          Privilege priv = privilegeFactory.createPrivilege(requestPrivilege);
+          for (Privilege permission : otherPrivileges) {
+            boolean result = permission.implies(priv, model);
+            LOGGER.debug("ProviderPrivilege {}, RequestPrivilege {}, RoleSet {}, Result {}",
+                new Object[]{ permission, requestPrivilege, roleSet, result});
+            if (result) {
+              return true;
+            }
+          }
         }
-      } catch(Exception e) {
-        LOGGER.error("doHasAccess: Exception", e);
-        throw e;
       }
+    } catch(Exception e) {
+      LOGGER.error("doHasAccess: Exception", e);
+      throw e;
     }
-
-    lastFailedPrivileges.get().addAll(requestPrivileges);
     return false;
   }
 
@@ -22,4 +22,12 @@ public interface TableCache {
    * @return backing cache.
    */
   Table<String, String, Set<String>> getCache();
+
+  /**
+   * Returns the generation of the cache, which changes whenever the contents of the
+   * cache change. Results derived from the cache can be reused for as long as the
+   * generation is the same.
+   * @return generation of the cache.
+   */
+  long getGeneration();
 }
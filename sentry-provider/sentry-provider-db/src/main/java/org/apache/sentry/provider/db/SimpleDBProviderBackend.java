@@ -16,12 +16,17 @@
  */
 package org.apache.sentry.provider.db;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Authorizable;
 import org.apache.sentry.core.common.exception.SentryConfigurationException;
+import org.apache.sentry.core.common.exception.SentryInvalidInputException;
+import org.apache.sentry.core.common.exception.SentryThriftAPIMismatchException;
 import org.apache.sentry.policy.common.CommonPrivilege;
 import org.apache.sentry.policy.common.Privilege;
 import org.apache.sentry.provider.common.ProviderBackend;
@@ -32,6 +37,7 @@ import org.apache.sentry.service.thrift.SentryServiceClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 
 public class SimpleDBProviderBackend implements ProviderBackend {
@@ -79,8 +85,7 @@ public class SimpleDBProviderBackend implements ProviderBackend {
     int retries = Math.max(retryCount + 1, 1); // if customer configs retryCount as Integer.MAX_VALUE, try only once
     while (retries > 0) {
       retries--;
-      try (SentryPolicyServiceClient policyServiceClient =
-                   SentryServiceClientFactory.create(conf)) {
+      try (SentryPolicyServiceClient policyServiceClient = createClient()) {
         return ImmutableSet.copyOf(policyServiceClient.listPrivilegesForProvider(groups, users,
             roleSet, authorizableHierarchy));
       } catch (Exception e) {
@@ -104,6 +109,59 @@ public class SimpleDBProviderBackend implements ProviderBackend {
     return ImmutableSet.of();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * All the hierarchies are sent to the server in a single request. If the server refuses
+   * the request or does not support it, the privileges are requested for every hierarchy.
+   */
+  @Override
+  public List<ImmutableSet<String>> getPrivilegesBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies) {
+    if (authorizableHierarchies.isEmpty()) {
+      return Collections.emptyList();
+    }
+    int retries = Math.max(retryCount + 1, 1); // if customer configs retryCount as Integer.MAX_VALUE, try only once
+    while (retries > 0) {
+      retries--;
+      try (SentryPolicyServiceClient policyServiceClient = createClient()) {
+        List<Set<String>> privilegesList = policyServiceClient.listPrivilegesForProviderBulk(
+            groups, users, roleSet, authorizableHierarchies);
+        List<ImmutableSet<String>> result = new ArrayList<>(privilegesList.size());
+        for (Set<String> privileges : privilegesList) {
+          result.add(ImmutableSet.copyOf(privileges));
+        }
+        return result;
+      } catch (SentryInvalidInputException | SentryThriftAPIMismatchException e) {
+        // Retrying does not change the answer of the server
+        LOGGER.warn("Unable to obtain privileges in bulk from server: " + e.getMessage()
+            + ". Requesting them for each authorizable hierarchy");
+        List<ImmutableSet<String>> result = new ArrayList<>(authorizableHierarchies.size());
+        for (List<? extends Authorizable> authorizableHierarchy : authorizableHierarchies) {
+          result.add(getPrivileges(groups, users, roleSet,
+              authorizableHierarchy.toArray(new Authorizable[authorizableHierarchy.size()])));
+        }
+        return result;
+      } catch (Exception e) {
+        String msg = "Unable to obtain privileges from server: " + e.getMessage() + ".";
+        if (retries > 0) {
+          LOGGER.warn(msg +  " Will retry for " + retries + " time(s)");
+        } else {
+          LOGGER.error(msg, e);
+        }
+        if (retries > 0) {
+          try {
+            Thread.sleep(retryIntervalSec * 1000);
+          } catch (InterruptedException e1) {
+            LOGGER.info("Sleeping is interrupted.", e1);
+          }
+        }
+      }
+    }
+
+    return Collections.nCopies(authorizableHierarchies.size(), ImmutableSet.<String>of());
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -141,6 +199,11 @@ public class SimpleDBProviderBackend implements ProviderBackend {
   //Noop
   }
 
+  @VisibleForTesting
+  SentryPolicyServiceClient createClient() throws Exception {
+    return SentryServiceClientFactory.create(conf);
+  }
+
   private Privilege getPrivilegeObject(String priString) {
     return new CommonPrivilege(priString);
   }
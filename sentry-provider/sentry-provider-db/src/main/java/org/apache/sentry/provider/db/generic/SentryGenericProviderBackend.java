@@ -178,6 +178,17 @@ public class SentryGenericProviderBackend extends CacheProvider implements Provi
     }
   }
 
+  /**
+   * @return generation of the privileges cache, which changes whenever roles or privileges
+   * change, or -1 if caching is disabled
+   */
+  public long getCacheGeneration() {
+    if (!initialized) {
+      throw new IllegalStateException("SentryGenericProviderBackend has not been properly initialized");
+    }
+    return enableCaching ? super.getCacheGeneration() : -1;
+  }
+
   /**
    * SentryGenericProviderBackend does nothing in the validatePolicy()
    */
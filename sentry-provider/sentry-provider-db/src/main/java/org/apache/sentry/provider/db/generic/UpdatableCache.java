@@ -12,14 +12,17 @@
  */
 package org.apache.sentry.provider.db.generic;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Table;
 import com.google.common.collect.HashBasedTable;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.sentry.core.common.exception.SentryUserException;
 import org.apache.sentry.provider.common.TableCache;
 import org.apache.sentry.api.generic.thrift.*;
 import org.apache.sentry.api.common.ApiConstants;
 import org.apache.sentry.api.tools.TSentryPrivilegeConverter;
+import org.apache.thrift.TApplicationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +31,7 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class UpdatableCache implements TableCache, AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(UpdatableCache.class);
@@ -47,6 +51,15 @@ public final class UpdatableCache implements TableCache, AutoCloseable {
 
   private volatile long lastRefreshedNs = 0;
   private int consecutiveUpdateFailuresCount = 0;
+  // Client used by all refreshes, created on the first one. Guarded by this cache's
+  // lock, which is held for the whole reload so close() never closes a client in use.
+  private volatile SentryGenericServiceClient client;
+  // Set by close() so a refresh already waiting for the lock does not create a new client
+  private boolean closed = false;
+  // False once the server turned out not to support role privileges snapshots
+  private boolean snapshotSupported = true;
+  // Change ID of the role privileges snapshot the cache was built from
+  private Long changeId;
   /**
    * Sparse table where group is the row key and role is the cell.
    * The value is the set of privileges located in the cell. For example,
@@ -73,6 +86,8 @@ public final class UpdatableCache implements TableCache, AutoCloseable {
    * </table>
    */
   private volatile Table<String, String, Set<String>> table;
+  // Incremented after every change of the table
+  private final AtomicLong generation = new AtomicLong();
 
   UpdatableCache(Configuration conf, String componentType, String serviceName, TSentryPrivilegeConverter tSentryPrivilegeConverter) {
     this.conf = conf;
@@ -85,51 +100,126 @@ public final class UpdatableCache implements TableCache, AutoCloseable {
     this.allowedUpdateFailuresCount = conf.getInt(ApiConstants.ClientConfig.CACHE_UPDATE_FAILURES_BEFORE_PRIV_REVOKE, ApiConstants.ClientConfig.CACHE_UPDATE_FAILURES_BEFORE_PRIV_REVOKE_DEFAULT);
   }
 
+  @VisibleForTesting
+  UpdatableCache(Configuration conf, String componentType, String serviceName,
+      TSentryPrivilegeConverter tSentryPrivilegeConverter, SentryGenericServiceClient client) {
+    this(conf, componentType, serviceName, tSentryPrivilegeConverter);
+    this.client = client;
+  }
+
   @Override
   public Table<String, String, Set<String>> getCache() {
     return table;
   }
 
+  @Override
+  public long getGeneration() {
+    return generation.get();
+  }
+
   /**
    * Build cache replica with latest values
    *
    * @return cache replica with latest values
    */
   private Table<String, String, Set<String>> loadFromRemote() throws Exception {
-    Table<String, String, Set<String>> tempCache = HashBasedTable.create();
     String requestor;
     requestor = UserGroupInformation.getLoginUser().getShortUserName();
 
-    try(SentryGenericServiceClient client = getClient()) {
-      Set<TSentryRole>  tSentryRoles = client.listAllRoles(requestor, componentType);
-
-      for (TSentryRole tSentryRole : tSentryRoles) {
-        final String roleName = tSentryRole.getRoleName();
-        final Set<TSentryPrivilege> tSentryPrivileges =
-                client.listAllPrivilegesByRoleName(requestor, roleName, componentType, serviceName);
-        for (String group : tSentryRole.getGroups()) {
-          Set<String> currentPrivileges = tempCache.get(group, roleName);
-          if (currentPrivileges == null) {
-            currentPrivileges = new HashSet<>();
-            tempCache.put(group, roleName, currentPrivileges);
-          }
-          for (TSentryPrivilege tSentryPrivilege : tSentryPrivileges) {
-            currentPrivileges.add(tSentryPrivilegeConverter.toString(tSentryPrivilege));
+    SentryGenericServiceClient client = getClient();
+    try {
+      if (snapshotSupported) {
+        try {
+          return loadSnapshot(client, requestor);
+        } catch (SentryUserException e) {
+          if (!isUnknownMethod(e)) {
+            throw e;
           }
+          LOGGER.info("Sentry server does not support role privileges snapshots, " +
+              "loading the privileges of each role instead");
+          snapshotSupported = false;
         }
       }
-      return tempCache;
+      return loadByRole(client, requestor);
+    } finally {
+      // Return the connection to the pool until the next refresh
+      client.close();
     }
   }
 
   /**
-   *  The Sentry-296(generate client for connection pooling) has already finished development and reviewed by now. When it
-   *  was committed to master, the getClient method was needed to refactor using the connection pool
-   *
-   *  TODO: Avoid creating new client each time.
+   * Build cache replica from the role privileges snapshot of the service, fetched with a
+   * single call. The current cache is kept if the server reports that it is up to date.
+   */
+  private Table<String, String, Set<String>> loadSnapshot(SentryGenericServiceClient client,
+      String requestor) throws Exception {
+    TListSentryRolePrivilegesSnapshotResponse response =
+        client.listRolePrivilegesSnapshot(requestor, componentType, serviceName, changeId);
+    if (!response.isSetRoles() && table != null) {
+      LOGGER.debug("Roles and privileges are unchanged since change ID {}", changeId);
+      return table;
+    }
+
+    Table<String, String, Set<String>> tempCache = HashBasedTable.create();
+    if (response.isSetRoles()) {
+      for (TSentryRolePrivileges role : response.getRoles()) {
+        addToCache(tempCache, role.getRoleName(), role.getGroups(), role.getPrivileges());
+      }
+    }
+    changeId = response.isSetChangeId() ? response.getChangeId() : null;
+    return tempCache;
+  }
+
+  /**
+   * Build cache replica by listing all roles and then the privileges of each role,
+   * for servers that do not support role privileges snapshots.
+   */
+  private Table<String, String, Set<String>> loadByRole(SentryGenericServiceClient client,
+      String requestor) throws Exception {
+    Table<String, String, Set<String>> tempCache = HashBasedTable.create();
+    Set<TSentryRole>  tSentryRoles = client.listAllRoles(requestor, componentType);
+
+    for (TSentryRole tSentryRole : tSentryRoles) {
+      final String roleName = tSentryRole.getRoleName();
+      final Set<TSentryPrivilege> tSentryPrivileges =
+              client.listAllPrivilegesByRoleName(requestor, roleName, componentType, serviceName);
+      addToCache(tempCache, roleName, tSentryRole.getGroups(), tSentryPrivileges);
+    }
+    return tempCache;
+  }
+
+  private void addToCache(Table<String, String, Set<String>> tempCache, String roleName,
+      Set<String> groups, Set<TSentryPrivilege> tSentryPrivileges) {
+    for (String group : groups) {
+      Set<String> currentPrivileges = tempCache.get(group, roleName);
+      if (currentPrivileges == null) {
+        currentPrivileges = new HashSet<>();
+        tempCache.put(group, roleName, currentPrivileges);
+      }
+      for (TSentryPrivilege tSentryPrivilege : tSentryPrivileges) {
+        currentPrivileges.add(tSentryPrivilegeConverter.toString(tSentryPrivilege));
+      }
+    }
+  }
+
+  private static boolean isUnknownMethod(SentryUserException e) {
+    Throwable cause = e.getCause();
+    return cause instanceof TApplicationException &&
+        ((TApplicationException) cause).getType() == TApplicationException.UNKNOWN_METHOD;
+  }
+
+  /**
+   * The client is created once and reused by every refresh. It returns its connection
+   * to the pool after each refresh and reconnects on the next call.
    */
   private SentryGenericServiceClient getClient() throws Exception {
-    return SentryGenericServiceClientFactory.create(conf);
+    if (closed) {
+      throw new IllegalStateException("Updatable Cache is closed");
+    }
+    if (client == null) {
+      client = SentryGenericServiceClientFactory.create(conf);
+    }
+    return client;
   }
 
   void startUpdateThread(boolean blockUntilFirstReload) throws Exception {
@@ -182,14 +272,21 @@ public final class UpdatableCache implements TableCache, AutoCloseable {
       LOGGER.error("Failed to update roles and privileges cache for " + consecutiveUpdateFailuresCount + " times." +
           " Revoking all privileges from cache, which will cause all authorization requests to fail.");
       consecutiveUpdateFailuresCount = 0;
+      changeId = null;
       // Clear cache to revoke all privileges.
       // Update table cache to point to an empty table to avoid thread-unsafe characteristics of HashBasedTable.
       this.table = HashBasedTable.create();
+      generation.incrementAndGet();
     }
   }
 
-  private void reloadData() throws Exception {
-    this.table = loadFromRemote();
+  @VisibleForTesting
+  synchronized void reloadData() throws Exception {
+    Table<String, String, Set<String>> newTable = loadFromRemote();
+    if (newTable != table) {
+      this.table = newTable;
+      generation.incrementAndGet();
+    }
     lastRefreshedNs = System.nanoTime();
   }
 
@@ -212,6 +309,17 @@ public final class UpdatableCache implements TableCache, AutoCloseable {
   public void close() {
     timer.cancel();
     savedTimer = null;
+    synchronized (this) {
+      closed = true;
+      if (client != null) {
+        try {
+          client.close();
+        } catch (Exception e) {
+          LOGGER.warn("Failed to close Sentry client", e);
+        }
+        client = null;
+      }
+    }
     LOGGER.info("Closed Updatable Cache");
   }
 }
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.api.common.ApiConstants;
+import org.apache.sentry.api.service.thrift.SentryPolicyServiceClient;
+import org.apache.sentry.core.common.ActiveRoleSet;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.exception.SentryInvalidInputException;
+import org.apache.sentry.core.common.exception.SentryThriftAPIMismatchException;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.core.model.db.Table;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+public class TestSimpleDBProviderBackend {
+  private final Set<String> groups = Sets.newHashSet("group1");
+  private final Set<String> users = Sets.newHashSet("user1");
+  private final Table table1 = new Table("t1");
+  private final Table table2 = new Table("t2");
+  private final List<List<Table>> hierarchies =
+      Arrays.asList(Arrays.asList(table1), Arrays.asList(table2));
+
+  private SentryPolicyServiceClient client;
+  private SimpleDBProviderBackend backend;
+
+  @Before
+  public void setup() throws Exception {
+    Configuration conf = new Configuration();
+    // Retries of the bulk request would wait for an hour
+    conf.setInt(ApiConstants.ClientConfig.RETRY_COUNT_CONF, 3);
+    conf.setInt(ApiConstants.ClientConfig.RETRY_INTERVAL_SEC_CONF, 3600);
+    client = Mockito.mock(SentryPolicyServiceClient.class);
+    backend = new SimpleDBProviderBackend(conf) {
+      @Override
+      SentryPolicyServiceClient createClient() {
+        return client;
+      }
+    };
+    Mockito.when(client.listPrivilegesForProvider(groups, users, ActiveRoleSet.ALL, table1))
+        .thenReturn(Sets.newHashSet("server=server1->db=db1->table=t1->action=select"));
+    Mockito.when(client.listPrivilegesForProvider(groups, users, ActiveRoleSet.ALL, table2))
+        .thenReturn(Sets.<String>newHashSet());
+  }
+
+  /**
+   * Servers without the bulk API are asked for the privileges of each hierarchy.
+   */
+  @Test
+  public void testBulkFallbackForOldServer() throws Exception {
+    Mockito.when(client.listPrivilegesForProviderBulk(groups, users, ActiveRoleSet.ALL,
+        hierarchies)).thenThrow(new SentryThriftAPIMismatchException("unknown method"));
+    verifyFallback();
+  }
+
+  /**
+   * A bulk request refused by the server is not retried.
+   */
+  @Test
+  public void testBulkFallbackForRefusedRequest() throws Exception {
+    Mockito.when(client.listPrivilegesForProviderBulk(groups, users, ActiveRoleSet.ALL,
+        hierarchies)).thenThrow(new SentryInvalidInputException("too many hierarchies"));
+    verifyFallback();
+  }
+
+  private void verifyFallback() throws SentryUserException {
+    List<ImmutableSet<String>> privileges =
+        backend.getPrivilegesBulk(groups, users, ActiveRoleSet.ALL, hierarchies);
+    assertEquals(Arrays.asList(
+        ImmutableSet.of("server=server1->db=db1->table=t1->action=select"),
+        ImmutableSet.<String>of()), privileges);
+    Mockito.verify(client, Mockito.times(1)).listPrivilegesForProviderBulk(groups, users,
+        ActiveRoleSet.ALL, hierarchies);
+    Mockito.verify(client).listPrivilegesForProvider(groups, users, ActiveRoleSet.ALL, table1);
+    Mockito.verify(client).listPrivilegesForProvider(groups, users, ActiveRoleSet.ALL, table2);
+  }
+}
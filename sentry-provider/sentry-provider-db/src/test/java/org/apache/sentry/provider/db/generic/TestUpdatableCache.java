@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.db.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.api.generic.thrift.SentryGenericServiceClient;
+import org.apache.sentry.api.generic.thrift.TListSentryRolePrivilegesSnapshotResponse;
+import org.apache.sentry.api.generic.thrift.TSentryPrivilege;
+import org.apache.sentry.api.generic.thrift.TSentryRolePrivileges;
+import org.apache.sentry.api.tools.TSentryPrivilegeConverter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
+
+public class TestUpdatableCache {
+  private static final String COMPONENT = "kafka";
+  private static final String SERVICE = "kafka1";
+
+  private SentryGenericServiceClient client;
+  private UpdatableCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    client = Mockito.mock(SentryGenericServiceClient.class);
+    TSentryPrivilegeConverter converter = Mockito.mock(TSentryPrivilegeConverter.class);
+    Mockito.when(converter.toString(Matchers.any(TSentryPrivilege.class))).thenReturn("priv");
+    cache = new UpdatableCache(new Configuration(), COMPONENT, SERVICE, converter, client);
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  /**
+   * The generation changes on every reload of a new privileges snapshot, and stays the same
+   * when the server reports that nothing changed since the snapshot the cache was built from.
+   */
+  @Test
+  public void testGenerationChangesOnlyWithNewSnapshot() throws Exception {
+    Mockito.when(client.listRolePrivilegesSnapshot(Matchers.anyString(), Matchers.eq(COMPONENT),
+        Matchers.eq(SERVICE), Matchers.any(Long.class))).thenReturn(
+            snapshot(1L, role("role1", "group1")),
+            snapshot(1L),
+            snapshot(2L, role("role1", "group1"), role("role2", "group2")));
+    assertEquals(0, cache.getGeneration());
+
+    cache.reloadData();
+    assertEquals(1, cache.getGeneration());
+    Table<String, String, Set<String>> table = cache.getCache();
+    assertEquals(Sets.newHashSet("priv"), table.get("group1", "role1"));
+
+    // Unchanged since change ID 1
+    cache.reloadData();
+    assertEquals(1, cache.getGeneration());
+    assertSame(table, cache.getCache());
+
+    cache.reloadData();
+    assertEquals(2, cache.getGeneration());
+    assertEquals(Sets.newHashSet("priv"), cache.getCache().get("group2", "role2"));
+
+    Mockito.verify(client).listRolePrivilegesSnapshot(Matchers.anyString(), Matchers.eq(COMPONENT),
+        Matchers.eq(SERVICE), (Long) Matchers.isNull());
+    Mockito.verify(client, Mockito.times(2)).listRolePrivilegesSnapshot(Matchers.anyString(),
+        Matchers.eq(COMPONENT), Matchers.eq(SERVICE), Matchers.eq(1L));
+  }
+
+  private static TSentryRolePrivileges role(String roleName, String group) {
+    return new TSentryRolePrivileges(roleName, Sets.newHashSet(group),
+        Sets.newHashSet(new TSentryPrivilege()));
+  }
+
+  private static TListSentryRolePrivilegesSnapshotResponse snapshot(long changeId,
+      TSentryRolePrivileges... roles) {
+    TListSentryRolePrivilegesSnapshotResponse response =
+        new TListSentryRolePrivilegesSnapshotResponse();
+    response.setChangeId(changeId);
+    if (roles.length > 0) {
+      response.setRoles(Sets.newHashSet(roles));
+    }
+    return response;
+  }
+}
@@ -114,6 +114,12 @@ public class SimpleFileProviderBackend extends CacheProvider implements Provider
       public Table<String, String, Set<String>> getCache() {
         return table;
       }
+
+      @Override
+      public long getGeneration() {
+        // The policy file is parsed only once
+        return 0;
+      }
     };
     super.initialize(cache);
     this.initialized = true;
@@ -191,4 +191,20 @@ public interface SentryGenericServiceClient extends AutoCloseable {
   Map<String, TSentryPrivilegeMap> listPrivilegesbyAuthorizable(String component,
       String serviceName, String requestorUserName, Set<String> authorizablesSet,
       Set<String> groups, ActiveRoleSet roleSet) throws SentryUserException;
+
+  /**
+   * Get all roles with their groups and the privileges they hold on a service in a
+   * single call.
+   *
+   * @param requestorUserName: user on whose behalf the request is issued
+   * @param component: The request is issued to which component
+   * @param serviceName: The privileges belong to which service
+   * @param changeId: The change ID of the image the caller already holds, or null
+   * @return the change ID of the current image, and the roles unless the image
+   *     identified by changeId is still current
+   * @throws SentryUserException
+   */
+  TListSentryRolePrivilegesSnapshotResponse listRolePrivilegesSnapshot(
+      String requestorUserName, String component, String serviceName, Long changeId)
+      throws SentryUserException;
 }
@@ -537,6 +537,29 @@ public class SentryGenericServiceClientDefaultImpl
     }
   }
 
+  @Override
+  public TListSentryRolePrivilegesSnapshotResponse listRolePrivilegesSnapshot(
+    String requestorUserName, String component, String serviceName, Long changeId)
+    throws SentryUserException {
+    TListSentryRolePrivilegesSnapshotRequest request = new TListSentryRolePrivilegesSnapshotRequest();
+    request.setProtocol_version(sentry_common_serviceConstants.TSENTRY_SERVICE_V2);
+    request.setRequestorUserName(requestorUserName);
+    request.setComponent(component);
+    request.setServiceName(serviceName);
+    if (changeId != null) {
+      request.setChangeId(changeId);
+    }
+
+    try {
+      TListSentryRolePrivilegesSnapshotResponse response =
+        client.list_sentry_role_privileges_snapshot(request);
+      Status.throwIfNotOk(response.getStatus());
+      return response;
+    } catch (TException e) {
+      throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+    }
+  }
+
   @Override
   public void close() {
     done();
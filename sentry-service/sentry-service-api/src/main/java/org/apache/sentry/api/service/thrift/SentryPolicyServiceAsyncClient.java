@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.api.service.thrift;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.sentry.core.common.ActiveRoleSet;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.exception.SentryUserException;
+
+/**
+ * Asynchronous counterpart of {@link SentryPolicyServiceClient}.
+ * <p>
+ * Requests are sent over a small, fixed set of connections shared by all callers, and
+ * complete the returned futures when the Sentry server replies. Futures fail with a
+ * {@link java.util.concurrent.TimeoutException} when the request does not complete in
+ * the configured time, and with the exception of the request otherwise. A single
+ * instance is meant to be shared by all threads of a process.
+ */
+public interface SentryPolicyServiceAsyncClient extends AutoCloseable {
+
+  /**
+   * A request made with a synchronous client.
+   */
+  interface Request<T> {
+    T execute(SentryPolicyServiceClient client) throws SentryUserException;
+  }
+
+  /**
+   * Send any request of the synchronous client.
+   */
+  <T> CompletableFuture<T> submit(Request<T> request);
+
+  /**
+   * @see SentryPolicyServiceClient#listPrivilegesForProvider(Set, Set, ActiveRoleSet,
+   *      Authorizable...)
+   */
+  CompletableFuture<Set<String>> listPrivilegesForProvider(Set<String> groups,
+      Set<String> users, ActiveRoleSet roleSet, Authorizable... authorizable);
+
+  /**
+   * @see SentryPolicyServiceClient#listRolesByGroupName(String, String)
+   */
+  CompletableFuture<Set<TSentryRole>> listRolesByGroupName(String requestorUserName,
+      String groupName);
+
+  /**
+   * @see SentryPolicyServiceClient#listPrivilegesByRoleName(String, String, List)
+   */
+  CompletableFuture<Set<TSentryPrivilege>> listPrivilegesByRoleName(String requestorUserName,
+      String roleName, List<? extends Authorizable> authorizable);
+
+  /**
+   * Fail pending requests and close the connections.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.api.service.thrift;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.api.common.ApiConstants.ClientConfig;
+import org.apache.sentry.core.common.ActiveRoleSet;
+import org.apache.sentry.core.common.Authorizable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Implementation of {@link SentryPolicyServiceAsyncClient} on top of synchronous clients.
+ * <p>
+ * Each of a fixed number of sender threads owns one synchronous client, and with it one
+ * connection to a Sentry server, for its whole life. Requests of all callers are queued
+ * and sent, one after the other, by the first idle sender. Callers therefore never block
+ * and never hold a connection, and the number of connections of a process stays the same
+ * however many requests it has in flight. Retries and failover to another server are left
+ * to the synchronous clients.
+ * <p>
+ * A request which does not complete within the request timeout fails with a
+ * {@link TimeoutException}. If it is still queued by then it is not sent at all. If it is
+ * being sent, its sender thread is interrupted, and the connections of the synchronous
+ * clients are expected to stop waiting for the server after the request timeout as well, see
+ * {@code SentryServiceClientFactory#createAsync}, so that the sender is freed.
+ */
+@ThreadSafe
+public final class SentryPolicyServiceAsyncClientImpl implements SentryPolicyServiceAsyncClient {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(SentryPolicyServiceAsyncClientImpl.class);
+
+  private static final String SENDER_THREAD_NAME = "sentry-async-client-%d";
+
+  /**
+   * Source of the synchronous clients of the sender threads.
+   */
+  public interface ClientFactory {
+    SentryPolicyServiceClient create() throws Exception;
+
+    /**
+     * Release what the factory holds once all its clients are closed.
+     */
+    default void close() {
+    }
+  }
+
+  private final ClientFactory clientFactory;
+  private final long requestTimeoutMs;
+  private final ExecutorService senders;
+  private final ScheduledExecutorService timeouts;
+  private final ThreadLocal<SentryPolicyServiceClient> senderClient = new ThreadLocal<>();
+  private final Queue<SentryPolicyServiceClient> clients = new ConcurrentLinkedQueue<>();
+  private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /**
+   * Create a client with the number of connections and the request timeout configured in
+   * conf.
+   */
+  public SentryPolicyServiceAsyncClientImpl(Configuration conf, ClientFactory clientFactory) {
+    this(clientFactory,
+        conf.getInt(ClientConfig.SENTRY_ASYNC_CLIENT_CONNECTIONS,
+            ClientConfig.SENTRY_ASYNC_CLIENT_CONNECTIONS_DEFAULT),
+        conf.getLong(ClientConfig.SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS,
+            ClientConfig.SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS_DEFAULT));
+  }
+
+  /**
+   * @param clientFactory source of synchronous clients
+   * @param connections number of sender threads and connections
+   * @param requestTimeoutMs time after which requests fail
+   */
+  public SentryPolicyServiceAsyncClientImpl(ClientFactory clientFactory, int connections,
+      long requestTimeoutMs) {
+    this.clientFactory = clientFactory;
+    this.requestTimeoutMs = requestTimeoutMs;
+    senders = Executors.newFixedThreadPool(Math.max(1, connections),
+        new ThreadFactoryBuilder()
+            .setNameFormat(SENDER_THREAD_NAME)
+            .setDaemon(true)
+            .build());
+    timeouts = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder()
+            .setNameFormat("sentry-async-client-timeout-%d")
+            .setDaemon(true)
+            .build());
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(final Request<T> request) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    if (closed.get()) {
+      result.completeExceptionally(new IllegalStateException("Sentry client is closed"));
+      return result;
+    }
+    pending.add(result);
+
+    final Future<?> task;
+    try {
+      task = senders.submit(new Runnable() {
+        @Override
+        public void run() {
+          // The request timed out or the client was closed while it was queued
+          if (result.isDone()) {
+            return;
+          }
+          try {
+            result.complete(request.execute(getClient()));
+          } catch (Throwable e) {
+            result.completeExceptionally(e);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.remove(result);
+      result.completeExceptionally(new IllegalStateException("Sentry client is closed", e));
+      return result;
+    }
+
+    final ScheduledFuture<?> timeout;
+    try {
+      timeout = timeouts.schedule(new Runnable() {
+        @Override
+        public void run() {
+          if (result.completeExceptionally(new TimeoutException(
+              "Sentry request did not complete in " + requestTimeoutMs + " ms"))) {
+            // Stops waiting for a connection or between retries of a request being sent
+            task.cancel(true);
+          }
+        }
+      }, requestTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // The client was closed after the request was queued
+      pending.remove(result);
+      task.cancel(true);
+      result.completeExceptionally(new IllegalStateException("Sentry client is closed", e));
+      return result;
+    }
+    result.whenComplete((value, failure) -> {
+      timeout.cancel(false);
+      pending.remove(result);
+    });
+    return result;
+  }
+
+  /**
+   * @return the client of the current sender thread
+   */
+  private SentryPolicyServiceClient getClient() throws Exception {
+    SentryPolicyServiceClient client = senderClient.get();
+    if (client == null) {
+      client = clientFactory.create();
+      senderClient.set(client);
+      clients.add(client);
+    }
+    return client;
+  }
+
+  @Override
+  public CompletableFuture<Set<String>> listPrivilegesForProvider(final Set<String> groups,
+      final Set<String> users, final ActiveRoleSet roleSet, final Authorizable... authorizable) {
+    return submit(client -> client.listPrivilegesForProvider(groups, users, roleSet,
+        authorizable));
+  }
+
+  @Override
+  public CompletableFuture<Set<TSentryRole>> listRolesByGroupName(
+      final String requestorUserName, final String groupName) {
+    return submit(client -> client.listRolesByGroupName(requestorUserName, groupName));
+  }
+
+  @Override
+  public CompletableFuture<Set<TSentryPrivilege>> listPrivilegesByRoleName(
+      final String requestorUserName, final String roleName,
+      final List<? extends Authorizable> authorizable) {
+    return submit(client -> client.listPrivilegesByRoleName(requestorUserName, roleName,
+        authorizable));
+  }
+
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    senders.shutdown();
+    for (CompletableFuture<?> result : pending) {
+      result.completeExceptionally(new IllegalStateException("Sentry client is closed"));
+    }
+    try {
+      // Requests which are being sent can still complete
+      if (!senders.awaitTermination(1, TimeUnit.SECONDS)) {
+        senders.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted while closing the Sentry client");
+      Thread.currentThread().interrupt();
+    }
+    timeouts.shutdownNow();
+    for (SentryPolicyServiceClient client : clients) {
+      try {
+        client.close();
+      } catch (Exception e) {
+        LOGGER.error("Failed to close Sentry client", e);
+      }
+    }
+    clientFactory.close();
+  }
+}
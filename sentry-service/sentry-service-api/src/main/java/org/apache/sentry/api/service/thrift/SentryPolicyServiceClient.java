@@ -186,6 +186,17 @@ public interface SentryPolicyServiceClient extends AutoCloseable {
   Set<String> listPrivilegesForProvider(Set<String> groups, Set<String> users,
       ActiveRoleSet roleSet, Authorizable... authorizable) throws SentryUserException;
 
+  /**
+   * Bulk version of {@link #listPrivilegesForProvider(Set, Set, ActiveRoleSet, Authorizable...)}
+   * which gets the privileges for all the given hierarchies in a single call.
+   *
+   * @return one set of privileges per element of {@code authorizableHierarchies},
+   *         in the same order
+   */
+  List<Set<String>> listPrivilegesForProviderBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryUserException;
+
   void grantRoleToGroup(String requestorUserName, String groupName, String roleName)
       throws SentryUserException;
 
@@ -332,4 +343,19 @@ public interface SentryPolicyServiceClient extends AutoCloseable {
    * @throws SentryUserException if an error occurs requesting the privileges from the server.
    */
   Map<String, Set<TSentryPrivilege>> listAllUsersPrivileges(String requestorUserName) throws SentryUserException;
+
+  /**
+   * Lists the roles and users whose privileges or groups changed since an earlier call.
+   * Callers keeping a copy of all privileges pass the change ID of the last response they
+   * applied, and apply the returned changes to their copy. If the response holds a full
+   * image instead, because no change ID was given or the server no longer knows it, the
+   * copy is replaced.
+   *
+   * @param requestorUserName : user on whose behalf the request is issued
+   * @param changeId : change ID of the last response applied by the caller, or null
+   * @return the changes since changeId, or the full image, with a new change ID
+   * @throws SentryUserException if an error occurs requesting the changes from the server.
+   */
+  TSentryPrivilegeChangesResponse listPrivilegeChanges(String requestorUserName, Long changeId)
+      throws SentryUserException;
 }
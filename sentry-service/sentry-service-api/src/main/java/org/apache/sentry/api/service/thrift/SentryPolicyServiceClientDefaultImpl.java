@@ -29,6 +29,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.sentry.api.common.ThriftConstants;
 import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.exception.SentryThriftAPIMismatchException;
 import org.apache.sentry.core.common.exception.SentryUserException;
 import org.apache.sentry.core.common.transport.SentryConnection;
 import org.apache.sentry.core.common.transport.SentryTransportPool;
@@ -42,6 +43,7 @@ import org.apache.sentry.api.common.ApiConstants.PrivilegeScope;
 import org.apache.sentry.api.service.thrift.SentryPolicyService.Client;
 import org.apache.sentry.api.common.SentryServiceUtil;
 import org.apache.sentry.api.common.Status;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TMultiplexedProtocol;
@@ -63,6 +65,8 @@ public class SentryPolicyServiceClientDefaultImpl implements SentryPolicyService
   private final SentryTransportPool transportPool;
   private TTransportWrapper transport;
   private final long maxMessageSize;
+  // Lowered to the maximum of the server when it is smaller
+  private int maxBulkAuthorizables;
 
   private static final String THRIFT_EXCEPTION_MESSAGE = "Thrift exception occurred ";
 
@@ -74,6 +78,9 @@ public class SentryPolicyServiceClientDefaultImpl implements SentryPolicyService
     throws IOException {
     maxMessageSize = conf.getLong(ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE,
             ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
+    maxBulkAuthorizables = Math.max(1,
+        conf.getInt(ClientConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES,
+            ClientConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES_DEFAULT));
     this.transportPool = transportPool;
   }
 
@@ -813,6 +820,59 @@ public class SentryPolicyServiceClientDefaultImpl implements SentryPolicyService
     }
   }
 
+  @Override
+  public List<Set<String>> listPrivilegesForProviderBulk(Set<String> groups, Set<String> users,
+      ActiveRoleSet roleSet, List<? extends List<? extends Authorizable>> authorizableHierarchies)
+      throws SentryUserException {
+    TSentryActiveRoleSet thriftRoleSet = new TSentryActiveRoleSet(roleSet.isAll(), roleSet.getRoles());
+    List<Set<String>> privileges = Lists.newArrayListWithCapacity(authorizableHierarchies.size());
+    // Servers refuse requests with more hierarchies than their maximum, so long lists
+    // are sent in several requests. The servers return their maximum, which may be lower
+    // than the one configured on the client; a refused request is sent again in smaller
+    // requests.
+    int offset = 0;
+    while (offset < authorizableHierarchies.size()) {
+      List<? extends List<? extends Authorizable>> partition = authorizableHierarchies.subList(
+          offset, Math.min(authorizableHierarchies.size(), offset + maxBulkAuthorizables));
+      List<TSentryAuthorizable> tSentryAuthorizables =
+        Lists.newArrayListWithCapacity(partition.size());
+      for (List<? extends Authorizable> authorizableHierarchy : partition) {
+        tSentryAuthorizables.add(setupSentryAuthorizable(authorizableHierarchy));
+      }
+      TListSentryPrivilegesForProviderBulkRequest request =
+        new TListSentryPrivilegesForProviderBulkRequest(ThriftConstants.
+          TSENTRY_SERVICE_VERSION_CURRENT, groups, thriftRoleSet, tSentryAuthorizables);
+      if (users != null) {
+        request.setUsers(users);
+      }
+      TListSentryPrivilegesForProviderBulkResponse response;
+      try {
+        response = client.list_sentry_privileges_for_provider_bulk(request);
+      } catch (TApplicationException e) {
+        if (e.getType() == TApplicationException.UNKNOWN_METHOD) {
+          // Servers older than the bulk API
+          throw new SentryThriftAPIMismatchException(
+              "The server does not support bulk privilege requests", e.getMessage());
+        }
+        throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+      } catch (TException e) {
+        throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+      }
+      if (response.isSetMaxAuthorizableHierarchies()
+          && response.getMaxAuthorizableHierarchies() < maxBulkAuthorizables) {
+        maxBulkAuthorizables = Math.max(1, response.getMaxAuthorizableHierarchies());
+        if (Status.fromCode(response.getStatus().getValue()) == Status.INVALID_INPUT
+            && partition.size() > maxBulkAuthorizables) {
+          continue;
+        }
+      }
+      Status.throwIfNotOk(response.getStatus());
+      privileges.addAll(response.getPrivileges());
+      offset += partition.size();
+    }
+    return privileges;
+  }
+
   @Override
   public void grantRoleToGroup(String requestorUserName,
                                             String groupName, String roleName)
@@ -1237,4 +1297,24 @@ public class SentryPolicyServiceClientDefaultImpl implements SentryPolicyService
       throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
     }
   }
+
+  @Override
+  public TSentryPrivilegeChangesResponse listPrivilegeChanges(String requestorUserName,
+      Long changeId) throws SentryUserException {
+    TSentryPrivilegeChangesRequest request = new TSentryPrivilegeChangesRequest();
+    request.setProtocol_version(ThriftConstants.TSENTRY_SERVICE_VERSION_CURRENT);
+    request.setRequestorUserName(requestorUserName);
+    if (changeId != null) {
+      request.setChangeId(changeId);
+    }
+
+    try {
+      TSentryPrivilegeChangesResponse response = client.list_privilege_changes(request);
+      Status.throwIfNotOk(response.getStatus());
+
+      return response;
+    } catch (TException e) {
+      throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+    }
+  }
 }
\ No newline at end of file
@@ -253,6 +253,44 @@ struct TListSentryPrivilegesByAuthResponse {
 2: optional map<string, TSentryPrivilegeMap> privilegesMapByAuth
 }
 
+# Roles of a component together with their groups and the privileges
+# they hold on one service
+struct TSentryRolePrivileges {
+1: required string roleName,
+2: required set<string> groups,
+3: required set<TSentryPrivilege> privileges
+}
+
+# Full role -> groups -> privileges image of a service, used by clients that
+# keep a local copy of the policy so that it can be refreshed with a single call
+struct TListSentryRolePrivilegesSnapshotRequest {
+1: required i32 protocol_version = sentry_common_service.TSENTRY_SERVICE_V2,
+
+# User on whose behalf the request is issued
+2: required string requestorUserName,
+
+# The request is issued to which component
+3: required string component,
+
+# The privileges belong to which service
+4: required string serviceName,
+
+# The change ID of the image the client already holds, if any
+5: optional i64 changeId
+}
+
+struct TListSentryRolePrivilegesSnapshotResponse {
+1: required sentry_common_service.TSentryResponseStatus status,
+
+# The change ID of the current image. It is derived from the content of the
+# image, so all servers sharing a database report the same ID for it.
+2: optional i64 changeId,
+
+# Not set when the change ID in the request is still current, in which case
+# the client keeps the image it already has.
+3: optional set<TSentryRolePrivileges> roles
+}
+
 service SentryGenericPolicyService
 {
   TCreateSentryRoleResponse create_sentry_role(1:TCreateSentryRoleRequest request)
@@ -275,4 +313,6 @@ service SentryGenericPolicyService
   TDropPrivilegesResponse drop_sentry_privilege(1:TDropPrivilegesRequest request);
 
   TRenamePrivilegesResponse rename_sentry_privilege(1:TRenamePrivilegesRequest request);
+
+  TListSentryRolePrivilegesSnapshotResponse list_sentry_role_privileges_snapshot(1:TListSentryRolePrivilegesSnapshotRequest request);
 }
@@ -258,6 +258,23 @@ struct TListSentryPrivilegesForProviderResponse {
 2: required set<string> privileges
 }
 
+# Bulk variant of TListSentryPrivilegesForProviderRequest: the privileges of the
+# given groups/users are resolved once and returned for every hierarchy.
+struct TListSentryPrivilegesForProviderBulkRequest {
+1: required i32 protocol_version = sentry_common_service.TSENTRY_SERVICE_V2,
+2: required set<string> groups,
+3: required TSentryActiveRoleSet roleSet,
+4: required list<TSentryAuthorizable> authorizableHierarchies,
+5: optional set<string> users
+}
+# privileges[i] holds the privileges for authorizableHierarchies[i]
+# maxAuthorizableHierarchies is the most hierarchies the server accepts in one request
+struct TListSentryPrivilegesForProviderBulkResponse {
+1: required sentry_common_service.TSentryResponseStatus status
+2: optional list<set<string>> privileges,
+3: optional i32 maxAuthorizableHierarchies
+}
+
 # List role:set<privileges> for the given authorizable
 # Optionally use the set of groups to filter the roles
 struct TSentryPrivilegeMap {
@@ -412,6 +429,35 @@ struct TSentryPrivilegesResponse {
 2: required map<string, set<TSentryPrivilege>> privilegesMap;
 }
 
+/**
+* API that requests the roles and users privileges that changed since an earlier response.
+**/
+struct TSentryPrivilegeChangesRequest {
+1: required i32 protocol_version = sentry_common_service.TSENTRY_SERVICE_V2,
+2: required string requestorUserName, # user on whose behalf the request is issued
+3: optional i64 changeId # change ID of the last response applied by the caller, if any
+}
+
+/**
+* API that returns the roles and users privileges that changed since the requested change ID.
+*
+* If fullImage is true, the response holds all roles and users found on the Sentry server and
+* replaces any copy kept by the caller. This happens when no change ID was requested, or when
+* the server no longer knows the requested one. Otherwise the response only holds the roles
+* and users whose privileges or groups changed; removedRoles and removedUsers hold the names of
+* the ones that no longer exist. The returned changeId is passed on the next request.
+**/
+struct TSentryPrivilegeChangesResponse {
+1: required sentry_common_service.TSentryResponseStatus status
+2: optional i64 changeId,
+3: optional bool fullImage,
+4: optional map<string, set<TSentryPrivilege>> rolePrivileges,
+5: optional map<string, set<string>> roleGroups,
+6: optional map<string, set<TSentryPrivilege>> userPrivileges,
+7: optional set<string> removedRoles,
+8: optional set<string> removedUsers
+}
+
 service SentryPolicyService
 {
   # Check if the given user is in the Sentry admin group.
@@ -480,4 +526,13 @@ service SentryPolicyService
   # Returns a map of all users and their privileges that exist in the Sentry server.
   # The mapping object returned will be in the form of [userName, set<privileges>]
   TSentryPrivilegesResponse list_users_privileges(1:TSentryPrivilegesRequest request);
+
+  # For use with ProviderBackend bulk lookups. Returns the same privileges as
+  # list_sentry_privileges_for_provider for each authorizable hierarchy, in a
+  # single round trip.
+  TListSentryPrivilegesForProviderBulkResponse list_sentry_privileges_for_provider_bulk(1:TListSentryPrivilegesForProviderBulkRequest request);
+
+  # Returns the roles and users privileges, and the groups of the roles, that changed since
+  # the given change ID, or all of them if the change ID is not known to the server.
+  TSentryPrivilegeChangesResponse list_privilege_changes(1:TSentryPrivilegeChangesRequest request);
 }
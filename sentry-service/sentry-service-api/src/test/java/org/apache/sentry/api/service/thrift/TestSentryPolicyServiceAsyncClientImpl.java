@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.api.service.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestSentryPolicyServiceAsyncClientImpl {
+  private final AtomicInteger createdClients = new AtomicInteger();
+  private final SentryPolicyServiceClient syncClient =
+      Mockito.mock(SentryPolicyServiceClient.class);
+  private SentryPolicyServiceAsyncClientImpl asyncClient;
+
+  @After
+  public void tearDown() {
+    if (asyncClient != null) {
+      asyncClient.close();
+    }
+  }
+
+  private SentryPolicyServiceAsyncClientImpl newClient(int connections, long timeoutMs) {
+    return new SentryPolicyServiceAsyncClientImpl(() -> {
+      createdClients.incrementAndGet();
+      return syncClient;
+    }, connections, timeoutMs);
+  }
+
+  @Test
+  public void testRequestsShareConnections() throws Exception {
+    Set<TSentryRole> roles = Collections.singleton(new TSentryRole("role1",
+        Collections.<TSentryGroup>emptySet(), "admin"));
+    Mockito.when(syncClient.listRolesByGroupName("user1", "group1")).thenReturn(roles);
+    asyncClient = newClient(2, 10000);
+
+    List<CompletableFuture<Set<TSentryRole>>> results = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      results.add(asyncClient.listRolesByGroupName("user1", "group1"));
+    }
+    for (CompletableFuture<Set<TSentryRole>> result : results) {
+      assertSame(roles, result.get(10, TimeUnit.SECONDS));
+    }
+    Mockito.verify(syncClient, Mockito.times(50)).listRolesByGroupName("user1", "group1");
+    assertTrue(createdClients.get() <= 2);
+  }
+
+  @Test
+  public void testRequestFailure() throws Exception {
+    SentryUserException failure = new SentryUserException("Access denied");
+    Mockito.when(syncClient.listRolesByGroupName("user1", "group1")).thenThrow(failure);
+    asyncClient = newClient(1, 10000);
+
+    try {
+      asyncClient.listRolesByGroupName("user1", "group1").get(10, TimeUnit.SECONDS);
+      fail("Expected the request to fail");
+    } catch (ExecutionException e) {
+      assertSame(failure, e.getCause());
+    }
+  }
+
+  @Test
+  public void testRequestTimeout() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    asyncClient = newClient(1, 100);
+
+    CompletableFuture<Object> blocked = asyncClient.submit(client -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return null;
+    });
+    // Queued behind the blocked request, so it is never sent
+    CompletableFuture<Set<TSentryRole>> queued =
+        asyncClient.listRolesByGroupName("user1", "group1");
+    assertTimedOut(blocked);
+    assertTimedOut(queued);
+
+    release.countDown();
+    Mockito.when(syncClient.listRolesByGroupName("user1", "group2"))
+        .thenReturn(Collections.<TSentryRole>emptySet());
+    assertEquals(Collections.emptySet(),
+        asyncClient.listRolesByGroupName("user1", "group2").get(10, TimeUnit.SECONDS));
+    Mockito.verify(syncClient, Mockito.never()).listRolesByGroupName("user1", "group1");
+  }
+
+  @Test
+  public void testTimeoutFreesSender() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    asyncClient = newClient(1, 100);
+
+    CompletableFuture<Object> blocked = asyncClient.submit(client -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+        throw e;
+      }
+      return null;
+    });
+    assertTimedOut(blocked);
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+
+    // The only sender is free again, without the blocked request being released
+    Mockito.when(syncClient.listRolesByGroupName("user1", "group1"))
+        .thenReturn(Collections.<TSentryRole>emptySet());
+    assertEquals(Collections.emptySet(),
+        asyncClient.listRolesByGroupName("user1", "group1").get(10, TimeUnit.SECONDS));
+    assertEquals(1, createdClients.get());
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    asyncClient = newClient(1, 10000);
+    asyncClient.listRolesByGroupName("user1", "group1").get(10, TimeUnit.SECONDS);
+    asyncClient.close();
+
+    Mockito.verify(syncClient).close();
+    try {
+      asyncClient.listRolesByGroupName("user1", "group1").get(10, TimeUnit.SECONDS);
+      fail("Expected the request to fail");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  /**
+   * Requests submitted while the client is being closed complete instead of throwing.
+   */
+  @Test
+  public void testSubmitDuringClose() throws Exception {
+    asyncClient = newClient(1, 10000);
+    final List<CompletableFuture<Set<TSentryRole>>> results =
+        Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch submitting = new CountDownLatch(1);
+    Thread submitter = new Thread(() -> {
+      submitting.countDown();
+      for (int i = 0; i < 10000; i++) {
+        results.add(asyncClient.listRolesByGroupName("user1", "group1"));
+      }
+    });
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    submitter.setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+    submitter.start();
+    assertTrue(submitting.await(10, TimeUnit.SECONDS));
+    asyncClient.close();
+    submitter.join();
+
+    assertEquals(Collections.emptyList(), errors);
+    for (CompletableFuture<Set<TSentryRole>> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+    }
+  }
+
+  private static void assertTimedOut(CompletableFuture<?> result) throws Exception {
+    try {
+      result.get(10, TimeUnit.SECONDS);
+      fail("Expected the request to time out");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+}
@@ -25,21 +25,29 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.sentry.api.common.Status;
+import org.apache.sentry.api.common.ApiConstants.ClientConfig;
 import org.apache.sentry.api.service.thrift.SentryPolicyService.Client;
+import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Authorizable;
 import org.apache.sentry.core.common.exception.SentryAccessDeniedException;
+import org.apache.sentry.core.common.exception.SentryInvalidInputException;
+import org.apache.sentry.core.common.exception.SentryThriftAPIMismatchException;
 import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import org.apache.sentry.core.model.db.Table;
 
@@ -54,10 +62,69 @@ public class TestSentryPolicyServiceClientDefaultImpl {
 
     // Initialize the mock for the Sentry client
     Configuration conf = new Configuration();
+    conf.setInt(ClientConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES, 5);
     sentryClient = new SentryPolicyServiceClientDefaultImpl(conf, null);
     sentryClient.setClient(mockClient);
   }
 
+  /**
+   * A client whose maximum is larger than the one of the server sends the hierarchies
+   * again in requests the server accepts.
+   */
+  @Test
+  public void testListPrivilegesForProviderBulkLowerServerLimit() throws Exception {
+    final List<Integer> requestSizes = new ArrayList<>();
+    Mockito.when(mockClient.list_sentry_privileges_for_provider_bulk(
+        Mockito.any(TListSentryPrivilegesForProviderBulkRequest.class)))
+        .thenAnswer(new Answer<TListSentryPrivilegesForProviderBulkResponse>() {
+          @Override
+          public TListSentryPrivilegesForProviderBulkResponse answer(InvocationOnMock invocation) {
+            TListSentryPrivilegesForProviderBulkRequest request =
+                (TListSentryPrivilegesForProviderBulkRequest) invocation.getArguments()[0];
+            requestSizes.add(request.getAuthorizableHierarchiesSize());
+            TListSentryPrivilegesForProviderBulkResponse response =
+                new TListSentryPrivilegesForProviderBulkResponse();
+            response.setMaxAuthorizableHierarchies(2);
+            if (request.getAuthorizableHierarchiesSize() > 2) {
+              response.setStatus(Status.InvalidInput("too many hierarchies",
+                  new SentryInvalidInputException("too many hierarchies")));
+              return response;
+            }
+            for (TSentryAuthorizable authorizable : request.getAuthorizableHierarchies()) {
+              response.addToPrivileges(Sets.newHashSet(authorizable.getTable()));
+            }
+            response.setStatus(Status.OK());
+            return response;
+          }
+        });
+
+    List<List<Table>> hierarchies = new ArrayList<>();
+    for (int i = 1; i <= 7; i++) {
+      hierarchies.add(Arrays.asList(new Table("t" + i)));
+    }
+    List<Set<String>> privileges = sentryClient.listPrivilegesForProviderBulk(
+        Sets.newHashSet("group1"), null, ActiveRoleSet.ALL, hierarchies);
+    assertEquals(7, privileges.size());
+    for (int i = 1; i <= 7; i++) {
+      assertEquals(Sets.newHashSet("t" + i), privileges.get(i - 1));
+    }
+    // Only the first request is refused
+    assertEquals(Arrays.asList(5, 2, 2, 2, 1), requestSizes);
+  }
+
+  /**
+   * Servers without the bulk API answer with an unknown method error.
+   */
+  @Test(expected = SentryThriftAPIMismatchException.class)
+  public void testListPrivilegesForProviderBulkUnknownMethod() throws Exception {
+    Mockito.when(mockClient.list_sentry_privileges_for_provider_bulk(
+        Mockito.any(TListSentryPrivilegesForProviderBulkRequest.class)))
+        .thenThrow(new TApplicationException(TApplicationException.UNKNOWN_METHOD,
+            "Invalid method name: 'list_sentry_privileges_for_provider_bulk'"));
+    sentryClient.listPrivilegesForProviderBulk(Sets.newHashSet("group1"), null,
+        ActiveRoleSet.ALL, Arrays.asList(Arrays.asList(new Table("t1"))));
+  }
+
   @Test
   public void testListAllPrivilegesByUserName() throws SentryUserException, TException {
     Set<TSentryPrivilege> allPrivileges;
@@ -19,10 +19,13 @@
 package org.apache.sentry.service.thrift;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.api.common.ApiConstants.ClientConfig;
 import org.apache.sentry.core.common.transport.RetryClientInvocationHandler;
 import org.apache.sentry.core.common.transport.SentryPolicyClientTransportConfig;
 import org.apache.sentry.core.common.transport.SentryTransportFactory;
 import org.apache.sentry.core.common.transport.SentryTransportPool;
+import org.apache.sentry.api.service.thrift.SentryPolicyServiceAsyncClient;
+import org.apache.sentry.api.service.thrift.SentryPolicyServiceAsyncClientImpl;
 import org.apache.sentry.api.service.thrift.SentryPolicyServiceClient;
 import org.apache.sentry.api.service.thrift.SentryPolicyServiceClientDefaultImpl;
 import org.slf4j.Logger;
@@ -72,6 +75,36 @@ public final class SentryServiceClientFactory {
     return clientFactory.get().create();
   }
 
+  /**
+   * Create an asynchronous client. Its connections come from a pool of its own, whose
+   * socket timeout is at most the request timeout of the client, so that a sender thread
+   * does not keep waiting for the response of a request which already timed out. The
+   * client is meant to be created once, shared by all threads, and closed when the process
+   * no longer needs it, which also closes its pool.
+   * @param conf Configuration
+   * @return asynchronous client instance
+   */
+  public static SentryPolicyServiceAsyncClient createAsync(Configuration conf) {
+    long requestTimeoutMs = conf.getLong(ClientConfig.SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS,
+        ClientConfig.SENTRY_ASYNC_CLIENT_REQUEST_TIMEOUT_MS_DEFAULT);
+    Configuration asyncConf = new Configuration(conf);
+    asyncConf.setInt(ClientConfig.SERVER_RPC_CONN_TIMEOUT, (int) Math.min(
+        transportConfig.getServerRpcConnTimeoutInMs(conf), requestTimeoutMs));
+    final SentryServiceClientFactory factory = new SentryServiceClientFactory(asyncConf);
+    return new SentryPolicyServiceAsyncClientImpl(asyncConf,
+        new SentryPolicyServiceAsyncClientImpl.ClientFactory() {
+          @Override
+          public SentryPolicyServiceClient create() throws Exception {
+            return factory.create();
+          }
+
+          @Override
+          public void close() {
+            factory.close();
+          }
+        });
+  }
+
   /**
    * Create a new instance of the factory which will hand hand off connections from
    * the pool.
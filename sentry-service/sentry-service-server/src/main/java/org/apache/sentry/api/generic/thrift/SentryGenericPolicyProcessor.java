@@ -21,6 +21,7 @@ import static org.apache.sentry.core.common.utils.SentryConstants.AUTHORIZABLE_J
 import static org.apache.sentry.core.common.utils.SentryConstants.KV_JOINER;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -59,12 +60,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.Iface {
   private static final Logger LOGGER = LoggerFactory.getLogger(SentryGenericPolicyProcessor.class);
@@ -793,6 +797,83 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
     return tResponse;
   }
 
+  @Override
+  public TListSentryRolePrivilegesSnapshotResponse list_sentry_role_privileges_snapshot(
+      final TListSentryRolePrivilegesSnapshotRequest request) throws TException {
+    Response<TListSentryRolePrivilegesSnapshotResponse> respose =
+        requestHandle(new RequestHandler<TListSentryRolePrivilegesSnapshotResponse>() {
+      @Override
+      public Response<TListSentryRolePrivilegesSnapshotResponse> handle() throws Exception {
+        validateClientVersion(request.getProtocol_version());
+        authorize(request.getRequestorUserName(),
+            getRequestorGroups(conf, request.getRequestorUserName()));
+        Map<TSentryRole, Set<PrivilegeObject>> snapshot =
+            store.getRolePrivilegesSnapshot(request.getComponent(), request.getServiceName());
+        Set<TSentryRolePrivileges> roles = new HashSet<>(snapshot.size());
+        for (Map.Entry<TSentryRole, Set<PrivilegeObject>> entry : snapshot.entrySet()) {
+          Set<TSentryPrivilege> tSentryPrivileges = new HashSet<>(entry.getValue().size());
+          for (PrivilegeObject privilege : entry.getValue()) {
+            tSentryPrivileges.add(fromPrivilegeObject(privilege));
+          }
+          roles.add(new TSentryRolePrivileges(entry.getKey().getRoleName(),
+              entry.getKey().getGroups(), tSentryPrivileges));
+        }
+
+        TListSentryRolePrivilegesSnapshotResponse tResponse =
+            new TListSentryRolePrivilegesSnapshotResponse();
+        long changeId = getChangeId(roles);
+        tResponse.setChangeId(changeId);
+        // The client is up to date, there is no need to send the image again
+        if (!request.isSetChangeId() || request.getChangeId() != changeId) {
+          tResponse.setRoles(roles);
+        }
+        return new Response<TListSentryRolePrivilegesSnapshotResponse>(Status.OK(), tResponse);
+      }
+    });
+
+    TListSentryRolePrivilegesSnapshotResponse tResponse = respose.content;
+    if (tResponse == null) {
+      tResponse = new TListSentryRolePrivilegesSnapshotResponse();
+    }
+    tResponse.setStatus(respose.status);
+    return tResponse;
+  }
+
+  /**
+   * Derives the change ID of a role privileges image from its content. The generic
+   * model keeps no change log, and every server sharing the database must report
+   * the same ID for the same image, so the ID is a hash of the sorted image.
+   */
+  @VisibleForTesting
+  static long getChangeId(Set<TSentryRolePrivileges> roles) {
+    List<String> entries = new ArrayList<>();
+    for (TSentryRolePrivileges role : roles) {
+      String roleName = "role=" + role.getRoleName();
+      entries.add(roleName);
+      for (String group : role.getGroups()) {
+        entries.add(roleName + "->group=" + group);
+      }
+      for (TSentryPrivilege privilege : role.getPrivileges()) {
+        List<String> hierarchy = Lists.newArrayList(roleName,
+            KV_JOINER.join("component", privilege.getComponent()),
+            KV_JOINER.join("service", privilege.getServiceName()));
+        for (TAuthorizable authorizable : privilege.getAuthorizables()) {
+          hierarchy.add(KV_JOINER.join(authorizable.getType(), authorizable.getName()));
+        }
+        hierarchy.add(KV_JOINER.join("action", privilege.getAction()));
+        hierarchy.add(KV_JOINER.join("grantOption", privilege.getGrantOption()));
+        entries.add(AUTHORIZABLE_JOINER.join(hierarchy));
+      }
+    }
+    Collections.sort(entries);
+
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (String entry : entries) {
+      hasher.putString(entry, Charsets.UTF_8).putByte((byte) 0);
+    }
+    return hasher.hash().asLong();
+  }
+
   private static class Response<T> {
     private TSentryResponseStatus status;
     private T content;
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.api.service.thrift;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.core.common.exception.SentryGroupNotFoundException;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.provider.common.GroupMappingService;
+import org.apache.sentry.service.common.ServiceConstants.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches the groups of users resolved by a single {@link GroupMappingService} instance
+ * that is shared by all requests to the Sentry server.
+ * <p>
+ * Entries expire after a fixed TTL, and are reloaded in the background when they are
+ * used after three quarters of it, so that frequent users never wait for the group
+ * mapping. Users without groups are cached as well, for a separate and usually shorter
+ * time, so that requests from unknown users do not all go to the group mapping.
+ */
+@ThreadSafe
+final class GroupMappingCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GroupMappingCache.class);
+
+  // Group mapping configuration -> cache, so that all processors of a server share one
+  private static final ConcurrentMap<String, GroupMappingCache> INSTANCES =
+      new ConcurrentHashMap<>();
+
+  private static final Executor REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder()
+          .setNameFormat("sentry-group-mapping-refresh-%d")
+          .setDaemon(true)
+          .build());
+
+  private final SentryMetrics sentryMetrics = SentryMetrics.getInstance();
+  private final GroupMappingService groupMapping;
+  private final long negativeTtlNs;
+  private final Ticker ticker;
+  private final LoadingCache<String, Entry> cache;
+
+  @VisibleForTesting
+  GroupMappingCache(GroupMappingService groupMapping, long ttlMs, long negativeTtlMs,
+      long maxSize, Ticker ticker, final Executor refreshExecutor) {
+    this.groupMapping = groupMapping;
+    this.negativeTtlNs = TimeUnit.MILLISECONDS.toNanos(Math.min(negativeTtlMs, ttlMs));
+    this.ticker = ticker;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .refreshAfterWrite(Math.max(1, ttlMs * 3 / 4), TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build(new CacheLoader<String, Entry>() {
+          @Override
+          public Entry load(String user) {
+            return lookup(user);
+          }
+
+          @Override
+          public ListenableFuture<Entry> reload(final String user, Entry oldEntry) {
+            ListenableFutureTask<Entry> task = ListenableFutureTask.create(
+                new Callable<Entry>() {
+                  @Override
+                  public Entry call() {
+                    return lookup(user);
+                  }
+                });
+            refreshExecutor.execute(task);
+            return task;
+          }
+        });
+  }
+
+  /**
+   * Get the cache for the group mapping configured in conf. Caches are shared by all
+   * callers with the same group mapping configuration.
+   */
+  static GroupMappingCache getInstance(Configuration conf) throws SentryUserException {
+    String key = conf.get(ServerConfig.SENTRY_STORE_GROUP_MAPPING,
+        ServerConfig.SENTRY_STORE_GROUP_MAPPING_DEFAULT) + ":" +
+        conf.get(ServerConfig.SENTRY_STORE_GROUP_MAPPING_RESOURCE);
+    GroupMappingCache instance = INSTANCES.get(key);
+    if (instance != null) {
+      return instance;
+    }
+    instance = new GroupMappingCache(SentryPolicyStoreProcessor.createGroupMappingService(conf),
+        conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS,
+            ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS_DEFAULT),
+        conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS,
+            ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS_DEFAULT),
+        conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_MAX_SIZE,
+            ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_MAX_SIZE_DEFAULT),
+        Ticker.systemTicker(), REFRESH_EXECUTOR);
+    GroupMappingCache existing = INSTANCES.putIfAbsent(key, instance);
+    return existing != null ? existing : instance;
+  }
+
+  /**
+   * @return a new, modifiable set with the groups of the user
+   * @throws SentryGroupNotFoundException if the user has no groups
+   */
+  Set<String> getGroups(String user) throws SentryGroupNotFoundException {
+    Entry entry = cache.getIfPresent(user);
+    if (entry != null && entry.groups == null
+        && ticker.read() - entry.loadTimeNs > negativeTtlNs) {
+      cache.invalidate(user);
+      entry = null;
+    }
+    if (entry == null) {
+      sentryMetrics.groupMappingCacheMisses.inc();
+    } else {
+      sentryMetrics.groupMappingCacheHits.inc();
+    }
+
+    try {
+      // Loads the entry of a new user, or schedules the refresh of an old one
+      entry = cache.getUnchecked(user);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    if (entry.groups == null) {
+      throw new SentryGroupNotFoundException(entry.errorMessage);
+    }
+    return new HashSet<>(entry.groups);
+  }
+
+  private Entry lookup(String user) {
+    long loadTimeNs = ticker.read();
+    final Timer.Context timerContext = sentryMetrics.groupMappingLookupTimer.time();
+    try {
+      return new Entry(ImmutableSet.copyOf(groupMapping.getGroups(user)), null, loadTimeNs);
+    } catch (SentryGroupNotFoundException e) {
+      LOGGER.debug("No groups found for user {}", user, e);
+      return new Entry(null, e.getMessage(), loadTimeNs);
+    } finally {
+      timerContext.stop();
+    }
+  }
+
+  /**
+   * Groups of a user, or the reason why none were found.
+   */
+  private static final class Entry {
+    private final ImmutableSet<String> groups;
+    private final String errorMessage;
+    private final long loadTimeNs;
+
+    private Entry(ImmutableSet<String> groups, String errorMessage, long loadTimeNs) {
+      this.groups = groups;
+      this.errorMessage = errorMessage;
+      this.loadTimeNs = loadTimeNs;
+    }
+  }
+}
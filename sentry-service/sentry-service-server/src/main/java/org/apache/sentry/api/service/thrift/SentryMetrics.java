@@ -22,6 +22,7 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.MetricSet;
@@ -36,6 +37,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.provider.db.audit.SentryAuditLogger;
 import org.apache.sentry.provider.db.service.persistent.SentryStore;
 import org.apache.sentry.provider.db.service.persistent.SentryStoreInterface;
 import org.apache.sentry.service.thrift.FullUpdateInitializer;
@@ -117,6 +119,8 @@ public final class SentryMetrics {
           name(SentryPolicyStoreProcessor.class, "list-sentry-privileges-by-user-and-itsgroups"));
   final Timer listPrivilegesForProviderTimer = METRIC_REGISTRY.timer(
       name(SentryPolicyStoreProcessor.class, "list-privileges-for-provider"));
+  final Timer listPrivilegesForProviderBulkTimer = METRIC_REGISTRY.timer(
+      name(SentryPolicyStoreProcessor.class, "list-privileges-for-provider-bulk"));
   final Timer listPrivilegesByAuthorizableTimer = METRIC_REGISTRY.timer(
       name(SentryPolicyStoreProcessor.class, "list-privileges-by-authorizable"));
   final Timer listPrivilegesByAuthorizableAndUserTimer = METRIC_REGISTRY.timer(
@@ -125,9 +129,18 @@ public final class SentryMetrics {
       name(SentryPolicyStoreProcessor.class, "list-roles-privileges"));
   final Timer listUsersPrivilegesTimer = METRIC_REGISTRY.timer(
     name(SentryPolicyStoreProcessor.class, "list-users-privileges"));
+  final Timer listPrivilegeChangesTimer = METRIC_REGISTRY.timer(
+      name(SentryPolicyStoreProcessor.class, "list-privilege-changes"));
   final Timer notificationProcessTimer = METRIC_REGISTRY.timer(
           name(SentryPolicyStoreProcessor.class, "process-hsm-notification"));
 
+  final Counter groupMappingCacheHits = METRIC_REGISTRY.counter(
+      name(SentryPolicyStoreProcessor.class, "group-mapping-cache", "hits"));
+  final Counter groupMappingCacheMisses = METRIC_REGISTRY.counter(
+      name(SentryPolicyStoreProcessor.class, "group-mapping-cache", "misses"));
+  final Timer groupMappingLookupTimer = METRIC_REGISTRY.timer(
+      name(SentryPolicyStoreProcessor.class, "group-mapping-lookup"));
+
   public final Timer getFullHMSSnapshotTimer = METRIC_REGISTRY.timer(
       name(FullUpdateInitializer.class, "fetch-full-snapshot"));
 
@@ -143,6 +156,41 @@ public final class SentryMetrics {
   public final Counter partitionCount = METRIC_REGISTRY.counter(
       name(FullUpdateInitializer.class, "total", "partitions"));
 
+  public final Timer persistFullHMSSnapshotTimer = METRIC_REGISTRY.timer(
+      name(SentryStore.class, "persist-full-snapshot"));
+
+  /** Authorization objects of the HMS snapshot being persisted that are not written yet */
+  public final Counter fullSnapshotPendingObjects = METRIC_REGISTRY.counter(
+      name(SentryStore.class, "persist-full-snapshot", "pending-objects"));
+
+  /** Rate at which authorization objects of HMS snapshots are written */
+  public final Meter fullSnapshotPersistedObjects = METRIC_REGISTRY.meter(
+      name(SentryStore.class, "persist-full-snapshot", "objects"));
+
+  /** Rate at which paths of HMS snapshots are written */
+  public final Meter fullSnapshotPersistedPaths = METRIC_REGISTRY.meter(
+      name(SentryStore.class, "persist-full-snapshot", "paths"));
+
+  /** Delta changes deleted by the purges of the delta change tables */
+  public final Counter purgedDeltaChanges = METRIC_REGISTRY.counter(
+      name(SentryStore.class, "purge", "delta-changes"));
+
+  /** Notification IDs deleted by the purges of the notification ID table */
+  public final Counter purgedNotificationIds = METRIC_REGISTRY.counter(
+      name(SentryStore.class, "purge", "notification-ids"));
+
+  /** Authorization objects of old HMS snapshots deleted by the purges of the snapshots */
+  public final Counter purgedSnapshotObjects = METRIC_REGISTRY.counter(
+      name(SentryStore.class, "purge", "snapshot-objects"));
+
+  /** Audit log entries waiting for the audit log writer thread */
+  public final Counter auditLogQueuedEntries = METRIC_REGISTRY.counter(
+      name(SentryAuditLogger.class, "queue", "size"));
+
+  /** Audit log entries discarded because the audit log queue was full */
+  public final Counter auditLogDroppedEntries = METRIC_REGISTRY.counter(
+      name(SentryAuditLogger.class, "queue", "dropped"));
+
   /**
    * Return a Timer with name.
    */
@@ -216,6 +264,10 @@ public final class SentryMetrics {
     if (!sentryServiceGaugesAdded) {
       addGauge(SentryService.class, "is_active", sentryservice.getIsActiveGauge());
       addGauge(SentryService.class, "activated", sentryservice.getBecomeActiveCount());
+      addGauge(SentryService.class, "rpc.worker_queue_size",
+          sentryservice.getRpcWorkerQueueSizeGauge());
+      addGauge(SentryService.class, "rpc.open_connections",
+          sentryservice.getRpcOpenConnectionsGauge());
       sentryServiceGaugesAdded = true;
     }
   }
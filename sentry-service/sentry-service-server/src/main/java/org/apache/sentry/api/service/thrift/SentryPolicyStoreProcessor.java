@@ -105,6 +105,7 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
           SentryMetrics.getInstance().
                   getTimer(name(SentryPolicyStoreProcessor.class, "hms", "wait"));
   private final SentryAuditLogger audit;
+  private final int maxBulkAuthorizables;
 
   private List<SentryPolicyStorePlugin> sentryPlugins = new LinkedList<SentryPolicyStorePlugin>();
 
@@ -117,6 +118,8 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
     this.notificationHandlerInvoker = new NotificationHandlerInvoker(conf,
         createHandlers(conf));
     this.audit = new SentryAuditLogger(conf);
+    this.maxBulkAuthorizables = conf.getInt(ServerConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES,
+        ServerConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES_DEFAULT);
     adminGroups = ImmutableSet.copyOf(toTrimedLower(Sets.newHashSet(conf.getStrings(
         ServerConfig.ADMIN_GROUPS, new String[]{}))));
     Iterable<String> pluginClasses = ConfUtilties.CLASS_SPLITTER
@@ -143,6 +146,7 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
   }
 
   public void stop() {
+    audit.close();
     sentryStore.stop();
   }
 
@@ -1082,6 +1086,61 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
     return response;
   }
 
+  @Override
+  public TListSentryPrivilegesForProviderBulkResponse list_sentry_privileges_for_provider_bulk(
+      TListSentryPrivilegesForProviderBulkRequest request) throws TException {
+    final Timer.Context timerContext = sentryMetrics.listPrivilegesForProviderBulkTimer.time();
+    TListSentryPrivilegesForProviderBulkResponse response =
+        new TListSentryPrivilegesForProviderBulkResponse();
+    // Clients whose own maximum is larger split their requests by this one
+    response.setMaxAuthorizableHierarchies(maxBulkAuthorizables);
+    try {
+      validateClientVersion(request.getProtocol_version());
+      List<TSentryAuthorizable> authHierarchies = request.getAuthorizableHierarchies();
+      if (authHierarchies.size() > maxBulkAuthorizables) {
+        throw new SentryInvalidInputException("The request has " + authHierarchies.size()
+            + " authorizable hierarchies, more than the maximum of " + maxBulkAuthorizables);
+      }
+      List<Set<String>> privilegesList =
+          sentryStore.listSentryPrivilegesForProviderBulk(request.getGroups(),
+              request.getUsers(), request.getRoleSet(), authHierarchies);
+
+      // Same 'default' Db handling as list_sentry_privileges_for_provider, but the
+      // server privilege check is done only once per server
+      Map<String, Boolean> hasServerPrivileges = Maps.newHashMap();
+      for (int i = 0; i < privilegesList.size(); i++) {
+        String server = authHierarchies.get(i).getServer();
+        if (!privilegesList.get(i).isEmpty() || server == null) {
+          continue;
+        }
+        Boolean hasServerPrivilege = hasServerPrivileges.get(server);
+        if (hasServerPrivilege == null) {
+          hasServerPrivilege = sentryStore.hasAnyServerPrivileges(request.getGroups(),
+              request.getUsers(), request.getRoleSet(), server);
+          hasServerPrivileges.put(server, hasServerPrivilege);
+        }
+        if (hasServerPrivilege) {
+          privilegesList.set(i, Sets.newHashSet("server=+"));
+        }
+      }
+      response.setPrivileges(privilegesList);
+      response.setStatus(Status.OK());
+    } catch (SentryInvalidInputException e) {
+      LOGGER.error(e.getMessage(), e);
+      response.setStatus(Status.InvalidInput(e.getMessage(), e));
+    } catch (SentryThriftAPIMismatchException e) {
+      LOGGER.error(e.getMessage(), e);
+      response.setStatus(Status.THRIFT_VERSION_MISMATCH(e.getMessage(), e));
+    } catch (Exception e) {
+      String msg = "Unknown error for request: " + request + ", message: " + e.getMessage();
+      LOGGER.error(msg, e);
+      response.setStatus(Status.RuntimeError(msg, e));
+    } finally {
+      timerContext.stop();
+    }
+    return response;
+  }
+
   // retrieve the group mapping for the given user name
   private Set<String> getRequestorGroups(String userName)
       throws SentryUserException {
@@ -1090,6 +1149,15 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
 
   public static Set<String> getGroupsFromUserName(Configuration conf,
       String userName) throws SentryUserException {
+    if (conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS,
+        ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS_DEFAULT) > 0) {
+      return GroupMappingCache.getInstance(conf).getGroups(userName);
+    }
+    return createGroupMappingService(conf).getGroups(userName);
+  }
+
+  static GroupMappingService createGroupMappingService(Configuration conf)
+      throws SentryUserException {
     String groupMapping = conf.get(ServerConfig.SENTRY_STORE_GROUP_MAPPING,
         ServerConfig.SENTRY_STORE_GROUP_MAPPING_DEFAULT);
     String authResoruce = conf
@@ -1118,7 +1186,7 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
     } catch (InvocationTargetException e) {
       throw new SentryUserException("Unable to instantiate group mapping", e);
     }
-    return groupMappingService.getGroups(userName);
+    return groupMappingService;
   }
 
   @Override
@@ -1691,6 +1759,41 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
     return response;
   }
 
+  @Override
+  public TSentryPrivilegeChangesResponse list_privilege_changes(
+      TSentryPrivilegeChangesRequest request) throws TException {
+    TSentryPrivilegeChangesResponse response = new TSentryPrivilegeChangesResponse();
+    String requestor = request.getRequestorUserName();
+
+    try (Timer.Context timerContext = sentryMetrics.listPrivilegeChangesTimer.time()) {
+      // Throws SentryThriftAPIMismatchException if protocol version mismatch
+      validateClientVersion(request.getProtocol_version());
+
+      // Throws SentryUserException with the Status.ACCESS_DENIED status if the requestor
+      // is not an admin. Only admins can request all roles, users and privileges of the system.
+      authorize(requestor, getRequestorGroups(requestor));
+
+      response = sentryStore.getPrivilegeChanges(
+          request.isSetChangeId() ? request.getChangeId() : null);
+      response.setStatus(Status.OK());
+    } catch (SentryThriftAPIMismatchException e) {
+      LOGGER.error(e.getMessage(), e);
+      response.setStatus(Status.THRIFT_VERSION_MISMATCH(e.getMessage(), e));
+    } catch (SentryAccessDeniedException e) {
+      LOGGER.error(e.getMessage(), e);
+      response.setStatus(Status.AccessDenied(e.getMessage(), e));
+    } catch (SentryUserException e) {
+      LOGGER.error(e.getMessage(), e);
+      response.setStatus(Status.AccessDenied(e.getMessage(), e));
+    } catch (Exception e) {
+      String msg = "Could not read privilege changes from the database: " + e.getMessage();
+      LOGGER.error(msg, e);
+      response.setStatus(Status.RuntimeError(msg, e));
+    }
+
+    return response;
+  }
+
   /**
    * Grants owner privilege  to an authorizable.
    *
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.audit;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.provider.db.log.entity.JsonLogEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+
+/**
+ * AsyncAuditLogWriter writes audit log entries on a dedicated thread, so that the requests
+ * being audited do not wait for the entries to be serialized and appended to the audit log.
+ * <p>
+ * Entries are handed to the writer thread through a bounded queue. The writer thread takes
+ * them from the queue in batches, and serializes all of them into a single reused buffer.
+ * What happens to an entry when the queue is full depends on the {@link QueueFullPolicy}.
+ * <p>
+ * Entries are written in the order they are queued, unless an entry is written on the
+ * calling thread before the queued ones, see {@link QueueFullPolicy#SYNC}.
+ */
+@ThreadSafe
+final class AsyncAuditLogWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncAuditLogWriter.class);
+  private static final long POLL_INTERVAL_MS = 100;
+  private static final long CLOSE_TIMEOUT_MS = 10000;
+
+  /**
+   * What a request does with its audit log entry when the queue is full.
+   */
+  enum QueueFullPolicy {
+    /** Wait until the writer thread makes room, the entry is never lost */
+    BLOCK,
+    /** Discard the entry and count it as dropped */
+    DROP,
+    /** Write the entry on the calling thread, ahead of the queued entries */
+    SYNC
+  }
+
+  private final Logger auditLogger;
+  private final BlockingQueue<JsonLogEntity> queue;
+  private final int batchSize;
+  private final QueueFullPolicy queueFullPolicy;
+  private final Thread writerThread;
+  private final Thread shutdownHook;
+  private volatile boolean closed;
+  private volatile boolean dropping;
+
+  // Reused for every entry, which is why the entries are written with the lock held
+  @GuardedBy("this")
+  private final StringWriter buffer = new StringWriter();
+
+  private final Counter queuedEntries = SentryMetrics.getInstance().auditLogQueuedEntries;
+  private final Counter droppedEntries = SentryMetrics.getInstance().auditLogDroppedEntries;
+
+  /**
+   * @param auditLogger logger the entries are written to
+   * @param queueSize maximum number of entries waiting for the writer thread
+   * @param batchSize maximum number of entries taken from the queue at once
+   * @param queueFullPolicy what to do with an entry when the queue is full
+   */
+  AsyncAuditLogWriter(Logger auditLogger, int queueSize, int batchSize,
+      QueueFullPolicy queueFullPolicy) {
+    Preconditions.checkArgument(queueSize > 0, "queueSize must be a positive number");
+    this.auditLogger = auditLogger;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.batchSize = Math.max(1, batchSize);
+    this.queueFullPolicy = Preconditions.checkNotNull(queueFullPolicy);
+
+    writerThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        writeQueuedEntries();
+      }
+    }, "sentry-audit-log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+
+    // Entries still queued on a clean shutdown are written before the JVM exits
+    shutdownHook = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        flush();
+      }
+    }, "sentry-audit-log-writer-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Queues the entry for the writer thread, or handles it according to the queue full
+   * policy if there is no room for it. Once the writer is closed, entries are written on
+   * the calling thread.
+   * <p>
+   * A thread interrupted while it waits for room writes its entry itself, and keeps its
+   * interrupt status.
+   */
+  void write(JsonLogEntity entry) {
+    if (closed) {
+      writeEntry(entry);
+      return;
+    }
+
+    if (queue.offer(entry)) {
+      queuedEntries.inc();
+      dropping = false;
+    } else {
+      switch (queueFullPolicy) {
+        case BLOCK:
+          try {
+            queue.put(entry);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeEntry(entry);
+            return;
+          }
+          queuedEntries.inc();
+          break;
+        case DROP:
+          droppedEntries.inc();
+          if (!dropping) {
+            dropping = true;
+            LOGGER.warn("The audit log queue is full, audit log entries are dropped");
+          }
+          return;
+        case SYNC:
+          writeEntry(entry);
+          return;
+        default:
+          throw new IllegalStateException("Unknown queue full policy " + queueFullPolicy);
+      }
+    }
+
+    // The writer thread may have stopped while the entry was queued
+    if (closed) {
+      flush();
+    }
+  }
+
+  /**
+   * Stops the writer thread once it has written all queued entries.
+   */
+  void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      writerThread.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // The JVM is shutting down already
+    }
+  }
+
+  private void writeQueuedEntries() {
+    List<JsonLogEntity> batch = new ArrayList<>(batchSize);
+    while (!closed || !queue.isEmpty()) {
+      try {
+        JsonLogEntity entry = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (entry == null) {
+          continue;
+        }
+        batch.add(entry);
+        queue.drainTo(batch, batchSize - 1);
+        queuedEntries.dec(batch.size());
+        writeEntries(batch);
+      } catch (InterruptedException e) {
+        // Nobody but close() should stop this thread, requests may be waiting for room
+        LOGGER.warn("The audit log writer thread was interrupted");
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Writes the queued entries on the calling thread.
+   */
+  private void flush() {
+    List<JsonLogEntity> batch = new ArrayList<>();
+    queue.drainTo(batch);
+    queuedEntries.dec(batch.size());
+    writeEntries(batch);
+  }
+
+  private synchronized void writeEntries(List<JsonLogEntity> entries) {
+    for (JsonLogEntity entry : entries) {
+      buffer.getBuffer().setLength(0);
+      writeEntry(entry, buffer);
+    }
+  }
+
+  /**
+   * Writes an entry on the calling thread, with its own buffer so that it does not wait
+   * for the writer thread.
+   */
+  private void writeEntry(JsonLogEntity entry) {
+    writeEntry(entry, new StringWriter());
+  }
+
+  private void writeEntry(JsonLogEntity entry, StringWriter out) {
+    try {
+      entry.toJsonFormatLog(out);
+      auditLogger.info(out.toString());
+    } catch (Exception e) {
+      String msg = "Cannot write an audit log entry: " + e.getMessage();
+      LOGGER.error(msg, e);
+    }
+  }
+}
@@ -40,6 +40,7 @@ import org.apache.sentry.api.service.thrift.TSentryPrincipalType;
 import org.apache.sentry.provider.db.log.entity.JsonLogEntity;
 import org.apache.sentry.provider.db.log.entity.JsonLogEntityFactory;
 import org.apache.sentry.provider.db.log.util.Constants;
+import org.apache.sentry.service.common.ServiceConstants.ServerConfig;
 import org.apache.sentry.service.thrift.TSentryResponseStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,12 @@ public class SentryAuditLogger {
    */
   private final Configuration conf;
 
+  /**
+   * Writes the audit log entries on a dedicated thread, null if they are written by the
+   * threads serving the requests.
+   */
+  private final AsyncAuditLogWriter asyncWriter;
+
   /**
    * Constructs a {@link SentryAuditLogger} with the desired configuration passed as a parameter.
    *
@@ -65,6 +72,29 @@ public class SentryAuditLogger {
    */
   public SentryAuditLogger(Configuration conf) {
     this.conf = conf;
+    if (conf.getBoolean(ServerConfig.SENTRY_AUDIT_LOG_ASYNC_ENABLED,
+        ServerConfig.SENTRY_AUDIT_LOG_ASYNC_ENABLED_DEFAULT)) {
+      String policy = conf.get(ServerConfig.SENTRY_AUDIT_LOG_ASYNC_QUEUE_FULL_POLICY,
+          ServerConfig.SENTRY_AUDIT_LOG_ASYNC_QUEUE_FULL_POLICY_DEFAULT);
+      asyncWriter = new AsyncAuditLogWriter(AUDIT_LOGGER,
+          conf.getInt(ServerConfig.SENTRY_AUDIT_LOG_ASYNC_QUEUE_SIZE,
+              ServerConfig.SENTRY_AUDIT_LOG_ASYNC_QUEUE_SIZE_DEFAULT),
+          conf.getInt(ServerConfig.SENTRY_AUDIT_LOG_ASYNC_BATCH_SIZE,
+              ServerConfig.SENTRY_AUDIT_LOG_ASYNC_BATCH_SIZE_DEFAULT),
+          AsyncAuditLogWriter.QueueFullPolicy.valueOf(policy.trim().toUpperCase()));
+    } else {
+      asyncWriter = null;
+    }
+  }
+
+  /**
+   * Writes the audit log entries still waiting to be written, and stops writing them
+   * asynchronously.
+   */
+  public void close() {
+    if (asyncWriter != null) {
+      asyncWriter.close();
+    }
   }
 
   /**
@@ -256,6 +286,10 @@ public class SentryAuditLogger {
   }
 
   private void info(JsonLogEntity jsonLogEntity) throws Exception {
-    AUDIT_LOGGER.info(jsonLogEntity.toJsonFormatLog());
+    if (asyncWriter != null) {
+      asyncWriter.write(jsonLogEntity);
+    } else {
+      AUDIT_LOGGER.info(jsonLogEntity.toJsonFormatLog());
+    }
   }
 }
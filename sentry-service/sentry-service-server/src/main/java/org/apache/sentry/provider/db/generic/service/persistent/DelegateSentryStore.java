@@ -45,7 +45,9 @@ import javax.jdo.PersistenceManager;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -362,6 +364,34 @@ public class DelegateSentryStore implements SentryStoreLayer {
             });
   }
 
+  @Override
+  public Map<TSentryRole, Set<PrivilegeObject>> getRolePrivilegesSnapshot(final String component,
+      final String service) throws Exception {
+    Preconditions.checkNotNull(component);
+    Preconditions.checkNotNull(service);
+
+    return delegate.getTransactionManager().executeTransaction(
+            pm -> {
+              pm.setDetachAllOnCommit(false); // No need to detach objects
+              Map<String, Set<PrivilegeObject>> privilegesByRole =
+                  privilegeOperator.getPrivilegesByService(toTrimmedLower(component),
+                          toTrimmedLower(service), pm);
+
+              List<MSentryRole> mRoles = delegate.getAllRoles(pm);
+              Map<TSentryRole, Set<PrivilegeObject>> snapshot = new HashMap<>(mRoles.size());
+              for (MSentryRole mRole : mRoles) {
+                Set<String> groupNames = new HashSet<>(mRole.getGroups().size());
+                for (MSentryGroup mGroup : mRole.getGroups()) {
+                  groupNames.add(mGroup.getGroupName());
+                }
+                Set<PrivilegeObject> privileges = privilegesByRole.get(mRole.getRoleName());
+                snapshot.put(new TSentryRole(mRole.getRoleName(), groupNames),
+                    privileges == null ? Collections.<PrivilegeObject>emptySet() : privileges);
+              }
+              return snapshot;
+            });
+  }
+
   @Override
   public Set<MSentryGMPrivilege> getPrivilegesByAuthorizable(final String component,
       final String service, final Set<String> validActiveRoles,
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.jdo.FetchGroup;
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
 
@@ -459,6 +460,48 @@ public class PrivilegeOperatePersistence {
     return privileges;
   }
 
+  /**
+   * Get all privileges on a service, grouped by the roles holding them
+   * @param component component name, trimmed and lower case
+   * @param service service name, trimmed and lower case
+   * @param pm Persistence manager instance
+   * @return map of role names to the privileges of the role on the service
+   */
+  Map<String, Set<PrivilegeObject>> getPrivilegesByService(String component,
+                                                           String service, PersistenceManager pm) {
+    Query query = pm.newQuery(MSentryGMPrivilege.class);
+    QueryParamBuilder paramBuilder = populateIncludePrivilegesParams(
+            new MSentryGMPrivilege(component, service, null, null, null));
+    query.setFilter(paramBuilder.toString());
+
+    // Load the roles with the privileges instead of one query per privilege
+    FetchGroup grp = pm.getFetchGroup(MSentryGMPrivilege.class, "fetchRoles");
+    grp.addMember("roles");
+    pm.getFetchPlan().addGroup("fetchRoles");
+
+    List<MSentryGMPrivilege> mPrivileges =
+            (List<MSentryGMPrivilege>)query.executeWithMap(paramBuilder.getArguments());
+    Map<String, Set<PrivilegeObject>> privilegesByRole = Maps.newHashMap();
+    for (MSentryGMPrivilege mPrivilege : mPrivileges) {
+      PrivilegeObject privilege = new Builder()
+                               .setComponent(mPrivilege.getComponentName())
+                               .setService(mPrivilege.getServiceName())
+                               .setAction(mPrivilege.getAction())
+                               .setAuthorizables(mPrivilege.getAuthorizables())
+                               .withGrantOption(mPrivilege.getGrantOption())
+                               .build();
+      for (MSentryRole mRole : mPrivilege.getRoles()) {
+        Set<PrivilegeObject> privileges = privilegesByRole.get(mRole.getRoleName());
+        if (privileges == null) {
+          privileges = new HashSet<>();
+          privilegesByRole.put(mRole.getRoleName(), privileges);
+        }
+        privileges.add(privilege);
+      }
+    }
+    return privilegesByRole;
+  }
+
   Set<MSentryGMPrivilege> getPrivilegesByAuthorizable(String component,
                                                       String service, Set<MSentryRole> roles,
                                                       List<? extends Authorizable> authorizables, PersistenceManager pm) {
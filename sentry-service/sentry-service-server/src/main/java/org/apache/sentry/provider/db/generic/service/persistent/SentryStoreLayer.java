@@ -18,6 +18,7 @@
 package org.apache.sentry.provider.db.generic.service.persistent;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.sentry.api.generic.thrift.TSentryRole;
@@ -167,6 +168,18 @@ public interface SentryStoreLayer {
        Set<String> groups, List<? extends Authorizable> authorizables)
        throws Exception;
 
+  /**
+   * Get all roles with their groups and the privileges they hold on a service,
+   * read in a single transaction.
+   * @param component: The request respond to which component
+   * @param service: The name of service
+   * @returns the map of roles to their privileges. Roles without privileges
+   *     on the service map to an empty set.
+   * @throws Exception
+   */
+  Map<TSentryRole, Set<PrivilegeObject>> getRolePrivilegesSnapshot(String component,
+      String service) throws Exception;
+
   /**
    * Get all roles name.
    *
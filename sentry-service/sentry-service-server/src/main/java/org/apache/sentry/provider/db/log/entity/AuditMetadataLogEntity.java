@@ -19,6 +19,7 @@
 package org.apache.sentry.provider.db.log.entity;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
 import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonNode;
@@ -40,6 +41,13 @@ abstract public class AuditMetadataLogEntity implements JsonLogEntity {
   private String objectType;
   private String component;
 
+  @Override
+  public String toJsonFormatLog() throws Exception {
+    StringWriter stringWriter = new StringWriter();
+    toJsonFormatLog(stringWriter);
+    return stringWriter.toString();
+  }
+
   void setCommonAttr(String serviceName, String userName, String impersonator, String ipAddress,
       String operation, String eventTime, String operationText, String allowed, String objectType,
       String component) {
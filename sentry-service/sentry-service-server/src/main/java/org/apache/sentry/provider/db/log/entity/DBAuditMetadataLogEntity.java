@@ -19,7 +19,7 @@
 package org.apache.sentry.provider.db.log.entity;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Writer;
 
 import org.apache.sentry.provider.db.log.util.Constants;
 import org.codehaus.jackson.JsonGenerator;
@@ -82,11 +82,12 @@ public class DBAuditMetadataLogEntity extends AuditMetadataLogEntity {
   }
 
   @Override
-  public String toJsonFormatLog() throws Exception {
-    StringWriter stringWriter = new StringWriter();
+  public void toJsonFormatLog(Writer out) throws Exception {
     JsonGenerator json = null;
     try {
-      json = factory.createJsonGenerator(stringWriter);
+      json = factory.createJsonGenerator(out);
+      // The writer belongs to the caller, which may write more entities to it
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
       json.writeStartObject();
       json.writeStringField(Constants.LOG_FIELD_SERVICE_NAME, getServiceName());
       json.writeStringField(Constants.LOG_FIELD_USER_NAME, getUserName());
@@ -118,7 +119,5 @@ public class DBAuditMetadataLogEntity extends AuditMetadataLogEntity {
         throw e;
       }
     }
-
-    return stringWriter.toString();
   }
 }
@@ -19,7 +19,7 @@
 package org.apache.sentry.provider.db.log.entity;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -46,11 +46,12 @@ public class GMAuditMetadataLogEntity extends AuditMetadataLogEntity {
   }
 
   @Override
-  public String toJsonFormatLog() throws Exception {
-    StringWriter stringWriter = new StringWriter();
+  public void toJsonFormatLog(Writer out) throws Exception {
     JsonGenerator json = null;
     try {
-      json = factory.createJsonGenerator(stringWriter);
+      json = factory.createJsonGenerator(out);
+      // The writer belongs to the caller, which may write more entities to it
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
       json.writeStartObject();
       json.writeStringField(Constants.LOG_FIELD_SERVICE_NAME, getServiceName());
       json.writeStringField(Constants.LOG_FIELD_USER_NAME, getUserName());
@@ -82,8 +83,6 @@ public class GMAuditMetadataLogEntity extends AuditMetadataLogEntity {
         throw e;
       }
     }
-
-    return stringWriter.toString();
   }
 
   public Map<String, String> getPrivilegesMap() {
@@ -18,8 +18,16 @@
 
 package org.apache.sentry.provider.db.log.entity;
 
+import java.io.Writer;
+
 public interface JsonLogEntity {
 
   String toJsonFormatLog() throws Exception;
 
+  /**
+   * Writes the same JSON as {@link #toJsonFormatLog()} to the given writer, which lets the
+   * callers serializing many entities reuse their buffer. The writer is not closed.
+   */
+  void toJsonFormatLog(Writer out) throws Exception;
+
 }
@@ -228,6 +228,10 @@ public class MAuthzPathsMapping {
       this.path = path;
     }
 
+    public long getAuthzObjectId() {
+      return authzObjectId;
+    }
+
     @Override
     public int hashCode() {
       final int prime = 31;
@@ -26,10 +26,12 @@ import javax.jdo.annotations.PrimaryKey;
 
 /**
  * Database backend store for HMS path delta change. Each record contains
- * change ID, HMS notification ID, JSON format of a single
- * &lt Hive Obj, HDFS Path &gt change, and timestamp.
+ * change ID, HMS notification ID, a single &lt Hive Obj, HDFS Path &gt change,
+ * and timestamp.
  * <p>
- * e.g. for add paths change in JSON format.
+ * The change is serialized in JSON format, or with
+ * {@link PathsUpdate#deltaSerialize()} when the delta format of the store is
+ * compact. JSON is readable by all versions, e.g. for add paths change:
  * <pre>
  * {@code
  * {
@@ -63,16 +65,25 @@ public class MSentryPathChange implements MSentryChange {
   //This value is auto incremented by JDO
   private long changeID;
 
-  // Path change in JSON format.
+  // Path change in JSON format or as written by PathsUpdate#deltaSerialize()
   private String pathChange;
   private long createTimeMs;
   private String notificationHash;
 
   public MSentryPathChange(long changeID, String notificationHash, PathsUpdate pathChange) throws TException {
+    this(changeID, notificationHash, pathChange, false);
+  }
+
+  /**
+   * @param compact whether the change is serialized in the compact format, which older
+   *        versions cannot read, instead of JSON
+   */
+  public MSentryPathChange(long changeID, String notificationHash, PathsUpdate pathChange,
+      boolean compact) throws TException {
     // Each PathsUpdate maps to a MSentryPathChange object.
     // The PathsUpdate is generated from a HMS notification log,
     // the notification ID is stored as seqNum and
-    // the notification update is serialized as JSON string.
+    // the notification update is serialized as a compressed string.
     this.changeID = changeID;
 
     /*
@@ -84,7 +95,7 @@ public class MSentryPathChange implements MSentryChange {
      */
     this.notificationHash = notificationHash;
 
-    this.pathChange = pathChange.JSONSerialize();
+    this.pathChange = compact ? pathChange.deltaSerialize() : pathChange.JSONSerialize();
     this.createTimeMs = System.currentTimeMillis();
   }
 
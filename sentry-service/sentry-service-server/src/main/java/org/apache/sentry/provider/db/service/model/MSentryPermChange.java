@@ -27,10 +27,12 @@ import javax.jdo.annotations.PrimaryKey;
 
 /**
  * Database backend store for Sentry permission delta change. Each record
- * contains change ID, JSON format of a single Sentry permission change,
- * and timestamp.
+ * contains change ID, a single Sentry permission change, and timestamp.
  * <p>
- * e.g. for rename privileges change in JSON format.
+ * The change is serialized in JSON format, or with
+ * {@link PermissionsUpdate#deltaSerialize()} when the delta format of the
+ * store is compact. JSON is readable by all versions, e.g. for rename
+ * privileges change:
  * <pre>
  * {@code
  * {
@@ -61,13 +63,22 @@ public class MSentryPermChange implements MSentryChange {
   //This value is auto incremented by JDO
   private long changeID;
 
-  // Permission change in JSON format.
+  // Permission change in JSON format or as written by PermissionsUpdate#deltaSerialize()
   private String permChange;
   private long createTimeMs;
 
   public MSentryPermChange(long changeID, PermissionsUpdate permChange) throws TException {
+    this(changeID, permChange, false);
+  }
+
+  /**
+   * @param compact whether the change is serialized in the compact format, which older
+   *        versions cannot read, instead of JSON
+   */
+  public MSentryPermChange(long changeID, PermissionsUpdate permChange, boolean compact)
+      throws TException {
     this.changeID = changeID;
-    this.permChange = permChange.JSONSerialize();
+    this.permChange = compact ? permChange.deltaSerialize() : permChange.JSONSerialize();
     this.createTimeMs = System.currentTimeMillis();
   }
 
@@ -23,11 +23,15 @@ import org.apache.sentry.core.common.exception.SentryInvalidInputException;
 import org.apache.sentry.hdfs.PathsUpdate;
 import org.apache.sentry.hdfs.PermissionsUpdate;
 import org.apache.sentry.hdfs.UniquePathsUpdate;
+import org.apache.sentry.provider.db.service.model.MSentryChange;
 import org.apache.sentry.provider.db.service.model.MSentryHmsNotification;
 import org.apache.sentry.provider.db.service.model.MSentryPathChange;
 import org.apache.sentry.provider.db.service.model.MSentryPermChange;
 import static org.apache.sentry.hdfs.Updateable.Update;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.jdo.PersistenceManager;
 
 /**
@@ -40,18 +44,29 @@ import javax.jdo.PersistenceManager;
  * {@link SentryInvalidInputException} would be thrown when update is
  * neither type of PathsUpdate nor PermissionsUpdate, also in the case
  * update contains a full image. TException would be thrown if Update
- * cannot be successfully serialized to JSON string.
+ * cannot be successfully serialized.
  */
 public class DeltaTransactionBlock implements TransactionBlock<Object> {
   private final Update update;
 
+  private final boolean compactDeltas;
+
   public DeltaTransactionBlock(Update update) {
+    this(update, false);
+  }
+
+  /**
+   * @param compactDeltas whether the update is persisted in the compact format instead
+   *        of JSON
+   */
+  public DeltaTransactionBlock(Update update, boolean compactDeltas) {
     this.update = update;
+    this.compactDeltas = compactDeltas;
   }
 
   @Override
   public Object execute(PersistenceManager pm) throws Exception {
-    persistUpdate(pm, update);
+    persistUpdate(pm, update, new ChangeIdAllocator(), compactDeltas);
     return null;
   }
 
@@ -63,15 +78,17 @@ public class DeltaTransactionBlock implements TransactionBlock<Object> {
    * {@link SentryInvalidInputException} would be thrown when update is
    * neither type of PathsUpdate nor PermissionsUpdate. Also in the case
    * update contains a full image.
-   * TException would be thrown if Update cannot be successfully serialized
-   * to JSON string.
+   * TException would be thrown if Update cannot be successfully serialized.
    *
    * @param pm PersistenceManager
    * @param update update
+   * @param changeIds allocator of the change IDs of the current transaction
+   * @param compactDeltas whether the update is persisted in the compact format, which
+   *        older versions cannot read, instead of JSON
    * @throws Exception
    */
-  private void persistUpdate(PersistenceManager pm, Update update)
-      throws Exception {
+  static void persistUpdate(PersistenceManager pm, Update update, ChangeIdAllocator changeIds,
+      boolean compactDeltas) throws Exception {
     pm.setDetachAllOnCommit(false); // No need to detach objects
 
     Preconditions.checkNotNull(update);
@@ -86,12 +103,14 @@ public class DeltaTransactionBlock implements TransactionBlock<Object> {
     // changeID is trying to be persisted twice, the transaction would
     // fail.
     if (update instanceof PermissionsUpdate) {
-      long lastChangeID = SentryStore.getLastProcessedChangeIDCore(pm, MSentryPermChange.class);
-      pm.makePersistent(new MSentryPermChange(lastChangeID + 1, (PermissionsUpdate) update));
+      long changeID = changeIds.next(pm, MSentryPermChange.class);
+      pm.makePersistent(new MSentryPermChange(changeID, (PermissionsUpdate) update,
+          compactDeltas));
     } else if (update instanceof UniquePathsUpdate) {
-      long lastChangeID = SentryStore.getLastProcessedChangeIDCore(pm, MSentryPathChange.class);
+      long changeID = changeIds.next(pm, MSentryPathChange.class);
       String eventHash = ((UniquePathsUpdate) update).getEventHash();
-      pm.makePersistent(new MSentryPathChange(lastChangeID + 1, eventHash, (PathsUpdate) update));
+      pm.makePersistent(new MSentryPathChange(changeID, eventHash, (PathsUpdate) update,
+          compactDeltas));
       // Notification id from PATH_UPDATE entry is made persistent in
       // SENTRY_LAST_NOTIFICATION_ID table.
       pm.makePersistent(new MSentryHmsNotification(update.getSeqNum()));
@@ -100,4 +119,23 @@ public class DeltaTransactionBlock implements TransactionBlock<Object> {
         "PermissionsUpdate or PathsUpdate.\n");
     }
   }
+
+  /**
+   * Allocates contiguous change IDs to the deltas persisted in one transaction. The last
+   * change ID of a table is read from the database only for the first delta of the
+   * transaction, so a new allocator must be used for every attempt of a transaction.
+   */
+  static final class ChangeIdAllocator {
+    private final Map<Class<? extends MSentryChange>, Long> lastChangeIds = new HashMap<>();
+
+    long next(PersistenceManager pm, Class<? extends MSentryChange> changeCls) {
+      Long lastChangeID = lastChangeIds.get(changeCls);
+      if (lastChangeID == null) {
+        lastChangeID = SentryStore.getLastProcessedChangeIDCore(pm, changeCls);
+      }
+      long changeID = lastChangeID + 1;
+      lastChangeIds.put(changeCls, changeID);
+      return changeID;
+    }
+  }
 }
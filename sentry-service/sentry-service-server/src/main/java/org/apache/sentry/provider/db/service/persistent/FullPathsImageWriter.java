@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.provider.db.service.model.MAuthzPathsMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * FullPathsImageWriter writes the authorization objects of a full HMS paths snapshot
+ * under a snapshot ID that is not current yet.
+ * <p>
+ * The caller streams the objects to a bounded queue in batches, and a pool of writer
+ * threads persists every batch in its own transaction, so neither the database nor
+ * DataNucleus has to hold the whole snapshot in a single transaction. Readers only see
+ * the snapshot with the highest {@code MAuthzPathsSnapshotId}, so the staged objects stay
+ * invisible until the caller makes the snapshot ID current.
+ * <p>
+ * Object IDs are assigned in order from the first ID given by the caller, before the
+ * batches are queued, so a batch that is retried after a failed transaction persists
+ * the same IDs again.
+ */
+final class FullPathsImageWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FullPathsImageWriter.class);
+
+  private static final String WRITER_THREAD_NAME = "hms-snapshot-writer-%d";
+  // Tells a writer thread that no more batches follow
+  private static final Batch END = new Batch(0, Collections.emptyList());
+  private static final long QUEUE_POLL_MS = 100;
+
+  private final TransactionManager tm;
+  private final int writerThreads;
+  private final int batchSize;
+  private final long printProgressIntervalMs;
+  private final SentryMetrics sentryMetrics = SentryMetrics.getInstance();
+
+  private final AtomicLong objectsPersisted = new AtomicLong();
+  private final AtomicLong pathsPersisted = new AtomicLong();
+
+  /**
+   * @param tm transaction manager used for the transactions
+   * @param writerThreads number of threads persisting batches concurrently
+   * @param batchSize number of authorization objects persisted in one transaction
+   * @param printProgressIntervalMs interval between two progress messages
+   */
+  FullPathsImageWriter(TransactionManager tm, int writerThreads, int batchSize,
+      long printProgressIntervalMs) {
+    this.tm = tm;
+    this.writerThreads = Math.max(1, writerThreads);
+    this.batchSize = Math.max(1, batchSize);
+    this.printProgressIntervalMs = printProgressIntervalMs;
+  }
+
+  /**
+   * Persist the given authorization objects under the given snapshot ID.
+   *
+   * @param authzPaths authorization objects and their paths
+   * @param snapshotID snapshot ID of the objects
+   * @param firstObjectID ID of the first object, the following objects get consecutive IDs
+   * @throws Exception if any batch could not be persisted. Some batches may have been
+   *         persisted already, the caller is responsible for removing them.
+   */
+  void write(Map<String, Collection<String>> authzPaths, long snapshotID,
+      long firstObjectID) throws Exception {
+    objectsPersisted.set(0);
+    pathsPersisted.set(0);
+    int totalObjects = authzPaths.size();
+    long totalPaths = 0;
+    for (Collection<String> paths : authzPaths.values()) {
+      totalPaths += paths.size();
+    }
+
+    BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(2 * writerThreads);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    ExecutorService writers = Executors.newFixedThreadPool(writerThreads,
+        new ThreadFactoryBuilder()
+            .setNameFormat(WRITER_THREAD_NAME)
+            .setDaemon(true)
+            .build());
+    List<Future<Void>> results = new ArrayList<>(writerThreads);
+    sentryMetrics.fullSnapshotPendingObjects.inc(totalObjects);
+    long queuedObjects = 0;
+    try {
+      for (int i = 0; i < writerThreads; i++) {
+        results.add(writers.submit(new Writer(queue, snapshotID, failure)));
+      }
+
+      long lastProgressTime = System.currentTimeMillis();
+      long nextObjectID = firstObjectID;
+      Iterator<Map.Entry<String, Collection<String>>> it = authzPaths.entrySet().iterator();
+      while (it.hasNext() && failure.get() == null) {
+        List<Map.Entry<String, Collection<String>>> objects = new ArrayList<>(batchSize);
+        while (it.hasNext() && objects.size() < batchSize) {
+          objects.add(it.next());
+        }
+        enqueue(queue, new Batch(nextObjectID, objects), failure);
+        nextObjectID += objects.size();
+        queuedObjects += objects.size();
+
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastProgressTime > printProgressIntervalMs) {
+          logProgress(snapshotID, totalObjects, totalPaths);
+          lastProgressTime = currentTime;
+        }
+      }
+      for (int i = 0; i < writerThreads; i++) {
+        enqueue(queue, END, failure);
+      }
+
+      for (Future<Void> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          failure.compareAndSet(null, cause instanceof Exception ? (Exception) cause : e);
+        }
+      }
+    } finally {
+      writers.shutdownNow();
+      sentryMetrics.fullSnapshotPendingObjects.dec(totalObjects - objectsPersisted.get());
+    }
+
+    if (failure.get() != null) {
+      LOGGER.error("Failed to persist HMS snapshot #{} after {} of {} objects",
+          snapshotID, objectsPersisted.get(), queuedObjects);
+      throw failure.get();
+    }
+    logProgress(snapshotID, totalObjects, totalPaths);
+  }
+
+  /**
+   * Queue a batch, unless a writer thread failed in the meantime.
+   */
+  private static void enqueue(BlockingQueue<Batch> queue, Batch batch,
+      AtomicReference<Exception> failure) throws InterruptedException {
+    while (failure.get() == null) {
+      if (queue.offer(batch, QUEUE_POLL_MS, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    }
+  }
+
+  private void logProgress(long snapshotID, int totalObjects, long totalPaths) {
+    long objects = objectsPersisted.get();
+    long paths = pathsPersisted.get();
+    LOGGER.info(String.format("Persisting HMS Paths on Snapshot #%d: "
+            + "authz_objs_persisted=%d(%.2f%%) authz_paths_persisted=%d(%.2f%%) "
+            + "authz_objs_total=%d authz_paths_total=%d", snapshotID,
+        objects, totalObjects > 0 ? 100 * ((double) objects / totalObjects) : 0,
+        paths, totalPaths > 0 ? 100 * ((double) paths / totalPaths) : 0,
+        totalObjects, totalPaths));
+  }
+
+  /**
+   * Authorization objects persisted in one transaction.
+   */
+  private static final class Batch {
+    private final long firstObjectID;
+    private final List<Map.Entry<String, Collection<String>>> objects;
+
+    private Batch(long firstObjectID, List<Map.Entry<String, Collection<String>>> objects) {
+      this.firstObjectID = firstObjectID;
+      this.objects = objects;
+    }
+  }
+
+  /**
+   * Persists queued batches until it takes {@link #END} or a writer fails.
+   */
+  private final class Writer implements Callable<Void> {
+    private final BlockingQueue<Batch> queue;
+    private final long snapshotID;
+    private final AtomicReference<Exception> failure;
+
+    private Writer(BlockingQueue<Batch> queue, long snapshotID,
+        AtomicReference<Exception> failure) {
+      this.queue = queue;
+      this.snapshotID = snapshotID;
+      this.failure = failure;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      while (failure.get() == null) {
+        final Batch batch = queue.poll(QUEUE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (batch == null) {
+          continue;
+        }
+        if (batch == END) {
+          return null;
+        }
+        try {
+          persist(batch);
+        } catch (Exception e) {
+          failure.compareAndSet(null, e);
+          throw e;
+        }
+      }
+      return null;
+    }
+
+    private void persist(final Batch batch) throws Exception {
+      // Mappings are created inside the transaction since persisting one consumes its paths
+      long paths = tm.executeTransactionWithRetry(
+          pm -> {
+            pm.setDetachAllOnCommit(false); // No need to detach objects
+            long objectID = batch.firstObjectID;
+            long pathCount = 0;
+            for (Map.Entry<String, Collection<String>> object : batch.objects) {
+              MAuthzPathsMapping mapping = new MAuthzPathsMapping(snapshotID, objectID++,
+                  object.getKey(), object.getValue());
+              mapping.makePersistent(pm);
+              pathCount += object.getValue().size();
+            }
+            return pathCount;
+          });
+      objectsPersisted.addAndGet(batch.objects.size());
+      pathsPersisted.addAndGet(paths);
+      sentryMetrics.fullSnapshotPendingObjects.dec(batch.objects.size());
+      sentryMetrics.fullSnapshotPersistedObjects.mark(batch.objects.size());
+      sentryMetrics.fullSnapshotPersistedPaths.mark(paths);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.jdo.PersistenceManager;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.provider.db.service.persistent.DeltaTransactionBlock.ChangeIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+
+import static org.apache.sentry.hdfs.Updateable.Update;
+
+/**
+ * GroupCommitWriter commits concurrent SentryStore mutations together.
+ * <p>
+ * Every mutation is a {@link TransactionBlock} with the delta updates that record it.
+ * Callers queue their mutation and then wait for the commit lock. The caller that gets
+ * the lock takes all queued mutations, runs them in order in a single transaction and
+ * acknowledges every caller once that transaction is committed. Mutations which arrive
+ * while a transaction is being committed are therefore committed together by the next
+ * one. The change IDs of the deltas are allocated in memory, so a transaction reads the
+ * last change ID of a table only once, however many deltas it persists.
+ * <p>
+ * When the shared transaction fails, for example because one of the mutations
+ * refers to a role that does not exist, the mutations are committed again one at a time,
+ * so that every caller gets the result of its own mutation only.
+ * <p>
+ * Since only one transaction is committed at a time, mutations of this node are
+ * serialized and do not race for change IDs.
+ */
+final class GroupCommitWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+  private final TransactionManager tm;
+  private final int maxBatchSize;
+  private final boolean compactDeltas;
+  private final Queue<Mutation> queue = new ConcurrentLinkedQueue<>();
+  private final Lock commitLock = new ReentrantLock();
+
+  private final Histogram batchSizes = SentryMetrics.getInstance()
+      .getHistogram(name(GroupCommitWriter.class, "batch", "size"));
+  private final Counter failedBatches = SentryMetrics.getInstance()
+      .getCounter(name(GroupCommitWriter.class, "batch", "failed"));
+
+  /**
+   * @param tm transaction manager used for the transactions
+   * @param maxBatchSize maximum number of mutations committed in one transaction
+   * @param compactDeltas whether delta updates are persisted in the compact format
+   *        instead of JSON
+   */
+  GroupCommitWriter(TransactionManager tm, int maxBatchSize, boolean compactDeltas) {
+    this.tm = tm;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.compactDeltas = compactDeltas;
+  }
+
+  /**
+   * Persists the delta updates and runs the transaction block in the same transaction,
+   * possibly together with other mutations, and waits until that transaction is committed.
+   *
+   * @param updates delta updates to persist before running the transaction block
+   * @param transactionBlock mutation to run
+   * @throws Exception the exception of the mutation if it failed
+   */
+  void execute(List<Update> updates, TransactionBlock<Object> transactionBlock)
+      throws Exception {
+    Mutation mutation = new Mutation(updates, transactionBlock);
+    queue.add(mutation);
+    commitLock.lock();
+    try {
+      // A previous holder of the lock may have committed the mutation already
+      while (!mutation.done) {
+        commitBatch();
+      }
+    } finally {
+      commitLock.unlock();
+    }
+    if (mutation.error != null) {
+      throw mutation.error;
+    }
+  }
+
+  private void commitBatch() {
+    final List<Mutation> batch = new ArrayList<>();
+    Mutation mutation;
+    while (batch.size() < maxBatchSize && (mutation = queue.poll()) != null) {
+      batch.add(mutation);
+    }
+    batchSizes.update(batch.size());
+    if (batch.size() == 1) {
+      commit(batch.get(0));
+      return;
+    }
+
+    try {
+      tm.executeTransactionWithRetry(pm -> {
+        ChangeIdAllocator changeIds = new ChangeIdAllocator();
+        for (Mutation m : batch) {
+          m.execute(pm, changeIds, compactDeltas);
+        }
+        return null;
+      });
+      for (Mutation m : batch) {
+        m.done = true;
+      }
+    } catch (Exception e) {
+      failedBatches.inc();
+      LOGGER.debug("Committing {} mutations together failed, committing them one at a time",
+          batch.size(), e);
+      for (Mutation m : batch) {
+        commit(m);
+      }
+    }
+  }
+
+  private void commit(final Mutation mutation) {
+    try {
+      tm.executeTransactionWithRetry(pm -> {
+        mutation.execute(pm, new ChangeIdAllocator(), compactDeltas);
+        return null;
+      });
+    } catch (Exception e) {
+      mutation.error = e;
+    }
+    mutation.done = true;
+  }
+
+  /**
+   * A mutation and its result. The result is set with the commit lock held, and read by
+   * the caller after it got the lock.
+   */
+  private static final class Mutation {
+    private final List<Update> updates;
+    private final TransactionBlock<Object> transactionBlock;
+    private boolean done;
+    private Exception error;
+
+    private Mutation(List<Update> updates, TransactionBlock<Object> transactionBlock) {
+      this.updates = updates;
+      this.transactionBlock = transactionBlock;
+    }
+
+    private void execute(PersistenceManager pm, ChangeIdAllocator changeIds,
+        boolean compactDeltas) throws Exception {
+      for (Update update : updates) {
+        DeltaTransactionBlock.persistUpdate(pm, update, changeIds, compactDeltas);
+      }
+      transactionBlock.execute(pm);
+    }
+  }
+}
@@ -25,8 +25,12 @@ import org.apache.sentry.hdfs.ServiceConstants.ServerConfig;
 import static org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars.AUTHZ_SERVER_NAME;
 import static org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars.AUTHZ_SERVER_NAME_DEPRECATED;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +42,8 @@ import org.apache.sentry.service.thrift.SentryHMSClient;
 import org.apache.sentry.service.thrift.HiveConnectionFactory;
 import org.apache.sentry.service.thrift.HiveNotificationFetcher;
 import org.apache.sentry.api.common.SentryServiceUtil;
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.provider.db.service.persistent.NotificationBatch.PathChange;
 import org.apache.sentry.service.thrift.SentryStateBank;
 import org.apache.sentry.service.thrift.SentryServiceState;
 import org.apache.sentry.service.thrift.HMSFollowerState;
@@ -72,6 +78,11 @@ public class HMSFollower implements Runnable, AutoCloseable, PubSub.Subscriber {
    * Default value is -1 which means it gets till the max
    */
   private int sentryHMSFetchSize;
+  private final int notificationBatchSize;
+  private final Timer notificationBatchTimer = SentryMetrics.getInstance()
+      .getTimer(MetricRegistry.name(HMSFollower.class, "notification-batch"));
+  private final Histogram notificationBatchSizes = SentryMetrics.getInstance()
+      .getHistogram(MetricRegistry.name(HMSFollower.class, "notification-batch", "size"));
   /**
    * Current generation of HMS snapshots. HMSFollower is single-threaded, so no need
    * to protect against concurrent modification.
@@ -130,6 +141,9 @@ public class HMSFollower implements Runnable, AutoCloseable, PubSub.Subscriber {
       LOGGER.info("Sentry will fetch from HMS with depth of {}", sentryHMSFetchSize);
     }
 
+    notificationBatchSize = Math.max(1, conf.getInt(ServerConfig.SENTRY_HMS_NOTIFICATION_BATCH_SIZE,
+        ServerConfig.SENTRY_HMS_NOTIFICATION_BATCH_SIZE_DEFAULT));
+
     if(!hdfsSyncEnabled) {
       try {
         // Clear all the HMS metadata learned so far and learn it fresh when the feature
@@ -454,55 +468,155 @@ public class HMSFollower implements Runnable, AutoCloseable, PubSub.Subscriber {
   /**
    * Process the collection of notifications and wake up any waiting clients.
    * Also, persists the notification ID regardless of processing result.
+   * <p>
+   * Notifications are processed in windows of up to sentry.hms.notification.batch.size
+   * events. Consecutive notifications that only add or remove paths are persisted together
+   * in a single transaction, see {@link NotificationBatch}, and all other notifications are
+   * processed one at a time, in order.
    *
    * @param events list of event to be processed
    * @throws Exception if the complete notification list is not processed because of JDO Exception
    */
   public void processNotifications(Collection<NotificationEvent> events) throws Exception {
-    boolean isNotificationProcessed;
     if (events.isEmpty()) {
       return;
     }
 
+    List<NotificationEvent> window = new ArrayList<>(Math.min(events.size(), notificationBatchSize));
     for (NotificationEvent event : events) {
-      isNotificationProcessed = false;
-      try {
-        // Only the leader should process the notifications
-        if (!isLeader()) {
-          LOGGER.debug("Not processing notifications since not a leader");
+      window.add(event);
+      if (window.size() >= notificationBatchSize) {
+        if (!processNotificationWindow(window)) {
           return;
         }
-        isNotificationProcessed = notificationProcessor.processNotificationEvent(event);
+        window.clear();
+      }
+    }
+    processNotificationWindow(window);
+  }
+
+  /**
+   * Processes a window of consecutive notifications.
+   *
+   * @return false if the rest of the notifications must not be processed
+   */
+  private boolean processNotificationWindow(List<NotificationEvent> window) throws Exception {
+    if (window.size() == 1) {
+      return processNotification(window.get(0));
+    }
+
+    List<PathChange> pathChanges = notificationProcessor.getPathChanges(window);
+    NotificationBatch batch = new NotificationBatch();
+    for (int i = 0; i < window.size(); i++) {
+      PathChange pathChange = pathChanges.get(i);
+      if (pathChange != null && batch.add(pathChange)) {
+        continue;
+      }
+      // Everything before this notification must be persisted first
+      if (!processNotificationBatch(batch)) {
+        return false;
+      }
+      if (pathChange != null && batch.add(pathChange)) {
+        continue;
+      }
+      if (!processNotification(window.get(i))) {
+        return false;
+      }
+    }
+    return processNotificationBatch(batch);
+  }
+
+  /**
+   * Persists the notifications of a batch in a single transaction and clears the batch.
+   * If that fails, the notifications are processed again one at a time.
+   *
+   * @return false if the rest of the notifications must not be processed
+   */
+  private boolean processNotificationBatch(NotificationBatch batch) throws Exception {
+    try {
+      if (batch.isEmpty()) {
+        return true;
+      }
+      List<PathChange> changes = batch.getChanges();
+      if (changes.size() == 1) {
+        return processNotification(changes.get(0).getEvent());
+      }
+
+      // Only the leader should process the notifications
+      if (!isLeader()) {
+        LOGGER.debug("Not processing notifications since not a leader");
+        return false;
+      }
+      long firstEventId = changes.get(0).getEvent().getEventId();
+      long lastEventId = batch.getLastEventId();
+      try (Timer.Context ignored = notificationBatchTimer.time()) {
+        sentryStore.persistNotificationBatch(batch);
       } catch (Exception e) {
-        if (e.getCause() instanceof JDODataStoreException) {
-          LOGGER.info("Received JDO Storage Exception, Could be because of processing "
-              + "duplicate notification");
-          if (event.getEventId() <= sentryStore.getLastProcessedNotificationID()) {
-            // Rest of the notifications need not be processed.
-            LOGGER.error("Received event with Id: {} which is smaller then the ID "
-                + "persisted in store", event.getEventId());
-            break;
+        LOGGER.warn("Persisting notifications [{}, {}] together failed, processing them "
+            + "one at a time", firstEventId, lastEventId, e);
+        for (PathChange change : changes) {
+          if (!processNotification(change.getEvent())) {
+            return false;
           }
-        } else {
-          LOGGER.error("Processing the notification with ID:{} failed with exception {}",
-              event.getEventId(), e);
         }
+        return true;
+      }
+      notificationBatchSizes.update(changes.size());
+      LOGGER.debug("Persisted {} notifications [{}, {}] together", changes.size(),
+          firstEventId, lastEventId);
+      // Wake up any HMS waiters that are waiting for these IDs.
+      wakeUpWaitingClientsForSync(lastEventId);
+      return true;
+    } finally {
+      batch.clear();
+    }
+  }
+
+  /**
+   * Processes a single notification and wakes up any waiting clients.
+   * Also, persists the notification ID regardless of processing result.
+   *
+   * @return false if the rest of the notifications must not be processed
+   */
+  private boolean processNotification(NotificationEvent event) throws Exception {
+    boolean isNotificationProcessed = false;
+    try {
+      // Only the leader should process the notifications
+      if (!isLeader()) {
+        LOGGER.debug("Not processing notifications since not a leader");
+        return false;
       }
-      if (!isNotificationProcessed) {
-        try {
-          // Update the notification ID in the persistent store even when the notification is
-          // not processed as the content in in the notification is not valid.
-          // Continue processing the next notification.
-          LOGGER.debug("Explicitly Persisting Notification ID = {} ", event.getEventId());
-          sentryStore.persistLastProcessedNotificationID(event.getEventId());
-        } catch (Exception failure) {
-          LOGGER.error("Received exception while persisting the notification ID = {}", event.getEventId());
-          throw failure;
+      isNotificationProcessed = notificationProcessor.processNotificationEvent(event);
+    } catch (Exception e) {
+      if (e.getCause() instanceof JDODataStoreException) {
+        LOGGER.info("Received JDO Storage Exception, Could be because of processing "
+            + "duplicate notification");
+        if (event.getEventId() <= sentryStore.getLastProcessedNotificationID()) {
+          // Rest of the notifications need not be processed.
+          LOGGER.error("Received event with Id: {} which is smaller then the ID "
+              + "persisted in store", event.getEventId());
+          return false;
         }
+      } else {
+        LOGGER.error("Processing the notification with ID:{} failed with exception {}",
+            event.getEventId(), e);
       }
-      // Wake up any HMS waiters that are waiting for this ID.
-      wakeUpWaitingClientsForSync(event.getEventId());
     }
+    if (!isNotificationProcessed) {
+      try {
+        // Update the notification ID in the persistent store even when the notification is
+        // not processed as the content in in the notification is not valid.
+        // Continue processing the next notification.
+        LOGGER.debug("Explicitly Persisting Notification ID = {} ", event.getEventId());
+        sentryStore.persistLastProcessedNotificationID(event.getEventId());
+      } catch (Exception failure) {
+        LOGGER.error("Received exception while persisting the notification ID = {}", event.getEventId());
+        throw failure;
+      }
+    }
+    // Wake up any HMS waiters that are waiting for this ID.
+    wakeUpWaitingClientsForSync(event.getEventId());
+    return true;
   }
 
   /**
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
+import org.apache.sentry.hdfs.UniquePathsUpdate;
+
+/**
+ * NotificationBatch holds the path changes of consecutive HMS notifications that are
+ * persisted together, in a single transaction, by
+ * {@link SentryStoreInterface#persistNotificationBatch(NotificationBatch)}.
+ * <p>
+ * The changes of every authz object are merged, so that the mapping of an object is
+ * read and written once per batch however many notifications change it, e.g. when HMS
+ * adds thousands of partitions to one table. Every notification still gets its own
+ * path delta with the hash of the notification, as if it was persisted on its own.
+ * <p>
+ * Paths cannot be added to an object that is dropped earlier in the same batch, since
+ * the new mapping would replace the dropped one in the same transaction. Such changes
+ * are rejected by {@link #add(PathChange)} and must go to the next batch.
+ */
+final class NotificationBatch {
+
+  enum Operation {
+    ADD_PATHS,
+    DELETE_PATHS,
+    DELETE_ALL_PATHS
+  }
+
+  /**
+   * The path change of a single notification.
+   */
+  static final class PathChange {
+    private final NotificationEvent event;
+    private final String authzObj;
+    private final Operation operation;
+    private final Collection<String> paths;
+    private final UniquePathsUpdate update;
+
+    PathChange(NotificationEvent event, String authzObj, Operation operation,
+        Collection<String> paths, UniquePathsUpdate update) {
+      this.event = event;
+      this.authzObj = authzObj;
+      this.operation = operation;
+      this.paths = paths;
+      this.update = update;
+    }
+
+    NotificationEvent getEvent() {
+      return event;
+    }
+
+    String getAuthzObj() {
+      return authzObj;
+    }
+
+    Operation getOperation() {
+      return operation;
+    }
+
+    Collection<String> getPaths() {
+      return paths;
+    }
+
+    UniquePathsUpdate getUpdate() {
+      return update;
+    }
+  }
+
+  /**
+   * The merged path changes of an authz object.
+   */
+  static final class AuthzObjChanges {
+    private boolean deleteAll;
+    private final Set<String> addedPaths = new HashSet<>();
+    private final Set<String> deletedPaths = new HashSet<>();
+
+    boolean isDeleteAll() {
+      return deleteAll;
+    }
+
+    Set<String> getAddedPaths() {
+      return addedPaths;
+    }
+
+    Set<String> getDeletedPaths() {
+      return deletedPaths;
+    }
+  }
+
+  private final List<PathChange> changes = new ArrayList<>();
+  private final Map<String, AuthzObjChanges> changesByAuthzObj = new LinkedHashMap<>();
+
+  /**
+   * Adds the path change of the next notification to the batch.
+   *
+   * @return false if the change cannot be merged with the changes in the batch
+   */
+  boolean add(PathChange change) {
+    AuthzObjChanges objChanges = changesByAuthzObj.get(change.authzObj);
+    if (objChanges == null) {
+      objChanges = new AuthzObjChanges();
+      changesByAuthzObj.put(change.authzObj, objChanges);
+    } else if (objChanges.deleteAll && change.operation != Operation.DELETE_ALL_PATHS) {
+      return false;
+    }
+
+    switch (change.operation) {
+      case ADD_PATHS:
+        objChanges.addedPaths.addAll(change.paths);
+        objChanges.deletedPaths.removeAll(change.paths);
+        break;
+      case DELETE_PATHS:
+        objChanges.deletedPaths.addAll(change.paths);
+        objChanges.addedPaths.removeAll(change.paths);
+        break;
+      case DELETE_ALL_PATHS:
+        objChanges.deleteAll = true;
+        objChanges.addedPaths.clear();
+        objChanges.deletedPaths.clear();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown operation " + change.operation);
+    }
+    changes.add(change);
+    return true;
+  }
+
+  /**
+   * @return the changes of the notifications, in the order they were added
+   */
+  List<PathChange> getChanges() {
+    return Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * @return the merged changes, by authz object
+   */
+  Map<String, AuthzObjChanges> getChangesByAuthzObj() {
+    return Collections.unmodifiableMap(changesByAuthzObj);
+  }
+
+  long getLastEventId() {
+    return changes.get(changes.size() - 1).event.getEventId();
+  }
+
+  int size() {
+    return changes.size();
+  }
+
+  boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  void clear() {
+    changes.clear();
+    changesByAuthzObj.clear();
+  }
+}
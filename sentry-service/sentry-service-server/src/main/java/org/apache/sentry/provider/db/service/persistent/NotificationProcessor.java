@@ -52,6 +52,8 @@ import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
 import org.apache.sentry.api.common.SentryServiceUtil;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
+import org.apache.sentry.provider.db.service.persistent.NotificationBatch.Operation;
+import org.apache.sentry.provider.db.service.persistent.NotificationBatch.PathChange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +61,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars.AUTHZ_SYNC_CREATE_WITH_POLICY_STORE;
 import static org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars.AUTHZ_SYNC_DROP_WITH_POLICY_STORE;
@@ -234,6 +237,117 @@ final class NotificationProcessor {
     }
   }
 
+  /**
+   * Deserializes a window of events in parallel, and builds the path changes of the
+   * events that can be persisted together in a {@link NotificationBatch}. Those are the
+   * events which only add or remove the paths of an authz object, and have no other
+   * effect on the Sentry store.
+   *
+   * @param events events to be processed, in order
+   * @return the path change of every event, in the order of the events. It is null for the
+   *         events that must be processed by {@link #processNotificationEvent}.
+   */
+  List<PathChange> getPathChanges(List<NotificationEvent> events) {
+    if (!hdfsSyncEnabled) {
+      return Collections.nCopies(events.size(), null);
+    }
+    return events.parallelStream()
+        .map(this::getPathChange)
+        .collect(Collectors.toList());
+  }
+
+  private PathChange getPathChange(NotificationEvent event) {
+    try {
+      switch (EventType.valueOf(event.getEventType())) {
+        case CREATE_DATABASE: {
+          if (syncStoreOnCreate) {
+            return null;
+          }
+          SentryJSONCreateDatabaseMessage message =
+              deserializer.getCreateDatabaseMessage(event.getMessage());
+          if ((message.getDB() == null) || (message.getLocation() == null)) {
+            return null;
+          }
+          return nonEmpty(newAddPathsChange(message.getDB(),
+              Collections.singletonList(message.getLocation()), event));
+        }
+        case DROP_DATABASE: {
+          if (syncStoreOnDrop) {
+            return null;
+          }
+          SentryJSONDropDatabaseMessage message =
+              deserializer.getDropDatabaseMessage(event.getMessage());
+          if (message.getDB() == null) {
+            return null;
+          }
+          return newRemoveAllPathsChange(message.getDB(), event);
+        }
+        case CREATE_TABLE: {
+          if (syncStoreOnCreate) {
+            return null;
+          }
+          SentryJSONCreateTableMessage message =
+              deserializer.getCreateTableMessage(event.getMessage());
+          if ((message.getDB() == null) || (message.getTable() == null) ||
+              (message.getLocation() == null)) {
+            return null;
+          }
+          return nonEmpty(newAddPathsChange(
+              SentryServiceUtil.getAuthzObj(message.getDB(), message.getTable()),
+              Collections.singletonList(message.getLocation()), event));
+        }
+        case DROP_TABLE: {
+          if (syncStoreOnDrop) {
+            return null;
+          }
+          SentryJSONDropTableMessage message =
+              deserializer.getDropTableMessage(event.getMessage());
+          if ((message.getDB() == null) || (message.getTable() == null)) {
+            return null;
+          }
+          return newRemoveAllPathsChange(
+              SentryServiceUtil.getAuthzObj(message.getDB(), message.getTable()), event);
+        }
+        case ADD_PARTITION: {
+          SentryJSONAddPartitionMessage message =
+              deserializer.getAddPartitionMessage(event.getMessage());
+          if ((message.getDB() == null) || (message.getTable() == null) ||
+              (message.getLocations() == null)) {
+            return null;
+          }
+          return nonEmpty(newAddPathsChange(
+              SentryServiceUtil.getAuthzObj(message.getDB(), message.getTable()),
+              message.getLocations(), event));
+        }
+        case DROP_PARTITION: {
+          SentryJSONDropPartitionMessage message =
+              deserializer.getDropPartitionMessage(event.getMessage());
+          if ((message.getDB() == null) || (message.getTable() == null) ||
+              (message.getLocations() == null)) {
+            return null;
+          }
+          return nonEmpty(newRemovePathsChange(
+              SentryServiceUtil.getAuthzObj(message.getDB(), message.getTable()),
+              message.getLocations(), event));
+        }
+        default:
+          return null;
+      }
+    } catch (Exception e) {
+      // The event is processed on its own, which reports the error
+      LOGGER.debug("Notification with ID:{} cannot be batched", event.getEventId(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Changes without paths are not persisted, and are left to
+   * {@link #processNotificationEvent} which logs them.
+   */
+  private static PathChange nonEmpty(PathChange change) {
+    return change.getPaths().isEmpty() ? null : change;
+  }
+
   /**
    * Processes "create database" notification event, and applies its corresponding
    * snapshot change as well as delta path update into Sentry DB.
@@ -553,6 +667,25 @@ final class NotificationProcessor {
    */
   private void addPaths(String authzObj, Collection<String> locations, NotificationEvent event)
       throws Exception {
+    PathChange change = newAddPathsChange(authzObj, locations, event);
+    if(!change.getPaths().isEmpty()) {
+      sentryStore.addAuthzPathsMapping(change.getAuthzObj(), change.getPaths(),
+          change.getUpdate());
+    } else {
+      LOGGER.info("Received empty paths for {}, not updating sentry store", change.getAuthzObj());
+    }
+  }
+
+  /**
+   * Builds the change that adds a set of paths to a given authzObj, and the
+   * corresponding delta path change.
+   *
+   * @param authzObj the given authzObj
+   * @param locations a set of paths need to be added
+   * @param event the NotificationEvent object from where authzObj and locations were obtained
+   */
+  private PathChange newAddPathsChange(String authzObj, Collection<String> locations,
+      NotificationEvent event) {
     // AuthzObj is case insensitive
     authzObj = authzObj.toLowerCase();
 
@@ -578,11 +711,7 @@ final class NotificationProcessor {
         paths.add(pathTree);
       }
     }
-    if(!paths.isEmpty()) {
-      sentryStore.addAuthzPathsMapping(authzObj, paths, update);
-    } else {
-      LOGGER.info("Received empty paths for {}, not updating sentry store", authzObj);
-    }
+    return new PathChange(event, authzObj, Operation.ADD_PATHS, paths, update);
   }
 
   /**
@@ -595,6 +724,25 @@ final class NotificationProcessor {
    */
   private void removePaths(String authzObj, Collection<String> locations, NotificationEvent event)
       throws Exception {
+    PathChange change = newRemovePathsChange(authzObj, locations, event);
+    if(!change.getPaths().isEmpty()) {
+      sentryStore.deleteAuthzPathsMapping(change.getAuthzObj(), change.getPaths(),
+          change.getUpdate());
+    } else {
+      LOGGER.info("Received empty paths for {}, not updating sentry store", change.getAuthzObj());
+    }
+  }
+
+  /**
+   * Builds the change that removes a set of paths from a given authzObj, and the
+   * corresponding delta path change.
+   *
+   * @param authzObj the given authzObj
+   * @param locations a set of paths need to be removed
+   * @param event the NotificationEvent object from where authzObj and locations were obtained
+   */
+  private PathChange newRemovePathsChange(String authzObj, Collection<String> locations,
+      NotificationEvent event) {
     // AuthzObj is case insensitive
     authzObj = authzObj.toLowerCase();
 
@@ -618,11 +766,7 @@ final class NotificationProcessor {
         paths.add(pathTree);
       }
     }
-    if(!paths.isEmpty()) {
-      sentryStore.deleteAuthzPathsMapping(authzObj, paths, update);
-    } else {
-      LOGGER.info("Received empty paths for {}, not updating sentry store", authzObj);
-    }
+    return new PathChange(event, authzObj, Operation.DELETE_PATHS, paths, update);
   }
 
   /**
@@ -635,6 +779,18 @@ final class NotificationProcessor {
    */
   private void removeAllPaths(String authzObj, NotificationEvent event)
       throws Exception {
+    PathChange change = newRemoveAllPathsChange(authzObj, event);
+    sentryStore.deleteAllAuthzPathsMapping(change.getAuthzObj(), change.getUpdate());
+  }
+
+  /**
+   * Builds the change that removes a given authzObj and all paths belongs to it, and the
+   * corresponding delta path change.
+   *
+   * @param authzObj the given authzObj to be deleted
+   * @param event the NotificationEvent object from where authzObj and locations were obtained
+   */
+  private PathChange newRemoveAllPathsChange(String authzObj, NotificationEvent event) {
     // AuthzObj is case insensitive
     authzObj = authzObj.toLowerCase();
 
@@ -645,7 +801,8 @@ final class NotificationProcessor {
     UniquePathsUpdate update = new UniquePathsUpdate(event, false);
     update.newPathChange(authzObj).addToDelPaths(
         Lists.newArrayList(PathsUpdate.ALL_PATHS));
-    sentryStore.deleteAllAuthzPathsMapping(authzObj, update);
+    return new PathChange(event, authzObj, Operation.DELETE_ALL_PATHS,
+        Collections.<String>emptyList(), update);
   }
 
   /**
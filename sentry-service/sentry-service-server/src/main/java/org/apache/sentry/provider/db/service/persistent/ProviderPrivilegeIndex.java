@@ -0,0 +1,689 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.api.service.thrift.TSentryActiveRoleSet;
+import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
+import org.apache.sentry.core.model.db.AccessConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Sets;
+
+/**
+ * ProviderPrivilegeIndex keeps all roles, their groups and users, and the privileges of
+ * roles and users in memory, so that privileges for providers are looked up without
+ * querying the db.
+ * <p>
+ * The privileges of every principal are kept by server, database and table, so a lookup
+ * only checks the privileges on the requested objects and on their parents. The result
+ * of a lookup is the same as the one of the db queries of {@link SentryStore}.
+ * <p>
+ * Every change of roles, groups, users or privileges is recorded as a permission change,
+ * and every snapshot knows the ID of the last permission change it includes. Before a
+ * snapshot is used, it is validated against the ID of the last permission change in the
+ * db, so changes made through any server sharing the db are seen. A snapshot behind the
+ * db is updated with the roles and users changed since, and is rebuilt in the background
+ * from a single db transaction when the changes do not name them or are no longer kept.
+ * Until it is, {@link #getSnapshot()} returns null and callers read the db.
+ */
+@ThreadSafe
+final class ProviderPrivilegeIndex {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProviderPrivilegeIndex.class);
+
+  /**
+   * Reads snapshots and permission change IDs from the db.
+   */
+  interface Loader {
+    /**
+     * @return a snapshot of all roles, groups, users and privileges, loaded in one
+     * transaction
+     */
+    Snapshot load() throws Exception;
+
+    /**
+     * @return the ID of the last permission change
+     */
+    long getLastChangeId() throws Exception;
+
+    /**
+     * @return the snapshot with the roles and users changed after its change ID reloaded,
+     * or null if the changes are unknown and the snapshot has to be rebuilt
+     */
+    Snapshot update(Snapshot snapshot) throws Exception;
+  }
+
+  private final Loader loader;
+  private final Executor rebuildExecutor;
+
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private final AtomicReference<LoadedSnapshot> current = new AtomicReference<>();
+  // Held while a snapshot is updated, so concurrent lookups wait for a single update
+  private final Object updateLock = new Object();
+
+  private final Counter hits = SentryMetrics.getInstance()
+      .getCounter(name(ProviderPrivilegeIndex.class, "hits"));
+  private final Counter misses = SentryMetrics.getInstance()
+      .getCounter(name(ProviderPrivilegeIndex.class, "misses"));
+  private final Timer rebuildTimer = SentryMetrics.getInstance()
+      .getTimer(name(ProviderPrivilegeIndex.class, "rebuild"));
+  private final Timer updateTimer = SentryMetrics.getInstance()
+      .getTimer(name(ProviderPrivilegeIndex.class, "update"));
+
+  /**
+   * @param loader reads snapshots and permission change IDs
+   * @param rebuildExecutor executor running the rebuilds
+   */
+  ProviderPrivilegeIndex(Loader loader, Executor rebuildExecutor) {
+    this.loader = loader;
+    this.rebuildExecutor = rebuildExecutor;
+  }
+
+  /**
+   * Invalidate the current snapshot, so that it is rebuilt. Only needed when permission
+   * changes are removed together with the policy, since other changes are found by their
+   * change IDs.
+   */
+  void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  /**
+   * @return a snapshot including the last permission change, or null if it is being
+   * rebuilt, in which case the caller should read the db
+   */
+  Snapshot getSnapshot() {
+    Snapshot snapshot = getValidSnapshot();
+    if (snapshot == null) {
+      scheduleRebuild();
+      // The rebuild may have run on the calling thread
+      snapshot = getValidSnapshot();
+    }
+    if (snapshot == null) {
+      misses.inc();
+    } else {
+      hits.inc();
+    }
+    return snapshot;
+  }
+
+  private Snapshot getValidSnapshot() {
+    LoadedSnapshot loaded = current.get();
+    if (loaded == null || loaded.generation != generation.get()) {
+      return null;
+    }
+    long lastChangeId;
+    try {
+      lastChangeId = loader.getLastChangeId();
+    } catch (Exception e) {
+      LOGGER.warn("Unable to read the last permission change ID", e);
+      return null;
+    }
+    if (loaded.snapshot.changeId == lastChangeId) {
+      return loaded.snapshot;
+    }
+    if (loaded.snapshot.changeId > lastChangeId) {
+      // The permission changes were removed
+      current.compareAndSet(loaded, null);
+      return null;
+    }
+
+    synchronized (updateLock) {
+      // Another lookup may have updated the snapshot meanwhile
+      loaded = current.get();
+      if (loaded == null || loaded.generation != generation.get()) {
+        return null;
+      }
+      if (loaded.snapshot.changeId >= lastChangeId) {
+        return loaded.snapshot;
+      }
+      Snapshot updated = null;
+      try (Timer.Context context = updateTimer.time()) {
+        updated = loader.update(loaded.snapshot);
+      } catch (Exception e) {
+        LOGGER.warn("Unable to update the provider privilege index", e);
+      }
+      if (updated == null) {
+        current.compareAndSet(loaded, null);
+        return null;
+      }
+      current.compareAndSet(loaded, new LoadedSnapshot(updated, loaded.generation));
+      LOGGER.debug("Updated the provider privilege index to change ID {}", updated.changeId);
+      return updated;
+    }
+  }
+
+  private void scheduleRebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      rebuildExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            rebuild();
+          } finally {
+            rebuilding.set(false);
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      rebuilding.set(false);
+      LOGGER.warn("Unable to schedule the rebuild of the provider privilege index", e);
+    }
+  }
+
+  private void rebuild() {
+    // The generation is read before the snapshot, so an invalidation while the snapshot
+    // is loaded always makes it invalid
+    long loadGeneration = generation.get();
+    try (Timer.Context context = rebuildTimer.time()) {
+      Snapshot snapshot = loader.load();
+      current.set(new LoadedSnapshot(snapshot, loadGeneration));
+      LOGGER.debug("Rebuilt the provider privilege index at change ID {}", snapshot.changeId);
+    } catch (Exception e) {
+      LOGGER.warn("Unable to rebuild the provider privilege index", e);
+    }
+  }
+
+  private static final class LoadedSnapshot {
+    private final Snapshot snapshot;
+    private final long generation;
+
+    private LoadedSnapshot(Snapshot snapshot, long generation) {
+      this.snapshot = snapshot;
+      this.generation = generation;
+    }
+  }
+
+  /**
+   * A privilege of a role or user. The fields which are not set are null.
+   */
+  static final class Privilege {
+    private final String server;
+    private final String db;
+    private final String table;
+    private final String column;
+    private final String uri;
+    private final String authorizable;
+
+    /**
+     * @param authorizable the privilege as returned to providers
+     */
+    Privilege(String server, String db, String table, String column, String uri,
+        String authorizable) {
+      this.server = server;
+      this.db = db;
+      this.table = table;
+      this.column = column;
+      this.uri = uri;
+      this.authorizable = authorizable;
+    }
+
+    /**
+     * Same conditions as the filter of the privileges for providers in
+     * {@link SentryStore}, with the names of the requested objects already lower case.
+     */
+    private boolean matches(String reqServer, String reqDb, String reqTable, String reqColumn,
+        String reqUri) {
+      if (!reqServer.equals(server)) {
+        return false;
+      }
+      if (reqDb != null) {
+        if (uri != null || (db != null && !db.equals(reqDb))) {
+          return false;
+        }
+        if (reqTable != null && !AccessConstants.ALL.equals(reqTable)) {
+          if (!AccessConstants.SOME.equals(reqTable)
+              && table != null && !table.equals(reqTable)) {
+            return false;
+          }
+          if (reqColumn != null && !AccessConstants.ALL.equals(reqColumn)
+              && !AccessConstants.SOME.equals(reqColumn)
+              && column != null && !column.equals(reqColumn)) {
+            return false;
+          }
+        }
+      }
+      if (reqUri != null) {
+        if (db != null || (uri != null && !reqUri.startsWith(uri))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Privileges of a single role or user on the objects of one server.
+   */
+  private static final class ServerPrivileges {
+    // Privileges on the server itself
+    private final List<Privilege> server = new ArrayList<>();
+    // Database -> privileges on the database and its tables and columns
+    private final Map<String, DbPrivileges> dbs = new HashMap<>();
+    private final List<Privilege> uris = new ArrayList<>();
+
+    private void add(Privilege privilege) {
+      if (privilege.uri != null) {
+        uris.add(privilege);
+      } else if (privilege.db == null) {
+        server.add(privilege);
+      } else {
+        DbPrivileges dbPrivileges = dbs.get(privilege.db);
+        if (dbPrivileges == null) {
+          dbPrivileges = new DbPrivileges();
+          dbs.put(privilege.db, dbPrivileges);
+        }
+        dbPrivileges.add(privilege);
+      }
+    }
+
+    private void addAll(Collection<String> result) {
+      addAuthorizables(server, result);
+      for (DbPrivileges dbPrivileges : dbs.values()) {
+        dbPrivileges.addAll(result);
+      }
+      addAuthorizables(uris, result);
+    }
+  }
+
+  private static final class DbPrivileges {
+    private final List<Privilege> db = new ArrayList<>();
+    // Table -> privileges on the table and its columns
+    private final Map<String, List<Privilege>> tables = new HashMap<>();
+
+    private void add(Privilege privilege) {
+      if (privilege.table == null) {
+        db.add(privilege);
+      } else {
+        List<Privilege> tablePrivileges = tables.get(privilege.table);
+        if (tablePrivileges == null) {
+          tablePrivileges = new ArrayList<>();
+          tables.put(privilege.table, tablePrivileges);
+        }
+        tablePrivileges.add(privilege);
+      }
+    }
+
+    private void addAll(Collection<String> result) {
+      addAuthorizables(db, result);
+      for (List<Privilege> tablePrivileges : tables.values()) {
+        addAuthorizables(tablePrivileges, result);
+      }
+    }
+  }
+
+  private static void addAuthorizables(List<Privilege> privileges, Collection<String> result) {
+    for (Privilege privilege : privileges) {
+      result.add(privilege.authorizable);
+    }
+  }
+
+  /**
+   * All roles, groups, users and privileges at one point in time. Snapshots are not
+   * modified once they are built.
+   */
+  static final class Snapshot {
+    // ID of the last permission change included
+    private final long changeId;
+    // Group -> names of its roles
+    private final Map<String, Set<String>> groupRoles;
+    // User -> names of its roles
+    private final Map<String, Set<String>> userRoles;
+    // Role -> names of its groups
+    private final Map<String, Set<String>> roleGroups;
+    // Role -> names of its users
+    private final Map<String, Set<String>> roleUsers;
+    // Role -> server -> privileges of the role
+    private final Map<String, Map<String, ServerPrivileges>> rolePrivileges;
+    // User -> server -> privileges of the user
+    private final Map<String, Map<String, ServerPrivileges>> userPrivileges;
+
+    private Snapshot(long changeId, Map<String, Set<String>> groupRoles,
+        Map<String, Set<String>> userRoles, Map<String, Set<String>> roleGroups,
+        Map<String, Set<String>> roleUsers,
+        Map<String, Map<String, ServerPrivileges>> rolePrivileges,
+        Map<String, Map<String, ServerPrivileges>> userPrivileges) {
+      this.changeId = changeId;
+      this.groupRoles = groupRoles;
+      this.userRoles = userRoles;
+      this.roleGroups = roleGroups;
+      this.roleUsers = roleUsers;
+      this.rolePrivileges = rolePrivileges;
+      this.userPrivileges = userPrivileges;
+    }
+
+    long getChangeId() {
+      return changeId;
+    }
+
+    /**
+     * @return names of the roles of the user
+     */
+    Set<String> getUserRoles(String userName) {
+      Set<String> roles = userRoles.get(userName);
+      return roles != null ? roles : Collections.<String>emptySet();
+    }
+
+    /**
+     * Build a new snapshot from this one, with the given roles and users replaced by the
+     * ones of the builder. Roles and users missing in the builder are removed. Only the
+     * entries of the replaced roles, users and their groups are copied, the rest is
+     * shared with this snapshot.
+     *
+     * @param changes the current groups, users and privileges of the roles, and the
+     *        current privileges of the users
+     * @param roleNames names of the roles to replace
+     * @param userNames names of the users whose privileges are replaced
+     */
+    Snapshot update(Builder changes, Set<String> roleNames, Set<String> userNames) {
+      Map<String, Set<String>> newGroupRoles = new HashMap<>(groupRoles);
+      Map<String, Set<String>> newUserRoles = new HashMap<>(userRoles);
+      Map<String, Set<String>> newRoleGroups = new HashMap<>(roleGroups);
+      Map<String, Set<String>> newRoleUsers = new HashMap<>(roleUsers);
+      Map<String, Map<String, ServerPrivileges>> newRolePrivileges =
+          new HashMap<>(rolePrivileges);
+      Map<String, Map<String, ServerPrivileges>> newUserPrivileges =
+          new HashMap<>(userPrivileges);
+      for (String roleName : roleNames) {
+        replaceMembers(newGroupRoles, roleName, roleGroups.get(roleName),
+            changes.roleGroups.get(roleName));
+        replaceMembers(newUserRoles, roleName, roleUsers.get(roleName),
+            changes.roleUsers.get(roleName));
+        replace(newRoleGroups, roleName, changes.roleGroups.get(roleName));
+        replace(newRoleUsers, roleName, changes.roleUsers.get(roleName));
+        replace(newRolePrivileges, roleName, changes.rolePrivileges.get(roleName));
+      }
+      for (String userName : userNames) {
+        replace(newUserPrivileges, userName, changes.userPrivileges.get(userName));
+      }
+      return new Snapshot(changes.changeId, newGroupRoles, newUserRoles, newRoleGroups,
+          newRoleUsers, newRolePrivileges, newUserPrivileges);
+    }
+
+    /**
+     * Move the role from its old groups or users to its new ones. The sets of roles are
+     * copied before they are changed, since they may be shared with other snapshots.
+     */
+    private static void replaceMembers(Map<String, Set<String>> memberRoles, String roleName,
+        Set<String> oldMembers, Set<String> newMembers) {
+      if (oldMembers != null) {
+        for (String member : oldMembers) {
+          if (newMembers == null || !newMembers.contains(member)) {
+            Set<String> roles = new HashSet<>(memberRoles.get(member));
+            roles.remove(roleName);
+            if (roles.isEmpty()) {
+              memberRoles.remove(member);
+            } else {
+              memberRoles.put(member, roles);
+            }
+          }
+        }
+      }
+      if (newMembers != null) {
+        for (String member : newMembers) {
+          if (oldMembers == null || !oldMembers.contains(member)) {
+            Set<String> roles = memberRoles.get(member);
+            roles = roles != null ? new HashSet<>(roles) : new HashSet<String>();
+            roles.add(roleName);
+            memberRoles.put(member, roles);
+          }
+        }
+      }
+    }
+
+    private static <V> void replace(Map<String, V> map, String key, V value) {
+      if (value == null) {
+        map.remove(key);
+      } else {
+        map.put(key, value);
+      }
+    }
+
+    /**
+     * @return names of the roles of the groups and users which are in the active role set
+     */
+    Set<String> getRoles(Set<String> groups, Set<String> users, TSentryActiveRoleSet roleSet) {
+      Set<String> roleNames = new HashSet<>();
+      addRoles(groupRoles, groups, roleNames);
+      addRoles(userRoles, users, roleNames);
+      return roleSet.isAll() ? roleNames
+          : Sets.intersection(SentryStore.toTrimedLower(roleSet.getRoles()), roleNames);
+    }
+
+    private static void addRoles(Map<String, Set<String>> principalRoles,
+        Set<String> principals, Set<String> roleNames) {
+      if (principals == null) {
+        return;
+      }
+      for (String principal : principals) {
+        Set<String> roles = principalRoles.get(principal);
+        if (roles != null) {
+          roleNames.addAll(roles);
+        }
+      }
+    }
+
+    /**
+     * @return the privileges of the roles and users on the authorizable hierarchy, its
+     * parents and its children, as returned to providers
+     */
+    Set<String> listPrivilegesForProvider(Set<String> roleNames, Set<String> users,
+        TSentryAuthorizable authHierarchy) {
+      Set<String> result = new HashSet<>();
+      addPrivileges(rolePrivileges, roleNames, authHierarchy, result);
+      addPrivileges(userPrivileges, users, authHierarchy, result);
+      return result;
+    }
+
+    /**
+     * @return whether the roles or users have any privilege on the objects of the server
+     */
+    boolean hasAnyServerPrivileges(Set<String> roleNames, Set<String> users, String server) {
+      if (server == null) {
+        return false;
+      }
+      String reqServer = SentryStore.safeTrimLower(server);
+      return hasAnyServerPrivileges(rolePrivileges, roleNames, reqServer)
+          || hasAnyServerPrivileges(userPrivileges, users, reqServer);
+    }
+
+    private static boolean hasAnyServerPrivileges(
+        Map<String, Map<String, ServerPrivileges>> principalPrivileges,
+        Set<String> principals, String server) {
+      if (principals == null) {
+        return false;
+      }
+      for (String principal : principals) {
+        Map<String, ServerPrivileges> servers = principalPrivileges.get(principal);
+        if (servers != null && servers.containsKey(server)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static void addPrivileges(
+        Map<String, Map<String, ServerPrivileges>> principalPrivileges,
+        Set<String> principals, TSentryAuthorizable authHierarchy, Set<String> result) {
+      if (principals == null) {
+        return;
+      }
+      for (String principal : principals) {
+        Map<String, ServerPrivileges> servers = principalPrivileges.get(principal);
+        if (servers == null) {
+          continue;
+        }
+        if (authHierarchy == null || authHierarchy.getServer() == null) {
+          for (ServerPrivileges serverPrivileges : servers.values()) {
+            serverPrivileges.addAll(result);
+          }
+          continue;
+        }
+        ServerPrivileges serverPrivileges =
+            servers.get(SentryStore.safeTrimLower(authHierarchy.getServer()));
+        if (serverPrivileges != null) {
+          addPrivileges(serverPrivileges, authHierarchy, result);
+        }
+      }
+    }
+
+    private static void addPrivileges(ServerPrivileges serverPrivileges,
+        TSentryAuthorizable authHierarchy, Set<String> result) {
+      // Names of objects are stored in lower case, so they are compared in lower case,
+      // like case insensitive db collations do. URIs are case sensitive.
+      String server = SentryStore.safeTrimLower(authHierarchy.getServer());
+      String db = SentryStore.safeTrimLower(authHierarchy.getDb());
+      String table = SentryStore.safeTrimLower(authHierarchy.getTable());
+      String column = SentryStore.safeTrimLower(authHierarchy.getColumn());
+      String uri = authHierarchy.getUri();
+
+      // Candidates are the privileges on the requested objects and on their parents,
+      // and are then checked with the same conditions as the db query
+      List<List<Privilege>> candidates = new ArrayList<>();
+      candidates.add(serverPrivileges.server);
+      if (db != null) {
+        DbPrivileges dbPrivileges = serverPrivileges.dbs.get(db);
+        if (dbPrivileges != null) {
+          candidates.add(dbPrivileges.db);
+          if (table == null || AccessConstants.ALL.equals(table)
+              || AccessConstants.SOME.equals(table)) {
+            candidates.addAll(dbPrivileges.tables.values());
+          } else if (dbPrivileges.tables.containsKey(table)) {
+            candidates.add(dbPrivileges.tables.get(table));
+          }
+        }
+      } else if (uri == null) {
+        for (DbPrivileges dbPrivileges : serverPrivileges.dbs.values()) {
+          candidates.add(dbPrivileges.db);
+          candidates.addAll(dbPrivileges.tables.values());
+        }
+        candidates.add(serverPrivileges.uris);
+      }
+      if (uri != null) {
+        candidates.add(serverPrivileges.uris);
+      }
+
+      for (List<Privilege> privileges : candidates) {
+        for (Privilege privilege : privileges) {
+          if (privilege.matches(server, db, table, column, uri)) {
+            result.add(privilege.authorizable);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a {@link Snapshot}. Role names are expected to be trimmed and lower case, like
+   * they are stored.
+   */
+  static final class Builder {
+    private long changeId;
+    private final Map<String, Set<String>> groupRoles = new HashMap<>();
+    private final Map<String, Set<String>> userRoles = new HashMap<>();
+    private final Map<String, Set<String>> roleGroups = new HashMap<>();
+    private final Map<String, Set<String>> roleUsers = new HashMap<>();
+    private final Map<String, Map<String, ServerPrivileges>> rolePrivileges = new HashMap<>();
+    private final Map<String, Map<String, ServerPrivileges>> userPrivileges = new HashMap<>();
+
+    /**
+     * @param changeId ID of the last permission change included
+     */
+    Builder setChangeId(long changeId) {
+      this.changeId = changeId;
+      return this;
+    }
+
+    Builder addRoleGroup(String roleName, String groupName) {
+      add(groupRoles, groupName, roleName);
+      add(roleGroups, roleName, groupName);
+      return this;
+    }
+
+    Builder addRoleUser(String roleName, String userName) {
+      add(userRoles, userName, roleName);
+      add(roleUsers, roleName, userName);
+      return this;
+    }
+
+    Builder addRolePrivilege(String roleName, Privilege privilege) {
+      add(rolePrivileges, roleName, privilege);
+      return this;
+    }
+
+    Builder addUserPrivilege(String userName, Privilege privilege) {
+      add(userPrivileges, userName, privilege);
+      return this;
+    }
+
+    Snapshot build() {
+      return new Snapshot(changeId, groupRoles, userRoles, roleGroups, roleUsers,
+          rolePrivileges, userPrivileges);
+    }
+
+    private static void add(Map<String, Set<String>> principalNames, String principal,
+        String name) {
+      Set<String> names = principalNames.get(principal);
+      if (names == null) {
+        names = new HashSet<>();
+        principalNames.put(principal, names);
+      }
+      names.add(name);
+    }
+
+    private static void add(Map<String, Map<String, ServerPrivileges>> principalPrivileges,
+        String principal, Privilege privilege) {
+      Map<String, ServerPrivileges> servers = principalPrivileges.get(principal);
+      if (servers == null) {
+        servers = new HashMap<>();
+        principalPrivileges.put(principal, servers);
+      }
+      ServerPrivileges serverPrivileges = servers.get(privilege.server);
+      if (serverPrivileges == null) {
+        serverPrivileges = new ServerPrivileges();
+        servers.put(privilege.server, serverPrivileges);
+      }
+      serverPrivileges.add(privilege);
+    }
+  }
+}
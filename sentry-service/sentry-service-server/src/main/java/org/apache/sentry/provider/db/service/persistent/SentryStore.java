@@ -35,6 +35,8 @@ import static org.apache.sentry.core.common.utils.SentryConstants.SERVER_NAME;
 import static org.apache.sentry.core.common.utils.SentryConstants.TABLE_NAME;
 import static org.apache.sentry.core.common.utils.SentryConstants.URI;
 import static org.apache.sentry.core.common.utils.SentryUtils.isNULL;
+import static org.apache.sentry.hdfs.ServiceConstants.ServerConfig.SENTRY_HDFS_COMPACT_PATHS;
+import static org.apache.sentry.hdfs.ServiceConstants.ServerConfig.SENTRY_HDFS_COMPACT_PATHS_DEFAULT;
 import static org.apache.sentry.hdfs.Updateable.Update;
 import static org.apache.sentry.service.common.ServiceConstants.ServerConfig.SENTRY_STATEMENT_BATCH_LIMIT;
 
@@ -48,6 +50,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.jdo.FetchGroup;
@@ -61,12 +65,14 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.sentry.SentryOwnerInfo;
 import org.apache.sentry.api.common.ApiConstants.PrivilegeScope;
+import org.apache.sentry.api.service.thrift.SentryMetrics;
 import org.apache.sentry.api.service.thrift.TSentryActiveRoleSet;
 import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
 import org.apache.sentry.api.service.thrift.TSentryGrantOption;
 import org.apache.sentry.api.service.thrift.TSentryGroup;
 import org.apache.sentry.api.service.thrift.TSentryMappingData;
 import org.apache.sentry.api.service.thrift.TSentryPrivilege;
+import org.apache.sentry.api.service.thrift.TSentryPrivilegeChangesResponse;
 import org.apache.sentry.api.service.thrift.TSentryPrivilegeMap;
 import org.apache.sentry.api.service.thrift.TSentryRole;
 import org.apache.sentry.core.common.exception.SentryAccessDeniedException;
@@ -79,6 +85,7 @@ import org.apache.sentry.core.common.utils.SentryConstants;
 import org.apache.sentry.core.model.db.AccessConstants;
 import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
 import org.apache.sentry.hdfs.PathsUpdate;
+import org.apache.sentry.hdfs.PermissionsUpdate;
 import org.apache.sentry.hdfs.UniquePathsUpdate;
 import org.apache.sentry.hdfs.UpdateableAuthzPaths;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
@@ -104,7 +111,9 @@ import org.datanucleus.store.rdbms.exceptions.MissingTableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
@@ -114,6 +123,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * SentryStore is the data access object for Sentry data. Strings
@@ -133,7 +143,9 @@ import com.google.common.collect.Sets;
  * <p>
  * We are internally serializing all permissions update anyway, so doing
  * partial serialization on every node helps. For this reason all
- * SentryStore calls that affect permission deltas are serialized.
+ * SentryStore calls that affect permission deltas go through a
+ * {@link GroupCommitWriter}, which commits one transaction at a time
+ * and commits concurrent calls together.
  * <p>
  * See <a href="https://issues.apache.org/jira/browse/SENTRY-1824">SENTRY-1824</a>
  * for more detail.
@@ -169,9 +181,17 @@ public class SentryStore implements SentryStoreInterface {
   // to make query usable post-commit
   private static final String LOAD_RESULTS_AT_COMMIT = "datanucleus.query.loadResultsAtCommit";
 
+  // Principal holding all privileges of the roles and users of a bulk provider request
+  private static final String BULK_PRINCIPAL = "";
+
   private final PersistenceManagerFactory pmf;
   private Configuration conf;
   private final TransactionManager tm;
+  private final GroupCommitWriter groupCommitWriter;
+  private final FullPathsImageWriter fullPathsImageWriter;
+  // Null when privileges for providers are read from the db
+  private final ProviderPrivilegeIndex providerPrivilegeIndex;
+  private final ExecutorService providerPrivilegeIndexExecutor;
 
   // When it is true, execute DeltaTransactionBlock to persist delta changes.
   // When it is false, do not execute DeltaTransactionBlock
@@ -279,6 +299,51 @@ public class SentryStore implements SentryStoreInterface {
     }
     pmf = JDOHelper.getPersistenceManagerFactory(prop);
     tm = new TransactionManager(pmf, conf);
+    String deltaFormat = conf.get(ServerConfig.SENTRY_STORE_DELTA_FORMAT,
+        ServerConfig.SENTRY_STORE_DELTA_FORMAT_DEFAULT).trim();
+    Preconditions.checkArgument(
+        ServerConfig.SENTRY_STORE_DELTA_FORMAT_JSON.equalsIgnoreCase(deltaFormat)
+            || ServerConfig.SENTRY_STORE_DELTA_FORMAT_COMPACT.equalsIgnoreCase(deltaFormat),
+        "Unknown value of " + ServerConfig.SENTRY_STORE_DELTA_FORMAT + ": " + deltaFormat);
+    // Whether delta changes are persisted in the compact format instead of JSON
+    boolean compactDeltas = ServerConfig.SENTRY_STORE_DELTA_FORMAT_COMPACT.equalsIgnoreCase(deltaFormat);
+    groupCommitWriter = new GroupCommitWriter(tm,
+        conf.getInt(ServerConfig.SENTRY_STORE_GROUP_COMMIT_MAX_SIZE,
+            ServerConfig.SENTRY_STORE_GROUP_COMMIT_MAX_SIZE_DEFAULT), compactDeltas);
+    fullPathsImageWriter = new FullPathsImageWriter(tm,
+        conf.getInt(ServerConfig.SENTRY_STORE_FULL_SNAPSHOT_WRITER_THREADS,
+            ServerConfig.SENTRY_STORE_FULL_SNAPSHOT_WRITER_THREADS_DEFAULT),
+        conf.getInt(ServerConfig.SENTRY_STORE_FULL_SNAPSHOT_BATCH_SIZE,
+            ServerConfig.SENTRY_STORE_FULL_SNAPSHOT_BATCH_SIZE_DEFAULT),
+        printSnapshotPersistTimeInterval);
+    if (conf.getBoolean(ServerConfig.SENTRY_STORE_PROVIDER_INDEX_ENABLED,
+        ServerConfig.SENTRY_STORE_PROVIDER_INDEX_ENABLED_DEFAULT)) {
+      providerPrivilegeIndexExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("sentry-provider-privilege-index-%d")
+              .setDaemon(true)
+              .build());
+      providerPrivilegeIndex = new ProviderPrivilegeIndex(new ProviderPrivilegeIndex.Loader() {
+        @Override
+        public ProviderPrivilegeIndex.Snapshot load() throws Exception {
+          return loadProviderPrivilegeIndex();
+        }
+
+        @Override
+        public long getLastChangeId() throws Exception {
+          return getLastProcessedPermChangeID();
+        }
+
+        @Override
+        public ProviderPrivilegeIndex.Snapshot update(ProviderPrivilegeIndex.Snapshot snapshot)
+            throws Exception {
+          return updateProviderPrivilegeIndex(snapshot);
+        }
+      }, providerPrivilegeIndexExecutor);
+    } else {
+      providerPrivilegeIndexExecutor = null;
+      providerPrivilegeIndex = null;
+    }
     verifySentryStoreSchema(checkSchemaVersion);
     long notificationTimeout = conf.getInt(ServerConfig.SENTRY_NOTIFICATION_SYNC_TIMEOUT_MS,
             ServerConfig.SENTRY_NOTIFICATION_SYNC_TIMEOUT_DEFAULT);
@@ -317,6 +382,9 @@ public class SentryStore implements SentryStoreInterface {
   }
 
   public synchronized void stop() {
+    if (providerPrivilegeIndexExecutor != null) {
+      providerPrivilegeIndexExecutor.shutdownNow();
+    }
     if (pmf != null) {
       pmf.close();
     }
@@ -386,7 +454,7 @@ public class SentryStore implements SentryStoreInterface {
    * @throws Exception
    */
   public void createSentryUser(final String userName) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.USER, userName.trim()),
         pm -> {
           pm.setDetachAllOnCommit(false); // No need to detach objects
           String trimmedUserName = userName.trim();
@@ -417,7 +485,7 @@ public class SentryStore implements SentryStoreInterface {
    * @throws Exception
    */
   public void createSentryRole(final String roleName) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               String trimmedRoleName = trimAndLower(roleName);
@@ -617,6 +685,7 @@ public class SentryStore implements SentryStoreInterface {
       // the method only for test, log the error and ignore the exception
       LOGGER.error(e.getMessage(), e);
     }
+    invalidateProviderPrivilegeIndex();
   }
 
   /**
@@ -638,30 +707,23 @@ public class SentryStore implements SentryStoreInterface {
 
   /**
    * Purge a given delta change table, with a specified number of changes to be kept.
+   * The changes are deleted in batches, see {@link #deleteInBatches}.
    *
    * @param cls the class of a perm/path delta change {@link MSentryPermChange} or
    *            {@link MSentryPathChange}.
-   * @param pm a {@link PersistenceManager} instance.
    * @param changesToKeep the number of changes the caller want to keep.
    * @param <T> the type of delta change class.
    */
   @VisibleForTesting
   <T extends MSentryChange> void purgeDeltaChangeTableCore(
-      Class<T> cls, PersistenceManager pm, long changesToKeep) {
+      Class<T> cls, long changesToKeep) throws Exception {
     Preconditions.checkArgument(changesToKeep >= 0,
         "changes to keep must be a non-negative number");
-    long lastChangedID = getLastProcessedChangeIDCore(pm, cls);
+    long lastChangedID = tm.executeTransaction(pm -> getLastProcessedChangeIDCore(pm, cls));
     long maxIDDeleted = lastChangedID - changesToKeep;
 
-    Query query = pm.newQuery(cls);
-    query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
-
-    // It is an approximation of "SELECT ... LIMIT CHANGE_TO_KEEP" in SQL, because JDO w/ derby
-    // does not support "LIMIT".
-    // See: http://www.datanucleus.org/products/datanucleus/jdo/jdoql_declarative.html
-    query.setFilter("changeID <= maxChangedIdDeleted");
-    query.declareParameters("long maxChangedIdDeleted");
-    long numDeleted = query.deletePersistentAll(maxIDDeleted);
+    long numDeleted = deleteInBatches(cls, "changeID", null, maxIDDeleted,
+        SentryMetrics.getInstance().purgedDeltaChanges);
     if (numDeleted > 0) {
       LOGGER.info(String.format("Purged %d of %s to changeID=%d",
               numDeleted, cls.getSimpleName(), maxIDDeleted));
@@ -670,29 +732,122 @@ public class SentryStore implements SentryStoreInterface {
 
   /**
    * Purge notification id table, keeping a specified number of entries.
-   * @param pm a {@link PersistenceManager} instance.
+   * The entries are deleted in batches, see {@link #deleteInBatches}.
+   *
    * @param changesToKeep  the number of changes the caller want to keep.
    */
   @VisibleForTesting
-  protected void purgeNotificationIdTableCore(PersistenceManager pm,
-      long changesToKeep) {
+  protected void purgeNotificationIdTableCore(long changesToKeep) throws Exception {
     Preconditions.checkArgument(changesToKeep > 0,
       "You need to keep at least one entry in SENTRY_HMS_NOTIFICATION_ID table");
-    long lastNotificationID = getLastProcessedNotificationIDCore(pm);
-    Query query = pm.newQuery(MSentryHmsNotification.class);
-    query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+    long lastNotificationID = tm.executeTransaction(
+        pm -> getLastProcessedNotificationIDCore(pm));
 
-    // It is an approximation of "SELECT ... LIMIT CHANGE_TO_KEEP" in SQL, because JDO w/ derby
-    // does not support "LIMIT".
-    // See: http://www.datanucleus.org/products/datanucleus/jdo/jdoql_declarative.html
-    query.setFilter("notificationId <= maxNotificationIdDeleted");
-    query.declareParameters("long maxNotificationIdDeleted");
-    long numDeleted = query.deletePersistentAll(lastNotificationID - changesToKeep);
+    long numDeleted = deleteInBatches(MSentryHmsNotification.class, "notificationId", null,
+        lastNotificationID - changesToKeep, SentryMetrics.getInstance().purgedNotificationIds);
     if (numDeleted > 0) {
       LOGGER.info("Purged {} of {}", numDeleted, MSentryHmsNotification.class.getSimpleName());
     }
   }
 
+  /**
+   * Delete the objects of a class with an ID up to the given one, oldest first, so that a
+   * large backlog (e.g. after a storm of HMS notifications) does not lock the table and stall
+   * its writers for the whole purge.
+   * <p>
+   * Each transaction deletes the objects of at most
+   * {@link ServerConfig#SENTRY_STORE_PURGE_BATCH_SIZE} consecutive IDs, and the purge pauses
+   * {@link ServerConfig#SENTRY_STORE_PURGE_BATCH_INTERVAL_MS} between transactions. A purge
+   * stopped half-way leaves only the newest of the objects to delete, and is completed by the
+   * next one.
+   *
+   * @param cls the class of the objects to delete
+   * @param idField the unique numeric ID of the objects
+   * @param filter an additional JDOQL filter of the objects to delete, or null
+   * @param maxID the largest ID to delete
+   * @param purged counter of the deleted objects
+   * @return the number of objects deleted
+   */
+  private long deleteInBatches(Class<?> cls, String idField, String filter, long maxID,
+      Counter purged) throws Exception {
+    return deleteInBatches(cls, idField, filter, maxID, purged,
+        (pm, firstID, batchSize) -> firstID + batchSize - 1);
+  }
+
+  /**
+   * Finds the last ID of a batch of objects to delete.
+   */
+  private interface BatchBound {
+    /**
+     * @param firstID the first ID of the batch
+     * @param batchSize the configured batch size
+     * @return the last ID of the batch, at least firstID
+     */
+    long getLastID(PersistenceManager pm, long firstID, long batchSize);
+  }
+
+  /**
+   * Same as {@link #deleteInBatches(Class, String, String, long, Counter)}, with the end of
+   * each batch found by the given bound.
+   */
+  private long deleteInBatches(Class<?> cls, String idField, String filter, long maxID,
+      Counter purged, BatchBound bound) throws Exception {
+    final long batchSize = conf.getLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE,
+        ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE_DEFAULT);
+    final long batchIntervalMs = conf.getLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS,
+        ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS_DEFAULT);
+    Preconditions.checkArgument(batchSize > 0, "purge batch size must be a positive number");
+    final String idFilter = (filter == null) ? idField + " <= maxID"
+        : idField + " <= maxID && " + filter;
+
+    long numDeleted = 0;
+    while (true) {
+      // Start each batch from the oldest remaining ID, to skip over gaps between IDs
+      long[] batch = tm.executeTransaction(
+          pm -> {
+            pm.setDetachAllOnCommit(false); // No need to detach objects
+            Query query = pm.newQuery(cls);
+            query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+            query.setFilter(idFilter);
+            query.declareParameters("long maxID");
+            query.setResult(String.format("min(%s)", idField));
+            Long firstID = (Long) query.execute(maxID);
+            if (firstID == null) {
+              return null;
+            }
+
+            // Delete up to the last ID of the batch instead of maxID
+            long lastID = Math.min(maxID, bound.getLastID(pm, firstID, batchSize));
+            query = pm.newQuery(cls);
+            query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+            query.setFilter(idField + " >= firstID && " + idFilter);
+            query.declareParameters("long firstID, long maxID");
+            return new long[] {query.deletePersistentAll(firstID, lastID), lastID};
+          });
+      if (batch == null) {
+        return numDeleted;
+      }
+
+      numDeleted += batch[0];
+      purged.inc(batch[0]);
+      LOGGER.debug("Purged {} of {} up to {}={}", numDeleted, cls.getSimpleName(), idField,
+          batch[1]);
+      if (batch[1] >= maxID) {
+        return numDeleted;
+      }
+      if (batchIntervalMs > 0) {
+        try {
+          Thread.sleep(batchIntervalMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOGGER.info("Purge of {} interrupted after {} objects", cls.getSimpleName(),
+              numDeleted);
+          return numDeleted;
+        }
+      }
+    }
+  }
+
   /**
    * Purge delta change tables, {@link MSentryPermChange} and {@link MSentryPathChange}.
    * The number of deltas to keep is configurable
@@ -703,14 +858,10 @@ public class SentryStore implements SentryStoreInterface {
     LOGGER.info("Purging MSentryPathUpdate and MSentyPermUpdate tables, leaving {} entries",
             changesToKeep);
     try {
-      tm.executeTransaction(pm -> {
-        pm.setDetachAllOnCommit(false); // No need to detach objects
-        purgeDeltaChangeTableCore(MSentryPermChange.class, pm, changesToKeep);
-        LOGGER.info("MSentryPermChange table has been purged.");
-        purgeDeltaChangeTableCore(MSentryPathChange.class, pm, changesToKeep);
-        LOGGER.info("MSentryPathUpdate table has been purged.");
-        return null;
-      });
+      purgeDeltaChangeTableCore(MSentryPermChange.class, changesToKeep);
+      LOGGER.info("MSentryPermChange table has been purged.");
+      purgeDeltaChangeTableCore(MSentryPathChange.class, changesToKeep);
+      LOGGER.info("MSentryPathUpdate table has been purged.");
     } catch (Exception e) {
       LOGGER.error("Delta change cleaning process encountered an error", e);
     }
@@ -727,16 +878,72 @@ public class SentryStore implements SentryStoreInterface {
     LOGGER.debug("Purging MSentryHmsNotification table, leaving {} entries",
       changesToKeep);
     try {
-      tm.executeTransaction(pm -> {
-        pm.setDetachAllOnCommit(false); // No need to detach objects
-        purgeNotificationIdTableCore(pm, changesToKeep);
-        return null;
-      });
+      purgeNotificationIdTableCore(changesToKeep);
     } catch (Exception e) {
       LOGGER.error("MSentryHmsNotification cleaning process encountered an error", e);
     }
   }
 
+  /**
+   * Purge the paths mappings of old HMS snapshots, {@link MAuthzPathsMapping}, with their
+   * paths. The current snapshot and the one before it, which readers that started before
+   * the current one was committed may still be reading, are kept. Snapshots being written
+   * have IDs above the current one and are never purged.
+   */
+  public void purgeAuthzPathsSnapshots() {
+    try {
+      long currentSnapshotID = tm.executeTransaction(
+          pm -> getCurrentAuthzPathsSnapshotID(pm));
+      long maxSnapshotIDDeleted = currentSnapshotID - 2;
+      if (maxSnapshotIDDeleted <= EMPTY_PATHS_SNAPSHOT_ID) {
+        return;
+      }
+      long maxObjectID = tm.executeTransaction(
+          pm -> getMaxPersistedIDCore(pm, MAuthzPathsMapping.class, "authzObjectId",
+              EMPTY_PATHS_MAPPING_ID));
+      // Every object cascades to the deletion of its paths, so the batches are bounded by
+      // the number of paths as well
+      long numDeleted = deleteInBatches(MAuthzPathsMapping.class, "authzObjectId",
+          "authzSnapshotID <= " + maxSnapshotIDDeleted, maxObjectID,
+          SentryMetrics.getInstance().purgedSnapshotObjects,
+          SentryStore::getLastAuthzObjectIDOfBatch);
+      if (numDeleted > 0) {
+        LOGGER.info("Purged {} objects of HMS snapshots up to #{}", numDeleted,
+            maxSnapshotIDDeleted);
+      }
+    } catch (Exception e) {
+      LOGGER.error("HMS snapshot cleaning process encountered an error", e);
+    }
+  }
+
+  /**
+   * Bounds a batch of HMS snapshot objects by the number of their paths: the batch has at
+   * most batchSize objects, and ends before the object whose paths bring the number of
+   * paths of the batch over batchSize, unless it is the first one.
+   */
+  @VisibleForTesting
+  @SuppressWarnings("unchecked")
+  static long getLastAuthzObjectIDOfBatch(PersistenceManager pm, long firstID,
+      long batchSize) {
+    long lastID = firstID + batchSize - 1;
+    Query query = pm.newQuery(MAuthzPathsMapping.MPathToPersist.class);
+    query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+    query.setFilter("authzObjectId >= firstID && authzObjectId <= lastID");
+    query.declareParameters("long firstID, long lastID");
+    query.setResult("authzObjectId, count(this)");
+    query.setGrouping("authzObjectId");
+    query.setOrdering("authzObjectId ascending");
+    long numPaths = 0;
+    for (Object[] row : (List<Object[]>) query.execute(firstID, lastID)) {
+      long objectID = (Long) row[0];
+      numPaths += (Long) row[1];
+      if (numPaths > batchSize) {
+        return Math.max(firstID, objectID - 1);
+      }
+    }
+    return lastID;
+  }
+
   @Override
   public void alterSentryRoleGrantPrivileges(final String roleName,
     final Set<TSentryPrivilege> privileges) throws Exception {
@@ -754,11 +961,11 @@ public class SentryStore implements SentryStoreInterface {
    * @param updatesToPersist
    * @throws Exception
    */
-  synchronized void alterSentryGrantPrivileges(SentryPrincipalType type, final String name,
+  void alterSentryGrantPrivileges(SentryPrincipalType type, final String name,
     final Set<TSentryPrivilege> privileges,
     final List<Update>updatesToPersist) throws Exception {
 
-    execute(updatesToPersist, pm -> {
+    executePolicyChange(updatesToPersist, principalChanges(type, trimAndLower(name)), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
       String trimmedEntityName = trimAndLower(name);
 
@@ -960,7 +1167,7 @@ public class SentryStore implements SentryStoreInterface {
   public void alterSentryGrantOwnerPrivilege(final String principalName, SentryPrincipalType entityType,
                                               final TSentryPrivilege privilege,
                                               final Update update) throws Exception {
-    execute(update, pm -> {
+    executePolicyChange(update, principalChanges(entityType, trimAndLower(principalName)), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
 
       // Alter sentry Role and grant Privilege.
@@ -1045,10 +1252,11 @@ public class SentryStore implements SentryStoreInterface {
    * @param updatesToDelete
    * @throws Exception
    */
-  synchronized void alterSentryRevokePrivileges(SentryPrincipalType type, final String principalName,
+  void alterSentryRevokePrivileges(SentryPrincipalType type, final String principalName,
     final Set<TSentryPrivilege> privileges,
     final List<Update> updatesToDelete) throws Exception {
-    execute(updatesToDelete, pm -> {
+    executePolicyChange(updatesToDelete, principalChanges(type, safeTrimLower(principalName)),
+        pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
       String trimmedEntityName = safeTrimLower(principalName);
 
@@ -1387,7 +1595,7 @@ public class SentryStore implements SentryStoreInterface {
    * @throws Exception
    */
   public void dropSentryUser(final String userName) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.USER, userName.trim()),
         new TransactionBlock<Object>() {
           public Object execute(PersistenceManager pm) throws Exception {
             pm.setDetachAllOnCommit(false); // No need to detach objects
@@ -1405,9 +1613,10 @@ public class SentryStore implements SentryStoreInterface {
    * @param update the corresponding permission delta update
    * @throws Exception
    */
-  public synchronized void dropSentryUser(final String userName,
+  public void dropSentryUser(final String userName,
       final Update update) throws Exception {
-    execute(update, new TransactionBlock<Object>() {
+    executePolicyChange(update, principalChanges(SentryPrincipalType.USER, userName.trim()),
+        new TransactionBlock<Object>() {
       public Object execute(PersistenceManager pm) throws Exception {
         pm.setDetachAllOnCommit(false); // No need to detach objects
         dropSentryUserCore(pm, userName);
@@ -1545,7 +1754,7 @@ public class SentryStore implements SentryStoreInterface {
    * @throws Exception
    */
   public void dropSentryRole(final String roleName) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               dropSentryRoleCore(pm, roleName);
@@ -1561,9 +1770,10 @@ public class SentryStore implements SentryStoreInterface {
    * @param update the corresponding permission delta update
    * @throws Exception
    */
-  public synchronized void dropSentryRole(final String roleName,
+  public void dropSentryRole(final String roleName,
       final Update update) throws Exception {
-    execute(update, pm -> {
+    executePolicyChange(update,
+        principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
       dropSentryRoleCore(pm, roleName);
       return null;
@@ -1635,7 +1845,7 @@ public class SentryStore implements SentryStoreInterface {
    */
   public void alterSentryRoleAddGroups(final String grantorPrincipal,
       final String roleName, final Set<TSentryGroup> groupNames) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               alterSentryRoleAddGroupsCore(pm, roleName, groupNames);
@@ -1653,11 +1863,12 @@ public class SentryStore implements SentryStoreInterface {
    * @param update the corresponding permission delta update
    * @throws Exception
    */
-  public synchronized void alterSentryRoleAddGroups(final String grantorPrincipal,
+  public void alterSentryRoleAddGroups(final String grantorPrincipal,
       final String roleName, final Set<TSentryGroup> groupNames,
       final Update update) throws Exception {
 
-    execute(update, pm -> {
+    executePolicyChange(update,
+        principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
       alterSentryRoleAddGroupsCore(pm, roleName, groupNames);
       return null;
@@ -1693,7 +1904,7 @@ public class SentryStore implements SentryStoreInterface {
 
   public void alterSentryRoleAddUsers(final String roleName,
       final Set<String> userNames) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               alterSentryRoleAddUsersCore(pm, roleName, userNames);
@@ -1726,7 +1937,7 @@ public class SentryStore implements SentryStoreInterface {
 
   public void alterSentryRoleDeleteUsers(final String roleName,
       final Set<String> userNames) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               String trimmedRoleName = trimAndLower(roleName);
@@ -1769,7 +1980,7 @@ public class SentryStore implements SentryStoreInterface {
    */
   public void alterSentryRoleDeleteGroups(final String roleName,
       final Set<TSentryGroup> groupNames) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               String trimmedRoleName = trimAndLower(roleName);
@@ -1803,10 +2014,11 @@ public class SentryStore implements SentryStoreInterface {
    * @param update the corresponding permission delta update
    * @throws Exception
    */
-  public synchronized void alterSentryRoleDeleteGroups(final String roleName,
+  public void alterSentryRoleDeleteGroups(final String roleName,
       final Set<TSentryGroup> groupNames, final Update update)
           throws Exception {
-    execute(update, pm -> {
+    executePolicyChange(update,
+        principalChanges(SentryPrincipalType.ROLE, trimAndLower(roleName)), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
       String trimmedRoleName = trimAndLower(roleName);
       MSentryRole role = getRole(pm, trimmedRoleName);
@@ -1910,71 +2122,80 @@ public class SentryStore implements SentryStoreInterface {
     }
 
     return tm.executeTransaction(
-        pm -> {
-          Query query = pm.newQuery(MSentryPrivilege.class);
-          QueryParamBuilder paramBuilder = null;
-          if (entityType == SentryPrincipalType.ROLE) {
-            paramBuilder = QueryParamBuilder.addRolesFilter(query, null, entityNames);
-          } else if (entityType == SentryPrincipalType.USER) {
-            paramBuilder = QueryParamBuilder.addUsersFilter(query, null, entityNames);
-          } else {
-            throw new SentryInvalidInputException("entityType" + entityType + " is not valid");
-          }
+        pm -> getMSentryPrivilegesCore(pm, entityType, entityNames, authHierarchy,
+            enableFetchPlan));
+  }
 
-          if (authHierarchy != null && authHierarchy.getServer() != null) {
-            paramBuilder.add(SERVER_NAME, authHierarchy.getServer());
-            if (authHierarchy.getDb() != null) {
-              paramBuilder.addNull(URI)
-                  .newChild()
-                  .add(DB_NAME, authHierarchy.getDb())
-                  .addNull(DB_NAME);
-              if (authHierarchy.getTable() != null
-                  && !AccessConstants.ALL.equalsIgnoreCase(authHierarchy.getTable())) {
-                if (!AccessConstants.SOME.equalsIgnoreCase(authHierarchy.getTable())) {
-                  paramBuilder.addNull(URI)
-                      .newChild()
-                      .add(TABLE_NAME, authHierarchy.getTable())
-                      .addNull(TABLE_NAME);
-                }
-                if (authHierarchy.getColumn() != null
-                    && !AccessConstants.ALL.equalsIgnoreCase(authHierarchy.getColumn())
-                    && !AccessConstants.SOME.equalsIgnoreCase(authHierarchy.getColumn())) {
-                  paramBuilder.addNull(URI)
-                      .newChild()
-                      .add(COLUMN_NAME, authHierarchy.getColumn())
-                      .addNull(COLUMN_NAME);
-                }
-              }
-            }
-            if (authHierarchy.getUri() != null) {
-              paramBuilder.addNull(DB_NAME)
-                  .newChild()
-                  .addNull(URI)
-                  .newChild()
-                  .addNotNull(URI)
-                  .addCustomParam("(:authURI.startsWith(URI))", "authURI", authHierarchy.getUri());
-            }
-          }
+  private List<MSentryPrivilege> getMSentryPrivilegesCore(PersistenceManager pm,
+      SentryPrincipalType entityType, Set<String> entityNames,
+      TSentryAuthorizable authHierarchy, boolean enableFetchPlan) throws Exception {
+    if (entityNames == null || entityNames.isEmpty()) {
+      return Collections.emptyList();
+    }
 
-          if(enableFetchPlan) {
-              if (entityType == SentryPrincipalType.ROLE) {
-                  FetchGroup grp = pm.getFetchGroup(MSentryPrivilege.class, "fetchRoles");
-                  grp.addMember("roles");
-                  pm.getFetchPlan().addGroup("fetchRoles");
-              } else if (entityType == SentryPrincipalType.USER) {
-                  FetchGroup grp = pm.getFetchGroup(MSentryPrivilege.class, "fetchUsers");
-                  grp.addMember("users");
-                  pm.getFetchPlan().addGroup("fetchUsers");
-              }
+    Query query = pm.newQuery(MSentryPrivilege.class);
+    QueryParamBuilder paramBuilder = null;
+    if (entityType == SentryPrincipalType.ROLE) {
+      paramBuilder = QueryParamBuilder.addRolesFilter(query, null, entityNames);
+    } else if (entityType == SentryPrincipalType.USER) {
+      paramBuilder = QueryParamBuilder.addUsersFilter(query, null, entityNames);
+    } else {
+      throw new SentryInvalidInputException("entityType" + entityType + " is not valid");
+    }
+
+    if (authHierarchy != null && authHierarchy.getServer() != null) {
+      paramBuilder.add(SERVER_NAME, authHierarchy.getServer());
+      if (authHierarchy.getDb() != null) {
+        paramBuilder.addNull(URI)
+            .newChild()
+            .add(DB_NAME, authHierarchy.getDb())
+            .addNull(DB_NAME);
+        if (authHierarchy.getTable() != null
+            && !AccessConstants.ALL.equalsIgnoreCase(authHierarchy.getTable())) {
+          if (!AccessConstants.SOME.equalsIgnoreCase(authHierarchy.getTable())) {
+            paramBuilder.addNull(URI)
+                .newChild()
+                .add(TABLE_NAME, authHierarchy.getTable())
+                .addNull(TABLE_NAME);
           }
+          if (authHierarchy.getColumn() != null
+              && !AccessConstants.ALL.equalsIgnoreCase(authHierarchy.getColumn())
+              && !AccessConstants.SOME.equalsIgnoreCase(authHierarchy.getColumn())) {
+            paramBuilder.addNull(URI)
+                .newChild()
+                .add(COLUMN_NAME, authHierarchy.getColumn())
+                .addNull(COLUMN_NAME);
+          }
+        }
+      }
+      if (authHierarchy.getUri() != null) {
+        paramBuilder.addNull(DB_NAME)
+            .newChild()
+            .addNull(URI)
+            .newChild()
+            .addNotNull(URI)
+            .addCustomParam("(:authURI.startsWith(URI))", "authURI", authHierarchy.getUri());
+      }
+    }
 
-          query.setFilter(paramBuilder.toString());
-          @SuppressWarnings("unchecked")
-          List<MSentryPrivilege> result =
-              (List<MSentryPrivilege>)
-                  query.executeWithMap(paramBuilder.getArguments());
-          return result;
-        });
+    if(enableFetchPlan) {
+        if (entityType == SentryPrincipalType.ROLE) {
+            FetchGroup grp = pm.getFetchGroup(MSentryPrivilege.class, "fetchRoles");
+            grp.addMember("roles");
+            pm.getFetchPlan().addGroup("fetchRoles");
+        } else if (entityType == SentryPrincipalType.USER) {
+            FetchGroup grp = pm.getFetchGroup(MSentryPrivilege.class, "fetchUsers");
+            grp.addMember("users");
+            pm.getFetchPlan().addGroup("fetchUsers");
+        }
+    }
+
+    query.setFilter(paramBuilder.toString());
+    @SuppressWarnings("unchecked")
+    List<MSentryPrivilege> result =
+        (List<MSentryPrivilege>)
+            query.executeWithMap(paramBuilder.getArguments());
+    return result;
   }
 
   private List<MSentryPrivilege> getMSentryPrivilegesByAuth(
@@ -2440,6 +2661,11 @@ public class SentryStore implements SentryStoreInterface {
   public Set<String> listSentryPrivilegesForProvider(
       Set<String> groups, Set<String> users, TSentryActiveRoleSet roleSet,
       TSentryAuthorizable authHierarchy) throws Exception {
+    ProviderPrivilegeIndex.Snapshot index = getProviderPrivilegeIndex();
+    if (index != null) {
+      return index.listPrivilegesForProvider(index.getRoles(groups, users, roleSet), users,
+          authHierarchy);
+    }
     Set<String> result = Sets.newHashSet();
     Set<MSentryPrivilege> mSentryPrivileges = listSentryPrivilegesForProviderCore(
         groups, users, roleSet, authHierarchy);
@@ -2449,6 +2675,60 @@ public class SentryStore implements SentryStoreInterface {
     return result;
   }
 
+  @Override
+  public List<Set<String>> listSentryPrivilegesForProviderBulk(
+      final Set<String> groups, final Set<String> users, TSentryActiveRoleSet roleSet,
+      final List<TSentryAuthorizable> authHierarchies) throws Exception {
+    ProviderPrivilegeIndex.Snapshot index = getProviderPrivilegeIndex();
+    if (index != null) {
+      Set<String> roleNames = index.getRoles(groups, users, roleSet);
+      List<Set<String>> result = new ArrayList<>(authHierarchies.size());
+      for (TSentryAuthorizable authHierarchy : authHierarchies) {
+        result.add(index.listPrivilegesForProvider(roleNames, users, authHierarchy));
+      }
+      return result;
+    }
+    final Set<String> rolesToQuery = getRolesToQuery(groups, users, roleSet);
+
+    // The privileges of the roles and users are fetched once per requested server, or
+    // once for all servers if a hierarchy has none, and each hierarchy is then matched
+    // against them in memory, with the same conditions as the provider privilege index
+    final Map<String, TSentryAuthorizable> servers = new HashMap<>();
+    for (TSentryAuthorizable authHierarchy : authHierarchies) {
+      if (authHierarchy == null || authHierarchy.getServer() == null) {
+        servers.clear();
+        servers.put(null, null);
+        break;
+      }
+      servers.put(safeTrimLower(authHierarchy.getServer()),
+          new TSentryAuthorizable(authHierarchy.getServer()));
+    }
+
+    ProviderPrivilegeIndex.Snapshot privileges = tm.executeTransaction(
+        pm -> {
+          pm.setDetachAllOnCommit(false); // No need to detach objects
+          ProviderPrivilegeIndex.Builder builder = new ProviderPrivilegeIndex.Builder();
+          for (TSentryAuthorizable server : servers.values()) {
+            for (MSentryPrivilege priv : getMSentryPrivilegesCore(pm, SentryPrincipalType.ROLE,
+                rolesToQuery, server, false)) {
+              builder.addRolePrivilege(BULK_PRINCIPAL, toProviderIndexPrivilege(priv));
+            }
+            for (MSentryPrivilege priv : getMSentryPrivilegesCore(pm, SentryPrincipalType.USER,
+                users, server, false)) {
+              builder.addRolePrivilege(BULK_PRINCIPAL, toProviderIndexPrivilege(priv));
+            }
+          }
+          return builder.build();
+        });
+
+    Set<String> principals = Collections.singleton(BULK_PRINCIPAL);
+    List<Set<String>> result = new ArrayList<>(authHierarchies.size());
+    for (TSentryAuthorizable authHierarchy : authHierarchies) {
+      result.add(privileges.listPrivilegesForProvider(principals, null, authHierarchy));
+    }
+    return result;
+  }
+
   private Set<MSentryPrivilege> listSentryPrivilegesForProviderCore(Set<String> groups, Set<String> users,
       TSentryActiveRoleSet roleSet, TSentryAuthorizable authHierarchy) throws Exception {
     Set<MSentryPrivilege> privilegeSet = Sets.newHashSet();
@@ -2460,6 +2740,10 @@ public class SentryStore implements SentryStoreInterface {
 
   public boolean hasAnyServerPrivileges(Set<String> groups, Set<String> users,
       TSentryActiveRoleSet roleSet, String server) throws Exception {
+    ProviderPrivilegeIndex.Snapshot index = getProviderPrivilegeIndex();
+    if (index != null) {
+      return index.hasAnyServerPrivileges(index.getRoles(groups, users, roleSet), users, server);
+    }
     Set<String> rolesToQuery = getRolesToQuery(groups, users, roleSet);
     if (hasAnyServerPrivileges(rolesToQuery, server)) {
       return true;
@@ -2503,6 +2787,141 @@ public class SentryStore implements SentryStoreInterface {
               });
   }
 
+  /**
+   * @return the snapshot of the provider privilege index, or null if privileges for
+   * providers have to be read from the db
+   */
+  @VisibleForTesting
+  ProviderPrivilegeIndex.Snapshot getProviderPrivilegeIndex() {
+    return providerPrivilegeIndex != null ? providerPrivilegeIndex.getSnapshot() : null;
+  }
+
+  /**
+   * Load all roles with their groups, users and privileges, and the privileges of all
+   * users, for the provider privilege index.
+   */
+  @SuppressWarnings("unchecked")
+  private ProviderPrivilegeIndex.Snapshot loadProviderPrivilegeIndex() throws Exception {
+    return tm.executeTransaction(
+        pm -> {
+          pm.setDetachAllOnCommit(false); // No need to detach objects
+          // The change ID is read first, so the roles and users read afterwards are at
+          // least as recent
+          ProviderPrivilegeIndex.Builder builder = new ProviderPrivilegeIndex.Builder()
+              .setChangeId(getLastProcessedChangeIDCore(pm, MSentryPermChange.class));
+
+          Query query = pm.newQuery(MSentryRole.class);
+          query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+          FetchGroup grp = pm.getFetchGroup(MSentryRole.class, "fetchProviderIndex");
+          grp.addMember("privileges");
+          grp.addMember("groups");
+          grp.addMember("users");
+          pm.getFetchPlan().addGroup("fetchProviderIndex");
+          for (MSentryRole mSentryRole : (List<MSentryRole>) query.execute()) {
+            addToProviderPrivilegeIndex(builder, mSentryRole);
+          }
+
+          query = pm.newQuery(MSentryUser.class);
+          query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+          grp = pm.getFetchGroup(MSentryUser.class, "fetchPrivileges");
+          grp.addMember("privileges");
+          pm.getFetchPlan().addGroup("fetchPrivileges");
+          for (MSentryUser mSentryUser : (List<MSentryUser>) query.execute()) {
+            addToProviderPrivilegeIndex(builder, mSentryUser);
+          }
+          return builder.build();
+        });
+  }
+
+  /**
+   * Reload the roles and users changed after the change ID of the snapshot of the
+   * provider privilege index, in one transaction.
+   *
+   * @return the updated snapshot, or null if the changes are no longer kept or do not
+   * name the roles and users they change
+   */
+  private ProviderPrivilegeIndex.Snapshot updateProviderPrivilegeIndex(
+      final ProviderPrivilegeIndex.Snapshot snapshot) throws Exception {
+    return tm.executeTransaction(
+        pm -> {
+          pm.setDetachAllOnCommit(false); // No need to detach objects
+          long lastChangeId = getLastProcessedChangeIDCore(pm, MSentryPermChange.class);
+          if (lastChangeId < snapshot.getChangeId()) {
+            return null;
+          }
+          Set<TPrivilegePrincipal> changed =
+              getChangedPrincipalsCore(pm, snapshot.getChangeId(), lastChangeId);
+          if (changed == null) {
+            return null;
+          }
+
+          ProviderPrivilegeIndex.Builder builder = new ProviderPrivilegeIndex.Builder()
+              .setChangeId(lastChangeId);
+          Set<String> roleNames = new HashSet<>();
+          Set<String> userNames = new HashSet<>();
+          for (TPrivilegePrincipal principal : changed) {
+            if (principal.getType() == TPrivilegePrincipalType.ROLE) {
+              roleNames.add(trimAndLower(principal.getValue()));
+              continue;
+            }
+            // The roles of a user are reloaded as well, since dropping the user removes
+            // it from its roles
+            String userName = principal.getValue();
+            userNames.add(userName);
+            roleNames.addAll(snapshot.getUserRoles(userName));
+            MSentryUser mSentryUser = getUser(pm, userName);
+            if (mSentryUser != null) {
+              userNames.add(mSentryUser.getUserName());
+              addToProviderPrivilegeIndex(builder, mSentryUser);
+              for (MSentryRole mSentryRole : mSentryUser.getRoles()) {
+                roleNames.add(trimAndLower(mSentryRole.getRoleName()));
+              }
+            }
+          }
+          for (String roleName : roleNames) {
+            MSentryRole mSentryRole = getRole(pm, roleName);
+            if (mSentryRole != null) {
+              addToProviderPrivilegeIndex(builder, mSentryRole);
+            }
+          }
+          return snapshot.update(builder, roleNames, userNames);
+        });
+  }
+
+  private static void addToProviderPrivilegeIndex(ProviderPrivilegeIndex.Builder builder,
+      MSentryRole mSentryRole) {
+    String roleName = trimAndLower(mSentryRole.getRoleName());
+    for (MSentryGroup mSentryGroup : mSentryRole.getGroups()) {
+      builder.addRoleGroup(roleName, mSentryGroup.getGroupName());
+    }
+    for (MSentryUser mSentryUser : mSentryRole.getUsers()) {
+      builder.addRoleUser(roleName, mSentryUser.getUserName());
+    }
+    for (MSentryPrivilege mSentryPrivilege : mSentryRole.getPrivileges()) {
+      builder.addRolePrivilege(roleName, toProviderIndexPrivilege(mSentryPrivilege));
+    }
+  }
+
+  private static void addToProviderPrivilegeIndex(ProviderPrivilegeIndex.Builder builder,
+      MSentryUser mSentryUser) {
+    for (MSentryPrivilege mSentryPrivilege : mSentryUser.getPrivileges()) {
+      builder.addUserPrivilege(mSentryUser.getUserName(),
+          toProviderIndexPrivilege(mSentryPrivilege));
+    }
+  }
+
+  @VisibleForTesting
+  static ProviderPrivilegeIndex.Privilege toProviderIndexPrivilege(
+      MSentryPrivilege privilege) {
+    return new ProviderPrivilegeIndex.Privilege(
+        privilege.getServerName(),
+        isNULL(privilege.getDbName()) ? null : privilege.getDbName(),
+        isNULL(privilege.getTableName()) ? null : privilege.getTableName(),
+        isNULL(privilege.getColumnName()) ? null : privilege.getColumnName(),
+        isNULL(privilege.getURI()) ? null : privilege.getURI(),
+        toAuthorizable(privilege));
+  }
+
   @VisibleForTesting
   static String toAuthorizable(MSentryPrivilege privilege) {
     List<String> authorizable = new ArrayList<>(4);
@@ -2735,7 +3154,7 @@ public class SentryStore implements SentryStoreInterface {
    * @throws Exception
    */
   public void dropPrivilege(final TSentryAuthorizable tAuthorizable) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(anyPrincipalChanges(),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
 
@@ -2753,9 +3172,9 @@ public class SentryStore implements SentryStoreInterface {
    * @param update the corresponding permission delta update.
    * @throws Exception
    */
-  public synchronized void dropPrivilege(final TSentryAuthorizable tAuthorizable,
+  public void dropPrivilege(final TSentryAuthorizable tAuthorizable,
       final Update update) throws Exception {
-    execute(update, pm -> {
+    executePolicyChange(update, anyPrincipalChanges(), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
 
       dropPrivilegeCore(pm, tAuthorizable);
@@ -2794,10 +3213,11 @@ public class SentryStore implements SentryStoreInterface {
    * @param updates Delta Updates.
    * @throws Exception
    */
-  public synchronized void updateOwnerPrivilege(final TSentryAuthorizable tAuthorizable,
+  public void updateOwnerPrivilege(final TSentryAuthorizable tAuthorizable,
       String ownerName,  SentryPrincipalType principalType,
       final List<Update> updates) throws Exception {
-    execute(updates, pm -> {
+    // The previous owners are not known before the transaction
+    executePolicyChange(updates, anyPrincipalChanges(), pm -> {
       if(principalType == null) {
         LOGGER.info("Invalid principal Type");
       }
@@ -2831,7 +3251,7 @@ public class SentryStore implements SentryStoreInterface {
   @VisibleForTesting
   void revokeOwnerPrivileges(final TSentryAuthorizable tAuthorizable, final List<Update> updates)
      throws Exception{
-    execute(updates, pm -> {
+    executePolicyChange(updates, anyPrincipalChanges(), pm -> {
       pm.setDetachAllOnCommit(false);
       revokeOwnerPrivilegesCore(pm, tAuthorizable);
       return null;
@@ -2867,7 +3287,7 @@ public class SentryStore implements SentryStoreInterface {
    */
   public void renamePrivilege(final TSentryAuthorizable oldTAuthorizable,
       final TSentryAuthorizable newTAuthorizable) throws Exception {
-    tm.executeTransactionWithRetry(
+    executePolicyChange(anyPrincipalChanges(),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
 
@@ -2887,11 +3307,11 @@ public class SentryStore implements SentryStoreInterface {
    * @throws SentryNoSuchObjectException
    * @throws SentryInvalidInputException
    */
-  public synchronized void renamePrivilege(final TSentryAuthorizable oldTAuthorizable,
+  public void renamePrivilege(final TSentryAuthorizable oldTAuthorizable,
       final TSentryAuthorizable newTAuthorizable, final Update update)
         throws Exception {
 
-    execute(update, pm -> {
+    executePolicyChange(update, anyPrincipalChanges(), pm -> {
       pm.setDetachAllOnCommit(false); // No need to detach objects
 
       renamePrivilegeCore(pm, oldTAuthorizable, newTAuthorizable);
@@ -3254,7 +3674,8 @@ public class SentryStore implements SentryStoreInterface {
               long curChangeID = getLastProcessedChangeIDCore(pm, MSentryPathChange.class);
               PathsUpdate pathUpdate = new PathsUpdate(curChangeID, curImageID, true);
               // We ignore anything in the update and set it later to the assembled PathsDump
-              UpdateableAuthzPaths authzPaths = new UpdateableAuthzPaths(prefixes);
+              UpdateableAuthzPaths authzPaths = new UpdateableAuthzPaths(prefixes,
+                  conf.getBoolean(SENTRY_HDFS_COMPACT_PATHS, SENTRY_HDFS_COMPACT_PATHS_DEFAULT));
               // Extract all paths and put them into authzPaths
               retrieveFullPathsImageCore(pm, curImageID, authzPaths);
               pathUpdate.toThrift().setPathsDump(authzPaths.getPathsDump().createPathsDump(true));
@@ -3319,8 +3740,11 @@ public class SentryStore implements SentryStoreInterface {
   }
 
   /**
-   * Persist an up-to-date HMS snapshot into Sentry DB in a single transaction with its latest
-   * notification ID
+   * Persist an up-to-date HMS snapshot into Sentry DB with its latest notification ID.
+   * <p>
+   * The objects are written under the next snapshot ID by {@link FullPathsImageWriter},
+   * in many transactions. The snapshot ID and the notification ID are then persisted in
+   * one last transaction, which makes the new snapshot current at once.
    *
    * @param authzPaths paths to be be persisted
    * @param notificationID the latest notificationID associated with the snapshot
@@ -3328,62 +3752,82 @@ public class SentryStore implements SentryStoreInterface {
    */
   public void persistFullPathsImage(final Map<String, Collection<String>> authzPaths,
       final long notificationID) throws Exception {
-    tm.executeTransactionWithRetry(
-            pm -> {
-
-              int totalNumberOfObjectsToPersist = authzPaths.size();
-              int totalNumberOfPathsToPersist = authzPaths.values().stream().mapToInt(Collection::size).sum();
-              int objectsPersistedCount = 0, pathsPersistedCount = 0;
-
-              logPersistingFullSnapshotState(totalNumberOfObjectsToPersist,
-                  totalNumberOfPathsToPersist, objectsPersistedCount, pathsPersistedCount);
-
-              pm.setDetachAllOnCommit(false); // No need to detach objects
-              deleteNotificationsSince(pm, notificationID + 1);
-              // persist the notification ID
-              persistUniqueNotificationIDCore(pm, notificationID);
-
-              // persist the full snapshot
-              long snapshotID = getCurrentAuthzPathsSnapshotID(pm);
-              long nextObjectId = getNextAuthzObjectID(pm);
-              long nextSnapshotID = snapshotID + 1;
-              pm.makePersistent(new MAuthzPathsSnapshotId(nextSnapshotID));
-              LOGGER.info("Attempting to commit new HMS snapshot with ID = {}", nextSnapshotID);
-
-              long lastProgressTime = System.currentTimeMillis();
-
-              for (Map.Entry<String, Collection<String>> authzPath : authzPaths.entrySet()) {
-                MAuthzPathsMapping mapping = new MAuthzPathsMapping(nextSnapshotID, nextObjectId++, authzPath.getKey(),
-                        authzPath.getValue());
-                mapping.makePersistent(pm);
-                objectsPersistedCount++;
-                pathsPersistedCount = pathsPersistedCount + authzPath.getValue().size();
-
-                long currentTime = System.currentTimeMillis();
-                if ((currentTime - lastProgressTime) > printSnapshotPersistTimeInterval) {
+    final Timer.Context timerContext =
+        SentryMetrics.getInstance().persistFullHMSSnapshotTimer.time();
+    try {
+      // Prepare the staging snapshot, removing the objects of an earlier attempt to write it
+      long[] ids = tm.executeTransactionWithRetry(
+              pm -> {
+                pm.setDetachAllOnCommit(false); // No need to detach objects
+                long stagingSnapshotID = getCurrentAuthzPathsSnapshotID(pm) + 1;
+                deleteAuthzPathsMappingsSince(pm, stagingSnapshotID);
+                return new long[] {stagingSnapshotID, getNextAuthzObjectID(pm)};
+              });
+      final long stagingSnapshotID = ids[0];
+      LOGGER.info("Attempting to write new HMS snapshot with ID = {}", stagingSnapshotID);
 
-                  logPersistingFullSnapshotState(totalNumberOfObjectsToPersist,
-                      totalNumberOfPathsToPersist, objectsPersistedCount, pathsPersistedCount);
+      try {
+        fullPathsImageWriter.write(authzPaths, stagingSnapshotID, ids[1]);
+
+        tm.executeTransactionWithRetry(
+                pm -> {
+                  pm.setDetachAllOnCommit(false); // No need to detach objects
+                  long currentSnapshotID = getCurrentAuthzPathsSnapshotID(pm);
+                  if (currentSnapshotID >= stagingSnapshotID) {
+                    throw new SentryInvalidInputException("HMS snapshot #" + currentSnapshotID +
+                        " was persisted while snapshot #" + stagingSnapshotID + " was written");
+                  }
+                  deleteNotificationsSince(pm, notificationID + 1);
+                  // persist the notification ID
+                  persistUniqueNotificationIDCore(pm, notificationID);
+                  pm.makePersistent(new MAuthzPathsSnapshotId(stagingSnapshotID));
+                  return null;
+                });
+      } catch (Exception e) {
+        deleteStagedAuthzPathsMappings(stagingSnapshotID);
+        throw e;
+      }
+      LOGGER.info("Committed new HMS snapshot with ID = {}", stagingSnapshotID);
+    } finally {
+      timerContext.stop();
+    }
+  }
 
-                  lastProgressTime = currentTime;
+  /**
+   * Remove the objects of a snapshot that could not be made current. Failures are only
+   * logged, the objects are removed again before the next snapshot is written.
+   */
+  private void deleteStagedAuthzPathsMappings(final long stagingSnapshotID) {
+    try {
+      tm.executeTransaction(
+              pm -> {
+                pm.setDetachAllOnCommit(false); // No need to detach objects
+                if (getCurrentAuthzPathsSnapshotID(pm) < stagingSnapshotID) {
+                  deleteAuthzPathsMappingsSince(pm, stagingSnapshotID);
                 }
-              }
-              return null;
-            });
+                return null;
+              });
+    } catch (Exception e) {
+      LOGGER.warn("Failed to remove objects of HMS snapshot #{}", stagingSnapshotID, e);
+    }
   }
 
-  public void logPersistingFullSnapshotState(int totalNumberOfObjectsToPersist,
-      int totalNumberOfPathsToPersist, int objectsPersistedCount, int pathsPersistedCount) {
-
-    LOGGER.info(String.format("Persisting HMS Paths on Snapshot: "
-            + "authz_objs_persisted=%d(%.2f%%) authz_paths_persisted=%d(%.2f%%) "
-            + "authz_objs_total=%d authz_paths_total=%d",
-        objectsPersistedCount,
-        totalNumberOfObjectsToPersist > 0 ? 100 * ((double) objectsPersistedCount
-            / totalNumberOfObjectsToPersist) : 0,
-        pathsPersistedCount, totalNumberOfPathsToPersist > 0 ? 100 * ((double) pathsPersistedCount
-            / totalNumberOfPathsToPersist) : 0,
-        totalNumberOfObjectsToPersist, totalNumberOfPathsToPersist));
+  /**
+   * Delete the paths mappings of all snapshots starting from the given ID, with their paths.
+   *
+   * @param pm Persistence manager instance
+   * @param snapshotID first snapshot ID to delete
+   */
+  private static void deleteAuthzPathsMappingsSince(PersistenceManager pm, long snapshotID) {
+    Query query = pm.newQuery(MAuthzPathsMapping.class);
+    query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+    query.setFilter("this.authzSnapshotID >= snapshotID");
+    query.declareParameters("long snapshotID");
+    long numDeleted = query.deletePersistentAll(snapshotID);
+    if (numDeleted > 0) {
+      LOGGER.info("Removed {} objects of unfinished HMS snapshots starting from #{}",
+          numDeleted, snapshotID);
+    }
   }
 
   /**
@@ -3467,6 +3911,66 @@ public class SentryStore implements SentryStoreInterface {
     mAuthzPathsMapping.makePersistent(pm);
   }
 
+  /**
+   * Applies the merged path changes of a batch of notifications to the
+   * authzObj -> [Paths] mapping. As well as persist the delta path change of every
+   * notification to MSentryPathChange table in a single transaction.
+   * <p>
+   * The current paths snapshot ID and the next authzObject ID are read once for the
+   * whole batch, and the mapping of every authz object is read and written once.
+   *
+   * @param batch the path changes of the notifications
+   * @throws Exception
+   */
+  @Override
+  public void persistNotificationBatch(final NotificationBatch batch) throws Exception {
+    List<Update> updates = new ArrayList<>(batch.size());
+    for (NotificationBatch.PathChange change : batch.getChanges()) {
+      updates.add(change.getUpdate());
+    }
+    execute(updates, pm -> {
+      pm.setDetachAllOnCommit(false); // No need to detach objects
+      long currentSnapshotID = getCurrentAuthzPathsSnapshotID(pm);
+      if (currentSnapshotID <= EMPTY_PATHS_SNAPSHOT_ID) {
+        LOGGER.warn("Paths of {} authzObjs cannot be persisted if paths snapshot ID does not exist yet.",
+            batch.getChangesByAuthzObj().size());
+      }
+
+      long nextObjectId = EMPTY_PATHS_MAPPING_ID;
+      for (Map.Entry<String, NotificationBatch.AuthzObjChanges> entry :
+          batch.getChangesByAuthzObj().entrySet()) {
+        String authzObj = entry.getKey();
+        NotificationBatch.AuthzObjChanges changes = entry.getValue();
+        MAuthzPathsMapping mAuthzPathsMapping =
+            getMAuthzPathsMappingCore(pm, currentSnapshotID, authzObj);
+        if (changes.isDeleteAll()) {
+          if (mAuthzPathsMapping != null) {
+            pm.deletePersistent(mAuthzPathsMapping);
+          }
+          continue;
+        }
+        if (mAuthzPathsMapping != null && !changes.getDeletedPaths().isEmpty()) {
+          mAuthzPathsMapping.deletePersistent(pm, changes.getDeletedPaths());
+        }
+        if (changes.getAddedPaths().isEmpty()) {
+          continue;
+        }
+        if (mAuthzPathsMapping == null) {
+          // Objects created in this transaction are not visible to the max() query
+          if (nextObjectId == EMPTY_PATHS_MAPPING_ID) {
+            nextObjectId = getNextAuthzObjectID(pm);
+          }
+          mAuthzPathsMapping = new MAuthzPathsMapping(currentSnapshotID, nextObjectId++,
+              authzObj, changes.getAddedPaths());
+        } else {
+          mAuthzPathsMapping.addPathToPersist(changes.getAddedPaths());
+        }
+        mAuthzPathsMapping.makePersistent(pm);
+      }
+      return null;
+    });
+  }
+
   /**
    * Deletes a set of paths belongs to given authzObj from the authzObj -> [Paths] mapping.
    * As well as persist the corresponding delta path change to MSentryPathChange
@@ -4219,7 +4723,9 @@ public class SentryStore implements SentryStoreInterface {
    */
   public void importSentryMetaData(final TSentryMappingData tSentryMappingData,
       final boolean isOverwriteForRole) throws Exception {
-    tm.executeTransaction(
+    // Any role, user or privilege may be changed by the import. Its change ID is
+    // allocated by the group commit writer like the ones of the other changes.
+    executePolicyChange(anyPrincipalChanges(),
             pm -> {
               pm.setDetachAllOnCommit(false); // No need to detach objects
               TSentryMappingData mappingData = lowercaseRoleName(tSentryMappingData);
@@ -4846,23 +5352,68 @@ public class SentryStore implements SentryStoreInterface {
    * does not have any return value.
    * <p>
    * Failure in any TransactionBlock would cause the whole transaction
-   * to fail.
+   * to fail. The transaction may be shared with concurrent calls, see
+   * {@link GroupCommitWriter}.
    *
    * @param updates list of delta updates
    * @throws Exception
    */
   private void execute(List<Update> updates, TransactionBlock<Object> transactionBlock) throws Exception {
-    // Currently this API is used to update the owner privilege. This needs two DeltaTransactionBlock's to record
-    // revoking/granting owner privilege and one TransactionBlock to perform actual permission change.
-    // Default size of tbs is picked accordingly.
-    List<TransactionBlock<Object>> tbs = new ArrayList<>(3);
-    if (persistUpdateDeltas && updates != null && updates.size() > 0) {
-      for (Update update : updates) {
-        tbs.add(new DeltaTransactionBlock(update));
-      }
+    List<Update> deltas = persistUpdateDeltas && updates != null
+        ? updates : Collections.<Update>emptyList();
+    groupCommitWriter.execute(deltas, transactionBlock);
+  }
+
+  /**
+   * Execute a change of roles, groups, users or privileges as a single transaction, see
+   * {@link #execute(List, TransactionBlock)}. Every such change is recorded in
+   * {@link MSentryPermChange}, so that the last change ID changes with the policy. When no
+   * delta update is persisted for it, e.g. for privileges which are not synchronized with
+   * HDFS or when HDFS sync is disabled, principalChanges is persisted instead. The provider
+   * privilege index finds the change by its change ID.
+   *
+   * @param updates delta updates of the change
+   * @param principalChanges roles and users changed, see
+   *        {@link PermissionsUpdate#PRINCIPAL_CHANGES}
+   */
+  private void executePolicyChange(List<Update> updates, PermissionsUpdate principalChanges,
+      TransactionBlock<Object> transactionBlock) throws Exception {
+    List<Update> deltas = persistUpdateDeltas && updates != null && !updates.isEmpty()
+        ? updates : Collections.<Update>singletonList(principalChanges);
+    groupCommitWriter.execute(deltas, transactionBlock);
+  }
+
+  private void executePolicyChange(Update update, PermissionsUpdate principalChanges,
+      TransactionBlock<Object> transactionBlock) throws Exception {
+    executePolicyChange(update != null ? Collections.singletonList(update)
+        : Collections.<Update>emptyList(), principalChanges, transactionBlock);
+  }
+
+  private void executePolicyChange(PermissionsUpdate principalChanges,
+      TransactionBlock<Object> transactionBlock) throws Exception {
+    executePolicyChange(Collections.<Update>emptyList(), principalChanges, transactionBlock);
+  }
+
+  /**
+   * @return the change naming a role or user, with its name normalized by the caller
+   */
+  private static PermissionsUpdate principalChanges(SentryPrincipalType type, String name) {
+    return PermissionsUpdate.newPrincipalChanges(Collections.singleton(
+        new TPrivilegePrincipal(type == SentryPrincipalType.ROLE ?
+            TPrivilegePrincipalType.ROLE : TPrivilegePrincipalType.USER, name)));
+  }
+
+  /**
+   * @return the change of a policy change whose roles and users are not known up front
+   */
+  private static PermissionsUpdate anyPrincipalChanges() {
+    return PermissionsUpdate.newPrincipalChanges(Collections.<TPrivilegePrincipal>emptySet());
+  }
+
+  private void invalidateProviderPrivilegeIndex() {
+    if (providerPrivilegeIndex != null) {
+      providerPrivilegeIndex.invalidate();
     }
-    tbs.add(transactionBlock);
-    tm.executeTransactionBlocksWithRetry(tbs);
   }
 
   /**
@@ -4994,4 +5545,109 @@ public class SentryStore implements SentryStoreInterface {
       }
     );
   }
+
+  @Override
+  public TSentryPrivilegeChangesResponse getPrivilegeChanges(final Long changeId)
+      throws Exception {
+    return tm.executeTransaction(
+      pm -> {
+        // No need to detach objects
+        pm.setDetachAllOnCommit(false);
+
+        // The change ID is read first, so the roles and users read afterwards are at least as
+        // recent. A change committed in between is returned again by the next request.
+        long lastChangeId = getLastProcessedChangeIDCore(pm, MSentryPermChange.class);
+        Set<TPrivilegePrincipal> changed = null;
+        if (changeId != null && changeId <= lastChangeId) {
+          changed = getChangedPrincipalsCore(pm, changeId, lastChangeId);
+        }
+
+        TSentryPrivilegeChangesResponse response = new TSentryPrivilegeChangesResponse();
+        response.setChangeId(lastChangeId);
+        response.setFullImage(changed == null);
+        response.setRolePrivileges(new HashMap<String, Set<TSentryPrivilege>>());
+        response.setRoleGroups(new HashMap<String, Set<String>>());
+        response.setUserPrivileges(new HashMap<String, Set<TSentryPrivilege>>());
+        response.setRemovedRoles(new HashSet<String>());
+        response.setRemovedUsers(new HashSet<String>());
+
+        if (changed == null) {
+          Query query = pm.newQuery(MSentryRole.class);
+          query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+          for (MSentryRole role : (List<MSentryRole>) query.execute()) {
+            addRoleChanges(response, role);
+          }
+          query = pm.newQuery(MSentryUser.class);
+          query.addExtension(LOAD_RESULTS_AT_COMMIT, "false");
+          for (MSentryUser user : (List<MSentryUser>) query.execute()) {
+            response.getUserPrivileges().put(user.getUserName(),
+                convertToTSentryPrivileges(user.getPrivileges()));
+          }
+          return response;
+        }
+
+        for (TPrivilegePrincipal principal : changed) {
+          if (principal.getType() == TPrivilegePrincipalType.ROLE) {
+            MSentryRole role = getRole(pm, principal.getValue());
+            if (role == null) {
+              response.getRemovedRoles().add(principal.getValue());
+            } else {
+              addRoleChanges(response, role);
+            }
+          } else {
+            MSentryUser user = getUser(pm, principal.getValue());
+            if (user == null) {
+              response.getRemovedUsers().add(principal.getValue());
+            } else {
+              response.getUserPrivileges().put(user.getUserName(),
+                  convertToTSentryPrivileges(user.getPrivileges()));
+            }
+          }
+        }
+        return response;
+      });
+  }
+
+  private void addRoleChanges(TSentryPrivilegeChangesResponse response, MSentryRole role) {
+    Set<String> groups = new HashSet<>(role.getGroups().size());
+    for (MSentryGroup group : role.getGroups()) {
+      groups.add(group.getGroupName());
+    }
+    response.getRolePrivileges().put(role.getRoleName(),
+        convertToTSentryPrivileges(role.getPrivileges()));
+    response.getRoleGroups().put(role.getRoleName(), groups);
+  }
+
+  /**
+   * Collects the roles and users changed after the given permission change ID, up to the
+   * last one. Should be called inside a transaction.
+   *
+   * @return the changed roles and users, or null if some changes are no longer kept or do
+   * not name the roles and users they change
+   */
+  private Set<TPrivilegePrincipal> getChangedPrincipalsCore(PersistenceManager pm,
+      long changeId, long lastChangeId) throws Exception {
+    Set<TPrivilegePrincipal> changed = new HashSet<>();
+    if (changeId == lastChangeId) {
+      return changed;
+    }
+    List<MSentryPermChange> changes =
+        getMSentryChangesCore(pm, MSentryPermChange.class, changeId + 1);
+    if (changes.isEmpty() || !validateDeltaChanges(changeId + 1, changes)) {
+      return null;
+    }
+    for (MSentryPermChange change : changes) {
+      if (change.getChangeID() > lastChangeId) {
+        break;
+      }
+      PermissionsUpdate update = new PermissionsUpdate();
+      update.deltaDeserialize(change.getPermChange());
+      Set<TPrivilegePrincipal> principals = update.getChangedPrincipals();
+      if (principals == null) {
+        return null;
+      }
+      changed.addAll(principals);
+    }
+    return changed;
+  }
 }
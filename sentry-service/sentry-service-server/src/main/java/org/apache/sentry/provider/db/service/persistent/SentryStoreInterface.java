@@ -31,6 +31,7 @@ import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
 import org.apache.sentry.api.service.thrift.TSentryGroup;
 import org.apache.sentry.api.service.thrift.TSentryMappingData;
 import org.apache.sentry.api.service.thrift.TSentryPrivilege;
+import org.apache.sentry.api.service.thrift.TSentryPrivilegeChangesResponse;
 import org.apache.sentry.api.service.thrift.TSentryPrivilegeMap;
 import org.apache.sentry.api.service.thrift.TSentryRole;
 import org.apache.sentry.core.common.exception.SentryInvalidInputException;
@@ -240,6 +241,25 @@ public interface SentryStoreInterface {
                                               TSentryAuthorizable authHierarchy)
     throws Exception;
 
+  /**
+   * Bulk version of {@link SentryStoreInterface#listSentryPrivilegesForProvider(Set, Set,
+   * TSentryActiveRoleSet, TSentryAuthorizable)}. The roles of the given groups and users
+   * are resolved once and the privileges for all hierarchies are read in a single
+   * transaction.
+   * @param groups the set of group names
+   * @param users the set of user names
+   * @param roleSet the active roleSet
+   * @param authHierarchies the auth hierarchies to filter privileges for
+   * @return a list of sentry privilege strings, one set per element of
+   *         {@code authHierarchies} and in the same order.
+   * @throws Exception
+   */
+  List<Set<String>> listSentryPrivilegesForProviderBulk(Set<String> groups,
+                                                        Set<String> users,
+                                                        TSentryActiveRoleSet roleSet,
+                                                        List<TSentryAuthorizable> authHierarchies)
+    throws Exception;
+
   /**
    * Similar to {@link SentryStoreInterface#listSentryPrivilegesForProvider(Set, Set,
    * TSentryActiveRoleSet, TSentryAuthorizable)}, but returns a set of thrift sentry
@@ -432,6 +452,12 @@ public interface SentryStoreInterface {
    */
   void purgeNotificationIdTable();
 
+  /**
+   * Purge the paths mappings of HMS snapshots older than the previous one,
+   * {@link MAuthzPathsMapping}, with their paths.
+   */
+  void purgeAuthzPathsSnapshots();
+
   /**
    * Return counter wait
    * @return
@@ -713,6 +739,16 @@ public interface SentryStoreInterface {
   void deleteAllAuthzPathsMapping(final String authzObj, final UniquePathsUpdate update)
     throws Exception;
 
+  /**
+   * Applies the merged path changes of a batch of notifications to the
+   * authzObj -> [Paths] mapping. As well as persist the delta path change of every
+   * notification to MSentryPathChange table in a single transaction.
+   *
+   * @param batch the path changes of the notifications
+   * @throws Exception
+   */
+  void persistNotificationBatch(final NotificationBatch batch) throws Exception;
+
   /**
    * Deletes a set of paths belongs to given authzObj from the authzObj -> [Paths] mapping.
    * As well as persist the corresponding delta path change to MSentryPathChange
@@ -840,4 +876,14 @@ public interface SentryStoreInterface {
    *         If no users are found, then an empty map object is returned.
    */
   Map<String, Set<TSentryPrivilege>> getAllUsersPrivileges() throws Exception;
+
+  /**
+   * Returns the roles and users whose privileges, groups or users changed since the given
+   * permission change ID, read in a single transaction. All of them are returned if the
+   * changes since then are not all known.
+   *
+   * @param changeId permission change ID of the caller's copy, or null if it has none
+   * @return the changes and the permission change ID they lead to, without status
+   */
+  TSentryPrivilegeChangesResponse getPrivilegeChanges(Long changeId) throws Exception;
 }
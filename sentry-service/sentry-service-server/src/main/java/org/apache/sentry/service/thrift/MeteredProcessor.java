@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.service.thrift;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolDecorator;
+
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Records the latency of every Thrift call in a timer per method. Timers are named after
+ * {@link SentryService}, followed by "rpc" and the service and method of the call, for
+ * example "rpc.SentryPolicyService.list_sentry_roles_by_group".
+ * The message header is read to find the method and replayed to the wrapped processor.
+ */
+class MeteredProcessor implements TProcessor {
+  // Method names come from clients, so the number of timers is capped
+  private static final int MAX_TIMERS = 512;
+  private static final String OTHER_METHODS = "other";
+
+  private final TProcessor processor;
+  private final SentryMetrics sentryMetrics;
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+  MeteredProcessor(TProcessor processor, SentryMetrics sentryMetrics) {
+    this.processor = processor;
+    this.sentryMetrics = sentryMetrics;
+  }
+
+  @Override
+  public boolean process(TProtocol in, TProtocol out) throws TException {
+    TMessage message = in.readMessageBegin();
+    final Timer.Context timerContext = getTimer(message.name).time();
+    try {
+      return processor.process(new StoredMessageProtocol(in, message), out);
+    } finally {
+      timerContext.stop();
+    }
+  }
+
+  @VisibleForTesting
+  Timer getTimer(String method) {
+    Timer timer = timers.get(method);
+    if (timer == null) {
+      String timerName = timers.size() < MAX_TIMERS ? method : OTHER_METHODS;
+      timer = sentryMetrics.getTimer(name(SentryService.class, "rpc",
+          timerName.replace(':', '.')));
+      if (timerName.equals(method)) {
+        timers.putIfAbsent(method, timer);
+      }
+    }
+    return timer;
+  }
+
+  /**
+   * Returns the message header that was already read instead of reading it again.
+   */
+  private static class StoredMessageProtocol extends TProtocolDecorator {
+    private final TMessage messageBegin;
+
+    StoredMessageProtocol(TProtocol protocol, TMessage messageBegin) {
+      super(protocol);
+      this.messageBegin = messageBegin;
+    }
+
+    @Override
+    public TMessage readMessageBegin() throws TException {
+      return messageBegin;
+    }
+  }
+}
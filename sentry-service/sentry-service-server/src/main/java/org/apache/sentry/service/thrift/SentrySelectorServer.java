@@ -0,0 +1,761 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.service.thrift;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.sasl.Sasl;
+import javax.security.sasl.SaslException;
+import javax.security.sasl.SaslServer;
+
+import org.apache.sentry.core.common.transport.ClientConnectionInfo;
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.transport.TNonblockingServerTransport;
+import org.apache.thrift.transport.TNonblockingSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Non-blocking Thrift server for SASL clients.
+ * <p>
+ * Connections are accepted by one thread and spread over a few selector threads, which
+ * read and write all socket data without blocking. Each complete SASL negotiation message
+ * or request frame is handed to a fixed pool of worker threads, which run the SASL
+ * negotiation and the processor. Idle connections therefore cost no thread, and the number
+ * of connections a server can keep open is not bounded by the number of workers.
+ * <p>
+ * The messages waiting for a worker are bounded. Once the worker queue is full, the selector
+ * threads stop reading from the connections with a complete message and hand it to the
+ * workers as soon as there is room, so that busy clients are slowed down rather than
+ * disconnected.
+ * <p>
+ * The wire format is the one of {@link org.apache.thrift.transport.TSaslServerTransport},
+ * so existing clients do not change: negotiation messages are a status byte and a
+ * length-prefixed payload, and requests and responses are length-prefixed frames which are
+ * wrapped by the SASL server when the negotiated QOP requires it. Like the thread pool
+ * server, a connection runs one request at a time and every request is sent as a single
+ * frame.
+ */
+public class SentrySelectorServer extends TServer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SentrySelectorServer.class);
+
+  // Negotiation status codes of TSaslTransport
+  private static final byte START = 0x01;
+  private static final byte OK = 0x02;
+  private static final byte BAD = 0x03;
+  private static final byte ERROR = 0x04;
+  private static final byte COMPLETE = 0x05;
+
+  private static final int STATUS_BYTES = 1;
+  private static final int PAYLOAD_LENGTH_BYTES = 4;
+
+  // Output buffers which grew larger than this by a big response are not kept for reuse
+  private static final int OUTPUT_BUFFER_SIZE = 1024;
+  private static final int MAX_RETAINED_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+  // How often a selector thread with messages waiting for room in the worker queue retries
+  private static final long DEFERRED_RETRY_INTERVAL_MS = 10;
+
+  /**
+   * Arguments of the selector server. A SASL server definition is required.
+   */
+  public static class Args extends AbstractServerArgs<Args> {
+    private int selectorThreads = 2;
+    private int workerThreads = 64;
+    private int workerQueueSize = 1024;
+    private long maxMessageSize = Integer.MAX_VALUE;
+    private String mechanism;
+    private String protocol;
+    private String serverName;
+    private Map<String, String> saslProperties;
+    private CallbackHandler callbackHandler;
+
+    public Args(TNonblockingServerTransport transport) {
+      super(transport);
+    }
+
+    public Args selectorThreads(int selectorThreads) {
+      this.selectorThreads = selectorThreads;
+      return this;
+    }
+
+    public Args workerThreads(int workerThreads) {
+      this.workerThreads = workerThreads;
+      return this;
+    }
+
+    /**
+     * Maximum number of negotiation messages and requests waiting for a worker.
+     */
+    public Args workerQueueSize(int workerQueueSize) {
+      this.workerQueueSize = workerQueueSize;
+      return this;
+    }
+
+    /**
+     * Maximum size of a negotiation message or request frame. Clients sending larger
+     * messages are disconnected.
+     */
+    public Args maxMessageSize(long maxMessageSize) {
+      this.maxMessageSize = maxMessageSize;
+      return this;
+    }
+
+    /**
+     * The SASL server used for all connections, with the same parameters as
+     * {@link org.apache.thrift.transport.TSaslServerTransport.Factory#addServerDefinition}.
+     */
+    public Args saslServerDefinition(String mechanism, String protocol, String serverName,
+        Map<String, String> saslProperties, CallbackHandler callbackHandler) {
+      this.mechanism = mechanism;
+      this.protocol = protocol;
+      this.serverName = serverName;
+      this.saslProperties = ImmutableMap.copyOf(saslProperties);
+      this.callbackHandler = callbackHandler;
+      return this;
+    }
+  }
+
+  private final TNonblockingServerTransport serverTransport;
+  private final Args args;
+  private final AtomicInteger openConnections = new AtomicInteger();
+  private volatile ThreadPoolExecutor workers;
+  private volatile Selector acceptSelector;
+
+  public SentrySelectorServer(Args args) {
+    super(args);
+    Preconditions.checkArgument(args.selectorThreads > 0, "selectorThreads must be positive");
+    Preconditions.checkArgument(args.workerThreads > 0, "workerThreads must be positive");
+    Preconditions.checkArgument(args.workerQueueSize > 0, "workerQueueSize must be positive");
+    Preconditions.checkNotNull(args.mechanism, "SASL server definition is required");
+    this.serverTransport = (TNonblockingServerTransport) serverTransport_;
+    this.args = args;
+  }
+
+  /**
+   * @return number of requests and negotiation messages waiting for a worker
+   */
+  public int getWorkerQueueSize() {
+    ThreadPoolExecutor executor = workers;
+    return executor == null ? 0 : executor.getQueue().size();
+  }
+
+  /**
+   * @return number of open client connections
+   */
+  public int getOpenConnections() {
+    return openConnections.get();
+  }
+
+  @Override
+  public void serve() {
+    List<SelectorThread> selectorThreads = new ArrayList<>(args.selectorThreads);
+    // Threads are created here so that they run with the credentials of the caller
+    workers = new ThreadPoolExecutor(args.workerThreads, args.workerThreads,
+        0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(args.workerQueueSize),
+        new ThreadFactoryBuilder().setNameFormat("sentry-rpc-worker-%d").setDaemon(true).build());
+    workers.prestartAllCoreThreads();
+    try {
+      serverTransport.listen();
+      acceptSelector = Selector.open();
+      serverTransport.registerSelector(acceptSelector);
+      for (int i = 0; i < args.selectorThreads; i++) {
+        SelectorThread selectorThread = new SelectorThread("sentry-rpc-selector-" + i);
+        selectorThreads.add(selectorThread);
+        selectorThread.start();
+      }
+      if (eventHandler_ != null) {
+        eventHandler_.preServe();
+      }
+      setServing(true);
+      acceptConnections(selectorThreads);
+    } catch (IOException | TTransportException e) {
+      LOGGER.error("Error serving client connections", e);
+    } finally {
+      setServing(false);
+      stopped_ = true;
+      for (SelectorThread selectorThread : selectorThreads) {
+        selectorThread.selector.wakeup();
+      }
+      for (SelectorThread selectorThread : selectorThreads) {
+        joinQuietly(selectorThread);
+      }
+      workers.shutdownNow();
+      closeQuietly(acceptSelector);
+      serverTransport.close();
+    }
+  }
+
+  @Override
+  public void stop() {
+    stopped_ = true;
+    Selector selector = acceptSelector;
+    if (selector != null) {
+      selector.wakeup();
+    }
+    serverTransport.interrupt();
+  }
+
+  private void acceptConnections(List<SelectorThread> selectorThreads) throws IOException {
+    int nextSelector = 0;
+    while (!stopped_) {
+      acceptSelector.select();
+      Iterator<SelectionKey> keys = acceptSelector.selectedKeys().iterator();
+      while (!stopped_ && keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        if (!key.isValid() || !key.isAcceptable()) {
+          continue;
+        }
+        TNonblockingSocket client;
+        try {
+          client = (TNonblockingSocket) serverTransport.accept();
+        } catch (TTransportException e) {
+          LOGGER.warn("Error accepting client connection", e);
+          continue;
+        }
+        selectorThreads.get(nextSelector).addConnection(client.getSocketChannel());
+        nextSelector = (nextSelector + 1) % selectorThreads.size();
+      }
+    }
+  }
+
+  /**
+   * Reads and writes the data of a subset of the connections.
+   */
+  private final class SelectorThread extends Thread {
+    private final Selector selector;
+    private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+    // Connections which are done with a worker, or which should be closed
+    private final Queue<Connection> readyConnections = new ConcurrentLinkedQueue<>();
+    // Connections with a message waiting for room in the worker queue, in arrival order
+    private final Queue<Connection> deferredConnections = new ArrayDeque<>();
+
+    private SelectorThread(String name) throws IOException {
+      super(name);
+      setDaemon(true);
+      selector = Selector.open();
+    }
+
+    void addConnection(SocketChannel channel) {
+      newChannels.add(channel);
+      selector.wakeup();
+    }
+
+    void ready(Connection connection) {
+      readyConnections.add(connection);
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!stopped_) {
+          selector.select(deferredConnections.isEmpty() ? 0 : DEFERRED_RETRY_INTERVAL_MS);
+          registerNewChannels();
+          processReadyConnections();
+          submitDeferredConnections();
+          Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+          while (!stopped_ && keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            Connection connection = (Connection) key.attachment();
+            if (!key.isValid()) {
+              connection.close();
+            } else if (key.isReadable()) {
+              connection.handleRead();
+            } else if (key.isWritable()) {
+              connection.handleWrite();
+            }
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.error("Selector thread {} failed", getName(), e);
+      } finally {
+        SocketChannel channel;
+        while ((channel = newChannels.poll()) != null) {
+          closeQuietly(channel);
+        }
+        for (SelectionKey key : new ArrayList<>(selector.keys())) {
+          ((Connection) key.attachment()).close();
+        }
+        closeQuietly(selector);
+      }
+    }
+
+    private void registerNewChannels() {
+      SocketChannel channel;
+      while ((channel = newChannels.poll()) != null) {
+        try {
+          Connection connection = new Connection(channel, this);
+          connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+          openConnections.incrementAndGet();
+        } catch (IOException e) {
+          LOGGER.warn("Error registering client connection", e);
+          closeQuietly(channel);
+        }
+      }
+    }
+
+    private void processReadyConnections() {
+      Connection connection;
+      while ((connection = readyConnections.poll()) != null) {
+        connection.resume();
+      }
+    }
+
+    /**
+     * Hands the deferred messages to the workers, as long as there is room for them.
+     */
+    private void submitDeferredConnections() {
+      Connection connection;
+      while ((connection = deferredConnections.peek()) != null) {
+        if (connection.state != State.CLOSED && !connection.submit()) {
+          return;
+        }
+        deferredConnections.poll();
+      }
+    }
+  }
+
+  private enum State {
+    NEGOTIATING,
+    READY,
+    PROCESSING,
+    WRITING,
+    CLOSED,
+  }
+
+  /**
+   * A client connection and its server side transport. The connection is owned by its
+   * selector thread, except while a worker is processing a message, during which the
+   * selector does not touch it.
+   */
+  private final class Connection extends TTransport implements ClientConnectionInfo {
+    private final SocketChannel channel;
+    private final SelectorThread selectorThread;
+    private SelectionKey key;
+    private State state = State.NEGOTIATING;
+    private boolean negotiationComplete;
+
+    // Read by the selector thread
+    private final ByteBuffer header = ByteBuffer.allocate(STATUS_BYTES + PAYLOAD_LENGTH_BYTES);
+    private ByteBuffer payload;
+
+    // Message waiting for room in the worker queue
+    private Runnable pendingTask;
+
+    // Set by the worker for the selector thread
+    private ByteBuffer response;
+    private boolean closeAfterResponse;
+    private boolean closeRequested;
+
+    private SaslServer saslServer;
+    private boolean wrap;
+
+    // Used by the worker while processing a request
+    private byte[] inputBuffer;
+    private int inputPosition;
+    private int inputLimit;
+    private TByteArrayOutputStream outputBuffer = new TByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
+    private TProcessor processor;
+    private TProtocol inputProtocol;
+    private TProtocol outputProtocol;
+    private ServerContext context;
+
+    private Connection(SocketChannel channel, SelectorThread selectorThread) {
+      this.channel = channel;
+      this.selectorThread = selectorThread;
+    }
+
+    private void handleRead() {
+      try {
+        if (payload == null) {
+          if (channel.read(header) < 0) {
+            close();
+            return;
+          }
+          if (header.hasRemaining()) {
+            return;
+          }
+          header.flip();
+          int length = header.getInt(header.limit() - PAYLOAD_LENGTH_BYTES);
+          if (length < 0 || length > args.maxMessageSize) {
+            LOGGER.warn("Closing connection from {}: invalid message length {}",
+                getClientAddress(), length);
+            close();
+            return;
+          }
+          payload = ByteBuffer.allocate(length);
+        }
+        if (channel.read(payload) < 0) {
+          close();
+          return;
+        }
+        if (!payload.hasRemaining()) {
+          dispatch();
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Error reading from {}", getClientAddress(), e);
+        close();
+      }
+    }
+
+    /**
+     * Hands a complete message to a worker, and stops reading until the worker is done.
+     * The message waits behind the deferred ones when the worker queue is full.
+     */
+    private void dispatch() {
+      final byte status = state == State.NEGOTIATING ? header.get(0) : 0;
+      final byte[] message = payload.array();
+      payload = null;
+      header.clear();
+      final boolean negotiating = state == State.NEGOTIATING;
+      state = State.PROCESSING;
+      key.interestOps(0);
+      pendingTask = new Runnable() {
+        @Override
+        public void run() {
+          if (negotiating) {
+            negotiate(status, message);
+          } else {
+            processRequest(message);
+          }
+        }
+      };
+      if (!selectorThread.deferredConnections.isEmpty() || !submit()) {
+        selectorThread.deferredConnections.add(this);
+      }
+    }
+
+    /**
+     * @return false if the worker queue is full and the message has to be submitted later
+     */
+    private boolean submit() {
+      try {
+        workers.execute(pendingTask);
+      } catch (RejectedExecutionException e) {
+        if (!workers.isShutdown()) {
+          return false;
+        }
+        // Rejected because the server is stopping
+        LOGGER.debug("Unable to process request from {}", getClientAddress(), e);
+        close();
+      }
+      pendingTask = null;
+      return true;
+    }
+
+    private void handleWrite() {
+      try {
+        channel.write(response);
+        if (response.hasRemaining()) {
+          return;
+        }
+        response = null;
+        if (closeAfterResponse) {
+          close();
+          return;
+        }
+        startReading();
+      } catch (IOException e) {
+        LOGGER.debug("Error writing to {}", getClientAddress(), e);
+        close();
+      }
+    }
+
+    /**
+     * Called on the selector thread when a worker is done with the connection.
+     */
+    private void resume() {
+      if (state == State.CLOSED) {
+        return;
+      }
+      if (closeRequested || (response == null && closeAfterResponse)) {
+        close();
+      } else if (response != null) {
+        state = State.WRITING;
+        key.interestOps(SelectionKey.OP_WRITE);
+        handleWrite();
+      } else {
+        startReading();
+      }
+    }
+
+    private void startReading() {
+      if (negotiationComplete) {
+        state = State.READY;
+        // Request frames have no status byte
+        header.position(STATUS_BYTES);
+      } else {
+        state = State.NEGOTIATING;
+      }
+      key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Runs one step of the SASL negotiation on a worker thread.
+     */
+    private void negotiate(byte status, byte[] message) {
+      try {
+        if (saslServer == null) {
+          if (status != START) {
+            sendNegotiationError(BAD, "Expected START status, received " + status);
+            return;
+          }
+          String mechanism = new String(message, StandardCharsets.UTF_8);
+          if (!args.mechanism.equals(mechanism)) {
+            sendNegotiationError(BAD, "Unsupported mechanism type " + mechanism);
+            return;
+          }
+          saslServer = Sasl.createSaslServer(mechanism, args.protocol, args.serverName,
+              args.saslProperties, args.callbackHandler);
+          if (saslServer == null) {
+            sendNegotiationError(ERROR, "Unable to create SASL server for " + mechanism);
+            return;
+          }
+          // The initial response of the client follows without a reply
+          finish(null, false);
+          return;
+        }
+        if (status != OK && status != COMPLETE) {
+          sendNegotiationError(BAD, "Expected COMPLETE or OK, got " + status);
+          return;
+        }
+        byte[] challenge = saslServer.evaluateResponse(message);
+        if (saslServer.isComplete()) {
+          String qop = (String) saslServer.getNegotiatedProperty(Sasl.QOP);
+          wrap = qop != null && !"auth".equalsIgnoreCase(qop);
+          processor = processorFactory_.getProcessor(this);
+          inputProtocol = inputProtocolFactory_.getProtocol(this);
+          outputProtocol = outputProtocolFactory_.getProtocol(this);
+          if (eventHandler_ != null) {
+            context = eventHandler_.createContext(inputProtocol, outputProtocol);
+          }
+          negotiationComplete = true;
+        }
+        finish(negotiationMessage(saslServer.isComplete() ? COMPLETE : OK, challenge), false);
+      } catch (SaslException e) {
+        LOGGER.debug("SASL negotiation with {} failed", getClientAddress(), e);
+        sendNegotiationError(ERROR, e.getMessage());
+      } catch (RuntimeException e) {
+        LOGGER.warn("SASL negotiation with {} failed", getClientAddress(), e);
+        sendNegotiationError(ERROR, e.getMessage());
+      }
+    }
+
+    private void sendNegotiationError(byte status, String errorMessage) {
+      finish(negotiationMessage(status, String.valueOf(errorMessage).getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    /**
+     * Processes one request on a worker thread.
+     */
+    private void processRequest(byte[] frame) {
+      try {
+        inputBuffer = wrap ? saslServer.unwrap(frame, 0, frame.length) : frame;
+        inputPosition = 0;
+        inputLimit = inputBuffer.length;
+        if (eventHandler_ != null) {
+          eventHandler_.processContext(context, this, this);
+        }
+        processor.process(inputProtocol, outputProtocol);
+
+        ByteBuffer responseFrame = null;
+        if (outputBuffer.len() > 0) {
+          byte[] data = outputBuffer.get();
+          int length = outputBuffer.len();
+          if (wrap) {
+            data = saslServer.wrap(data, 0, length);
+            length = data.length;
+          }
+          responseFrame = ByteBuffer.allocate(PAYLOAD_LENGTH_BYTES + length);
+          responseFrame.putInt(length).put(data, 0, length).flip();
+        }
+        finish(responseFrame, false);
+      } catch (TException | SaslException e) {
+        LOGGER.debug("Error processing request from {}", getClientAddress(), e);
+        finish(null, true);
+      } catch (RuntimeException e) {
+        LOGGER.error("Error processing request from {}", getClientAddress(), e);
+        finish(null, true);
+      } finally {
+        inputBuffer = null;
+        if (outputBuffer.get().length > MAX_RETAINED_OUTPUT_BUFFER_SIZE) {
+          outputBuffer = new TByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
+        } else {
+          outputBuffer.reset();
+        }
+      }
+    }
+
+    private void finish(ByteBuffer response, boolean close) {
+      this.response = response;
+      this.closeAfterResponse = close;
+      selectorThread.ready(this);
+    }
+
+    @Override
+    public InetAddress getClientAddress() {
+      return channel.socket().getInetAddress();
+    }
+
+    @Override
+    public String getAuthorizationId() {
+      return saslServer == null ? null : saslServer.getAuthorizationID();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return state != State.CLOSED && channel.isOpen();
+    }
+
+    @Override
+    public void open() throws TTransportException {
+      // The connection is open once accepted
+    }
+
+    /**
+     * Closes the connection. Only takes effect once the connection is back on the selector
+     * thread when called by a worker.
+     */
+    @Override
+    public void close() {
+      if (Thread.currentThread() != selectorThread) {
+        closeRequested = true;
+        return;
+      }
+      if (state == State.CLOSED) {
+        return;
+      }
+      state = State.CLOSED;
+      openConnections.decrementAndGet();
+      if (key != null) {
+        key.cancel();
+      }
+      closeQuietly(channel);
+      if (context != null) {
+        eventHandler_.deleteContext(context, inputProtocol, outputProtocol);
+      }
+      if (saslServer != null) {
+        try {
+          saslServer.dispose();
+        } catch (SaslException e) {
+          LOGGER.debug("Error disposing SASL server", e);
+        }
+      }
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+      int remaining = inputLimit - inputPosition;
+      if (remaining <= 0) {
+        throw new TTransportException(TTransportException.END_OF_FILE,
+            "Request is larger than its frame");
+      }
+      int count = Math.min(len, remaining);
+      System.arraycopy(inputBuffer, inputPosition, buf, off, count);
+      inputPosition += count;
+      return count;
+    }
+
+    @Override
+    public byte[] getBuffer() {
+      return inputBuffer;
+    }
+
+    @Override
+    public int getBufferPosition() {
+      return inputPosition;
+    }
+
+    @Override
+    public int getBytesRemainingInBuffer() {
+      return inputLimit - inputPosition;
+    }
+
+    @Override
+    public void consumeBuffer(int len) {
+      inputPosition += len;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+      outputBuffer.write(buf, off, len);
+    }
+  }
+
+  private static ByteBuffer negotiationMessage(byte status, byte[] payload) {
+    if (payload == null) {
+      payload = new byte[0];
+    }
+    ByteBuffer message = ByteBuffer.allocate(STATUS_BYTES + PAYLOAD_LENGTH_BYTES + payload.length);
+    message.put(status).putInt(payload.length).put(payload).flip();
+    return message;
+  }
+
+  private static void joinQuietly(Thread thread) {
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    if (closeable == null) {
+      return;
+    }
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      LOGGER.debug("Error closing {}", closeable, e);
+    }
+  }
+}
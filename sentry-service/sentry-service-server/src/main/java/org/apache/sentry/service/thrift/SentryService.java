@@ -55,10 +55,12 @@ import org.apache.sentry.service.common.ServiceConstants;
 import org.apache.sentry.service.common.ServiceConstants.ConfUtilties;
 import org.apache.sentry.service.common.ServiceConstants.ServerConfig;
 import org.apache.thrift.TMultiplexedProcessor;
+import org.apache.thrift.TProcessor;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TServerEventHandler;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TSaslServerTransport;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TServerTransport;
@@ -103,6 +105,7 @@ public class SentryService implements Callable, SigUtils.SigListener {
   private Status status;
   private SentryWebServer sentryWebServer;
   private final long maxMessageSize;
+  private final String serverType;
   /*
     sentryStore provides the data access for sentry data. It is the singleton instance shared
     between various {@link SentryPolicyService}, i.e., {@link SentryPolicyStoreProcessor} and
@@ -132,6 +135,8 @@ public class SentryService implements Callable, SigUtils.SigListener {
         ServerConfig.RPC_MIN_THREADS_DEFAULT);
     maxMessageSize = conf.getLong(ServerConfig.SENTRY_POLICY_SERVER_THRIFT_MAX_MESSAGE_SIZE,
         ServerConfig.SENTRY_POLICY_SERVER_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
+    serverType = conf.get(ServerConfig.RPC_SERVER_TYPE,
+        ServerConfig.RPC_SERVER_TYPE_DEFAULT).trim();
     if (kerberos) {
       // Use Hadoop libraries to translate the _HOST placeholder with actual hostname
       try {
@@ -272,6 +277,28 @@ public class SentryService implements Callable, SigUtils.SigListener {
           "Failed to register any processors from " + processorFactories);
     }
     addSentryServiceGauge();
+    TProcessor meteredProcessor = new MeteredProcessor(processor, SentryMetrics.getInstance());
+    boolean selector = ServerConfig.RPC_SERVER_TYPE_SELECTOR.equalsIgnoreCase(serverType);
+    if (selector && !kerberos) {
+      LOGGER.warn("The {} server requires kerberos, using the {} server",
+          ServerConfig.RPC_SERVER_TYPE_SELECTOR, ServerConfig.RPC_SERVER_TYPE_THREAD_POOL);
+    }
+    thriftServer = selector && kerberos ? createSelectorServer(meteredProcessor)
+        : createThreadPoolServer(meteredProcessor);
+    LOGGER.info("Serving on {}", address);
+    startSentryWebServer();
+
+    // thriftServer.serve() does not return until thriftServer is stopped. Need to log before
+    // calling thriftServer.serve()
+    LOGGER.info("Sentry service is ready to serve client requests");
+
+    // Allow clients/users watching the console to know when sentry is ready
+    System.out.println("Sentry service is ready to serve client requests");
+    SentryStateBank.enableState(SentryServiceState.COMPONENT, SentryServiceState.SERVICE_RUNNING);
+    thriftServer.serve();
+  }
+
+  private TServer createThreadPoolServer(TProcessor processor) throws Exception {
     TServerTransport serverTransport = new TServerSocket(address);
     TTransportFactory transportFactory = null;
     if (kerberos) {
@@ -288,18 +315,23 @@ public class SentryService implements Callable, SigUtils.SigListener {
         .transportFactory(transportFactory)
         .protocolFactory(new TBinaryProtocol.Factory(true, true, maxMessageSize, maxMessageSize))
         .minWorkerThreads(minThreads).maxWorkerThreads(maxThreads);
-    thriftServer = new TThreadPoolServer(args);
-    LOGGER.info("Serving on {}", address);
-    startSentryWebServer();
-
-    // thriftServer.serve() does not return until thriftServer is stopped. Need to log before
-    // calling thriftServer.serve()
-    LOGGER.info("Sentry service is ready to serve client requests");
+    return new TThreadPoolServer(args);
+  }
 
-    // Allow clients/users watching the console to know when sentry is ready
-    System.out.println("Sentry service is ready to serve client requests");
-    SentryStateBank.enableState(SentryServiceState.COMPONENT, SentryServiceState.SERVICE_RUNNING);
-    thriftServer.serve();
+  private TServer createSelectorServer(TProcessor processor) throws Exception {
+    SentrySelectorServer.Args args = new SentrySelectorServer.Args(
+        new TNonblockingServerSocket(address)).processor(processor)
+        .protocolFactory(new TBinaryProtocol.Factory(true, true, maxMessageSize, maxMessageSize))
+        .selectorThreads(conf.getInt(ServerConfig.RPC_SELECTOR_THREADS,
+            ServerConfig.RPC_SELECTOR_THREADS_DEFAULT))
+        .workerThreads(conf.getInt(ServerConfig.RPC_WORKER_THREADS,
+            ServerConfig.RPC_WORKER_THREADS_DEFAULT))
+        .workerQueueSize(conf.getInt(ServerConfig.RPC_WORKER_QUEUE_SIZE,
+            ServerConfig.RPC_WORKER_QUEUE_SIZE_DEFAULT))
+        .maxMessageSize(maxMessageSize)
+        .saslServerDefinition(AuthMethod.KERBEROS.getMechanismName(), principalParts[0],
+            principalParts[1], ServerConfig.SASL_PROPERTIES, new GSSCallback(conf));
+    return new SentrySelectorServer(args);
   }
 
   private void startHMSFollower(Configuration conf) throws Exception {
@@ -386,8 +418,8 @@ public class SentryService implements Callable, SigUtils.SigListener {
     Preconditions.checkState(sentryStoreCleanService == null);
 
     // If SENTRY_STORE_CLEAN_PERIOD_SECONDS is set to positive, the background SentryStore cleaning
-    // thread is enabled. Currently, it only purges the delta changes {@link MSentryChange} in
-    // the sentry store.
+    // thread is enabled. It purges the delta changes {@link MSentryChange}, the notification IDs
+    // and the old HMS snapshots in the sentry store.
     long storeCleanPeriodSecs = conf.getLong(
             ServerConfig.SENTRY_STORE_CLEAN_PERIOD_SECONDS,
             ServerConfig.SENTRY_STORE_CLEAN_PERIOD_SECONDS_DEFAULT);
@@ -402,6 +434,7 @@ public class SentryService implements Callable, SigUtils.SigListener {
           if (leaderMonitor.isLeader()) {
             sentryStore.purgeDeltaChangeTables();
             sentryStore.purgeNotificationIdTable();
+            sentryStore.purgeAuthzPathsSnapshots();
           }
         }
       };
@@ -647,6 +680,34 @@ public class SentryService implements Callable, SigUtils.SigListener {
     };
   }
 
+  /**
+   * @return gauge of requests waiting for a worker thread of the selector server
+   */
+  public Gauge<Integer> getRpcWorkerQueueSizeGauge() {
+    return new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        TServer server = thriftServer;
+        return server instanceof SentrySelectorServer
+            ? ((SentrySelectorServer) server).getWorkerQueueSize() : 0;
+      }
+    };
+  }
+
+  /**
+   * @return gauge of client connections open on the selector server
+   */
+  public Gauge<Integer> getRpcOpenConnectionsGauge() {
+    return new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        TServer server = thriftServer;
+        return server instanceof SentrySelectorServer
+            ? ((SentrySelectorServer) server).getOpenConnections() : 0;
+      }
+    };
+  }
+
   public Gauge<Long> getBecomeActiveCount() {
     return new Gauge<Long>() {
       @Override
@@ -346,6 +346,68 @@ public class TestSentryGenericPolicyProcessor extends org.junit.Assert {
     assertEquals(1, response5.getPrivilegesMapByAuth().size());
   }
 
+  @Test
+  public void testRolePrivilegesSnapshot() throws Exception {
+    PrivilegeObject queryPrivilege = new Builder()
+                                   .setComponent("SOLR")
+                                   .setAction(SolrConstants.QUERY)
+                                   .setService("service1")
+                                   .setAuthorizables(Arrays.asList(new Collection("c1"), new Field("f1")))
+                                   .build();
+    PrivilegeObject updatePrivilege = new Builder(queryPrivilege)
+                                   .setAction(SolrConstants.UPDATE)
+                                   .build();
+
+    Map<TSentryRole, Set<PrivilegeObject>> snapshot = new HashMap<>();
+    snapshot.put(new TSentryRole("r1", Sets.newHashSet("g1", "g2")),
+        Sets.newHashSet(queryPrivilege, updatePrivilege));
+    snapshot.put(new TSentryRole("r2", Sets.newHashSet("g2")),
+        Collections.<PrivilegeObject>emptySet());
+    Mockito.when(mockStore.getRolePrivilegesSnapshot(anyString(), anyString()))
+        .thenReturn(snapshot);
+
+    TListSentryRolePrivilegesSnapshotRequest request = new TListSentryRolePrivilegesSnapshotRequest();
+    request.setRequestorUserName(ADMIN_USER);
+    request.setComponent("SOLR");
+    request.setServiceName("service1");
+    TListSentryRolePrivilegesSnapshotResponse response =
+        processor.list_sentry_role_privileges_snapshot(request);
+    assertEquals(Status.OK, fromTSentryStatus(response.getStatus()));
+    assertTrue(response.isSetChangeId());
+    assertEquals(2, response.getRoles().size());
+    for (TSentryRolePrivileges role : response.getRoles()) {
+      if ("r1".equals(role.getRoleName())) {
+        assertEquals(Sets.newHashSet("g1", "g2"), role.getGroups());
+        assertEquals(2, role.getPrivileges().size());
+      } else {
+        assertEquals("r2", role.getRoleName());
+        assertEquals(Sets.newHashSet("g2"), role.getGroups());
+        assertTrue(role.getPrivileges().isEmpty());
+      }
+    }
+
+    // The image is not sent again while the change ID of the client is current
+    long changeId = response.getChangeId();
+    request.setChangeId(changeId);
+    response = processor.list_sentry_role_privileges_snapshot(request);
+    assertEquals(Status.OK, fromTSentryStatus(response.getStatus()));
+    assertEquals(changeId, response.getChangeId());
+    assertFalse(response.isSetRoles());
+
+    // Any change in the image changes the change ID
+    snapshot.put(new TSentryRole("r2", Sets.newHashSet("g2")), Sets.newHashSet(queryPrivilege));
+    response = processor.list_sentry_role_privileges_snapshot(request);
+    assertEquals(Status.OK, fromTSentryStatus(response.getStatus()));
+    assertTrue(changeId != response.getChangeId());
+    assertEquals(2, response.getRoles().size());
+
+    // Only admins can read the whole image
+    request.setRequestorUserName(NOT_ADMIN_USER);
+    response = processor.list_sentry_role_privileges_snapshot(request);
+    assertEquals(Status.ACCESS_DENIED, fromTSentryStatus(response.getStatus()));
+    assertFalse(response.isSetRoles());
+  }
+
   @Test(expected=SentrySiteConfigurationException.class)
   public void testConfigCannotCreateNotificationHandler() throws Exception {
     Configuration conf = new Configuration();
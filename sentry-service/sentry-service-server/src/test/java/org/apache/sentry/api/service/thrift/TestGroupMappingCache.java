@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.api.service.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sentry.core.common.exception.SentryGroupNotFoundException;
+import org.apache.sentry.provider.common.GroupMappingService;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class TestGroupMappingCache {
+  private static final long TTL_MS = 1000;
+  private static final long NEGATIVE_TTL_MS = 100;
+
+  private final CountingGroupMapping groupMapping = new CountingGroupMapping();
+  private final ManualTicker ticker = new ManualTicker();
+  private GroupMappingCache cache;
+
+  @Before
+  public void setup() {
+    groupMapping.userGroups.put("user1", Sets.newHashSet("group1"));
+    // Refreshes run on the calling thread to keep the test deterministic
+    cache = new GroupMappingCache(groupMapping, TTL_MS, NEGATIVE_TTL_MS, 100, ticker,
+        MoreExecutors.sameThreadExecutor());
+  }
+
+  @Test
+  public void testGroupsAreCached() throws Exception {
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    assertEquals(1, groupMapping.lookups);
+
+    // Callers may modify the returned set
+    Set<String> groups = cache.getGroups("user1");
+    groups.clear();
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    assertEquals(1, groupMapping.lookups);
+  }
+
+  @Test
+  public void testGroupsAreRefreshedAhead() throws Exception {
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    groupMapping.userGroups.put("user1", Sets.newHashSet("group2"));
+
+    ticker.advance(TTL_MS / 2);
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    assertEquals(1, groupMapping.lookups);
+
+    // Past the refresh time the entry is reloaded
+    ticker.advance(TTL_MS / 2 - 1);
+    cache.getGroups("user1");
+    assertEquals(2, groupMapping.lookups);
+    assertEquals(Sets.newHashSet("group2"), cache.getGroups("user1"));
+  }
+
+  @Test
+  public void testGroupsExpire() throws Exception {
+    assertEquals(Sets.newHashSet("group1"), cache.getGroups("user1"));
+    groupMapping.userGroups.put("user1", Sets.newHashSet("group2"));
+
+    ticker.advance(TTL_MS + 1);
+    assertEquals(Sets.newHashSet("group2"), cache.getGroups("user1"));
+    assertEquals(2, groupMapping.lookups);
+  }
+
+  @Test
+  public void testMissingGroupsAreCached() throws Exception {
+    assertGroupNotFound("user2");
+    assertGroupNotFound("user2");
+    assertEquals(1, groupMapping.lookups);
+
+    // Users without groups are looked up again after the negative TTL
+    groupMapping.userGroups.put("user2", Sets.newHashSet("group2"));
+    ticker.advance(NEGATIVE_TTL_MS + 1);
+    assertEquals(Sets.newHashSet("group2"), cache.getGroups("user2"));
+    assertEquals(2, groupMapping.lookups);
+  }
+
+  private void assertGroupNotFound(String user) {
+    try {
+      cache.getGroups(user);
+      fail("Expected SentryGroupNotFoundException for " + user);
+    } catch (SentryGroupNotFoundException e) {
+      // expected
+    }
+  }
+
+  private static final class CountingGroupMapping implements GroupMappingService {
+    private final Map<String, Set<String>> userGroups = new HashMap<>();
+    private int lookups;
+
+    @Override
+    public Set<String> getGroups(String user) throws SentryGroupNotFoundException {
+      lookups++;
+      Set<String> groups = userGroups.get(user);
+      if (groups == null) {
+        throw new SentryGroupNotFoundException("Unable to obtain groups for " + user);
+      }
+      return groups;
+    }
+  }
+
+  private static final class ManualTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+}
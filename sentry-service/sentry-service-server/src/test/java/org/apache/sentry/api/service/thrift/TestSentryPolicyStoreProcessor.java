@@ -221,6 +221,30 @@ public class TestSentryPolicyStoreProcessor {
     SentryPolicyStoreProcessor.validateClientVersion(ThriftConstants.TSENTRY_SERVICE_VERSION_CURRENT);
   }
 
+  @Test
+  public void testListPrivilegesForProviderBulkLimit() throws Exception {
+    conf.setInt(ServerConfig.SENTRY_PRIVILEGES_BULK_MAX_AUTHORIZABLES, 2);
+    SentryPolicyStoreProcessor sentryServiceHandler =
+        new SentryPolicyStoreProcessor(ApiConstants.SentryPolicyServiceConstants.SENTRY_POLICY_SERVICE_NAME,
+            conf, sentryStore);
+    TListSentryPrivilegesForProviderBulkRequest request =
+        new TListSentryPrivilegesForProviderBulkRequest(
+            ThriftConstants.TSENTRY_SERVICE_VERSION_CURRENT, Sets.newHashSet("group1"),
+            new TSentryActiveRoleSet(true, new HashSet<String>()),
+            Arrays.asList(new TSentryAuthorizable(SERVERNAME),
+                new TSentryAuthorizable(SERVERNAME), new TSentryAuthorizable(SERVERNAME)));
+
+    // Requests with more authorizables than the maximum are refused before reading the store
+    TListSentryPrivilegesForProviderBulkResponse response =
+        sentryServiceHandler.list_sentry_privileges_for_provider_bulk(request);
+    Assert.assertEquals(Status.INVALID_INPUT.getCode(), response.getStatus().getValue());
+    // The client learns the maximum from the refused request
+    Assert.assertEquals(2, response.getMaxAuthorizableHierarchies());
+    Mockito.verify(sentryStore, Mockito.never()).listSentryPrivilegesForProviderBulk(
+        Mockito.anySet(), Mockito.anySet(), Mockito.any(TSentryActiveRoleSet.class),
+        Mockito.anyList());
+  }
+
   @Test
   public void testConstructOwnerPrivilege() throws Exception {
     conf.set(SENTRY_DB_POLICY_STORE_OWNER_AS_PRIVILEGE, SentryOwnerPrivilegeType.NONE.toString());
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.sentry.provider.db.log.entity.AuditMetadataLogEntity;
+import org.apache.sentry.provider.db.log.entity.DBAuditMetadataLogEntity;
+import org.apache.sentry.provider.db.log.util.Constants;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Counter;
+
+public class TestAsyncAuditLogWriter {
+  private final List<String> operations = Collections.synchronizedList(new ArrayList<String>());
+  private final CountDownLatch writing = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final Counter queuedEntries = SentryMetrics.getInstance().auditLogQueuedEntries;
+  private final Counter droppedEntries = SentryMetrics.getInstance().auditLogDroppedEntries;
+  private Logger auditLogger;
+
+  @Before
+  public void setup() {
+    auditLogger = Mockito.mock(Logger.class);
+    Mockito.doAnswer((invocation) -> {
+      String operation = AuditMetadataLogEntity.parse((String) invocation.getArguments()[0])
+          .get(Constants.LOG_FIELD_OPERATION).getTextValue();
+      if ("blocked".equals(operation)) {
+        // Keeps the writer thread busy until the test releases it
+        writing.countDown();
+        release.await();
+      }
+      operations.add(operation);
+      return null;
+    }).when(auditLogger).info(Mockito.anyString());
+  }
+
+  @Test
+  public void testEntriesAreWrittenInOrder() throws Exception {
+    long queued = queuedEntries.getCount();
+    AsyncAuditLogWriter writer = new AsyncAuditLogWriter(auditLogger, 1, 10,
+        AsyncAuditLogWriter.QueueFullPolicy.BLOCK);
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expected.add("op" + i);
+      writer.write(entry("op" + i));
+    }
+    writer.close();
+
+    assertEquals(expected, operations);
+    assertEquals(queued, queuedEntries.getCount());
+
+    // Once closed, entries are written right away
+    writer.write(entry("op100"));
+    assertEquals("op100", operations.get(100));
+  }
+
+  @Test
+  public void testEntriesAreDroppedWhenQueueIsFull() throws Exception {
+    long dropped = droppedEntries.getCount();
+    AsyncAuditLogWriter writer = new AsyncAuditLogWriter(auditLogger, 2, 10,
+        AsyncAuditLogWriter.QueueFullPolicy.DROP);
+    writer.write(entry("blocked"));
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 5; i++) {
+      writer.write(entry("op" + i));
+    }
+    assertEquals(dropped + 3, droppedEntries.getCount());
+
+    release.countDown();
+    writer.close();
+    assertEquals(3, operations.size());
+    assertEquals("op1", operations.get(2));
+  }
+
+  @Test
+  public void testEntriesAreWrittenSynchronouslyWhenQueueIsFull() throws Exception {
+    long dropped = droppedEntries.getCount();
+    AsyncAuditLogWriter writer = new AsyncAuditLogWriter(auditLogger, 1, 10,
+        AsyncAuditLogWriter.QueueFullPolicy.SYNC);
+    writer.write(entry("blocked"));
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+    writer.write(entry("op0"));
+    // Written right away, while the writer thread is still busy
+    writer.write(entry("op1"));
+    assertEquals(Collections.singletonList("op1"), operations);
+
+    release.countDown();
+    writer.close();
+    assertEquals(Arrays.asList("op1", "blocked", "op0"), operations);
+    assertEquals(dropped, droppedEntries.getCount());
+  }
+
+  @Test
+  public void testInterruptedRequestWritesItsEntry() throws Exception {
+    AsyncAuditLogWriter writer = new AsyncAuditLogWriter(auditLogger, 1, 10,
+        AsyncAuditLogWriter.QueueFullPolicy.BLOCK);
+    writer.write(entry("blocked"));
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+    writer.write(entry("op0"));
+    Thread.currentThread().interrupt();
+    writer.write(entry("op1"));
+    assertTrue("The interrupt status should be kept", Thread.interrupted());
+    assertEquals(Collections.singletonList("op1"), operations);
+
+    release.countDown();
+    writer.close();
+    assertEquals(Arrays.asList("op1", "blocked", "op0"), operations);
+  }
+
+  private static DBAuditMetadataLogEntity entry(String operation) {
+    return new DBAuditMetadataLogEntity("serviceName", "userName", "impersonator",
+        "ipAddress", operation, "eventTime", "operationText", "allowed", "objectType",
+        "component", "databaseName", "tableName", "columnName", "resourcePath");
+  }
+}
@@ -21,6 +21,8 @@ package org.apache.sentry.provider.db.log.entity;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.StringWriter;
+
 import org.apache.sentry.provider.db.log.util.Constants;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.node.ContainerNode;
@@ -54,6 +56,20 @@ public class TestDbAuditMetadataLogEntity {
     assertEntryEquals(rootNode, Constants.LOG_FIELD_OBJECT_TYPE, "objectType");
   }
 
+  @Test
+  public void testToJsonFormatLogReusesWriter() throws Throwable {
+    DBAuditMetadataLogEntity amle1 = new DBAuditMetadataLogEntity("serviceName", "userName",
+        "impersonator", "ipAddress", "operation1", "eventTime", "operationText", "allowed",
+        "objectType", "component", "databaseName", "tableName", "columnName", "resourcePath");
+    DBAuditMetadataLogEntity amle2 = new DBAuditMetadataLogEntity("serviceName", "userName",
+        "impersonator", "ipAddress", "operation2", "eventTime", "operationText", "allowed",
+        "objectType", "component", "databaseName", "tableName", null, null);
+    StringWriter writer = new StringWriter();
+    amle1.toJsonFormatLog(writer);
+    amle2.toJsonFormatLog(writer);
+    assertEquals(amle1.toJsonFormatLog() + amle2.toJsonFormatLog(), writer.toString());
+  }
+
   void assertEntryEquals(ContainerNode rootNode, String key, String value) {
     JsonNode node = assertNodeContains(rootNode, key);
     assertEquals(value, node.getTextValue());
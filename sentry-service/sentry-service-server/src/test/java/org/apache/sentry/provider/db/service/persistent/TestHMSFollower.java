@@ -67,6 +67,7 @@ import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import javax.security.auth.login.LoginException;
@@ -1365,4 +1366,70 @@ public class TestHMSFollower {
 
     reset(sentryStore, hmsClientMock);
   }
+
+  /**
+   * Verifies that consecutive ADD_PARTITION notifications are persisted together,
+   * with one path change per notification.
+   */
+  @Test
+  public void testAddPartitionsArePersistedTogether() throws Exception {
+    List<NotificationEvent> events = newAddPartitionEvents(3);
+    HMSFollower hmsFollower = new HMSFollower(configuration, sentryStore, null,
+        hiveConnectionFactory, hiveInstance);
+    hmsFollower.processNotifications(events);
+
+    ArgumentCaptor<NotificationBatch> batch = ArgumentCaptor.forClass(NotificationBatch.class);
+    verify(sentryStore, times(1)).persistNotificationBatch(batch.capture());
+    Assert.assertEquals(3, batch.getValue().getChanges().size());
+    Assert.assertEquals(Sets.newHashSet("db1/table1/p=0", "db1/table1/p=1", "db1/table1/p=2"),
+        batch.getValue().getChangesByAuthzObj().get("db1.table1").getAddedPaths());
+    //noinspection unchecked
+    verify(sentryStore, times(0)).addAuthzPathsMapping(Mockito.anyString(),
+        Mockito.anyCollection(), Mockito.any(UniquePathsUpdate.class));
+    verify(sentryStore, times(0)).persistLastProcessedNotificationID(Mockito.anyLong());
+  }
+
+  /**
+   * Verifies that notifications are persisted one at a time when persisting them together
+   * fails.
+   */
+  @Test
+  public void testFailedBatchIsProcessedOneAtATime() throws Exception {
+    Mockito.doThrow(new RuntimeException("batch failed")).when(sentryStore)
+        .persistNotificationBatch(Mockito.any(NotificationBatch.class));
+    List<NotificationEvent> events = newAddPartitionEvents(3);
+    HMSFollower hmsFollower = new HMSFollower(configuration, sentryStore, null,
+        hiveConnectionFactory, hiveInstance);
+    hmsFollower.processNotifications(events);
+
+    //noinspection unchecked
+    verify(sentryStore, times(3)).addAuthzPathsMapping(Mockito.eq("db1.table1"),
+        Mockito.anyCollection(), Mockito.any(UniquePathsUpdate.class));
+    verify(sentryStore, times(0)).persistLastProcessedNotificationID(Mockito.anyLong());
+  }
+
+  private List<NotificationEvent> newAddPartitionEvents(int count) {
+    String dbName = "db1";
+    String tableName = "table1";
+    StorageDescriptor tableSd = new StorageDescriptor();
+    tableSd.setLocation("hdfs:///db1/table1");
+    Table table = new Table(tableName, dbName, null, 0, 0, 0, tableSd, null, null, null, null, null);
+
+    List<NotificationEvent> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      StorageDescriptor sd = new StorageDescriptor();
+      sd.setLocation("hdfs:///db1/table1/p=" + i);
+      Partition partition = new Partition(Collections.singletonList(String.valueOf(i)), dbName,
+          tableName, 0, 0, sd, null);
+      NotificationEvent event = new NotificationEvent(i + 1, 0,
+          EventType.ADD_PARTITION.toString(),
+          messageFactory.buildAddPartitionMessage(table,
+              Collections.singletonList(partition).iterator(),
+              Collections.emptyIterator()).toString());
+      event.setDbName(dbName);
+      event.setTableName(tableName);
+      events.add(event);
+    }
+    return events;
+  }
 }
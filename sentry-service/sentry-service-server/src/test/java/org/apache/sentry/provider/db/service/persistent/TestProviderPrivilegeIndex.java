@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.sentry.api.service.thrift.TSentryActiveRoleSet;
+import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
+import org.apache.sentry.core.model.db.AccessConstants;
+import org.apache.sentry.provider.db.service.model.MSentryPrivilege;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class TestProviderPrivilegeIndex {
+  private static final TSentryActiveRoleSet ALL_ROLES =
+      new TSentryActiveRoleSet(true, Collections.<String>emptySet());
+
+  private ProviderPrivilegeIndex.Snapshot snapshot;
+
+  @Before
+  public void setup() {
+    snapshot = new ProviderPrivilegeIndex.Builder()
+        .addRoleGroup("role1", "group1")
+        .addRoleUser("role2", "user2")
+        .addRolePrivilege("role1", privilege("server1", null, null, null, null))
+        .addRolePrivilege("role1", privilege("server1", "db1", null, null, null))
+        .addRolePrivilege("role1", privilege("server1", "db1", "tbl1", null, null))
+        .addRolePrivilege("role1", privilege("server1", "db1", "tbl1", "col1", null))
+        .addRolePrivilege("role1", privilege("server1", "db1", "tbl2", null, null))
+        .addRolePrivilege("role1", privilege("server1", "db2", null, null, null))
+        .addRolePrivilege("role1", privilege("server1", null, null, null, "hdfs://nn/a"))
+        .addRolePrivilege("role1", privilege("server2", "db1", null, null, null))
+        .addRolePrivilege("role2", privilege("server1", "db3", null, null, null))
+        .addUserPrivilege("user1", privilege("server1", "db4", "tbl4", null, null))
+        .build();
+  }
+
+  @Test
+  public void testGetRoles() {
+    assertEquals(Sets.newHashSet("role1"),
+        snapshot.getRoles(Sets.newHashSet("group1"), null, ALL_ROLES));
+    assertEquals(Sets.newHashSet("role1", "role2"),
+        snapshot.getRoles(Sets.newHashSet("group1", "group2"), Sets.newHashSet("user2"),
+            ALL_ROLES));
+    assertEquals(Sets.newHashSet("role2"),
+        snapshot.getRoles(Sets.newHashSet("group1"), Sets.newHashSet("user2"),
+            new TSentryActiveRoleSet(false, Sets.newHashSet(" ROLE2 "))));
+  }
+
+  @Test
+  public void testListPrivilegesForTable() {
+    TSentryAuthorizable table = new TSentryAuthorizable("server1");
+    table.setDb("db1");
+    table.setTable("tbl1");
+    assertEquals(Sets.newHashSet(
+        "server=server1",
+        "server=server1->db=db1",
+        "server=server1->db=db1->table=tbl1",
+        "server=server1->db=db1->table=tbl1->column=col1"),
+        listPrivileges(table));
+
+    table.setColumn("col2");
+    assertEquals(Sets.newHashSet(
+        "server=server1",
+        "server=server1->db=db1",
+        "server=server1->db=db1->table=tbl1"),
+        listPrivileges(table));
+
+    // Names of objects are compared in lower case
+    table.setDb("DB1");
+    table.setTable(AccessConstants.SOME);
+    table.setColumn(null);
+    assertEquals(Sets.newHashSet(
+        "server=server1",
+        "server=server1->db=db1",
+        "server=server1->db=db1->table=tbl1",
+        "server=server1->db=db1->table=tbl1->column=col1",
+        "server=server1->db=db1->table=tbl2"),
+        listPrivileges(table));
+  }
+
+  @Test
+  public void testListPrivilegesForServerAndURI() {
+    TSentryAuthorizable server = new TSentryAuthorizable("server1");
+    assertEquals(7, listPrivileges(server).size());
+
+    server.setUri("hdfs://nn/a/b");
+    assertEquals(Sets.newHashSet(
+        "server=server1",
+        "server=server1->uri=hdfs://nn/a"),
+        listPrivileges(server));
+
+    server.setUri("hdfs://nn/c");
+    assertEquals(Sets.newHashSet("server=server1"), listPrivileges(server));
+
+    // Without an authorizable hierarchy, all privileges are returned
+    assertEquals(8, snapshot.listPrivilegesForProvider(Sets.newHashSet("role1"), null, null)
+        .size());
+  }
+
+  @Test
+  public void testListUserPrivileges() {
+    TSentryAuthorizable db = new TSentryAuthorizable("server1");
+    db.setDb("db4");
+    assertEquals(Sets.newHashSet("server=server1->db=db4->table=tbl4"),
+        snapshot.listPrivilegesForProvider(Collections.<String>emptySet(),
+            Sets.newHashSet("user1"), db));
+
+    assertTrue(snapshot.hasAnyServerPrivileges(Collections.<String>emptySet(),
+        Sets.newHashSet("user1"), "server1"));
+    assertFalse(snapshot.hasAnyServerPrivileges(Collections.<String>emptySet(),
+        Sets.newHashSet("user1"), "server2"));
+    assertTrue(snapshot.hasAnyServerPrivileges(Sets.newHashSet("role1"), null, "server2"));
+    assertFalse(snapshot.hasAnyServerPrivileges(Sets.newHashSet("role2"), null, "server2"));
+  }
+
+  @Test
+  public void testUpdateSnapshot() {
+    ProviderPrivilegeIndex.Snapshot updated = snapshot.update(
+        new ProviderPrivilegeIndex.Builder()
+            .setChangeId(5)
+            .addRoleGroup("role1", "group2")
+            .addRolePrivilege("role1", privilege("server1", "db5", null, null, null))
+            .addUserPrivilege("user3", privilege("server1", "db6", null, null, null)),
+        Sets.newHashSet("role1", "role2"), Sets.newHashSet("user1", "user3"));
+    assertEquals(5, updated.getChangeId());
+    assertEquals(Collections.emptySet(),
+        updated.getRoles(Sets.newHashSet("group1"), Sets.newHashSet("user2"), ALL_ROLES));
+    assertEquals(Sets.newHashSet("role1"),
+        updated.getRoles(Sets.newHashSet("group2"), null, ALL_ROLES));
+    assertEquals(Sets.newHashSet("server=server1->db=db5"),
+        updated.listPrivilegesForProvider(Sets.newHashSet("role1", "role2"), null, null));
+    assertEquals(Sets.newHashSet("server=server1->db=db6"),
+        updated.listPrivilegesForProvider(Collections.<String>emptySet(),
+            Sets.newHashSet("user1", "user3"), null));
+
+    // The updated snapshot is a copy
+    assertEquals(Sets.newHashSet("role1"),
+        snapshot.getRoles(Sets.newHashSet("group1"), null, ALL_ROLES));
+    assertEquals(8, snapshot.listPrivilegesForProvider(Sets.newHashSet("role1"), null, null)
+        .size());
+  }
+
+  @Test
+  public void testSnapshotIsValidatedByChangeId() {
+    CountingLoader loader = new CountingLoader();
+    ProviderPrivilegeIndex index = new ProviderPrivilegeIndex(loader,
+        MoreExecutors.sameThreadExecutor());
+
+    assertSame(snapshot, index.getSnapshot());
+    assertSame(snapshot, index.getSnapshot());
+    assertEquals(1, loader.loads);
+    assertEquals(0, loader.updates);
+
+    // A change committed through any server updates the snapshot
+    ProviderPrivilegeIndex.Snapshot updated = new ProviderPrivilegeIndex.Builder()
+        .setChangeId(1)
+        .build();
+    loader.lastChangeId = 1;
+    loader.updated = updated;
+    assertSame(updated, index.getSnapshot());
+    assertSame(updated, index.getSnapshot());
+    assertEquals(1, loader.loads);
+    assertEquals(1, loader.updates);
+
+    // Unknown changes rebuild it
+    loader.lastChangeId = 2;
+    loader.updated = null;
+    snapshot = new ProviderPrivilegeIndex.Builder().setChangeId(2).build();
+    assertSame(snapshot, index.getSnapshot());
+    assertEquals(2, loader.loads);
+    assertEquals(2, loader.updates);
+
+    // So do removed changes and invalidations
+    loader.lastChangeId = 0;
+    snapshot = new ProviderPrivilegeIndex.Builder().build();
+    assertSame(snapshot, index.getSnapshot());
+    assertEquals(3, loader.loads);
+    index.invalidate();
+    assertSame(snapshot, index.getSnapshot());
+    assertEquals(4, loader.loads);
+    assertEquals(2, loader.updates);
+  }
+
+  @Test
+  public void testSnapshotOfChangedGenerationIsNotUsed() {
+    final CountingLoader loader = new CountingLoader();
+    final ProviderPrivilegeIndex index = new ProviderPrivilegeIndex(loader,
+        MoreExecutors.sameThreadExecutor());
+    loader.onLoad = new Runnable() {
+      @Override
+      public void run() {
+        // The index is invalidated while the snapshot is loaded
+        index.invalidate();
+      }
+    };
+    assertNull(index.getSnapshot());
+
+    loader.onLoad = null;
+    assertSame(snapshot, index.getSnapshot());
+    assertEquals(2, loader.loads);
+  }
+
+  private Set<String> listPrivileges(TSentryAuthorizable authHierarchy) {
+    return snapshot.listPrivilegesForProvider(Sets.newHashSet("role1"), null, authHierarchy);
+  }
+
+  private static ProviderPrivilegeIndex.Privilege privilege(String server, String db,
+      String table, String column, String uri) {
+    return SentryStore.toProviderIndexPrivilege(
+        new MSentryPrivilege(null, server, db, table, column, uri, AccessConstants.ALL));
+  }
+
+  private final class CountingLoader implements ProviderPrivilegeIndex.Loader {
+    private int loads;
+    private int updates;
+    private long lastChangeId;
+    private ProviderPrivilegeIndex.Snapshot updated;
+    private Runnable onLoad;
+
+    @Override
+    public ProviderPrivilegeIndex.Snapshot load() {
+      loads++;
+      if (onLoad != null) {
+        onLoad.run();
+      }
+      return snapshot;
+    }
+
+    @Override
+    public long getLastChangeId() {
+      return lastChangeId;
+    }
+
+    @Override
+    public ProviderPrivilegeIndex.Snapshot update(ProviderPrivilegeIndex.Snapshot snapshot) {
+      updates++;
+      return updated;
+    }
+  }
+}
@@ -32,9 +32,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -43,6 +46,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
 import org.apache.hadoop.security.alias.CredentialProvider;
 import org.apache.hadoop.security.alias.CredentialProviderFactory;
 import org.apache.hadoop.security.alias.UserProvider;
@@ -66,6 +70,7 @@ import org.apache.sentry.hdfs.service.thrift.TPrivilegeChanges;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipal;
 import org.apache.sentry.hdfs.service.thrift.TPrivilegePrincipalType;
 import org.apache.sentry.hdfs.service.thrift.TRoleChanges;
+import org.apache.sentry.provider.db.service.model.MAuthzPathsMapping;
 import org.apache.sentry.provider.db.service.model.MSentryPermChange;
 import org.apache.sentry.provider.db.service.model.MSentryPathChange;
 import org.apache.sentry.provider.db.service.model.MSentryPrivilege;
@@ -75,6 +80,7 @@ import org.apache.sentry.api.service.thrift.TSentryActiveRoleSet;
 import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
 import org.apache.sentry.api.service.thrift.TSentryGrantOption;
 import org.apache.sentry.api.service.thrift.TSentryGroup;
+import org.apache.sentry.api.service.thrift.TSentryPrivilegeChangesResponse;
 import org.apache.sentry.api.service.thrift.TSentryPrivilege;
 import org.apache.sentry.api.service.thrift.TSentryRole;
 import org.apache.sentry.provider.db.service.model.MSentryUser;
@@ -83,6 +89,7 @@ import org.apache.sentry.api.common.SentryServiceUtil;
 import org.apache.sentry.service.common.ServiceConstants;
 import org.apache.sentry.service.common.ServiceConstants.SentryPrincipalType;
 import org.apache.sentry.service.common.ServiceConstants.ServerConfig;
+import org.apache.thrift.TException;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -105,12 +112,12 @@ public class TestSentryStore extends org.junit.Assert {
   private static final Logger LOGGER = LoggerFactory.getLogger(TestSentryStore.class);
 
   private static File dataDir;
-  private static SentryStore sentryStore;
+  static SentryStore sentryStore;
   private static String[] adminGroups = { "adminGroup1" };
   private static PolicyFile policyFile;
   private static File policyFilePath;
   final long NUM_PRIVS = 5;  // > SentryStore.PrivCleaner.NOTIFY_THRESHOLD
-  private static Configuration conf = null;
+  static Configuration conf = null;
   private static char[] passwd = new char[] { '1', '2', '3'};
 
   @BeforeClass
@@ -1554,6 +1561,87 @@ public class TestSentryStore extends org.junit.Assert {
             new TSentryActiveRoleSet(false, new HashSet<String>()))));
   }
 
+  @Test
+  public void testListSentryPrivilegesForProviderBulk() throws Exception {
+    String roleName = "bulk-privs-r1", groupName = "bulk-privs-g1", userName = "bulk-privs-u1";
+    String grantor = "g1";
+    String uri = "file:///var/folders/bulk/data";
+    sentryStore.createSentryRole(roleName);
+    sentryStore.alterSentryRoleAddGroups(grantor, roleName,
+        Sets.newHashSet(new TSentryGroup(groupName)));
+
+    TSentryPrivilege tablePrivilege = new TSentryPrivilege("TABLE", "server1", "SELECT");
+    tablePrivilege.setDbName("db1");
+    tablePrivilege.setTableName("tbl1");
+    TSentryPrivilege columnPrivilege = new TSentryPrivilege("COLUMN", "server1", "SELECT");
+    columnPrivilege.setDbName("db1");
+    columnPrivilege.setTableName("tbl2");
+    columnPrivilege.setColumnName("col1");
+    TSentryPrivilege dbPrivilege = new TSentryPrivilege("DATABASE", "server1", "ALL");
+    dbPrivilege.setDbName("db2");
+    TSentryPrivilege uriPrivilege = new TSentryPrivilege("URI", "server1", "ALL");
+    uriPrivilege.setURI(uri);
+    TSentryPrivilege otherServerPrivilege = new TSentryPrivilege("SERVER", "server2", "ALL");
+    sentryStore.alterSentryGrantPrivileges(SentryPrincipalType.ROLE, roleName,
+        Sets.newHashSet(tablePrivilege, columnPrivilege, dbPrivilege, uriPrivilege,
+            otherServerPrivilege), null);
+    TSentryPrivilege userPrivilege = new TSentryPrivilege("TABLE", "server1", "INSERT");
+    userPrivilege.setDbName("db3");
+    userPrivilege.setTableName("tbl1");
+    sentryStore.alterSentryGrantPrivileges(SentryPrincipalType.USER, userName,
+        Sets.newHashSet(userPrivilege), null);
+
+    List<TSentryAuthorizable> authHierarchies = new ArrayList<>();
+    authHierarchies.add(new TSentryAuthorizable("server1"));
+    authHierarchies.add(newAuthorizable("server1", "db1", null, null));
+    authHierarchies.add(newAuthorizable("server1", "db1", "tbl1", null));
+    authHierarchies.add(newAuthorizable("server1", "DB1", "TBL2", "col1"));
+    authHierarchies.add(newAuthorizable("server1", "db1", "tbl2", "col2"));
+    authHierarchies.add(newAuthorizable("server1", "db1", AccessConstants.ALL, null));
+    authHierarchies.add(newAuthorizable("server1", "db1", AccessConstants.SOME, null));
+    authHierarchies.add(newAuthorizable("server1", "db2", "tbl1", null));
+    authHierarchies.add(newAuthorizable("server1", "db3", "tbl1", null));
+    authHierarchies.add(newAuthorizable("server1", "db4", null, null));
+    TSentryAuthorizable uriAuthorizable = new TSentryAuthorizable("server1");
+    uriAuthorizable.setUri(uri + "/file");
+    authHierarchies.add(uriAuthorizable);
+    authHierarchies.add(new TSentryAuthorizable("server2"));
+    authHierarchies.add(newAuthorizable("server2", "db1", "tbl1", null));
+    authHierarchies.add(new TSentryAuthorizable("server3"));
+
+    TSentryActiveRoleSet roleSet = new TSentryActiveRoleSet(true, new HashSet<String>());
+    for (Set<String> users : Arrays.asList(Sets.newHashSet(""), Sets.newHashSet(userName))) {
+      List<Set<String>> bulkPrivileges = sentryStore.listSentryPrivilegesForProviderBulk(
+          Sets.newHashSet(groupName), users, roleSet, authHierarchies);
+      assertEquals(authHierarchies.size(), bulkPrivileges.size());
+      for (int i = 0; i < authHierarchies.size(); i++) {
+        assertEquals("Privileges of " + authHierarchies.get(i),
+            sentryStore.listSentryPrivilegesForProvider(Sets.newHashSet(groupName), users,
+                roleSet, authHierarchies.get(i)),
+            bulkPrivileges.get(i));
+      }
+
+      // A hierarchy without a server matches the privileges on all servers
+      List<TSentryAuthorizable> withoutServer = Lists.newArrayList(authHierarchies);
+      withoutServer.add(new TSentryAuthorizable());
+      bulkPrivileges = sentryStore.listSentryPrivilegesForProviderBulk(
+          Sets.newHashSet(groupName), users, roleSet, withoutServer);
+      assertEquals(sentryStore.listAllSentryPrivilegesForProvider(Sets.newHashSet(groupName),
+          users, roleSet), bulkPrivileges.get(withoutServer.size() - 1));
+      assertEquals(sentryStore.listSentryPrivilegesForProvider(Sets.newHashSet(groupName),
+          users, roleSet, authHierarchies.get(2)), bulkPrivileges.get(2));
+    }
+  }
+
+  private static TSentryAuthorizable newAuthorizable(String server, String db, String table,
+      String column) {
+    TSentryAuthorizable authorizable = new TSentryAuthorizable(server);
+    authorizable.setDb(db);
+    authorizable.setTable(table);
+    authorizable.setColumn(column);
+    return authorizable;
+  }
+
   @Test
   public void testListRole() throws Exception {
     String roleName1 = "role1", roleName2 = "role2", roleName3 = "role3";
@@ -2781,9 +2869,9 @@ public class TestSentryStore extends org.junit.Assert {
     List<MSentryPathChange> pathsChanges = sentryStore.getMSentryPathChanges();
     assertEquals(2, pathsChanges.size());
     assertEquals(1, pathsChanges.get(0).getChangeID()); // changeID = 1
-    assertTrue(pathsChanges.get(0).getPathChange().contains("/hive/db1"));
+    assertTrue(toJSON(pathsChanges.get(0)).contains("/hive/db1"));
     assertEquals(2, pathsChanges.get(1).getChangeID()); // changeID = 2
-    assertTrue(pathsChanges.get(1).getPathChange().contains("/hive/db2"));
+    assertTrue(toJSON(pathsChanges.get(1)).contains("/hive/db2"));
 
     // Check that the SHA1 hash calculated for unique notifications is correct
     assertEquals("u1", pathsChanges.get(0).getNotificationHash());
@@ -2944,6 +3032,103 @@ public class TestSentryStore extends org.junit.Assert {
 
   }
 
+  @Test
+  public void testPersistFullPathsImageReplacesStagedObjects() throws Exception {
+    // Objects of a snapshot that was written, but not made current
+    Map<String, Collection<String>> stagedPaths = new HashMap<>();
+    for (int i = 0; i < 7; i++) {
+      stagedPaths.put("db2.table" + i, Sets.newHashSet("user/hive/warehouse/db2/table" + i));
+    }
+    long stagingSnapshotID = sentryStore.getCurrentAuthzPathsSnapshotID() + 1;
+    new FullPathsImageWriter(sentryStore.getTransactionManager(), 3, 2, Long.MAX_VALUE)
+        .write(stagedPaths, stagingSnapshotID, 1000);
+    assertEquals(stagingSnapshotID - 1, sentryStore.getCurrentAuthzPathsSnapshotID());
+    for (int i = 0; i < 7; i++) {
+      assertEquals(1, sentryStore.getMAuthzPaths(stagingSnapshotID, "db2.table" + i).size());
+    }
+
+    Map<String, Collection<String>> authzPaths = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      authzPaths.put("db1.table" + i, Sets.newHashSet("user/hive/warehouse/db1/table" + i,
+          "user/hive/warehouse/db1/table" + i + "/p=1"));
+    }
+    long notificationID = 12345;
+    sentryStore.persistFullPathsImage(authzPaths, notificationID);
+
+    assertEquals(stagingSnapshotID, sentryStore.getCurrentAuthzPathsSnapshotID());
+    assertEquals(notificationID, sentryStore.getLastProcessedNotificationID());
+    for (int i = 0; i < 7; i++) {
+      assertTrue(sentryStore.getMAuthzPaths(stagingSnapshotID, "db2.table" + i).isEmpty());
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals(2, sentryStore.getMAuthzPaths(stagingSnapshotID, "db1.table" + i).size());
+    }
+  }
+
+  @Test
+  public void testPersistNotificationBatch() throws Exception {
+    // Persist an empty image so that we can add paths to it.
+    sentryStore.persistFullPathsImage(new HashMap<String, Collection<String>>(), 0);
+
+    UniquePathsUpdate addUpdate = new UniquePathsUpdate("u1", 1, false);
+    addUpdate.newPathChange("db1.table").addToAddPaths(Arrays.asList("db1", "tbl1"));
+    sentryStore.addAuthzPathsMapping("db1.table", Sets.newHashSet("db1/tbl1"), addUpdate);
+
+    NotificationBatch batch = new NotificationBatch();
+    assertTrue(batch.add(newPathChange(2, "db1.table", NotificationBatch.Operation.ADD_PATHS,
+        "db1/tbl1/p=1")));
+    assertTrue(batch.add(newPathChange(3, "db2.table", NotificationBatch.Operation.ADD_PATHS,
+        "db2/tbl1")));
+    assertTrue(batch.add(newPathChange(4, "db1.table", NotificationBatch.Operation.DELETE_PATHS,
+        "db1/tbl1")));
+    assertTrue(batch.add(newPathChange(5, "db3.table", NotificationBatch.Operation.ADD_PATHS,
+        "db3/tbl1")));
+    assertTrue(batch.add(newPathChange(6, "db3.table",
+        NotificationBatch.Operation.DELETE_ALL_PATHS)));
+    // Paths cannot be added to an object dropped in the same batch
+    assertFalse(batch.add(newPathChange(7, "db3.table", NotificationBatch.Operation.ADD_PATHS,
+        "db3/tbl2")));
+    sentryStore.persistNotificationBatch(batch);
+
+    String[]prefixes = {"/"};
+    TPathsDump pathsDump = sentryStore.retrieveFullPathsImageUpdate(prefixes).toThrift()
+        .getPathsDump();
+    Map<String, Collection<String>> pathImage = new HashMap<>();
+    buildPathsImageMap(pathsDump.getNodeMap(), pathsDump.getNodeMap().get(pathsDump.getRootId()),
+        "", pathImage, false);
+    assertEquals(2, pathImage.size());
+    assertEquals(Sets.newHashSet("db1/tbl1/p=1"), Sets.newHashSet(pathImage.get("db1.table")));
+    assertEquals(Sets.newHashSet("db2/tbl1"), Sets.newHashSet(pathImage.get("db2.table")));
+
+    // Every notification has its own path change
+    assertEquals(6, sentryStore.getLastProcessedPathChangeID().longValue());
+    for (long changeID = 2; changeID <= 6; changeID++) {
+      MSentryPathChange pathChange = sentryStore.getMSentryPathChangeByID(changeID);
+      assertEquals(batch.getChanges().get((int) changeID - 2).getUpdate().JSONSerialize(),
+          pathChange.getPathChange());
+      assertEquals("u" + changeID, pathChange.getNotificationHash());
+    }
+    assertEquals(6, sentryStore.getLastProcessedNotificationID().longValue());
+  }
+
+  private static NotificationBatch.PathChange newPathChange(long eventId, String authzObj,
+      NotificationBatch.Operation operation, String... paths) {
+    UniquePathsUpdate update = new UniquePathsUpdate("u" + eventId, eventId, false);
+    for (String path : paths) {
+      if (operation == NotificationBatch.Operation.ADD_PATHS) {
+        update.newPathChange(authzObj).addToAddPaths(Arrays.asList(path.split("/")));
+      } else {
+        update.newPathChange(authzObj).addToDelPaths(Arrays.asList(path.split("/")));
+      }
+    }
+    if (operation == NotificationBatch.Operation.DELETE_ALL_PATHS) {
+      update.newPathChange(authzObj).addToDelPaths(Lists.newArrayList(PathsUpdate.ALL_PATHS));
+    }
+    return new NotificationBatch.PathChange(
+        new NotificationEvent(eventId, 0, "ADD_PARTITION", ""), authzObj, operation,
+        Arrays.asList(paths), update);
+  }
+
   @Test
   public void testDeleteAuthzPathsMapping() throws Exception {
 
@@ -3614,6 +3799,87 @@ public class TestSentryStore extends org.junit.Assert {
     policyFile.write(policyFilePath);
   }
 
+  @Test
+  public void testDeltaFormats() throws Exception {
+    PermissionsUpdate update = new PermissionsUpdate(0, false);
+    update.addPrivilegeUpdate("db1.tbl1").putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, "role1"), AccessConstants.SELECT);
+    TransactionManager tm = sentryStore.getTransactionManager();
+
+    // JSON by default, readable by older versions
+    tm.executeTransactionBlocksWithRetry(Collections.<TransactionBlock<Object>>singletonList(
+        new DeltaTransactionBlock(update)));
+    long changeId = sentryStore.getLastProcessedPermChangeID();
+    String json = sentryStore.getMSentryPermChangeByID(changeId).getPermChange();
+    assertEquals(update.JSONSerialize(), json);
+
+    tm.executeTransactionBlocksWithRetry(Collections.<TransactionBlock<Object>>singletonList(
+        new DeltaTransactionBlock(update, true)));
+    String compact = sentryStore.getMSentryPermChangeByID(changeId + 1).getPermChange();
+    assertEquals(update.deltaSerialize(), compact);
+    assertTrue(compact.length() < json.length());
+
+    // Both formats are read
+    for (String delta : Arrays.asList(json, compact)) {
+      PermissionsUpdate deserialized = new PermissionsUpdate();
+      deserialized.deltaDeserialize(delta);
+      assertEquals(update, deserialized);
+    }
+  }
+
+  @Test
+  public void testGetPrivilegeChanges() throws Exception {
+    String grantor = "g1";
+    String role1 = "changes-r1", role2 = "changes-r2";
+    createRole(role1);
+    createRole(role2);
+    grantSelect(role1, "tbl1");
+    sentryStore.alterSentryRoleAddGroups(grantor, role2,
+        Sets.newHashSet(new TSentryGroup("group1")));
+
+    TSentryPrivilegeChangesResponse changes = sentryStore.getPrivilegeChanges(null);
+    assertTrue(changes.isFullImage());
+    assertEquals(Sets.newHashSet(role1, role2), changes.getRolePrivileges().keySet());
+    assertEquals(1, changes.getRolePrivileges().get(role1).size());
+    assertEquals(Collections.singleton("group1"), changes.getRoleGroups().get(role2));
+    long changeId = changes.getChangeId();
+    assertEquals(sentryStore.getLastProcessedPermChangeID().longValue(), changeId);
+
+    // Nothing changed
+    changes = sentryStore.getPrivilegeChanges(changeId);
+    assertFalse(changes.isFullImage());
+    assertEquals(changeId, changes.getChangeId());
+    assertTrue(changes.getRolePrivileges().isEmpty());
+    assertTrue(changes.getRemovedRoles().isEmpty());
+
+    // A server privilege, which is not synchronized with HDFS, and a dropped role
+    TSentryPrivilege serverPrivilege = new TSentryPrivilege();
+    serverPrivilege.setPrivilegeScope("SERVER");
+    serverPrivilege.setServerName("server1");
+    serverPrivilege.setAction(AccessConstants.ALL);
+    serverPrivilege.setCreateTime(System.currentTimeMillis());
+    sentryStore.alterSentryGrantPrivileges(SentryPrincipalType.ROLE, role2,
+        Sets.newHashSet(serverPrivilege), null);
+    sentryStore.dropSentryRole(role1);
+    changes = sentryStore.getPrivilegeChanges(changeId);
+    assertFalse(changes.isFullImage());
+    assertEquals(changeId + 2, changes.getChangeId());
+    assertEquals(Collections.singleton(role2), changes.getRolePrivileges().keySet());
+    assertEquals(1, changes.getRolePrivileges().get(role2).size());
+    assertEquals(Collections.singleton("group1"), changes.getRoleGroups().get(role2));
+    assertEquals(Collections.singleton(role1), changes.getRemovedRoles());
+    assertTrue(changes.getUserPrivileges().isEmpty());
+
+    // Unknown change IDs, and changes of unknown roles and users, lead to full images
+    assertTrue(sentryStore.getPrivilegeChanges(changes.getChangeId() + 1).isFullImage());
+    changeId = changes.getChangeId();
+    sentryStore.dropPrivilege(toTSentryAuthorizable(serverPrivilege));
+    changes = sentryStore.getPrivilegeChanges(changeId);
+    assertTrue(changes.isFullImage());
+    assertEquals(Collections.singleton(role2), changes.getRolePrivileges().keySet());
+    assertTrue(changes.getRolePrivileges().get(role2).isEmpty());
+  }
+
   @Test
   public void testPurgeDeltaChanges() throws Exception {
     String role = "purgeRole";
@@ -3622,12 +3888,14 @@ public class TestSentryStore extends org.junit.Assert {
     assertEquals(0, sentryStore.getMSentryPermChanges().size());
     assertEquals(0, sentryStore.getMSentryPathChanges().size());
 
+    // Creating the role is a permission change as well
     sentryStore.createSentryRole(role);
+    assertEquals(1, sentryStore.getMSentryPermChanges().size());
     int privCleanCount = ServerConfig.SENTRY_DELTA_KEEP_COUNT_DEFAULT;
     int extraPrivs = 5;
 
     final int numPermChanges = extraPrivs + privCleanCount;
-    for (int i = 0; i < numPermChanges; i++) {
+    for (int i = 1; i < numPermChanges; i++) {
       TSentryPrivilege privilege = new TSentryPrivilege();
       privilege.setPrivilegeScope("Column");
       privilege.setServerName("server");
@@ -3684,6 +3952,113 @@ public class TestSentryStore extends org.junit.Assert {
   }
 
 
+  @Test
+  public void testPurgeInBatches() throws Exception {
+    conf.setLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE, 7);
+    conf.setLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS, 0);
+    try {
+      // Notification IDs with gaps between them
+      for (long id = 1; id <= 300; id += 2) {
+        sentryStore.persistLastProcessedNotificationID(id);
+      }
+      assertEquals(150, sentryStore.getMSentryHmsNotificationCore().size());
+      sentryStore.purgeNotificationIdTable();
+      assertEquals(50, sentryStore.getMSentryHmsNotificationCore().size());
+      assertEquals(299L, sentryStore.getLastProcessedNotificationID().longValue());
+
+      for (int i = 1; i <= 250; i++) {
+        sentryStore.addAuthzPathsMapping("db.tbl" + i, Sets.newHashSet("/hive/db/tbl" + i),
+            new UniquePathsUpdate("u" + i, i, false));
+      }
+      assertEquals(250, sentryStore.getMSentryPathChanges().size());
+      sentryStore.purgeDeltaChangeTables();
+      assertEquals(ServerConfig.SENTRY_DELTA_KEEP_COUNT_DEFAULT,
+          sentryStore.getMSentryPathChanges().size());
+      assertEquals(250L, sentryStore.getLastProcessedPathChangeID().longValue());
+    } finally {
+      conf.unset(ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE);
+      conf.unset(ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS);
+    }
+  }
+
+  @Test
+  public void testPurgeAuthzPathsSnapshots() throws Exception {
+    String[] prefixes = {"/user/hive/warehouse"};
+    conf.setLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE, 3);
+    conf.setLong(ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS, 0);
+    try {
+      for (int snapshot = 1; snapshot <= 4; snapshot++) {
+        Map<String, Collection<String>> authzPaths = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+          authzPaths.put("db1.table" + i,
+              Sets.newHashSet("/user/hive/warehouse/db1.db/table" + i + "/s" + snapshot));
+        }
+        // More paths than the batch size for one object
+        for (int p = 1; p <= 3; p++) {
+          authzPaths.get("db1.table1").add(
+              "/user/hive/warehouse/db1.db/table1/s" + snapshot + "/p=" + p);
+        }
+        sentryStore.persistFullPathsImage(authzPaths, snapshot);
+      }
+      assertEquals(20L, sentryStore.getCount(MAuthzPathsMapping.class).longValue());
+      assertEquals(32, sentryStore.getPathCount());
+
+      // Batches have at most 3 objects and 3 paths, unless a single object has more
+      final Map<Long, Long> objectPaths = getPathCountsByAuthzObjectID();
+      long firstID = Collections.min(objectPaths.keySet());
+      while (firstID <= Collections.max(objectPaths.keySet())) {
+        final long batchFirstID = firstID;
+        long lastID = sentryStore.getTransactionManager().executeTransaction(
+            pm -> SentryStore.getLastAuthzObjectIDOfBatch(pm, batchFirstID, 3));
+        assertTrue(lastID >= firstID && lastID - firstID < 3);
+        long numPaths = 0;
+        for (long id = firstID; id <= lastID; id++) {
+          numPaths += objectPaths.containsKey(id) ? objectPaths.get(id) : 0;
+        }
+        assertTrue(numPaths <= 3 || lastID == firstID);
+        firstID = lastID + 1;
+      }
+
+      // The current and the previous snapshots are kept
+      sentryStore.purgeAuthzPathsSnapshots();
+      assertEquals(10L, sentryStore.getCount(MAuthzPathsMapping.class).longValue());
+      assertEquals(16, sentryStore.getPathCount());
+      sentryStore.purgeAuthzPathsSnapshots();
+      assertEquals(10L, sentryStore.getCount(MAuthzPathsMapping.class).longValue());
+
+      PathsUpdate pathsUpdate = sentryStore.retrieveFullPathsImageUpdate(prefixes);
+      assertEquals(4, pathsUpdate.getImgNum());
+      Map<String, Collection<String>> pathImage = new HashMap<>();
+      TPathsDump pathDump = pathsUpdate.toThrift().getPathsDump();
+      buildPathsImageMap(pathDump.getNodeMap(), pathDump.getNodeMap().get(pathDump.getRootId()),
+          "", pathImage, true);
+      assertEquals(5, pathImage.size());
+      assertEquals(4, pathImage.get("db1.table1").size());
+      assertEquals(Sets.newHashSet("/user/hive/warehouse/db1.db/table2/s4"),
+          Sets.newHashSet(pathImage.get("db1.table2")));
+    } finally {
+      conf.unset(ServerConfig.SENTRY_STORE_PURGE_BATCH_SIZE);
+      conf.unset(ServerConfig.SENTRY_STORE_PURGE_BATCH_INTERVAL_MS);
+    }
+  }
+
+  /**
+   * @return the number of paths of every HMS snapshot object
+   */
+  @SuppressWarnings("unchecked")
+  private Map<Long, Long> getPathCountsByAuthzObjectID() throws Exception {
+    return sentryStore.getTransactionManager().executeTransaction(
+        pm -> {
+          Map<Long, Long> counts = new HashMap<>();
+          for (MAuthzPathsMapping.MPathToPersist path : (List<MAuthzPathsMapping.MPathToPersist>)
+              pm.newQuery(MAuthzPathsMapping.MPathToPersist.class).execute()) {
+            Long count = counts.get(path.getAuthzObjectId());
+            counts.put(path.getAuthzObjectId(), count == null ? 1 : count + 1);
+          }
+          return counts;
+        });
+  }
+
   /**
    * This test verifies that in the case of concurrently updating delta change tables, no gap
    * between change ID was made. All the change IDs must be consecutive ({@see SENTRY-1643}).
@@ -3746,6 +4121,82 @@ public class TestSentryStore extends org.junit.Assert {
     }
   }
 
+  /**
+   * Concurrent grants are committed together by the group commit writer. Every grant and its
+   * delta must be persisted with consecutive change IDs, and a failing grant must not fail
+   * the grants committed with it.
+   */
+  @Test(timeout = 60000)
+  public void testConcurrentGrantsWithPermUpdate() throws Exception {
+    final String roleName = "test-group-commit";
+    final int numThreads = 10;
+    final int numGrantsPerThread = 20;
+    createRole(roleName);
+    final long initialChangeID = sentryStore.getLastProcessedPermChangeID();
+    final CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads + 1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < numThreads; i++) {
+      final int thread = i;
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          barrier.await();
+          for (int j = 0; j < numGrantsPerThread; j++) {
+            grantSelect(roleName, "tbl_" + thread + "_" + j);
+          }
+          return null;
+        }
+      }));
+    }
+    Future<?> failingGrant = executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        barrier.await();
+        grantSelect("test-group-commit-missing", "tbl_missing");
+        return null;
+      }
+    });
+    executor.shutdown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    try {
+      failingGrant.get();
+      fail("Grant to a missing role should fail");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof SentryNoSuchObjectException);
+    }
+
+    MSentryRole role = sentryStore.getMSentryRoleByName(roleName);
+    assertEquals(numThreads * numGrantsPerThread, role.getPrivileges().size());
+    List<MSentryPermChange> changes = sentryStore.getMSentryPermChanges(initialChangeID + 1);
+    assertEquals(numThreads * numGrantsPerThread, changes.size());
+    long expectedChangeID = initialChangeID + 1;
+    for (MSentryPermChange change : changes) {
+      assertEquals(expectedChangeID++, change.getChangeID());
+    }
+  }
+
+  private void grantSelect(String roleName, String table) throws Exception {
+    TSentryPrivilege privilege = new TSentryPrivilege();
+    privilege.setPrivilegeScope("TABLE");
+    privilege.setServerName("server1");
+    privilege.setDbName("db1");
+    privilege.setTableName(table);
+    privilege.setAction(AccessConstants.SELECT);
+    privilege.setCreateTime(System.currentTimeMillis());
+
+    PermissionsUpdate update = new PermissionsUpdate(0, false);
+    update.addPrivilegeUpdate("db1." + table).putToAddPrivileges(
+        new TPrivilegePrincipal(TPrivilegePrincipalType.ROLE, roleName), AccessConstants.SELECT);
+    Map<TSentryPrivilege, Updateable.Update> privilegesUpdateMap = Maps.newHashMap();
+    privilegesUpdateMap.put(privilege, update);
+    sentryStore.alterSentryRoleGrantPrivileges(roleName, Sets.newHashSet(privilege),
+        privilegesUpdateMap);
+  }
+
   @Test
   public void testDuplicateNotification() throws Exception {
     Map<String, Collection<String>> authzPaths = new HashMap<>();
@@ -4675,6 +5126,12 @@ public class TestSentryStore extends org.junit.Assert {
     assertTrue(privilegeRevoked);
   }
 
+  private static String toJSON(MSentryPathChange pathChange) throws TException {
+    PathsUpdate pathsUpdate = new PathsUpdate();
+    pathsUpdate.deltaDeserialize(pathChange.getPathChange());
+    return pathsUpdate.JSONSerialize();
+  }
+
   private TSentryPrivilege toTSentryPrivilege(String action, String scope, String server,
     String dbName, String tableName) {
     TSentryPrivilege privilege = new TSentryPrivilege();
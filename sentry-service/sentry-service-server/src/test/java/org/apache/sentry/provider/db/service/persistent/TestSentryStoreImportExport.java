@@ -22,15 +22,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.sentry.core.common.utils.SentryConstants;
 import org.apache.sentry.core.model.db.AccessConstants;
 import org.apache.sentry.provider.db.service.model.MSentryGroup;
+import org.apache.sentry.provider.db.service.model.MSentryPermChange;
 import org.apache.sentry.provider.db.service.model.MSentryPrivilege;
 import org.apache.sentry.provider.db.service.model.MSentryRole;
 import org.apache.sentry.provider.db.service.model.MSentryUser;
@@ -225,6 +230,52 @@ public class TestSentryStoreImportExport {
     verifyRolePrivilegesMap(actualRolePrivilegesMap, exceptedRolePrivilegesMap);
   }
 
+  // The import and concurrent changes get different change IDs
+  @Test
+  public void testImportWithConcurrentChanges() throws Exception {
+    TSentryMappingData tSentryMappingData = new TSentryMappingData();
+    Map<String, Set<String>> sentryGroupRolesMap = Maps.newHashMap();
+    Map<String, Set<TSentryPrivilege>> sentryRolePrivilegesMap = Maps.newHashMap();
+    sentryGroupRolesMap.put("group1", Sets.newHashSet("role1"));
+    sentryRolePrivilegesMap.put("role1", Sets.newHashSet(tSentryPrivilege1, tSentryPrivilege2,
+        tSentryPrivilege3, tSentryPrivilege4));
+    tSentryMappingData.setGroupRolesMap(sentryGroupRolesMap);
+    tSentryMappingData.setRolePrivilegesMap(sentryRolePrivilegesMap);
+
+    long numChanges = sentryStore.getCount(MSentryPermChange.class);
+    long lastChangeID = sentryStore.getLastProcessedPermChangeID();
+    int numThreads = 4;
+    int numRolesPerThread = 10;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < numRolesPerThread; i++) {
+            sentryStore.createSentryRole("concurrent_role_" + thread + "_" + i);
+          }
+          return null;
+        }));
+      }
+      sentryStore.importSentryMetaData(tSentryMappingData, false);
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int numExpected = numThreads * numRolesPerThread + 1;
+    assertEquals(numChanges + numExpected,
+        sentryStore.getCount(MSentryPermChange.class).longValue());
+    assertEquals(lastChangeID + numExpected,
+        sentryStore.getLastProcessedPermChangeID().longValue());
+    Map<String, MSentryRole> rolesMap = sentryStore.getRolesMap();
+    assertEquals(numExpected, rolesMap.size());
+    assertTrue(rolesMap.containsKey("role1"));
+  }
+
   // call import twice, and there has no duplicate data:
   // The data for 1st import:
   // group1=role1
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.api.common.SentryServiceUtil;
+import org.apache.sentry.api.service.thrift.TSentryActiveRoleSet;
+import org.apache.sentry.api.service.thrift.TSentryAuthorizable;
+import org.apache.sentry.service.common.ServiceConstants.ServerConfig;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Runs the tests of {@link TestSentryStore} with the provider privilege index enabled.
+ * Every privilege lookup for providers is answered from the index and checked against
+ * the result of the db queries.
+ */
+public class TestSentryStoreWithProviderIndex extends TestSentryStore {
+  private static SentryStore dbStore;
+
+  @BeforeClass
+  public static void setupProviderIndex() throws Exception {
+    // The store created by TestSentryStore has no index and answers from the db
+    dbStore = sentryStore;
+    conf.setBoolean(ServerConfig.SENTRY_STORE_PROVIDER_INDEX_ENABLED, true);
+    sentryStore = new IndexCheckingSentryStore(conf, dbStore);
+    sentryStore.setPersistUpdateDeltas(SentryServiceUtil.isHDFSSyncEnabled(conf));
+  }
+
+  @AfterClass
+  public static void teardownProviderIndex() {
+    if (dbStore != null) {
+      dbStore.stop();
+    }
+  }
+
+  private static final class IndexCheckingSentryStore extends SentryStore {
+    private final SentryStore dbStore;
+
+    private IndexCheckingSentryStore(Configuration conf, SentryStore dbStore)
+        throws Exception {
+      super(conf);
+      this.dbStore = dbStore;
+    }
+
+    @Override
+    public Set<String> listSentryPrivilegesForProvider(Set<String> groups, Set<String> users,
+        TSentryActiveRoleSet roleSet, TSentryAuthorizable authHierarchy) throws Exception {
+      awaitProviderPrivilegeIndex();
+      Set<String> result =
+          super.listSentryPrivilegesForProvider(groups, users, roleSet, authHierarchy);
+      assertEquals(dbStore.listSentryPrivilegesForProvider(groups, users, roleSet,
+          authHierarchy), result);
+      return result;
+    }
+
+    @Override
+    public List<Set<String>> listSentryPrivilegesForProviderBulk(Set<String> groups,
+        Set<String> users, TSentryActiveRoleSet roleSet,
+        List<TSentryAuthorizable> authHierarchies) throws Exception {
+      awaitProviderPrivilegeIndex();
+      List<Set<String>> result =
+          super.listSentryPrivilegesForProviderBulk(groups, users, roleSet, authHierarchies);
+      assertEquals(dbStore.listSentryPrivilegesForProviderBulk(groups, users, roleSet,
+          authHierarchies), result);
+      return result;
+    }
+
+    @Override
+    public boolean hasAnyServerPrivileges(Set<String> groups, Set<String> users,
+        TSentryActiveRoleSet roleSet, String server) throws Exception {
+      awaitProviderPrivilegeIndex();
+      boolean result = super.hasAnyServerPrivileges(groups, users, roleSet, server);
+      assertEquals(dbStore.hasAnyServerPrivileges(groups, users, roleSet, server), result);
+      return result;
+    }
+
+    /**
+     * Wait for the index to be rebuilt in the background, so the lookup uses it.
+     */
+    private void awaitProviderPrivilegeIndex() throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      while (getProviderPrivilegeIndex() == null) {
+        assertTrue("The provider privilege index was not built",
+            System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+    }
+  }
+}
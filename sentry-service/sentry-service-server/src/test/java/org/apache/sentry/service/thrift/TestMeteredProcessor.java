@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements.  See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership.  The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with the License.  You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sentry.service.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sentry.api.service.thrift.SentryMetrics;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.junit.Test;
+
+import com.codahale.metrics.Timer;
+
+public class TestMeteredProcessor {
+
+  @Test
+  public void testProcessRecordsMethodTimer() throws Exception {
+    final TMessage[] received = new TMessage[1];
+    MeteredProcessor processor = new MeteredProcessor(new TProcessor() {
+      @Override
+      public boolean process(TProtocol in, TProtocol out) throws TException {
+        received[0] = in.readMessageBegin();
+        return true;
+      }
+    }, SentryMetrics.getInstance());
+
+    TMemoryBuffer buffer = new TMemoryBuffer(64);
+    TProtocol protocol = new TBinaryProtocol(buffer);
+    TMessage message = new TMessage("SentryPolicyService:test_method", TMessageType.CALL, 7);
+    protocol.writeMessageBegin(message);
+    protocol.writeMessageEnd();
+
+    Timer timer = processor.getTimer("SentryPolicyService:test_method");
+    long count = timer.getCount();
+    assertTrue(processor.process(protocol, protocol));
+
+    // The wrapped processor sees the message header which was read for the metric
+    assertEquals(message, received[0]);
+    assertEquals(count + 1, timer.getCount());
+    assertTrue(timer == processor.getTimer("SentryPolicyService:test_method"));
+  }
+}
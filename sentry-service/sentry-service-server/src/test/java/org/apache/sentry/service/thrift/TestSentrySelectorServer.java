@@ -0,0 +1,299 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.service.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.callback.UnsupportedCallbackException;
+import javax.security.sasl.AuthorizeCallback;
+import javax.security.sasl.RealmCallback;
+import javax.security.sasl.Sasl;
+
+import org.apache.sentry.api.common.Status;
+import org.apache.sentry.api.service.thrift.SentryPolicyService;
+import org.apache.sentry.api.service.thrift.SentryProcessorWrapper;
+import org.apache.sentry.api.service.thrift.TSentryConfigValueRequest;
+import org.apache.sentry.api.service.thrift.TSentryConfigValueResponse;
+import org.apache.sentry.core.common.utils.ThriftUtil;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TSaslClientTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Serves real RPCs with {@link SentrySelectorServer}, negotiating SASL with the DIGEST-MD5
+ * mechanism of the JDK, which needs no KDC.
+ */
+public class TestSentrySelectorServer {
+  private static final String MECHANISM = "DIGEST-MD5";
+  private static final String PROTOCOL = "sentry";
+  private static final String SERVER_NAME = "localhost";
+  private static final String USER = "user1";
+  private static final String PASSWORD = "password1";
+
+  private final List<String> impersonators = new ArrayList<>();
+  private final List<String> ipAddresses = new ArrayList<>();
+  private SentryPolicyService.Iface handler;
+  private SentrySelectorServer server;
+  private Thread serverThread;
+  private int port;
+
+  @Before
+  public void setup() throws Exception {
+    handler = Mockito.mock(SentryPolicyService.Iface.class);
+    Mockito.doAnswer((invocation) -> {
+      synchronized (impersonators) {
+        impersonators.add(ThriftUtil.getImpersonator());
+        ipAddresses.add(ThriftUtil.getIpAddress());
+      }
+      TSentryConfigValueRequest request = (TSentryConfigValueRequest) invocation.getArguments()[0];
+      TSentryConfigValueResponse response = new TSentryConfigValueResponse(Status.OK());
+      response.setValue("value of " + request.getPropertyName());
+      return response;
+    }).when(handler).get_sentry_config_value(Mockito.any(TSentryConfigValueRequest.class));
+  }
+
+  @After
+  public void teardown() throws Exception {
+    if (server != null) {
+      server.stop();
+      serverThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  @Test
+  public void testRequestsWithAuthentication() throws Exception {
+    startServer("auth", 4, 16);
+    TTransport transport = openClient("auth");
+    try {
+      SentryPolicyService.Client client = new SentryPolicyService.Client(
+          new TBinaryProtocol(transport));
+      for (int i = 0; i < 3; i++) {
+        assertEquals("value of property" + i, getConfigValue(client, "property" + i));
+      }
+      assertEquals(1, server.getOpenConnections());
+    } finally {
+      transport.close();
+    }
+
+    // The processor sees the client of the selector server connection
+    assertEquals(3, impersonators.size());
+    assertEquals(USER, impersonators.get(0));
+    assertTrue(ipAddresses.get(0).contains("127.0.0.1"));
+  }
+
+  @Test
+  public void testRequestsWithConfidentiality() throws Exception {
+    // Requests and responses are wrapped by the negotiated SASL security layer
+    startServer("auth-conf", 4, 16);
+    TTransport transport = openClient("auth-conf");
+    try {
+      SentryPolicyService.Client client = new SentryPolicyService.Client(
+          new TBinaryProtocol(transport));
+      StringBuilder name = new StringBuilder("property");
+      for (int i = 0; i < 1000; i++) {
+        name.append(i);
+      }
+      assertEquals("value of " + name, getConfigValue(client, name.toString()));
+    } finally {
+      transport.close();
+    }
+  }
+
+  @Test
+  public void testFailedNegotiationClosesConnection() throws Exception {
+    startServer("auth", 4, 16);
+    TTransport transport = new TSaslClientTransport(MECHANISM, null, PROTOCOL, SERVER_NAME,
+        saslProperties("auth"), new ClientCallbackHandler("wrong password"),
+        new TSocket(SERVER_NAME, port));
+    try {
+      transport.open();
+      fail("Negotiation with a wrong password should fail");
+    } catch (TTransportException e) {
+      // Expected
+    } finally {
+      transport.close();
+    }
+  }
+
+  @Test
+  public void testMessagesWaitForRoomInWorkerQueue() throws Exception {
+    final CountDownLatch processing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.doAnswer((invocation) -> {
+      processing.countDown();
+      release.await();
+      return new TSentryConfigValueResponse(Status.OK());
+    }).when(handler).get_sentry_config_value(Mockito.any(TSentryConfigValueRequest.class));
+    startServer("auth", 1, 1);
+
+    ExecutorService clients = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(clients.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            TTransport transport = openClient("auth");
+            try {
+              new SentryPolicyService.Client(new TBinaryProtocol(transport))
+                  .get_sentry_config_value(new TSentryConfigValueRequest(2, "property"));
+            } finally {
+              transport.close();
+            }
+            return null;
+          }
+        }));
+      }
+
+      // The only worker is busy, the other clients queue one message and wait for the rest
+      assertTrue(processing.await(30, TimeUnit.SECONDS));
+      Thread.sleep(500);
+      assertTrue(server.getWorkerQueueSize() <= 1);
+
+      release.countDown();
+      for (Future<Void> result : results) {
+        result.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      release.countDown();
+      clients.shutdownNow();
+    }
+  }
+
+  private void startServer(String qop, int workerThreads, int workerQueueSize)
+      throws Exception {
+    TNonblockingServerSocket serverSocket =
+        new TNonblockingServerSocket(new InetSocketAddress(SERVER_NAME, 0));
+    port = serverSocket.getPort();
+    SentrySelectorServer.Args args = new SentrySelectorServer.Args(serverSocket)
+        .selectorThreads(2)
+        .workerThreads(workerThreads)
+        .workerQueueSize(workerQueueSize)
+        .saslServerDefinition(MECHANISM, PROTOCOL, SERVER_NAME, saslProperties(qop),
+            new ServerCallbackHandler())
+        .processor(new SentryProcessorWrapper<>(handler))
+        .protocolFactory(new TBinaryProtocol.Factory(true, true));
+    server = new SentrySelectorServer(args);
+    serverThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        server.serve();
+      }
+    });
+    serverThread.setDaemon(true);
+    serverThread.start();
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while (!server.isServing()) {
+      assertTrue("Server did not start", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private TTransport openClient(String qop) throws Exception {
+    TTransport transport = new TSaslClientTransport(MECHANISM, null, PROTOCOL, SERVER_NAME,
+        saslProperties(qop), new ClientCallbackHandler(PASSWORD),
+        new TSocket(SERVER_NAME, port));
+    transport.open();
+    return transport;
+  }
+
+  private static String getConfigValue(SentryPolicyService.Client client, String propertyName)
+      throws Exception {
+    return client.get_sentry_config_value(new TSentryConfigValueRequest(2, propertyName))
+        .getValue();
+  }
+
+  private static Map<String, String> saslProperties(String qop) {
+    return ImmutableMap.of(Sasl.QOP, qop);
+  }
+
+  private static final class ClientCallbackHandler implements CallbackHandler {
+    private final String password;
+
+    private ClientCallbackHandler(String password) {
+      this.password = password;
+    }
+
+    @Override
+    public void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
+      for (Callback callback : callbacks) {
+        if (callback instanceof NameCallback) {
+          ((NameCallback) callback).setName(USER);
+        } else if (callback instanceof PasswordCallback) {
+          ((PasswordCallback) callback).setPassword(password.toCharArray());
+        } else if (callback instanceof RealmCallback) {
+          RealmCallback realmCallback = (RealmCallback) callback;
+          realmCallback.setText(realmCallback.getDefaultText());
+        } else {
+          throw new UnsupportedCallbackException(callback);
+        }
+      }
+    }
+  }
+
+  private static final class ServerCallbackHandler implements CallbackHandler {
+    @Override
+    public void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
+      for (Callback callback : callbacks) {
+        if (callback instanceof NameCallback) {
+          NameCallback nameCallback = (NameCallback) callback;
+          nameCallback.setName(nameCallback.getDefaultName());
+        } else if (callback instanceof PasswordCallback) {
+          ((PasswordCallback) callback).setPassword(PASSWORD.toCharArray());
+        } else if (callback instanceof RealmCallback) {
+          RealmCallback realmCallback = (RealmCallback) callback;
+          realmCallback.setText(realmCallback.getDefaultText());
+        } else if (callback instanceof AuthorizeCallback) {
+          AuthorizeCallback authorizeCallback = (AuthorizeCallback) callback;
+          authorizeCallback.setAuthorized(authorizeCallback.getAuthenticationID()
+              .equals(authorizeCallback.getAuthorizationID()));
+          authorizeCallback.setAuthorizedID(authorizeCallback.getAuthorizationID());
+        } else {
+          throw new UnsupportedCallbackException(callback);
+        }
+      }
+    }
+  }
+}
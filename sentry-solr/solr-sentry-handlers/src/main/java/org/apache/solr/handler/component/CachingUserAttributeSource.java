@@ -22,22 +22,57 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.solr.common.SolrException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Decorator class for any other UserAttributeSource which implements a simple cache around the UserAttributeSource
  * The cache avoids repeated calls to the UAS upon repeated Solr queries
+ *
+ * Entries which are used after three quarters of their TTL are reloaded in the background on a refresh executor,
+ * so that the Solr query threads of active users keep getting the old attributes instead of waiting for the UAS.
+ * Concurrent misses for the same user share a single lookup.
  */
 public class CachingUserAttributeSource implements UserAttributeSource {
 
   private static final Logger LOG = LoggerFactory.getLogger(CachingUserAttributeSource.class);
+
+  /**
+   * Singleton executor for the background refreshes of all CachingUserAttributeSource instances.
+   */
+  private static volatile Executor sRefreshExecutor;
+  private static final Object SREFRESH_EXECUTOR_SYNC = new Object();
+
+  public static Executor getRefreshExecutor(int refreshThreads) {
+    if (sRefreshExecutor != null) {
+      return sRefreshExecutor;
+    }
+    synchronized (SREFRESH_EXECUTOR_SYNC) {
+      if (sRefreshExecutor == null) {
+        LOG.info("Creating user attribute refresh executor, threads={}", refreshThreads);
+        sRefreshExecutor = Executors.newFixedThreadPool(Math.max(1, refreshThreads), new ThreadFactoryBuilder()
+            .setNameFormat("user-attribute-refresh-%d")
+            .setDaemon(true)
+            .build()); // Singleton; only the first thread count seen will be used
+      }
+      return sRefreshExecutor;
+    }
+  }
+
   private final LoadingCache<String, Multimap<String, String>> cache;
+  private final Executor refreshExecutor;
 
   /**
    * @param userAttributeSource {@link UserAttributeSource} being decorated
@@ -45,7 +80,18 @@ public class CachingUserAttributeSource implements UserAttributeSource {
    * @param maxCacheSize The maximum number of entries the cache should contain before entries are evicted
    */
   public CachingUserAttributeSource(final UserAttributeSource userAttributeSource, long ttlSeconds, long maxCacheSize) {
-    this(userAttributeSource, ttlSeconds, maxCacheSize, null);
+    this(userAttributeSource, ttlSeconds, maxCacheSize,
+        getRefreshExecutor(SolrAttrBasedFilter.CACHE_REFRESH_THREADS_DEFAULT));
+  }
+
+  /**
+   * @param userAttributeSource {@link UserAttributeSource} being decorated
+   * @param ttlSeconds Time To Live (seconds) for the cache before entries will be aged
+   * @param maxCacheSize The maximum number of entries the cache should contain before entries are evicted
+   * @param refreshExecutor The {@link Executor} used to reload entries in the background
+   */
+  public CachingUserAttributeSource(final UserAttributeSource userAttributeSource, long ttlSeconds, long maxCacheSize, Executor refreshExecutor) {
+    this(userAttributeSource, ttlSeconds, maxCacheSize, null, refreshExecutor);
   }
 
   /**
@@ -56,14 +102,46 @@ public class CachingUserAttributeSource implements UserAttributeSource {
    */
   @VisibleForTesting
   /* default */ CachingUserAttributeSource(final UserAttributeSource userAttributeSource, long ttlSeconds, long maxCacheSize, Ticker ticker) {
+    this(userAttributeSource, ttlSeconds, maxCacheSize, ticker,
+        getRefreshExecutor(SolrAttrBasedFilter.CACHE_REFRESH_THREADS_DEFAULT));
+  }
+
+  /**
+   * @param userAttributeSource {@link UserAttributeSource} being decorated
+   * @param ttlSeconds Time To Live (seconds) for the cache before entries will be aged
+   * @param maxCacheSize The maximum number of entries the cache should contain before entries are evicted
+   * @param ticker A {@link Ticker} used for testing cache expiry. If null the system clock will be used
+   * @param refreshExecutor The {@link Executor} used to reload entries in the background
+   */
+  @VisibleForTesting
+  /* default */ CachingUserAttributeSource(final UserAttributeSource userAttributeSource, long ttlSeconds, long maxCacheSize, Ticker ticker, final Executor refreshExecutor) {
     LOG.debug("Creating cached user attribute source, userAttributeSource={}, ttlSeconds={}, maxCacheSize={}", userAttributeSource, ttlSeconds, maxCacheSize);
+    this.refreshExecutor = refreshExecutor;
     CacheLoader<String, Multimap<String, String>> cacheLoader = new CacheLoader<String, Multimap<String, String>>() {
       public Multimap<String, String> load(String userName) {
         LOG.debug("User attribute cache miss for user: {}", userName);
         return userAttributeSource.getAttributesForUser(userName);
       }
+
+      @Override
+      public ListenableFuture<Multimap<String, String>> reload(final String userName, Multimap<String, String> oldValue) {
+        // The old attributes are served until the task completes; if it fails they are kept until they expire
+        ListenableFutureTask<Multimap<String, String>> task = ListenableFutureTask.create(new Callable<Multimap<String, String>>() {
+          @Override
+          public Multimap<String, String> call() {
+            LOG.debug("Refreshing user attributes for user: {}", userName);
+            return userAttributeSource.getAttributesForUser(userName);
+          }
+        });
+        refreshExecutor.execute(task);
+        return task;
+      }
     };
-    CacheBuilder builder = CacheBuilder.newBuilder().expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).maximumSize(maxCacheSize);
+    long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    CacheBuilder builder = CacheBuilder.newBuilder()
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .refreshAfterWrite(Math.max(1, ttlMillis * 3 / 4), TimeUnit.MILLISECONDS)
+        .maximumSize(maxCacheSize);
     if (ticker != null) {
       builder.ticker(ticker);
     }
@@ -74,12 +152,36 @@ public class CachingUserAttributeSource implements UserAttributeSource {
   public Multimap<String, String> getAttributesForUser(String userName) {
     try {
       return cache.get(userName);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof SolrException) {
+        throw (SolrException) e.getCause();
+      }
+      throw new SolrException(SolrException.ErrorCode.SERVER_ERROR,
+          "Error getting user attributes from cache", e);
     } catch (ExecutionException e) {
       throw new SolrException(SolrException.ErrorCode.SERVER_ERROR,
           "Error getting user attributes from cache", e);
     }
   }
 
+  /**
+   * Load the attributes of the specified users in the background, e.g. for the users known to be active
+   * before they send their queries. Attributes which are already cached are reloaded. Failures are logged,
+   * and the users are looked up again when they query.
+   */
+  public void prefetch(Collection<String> userNames) {
+    LOG.debug("Prefetching user attributes for {} users", userNames.size());
+    for (final String userName : userNames) {
+      refreshExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          // Concurrent lookups of the same user wait for this load instead of starting their own
+          cache.refresh(userName);
+        }
+      });
+    }
+  }
+
   @Override
   public Class<? extends UserAttributeSourceParams> getParamsClass() {
     return null;
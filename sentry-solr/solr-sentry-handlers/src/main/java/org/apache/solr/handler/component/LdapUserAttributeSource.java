@@ -67,6 +67,10 @@ import static javax.naming.Context.SECURITY_PRINCIPAL;
  * ldapBaseDN : Base DN string to be used to query LDAP server. The implementation
  *              prepends user name (i.e. uid=<user_name>) to this value for querying the
  *              attributes.
+ * ldapConnectionPoolEnabled : Whether connections to the LDAP server are reused across lookups
+ *              (default true). Only applies to the "none" and "simple" authentication
+ *              mechanisms without Start TLS; the pool is sized with the JNDI
+ *              com.sun.jndi.ldap.connect.pool.* system properties.
  *
  * This class supports extracting single (or multi-valued) String attributes only. The
  * raw value(s) of the attribute are used for document-level filtering.
@@ -75,6 +79,7 @@ public class LdapUserAttributeSource implements UserAttributeSource {
 
   private static final HostnameVerifier PERMISSIVE_HOSTNAME_VERIFIER = (hostname, session) -> true;
   private static final Logger LOG = LoggerFactory.getLogger(LdapUserAttributeSource.class);
+  private static final String CONNECTION_POOL = "com.sun.jndi.ldap.connect.pool";
 
   /**
    * Singleton cache provides the parent group(s) for a given group.
@@ -138,6 +143,15 @@ public class LdapUserAttributeSource implements UserAttributeSource {
       result.put(SECURITY_PRINCIPAL, params.getUsername());
       result.put(SECURITY_CREDENTIALS, params.getPassword());
     }
+    if (params.isConnectionPoolEnabled()) {
+      // The JNDI pool only reuses connections which have not been upgraded with Start TLS,
+      // and which are authenticated with one of the mechanisms below
+      if (!params.isStartTlsEnabled() && ("none".equals(authType) || "simple".equals(authType))) {
+        result.put(CONNECTION_POOL, "true");
+      } else {
+        LOG.info("Not pooling LDAP connections, authType={} startTls={}", authType, params.isStartTlsEnabled());
+      }
+    }
     return result;
   }
 
@@ -30,6 +30,7 @@ public class LdapUserAttributeSourceParams implements UserAttributeSourceParams
   private String password;
   private boolean enableStartTls;
   private boolean disableHostNameVerification;
+  private boolean enableConnectionPool;
 
   private boolean doNestedQuery;     // Whether to recursively follow recursiveAttribute to find parent groups
   private String recursiveAttribute; // Only required if doNestedQuery==true
@@ -49,6 +50,8 @@ public class LdapUserAttributeSourceParams implements UserAttributeSourceParams
   public static final String LDAP_USER_SEARCH_FILTER = "ldapUserSearchFilter";
   public static final String LDAP_USER_SEARCH_FILTER_DEFAULT = "(uid={0})";
   public static final String LDAP_PROVIDER_URL = "ldapProviderUrl";
+  public static final String LDAP_CONNECTION_POOL_ENABLED = "ldapConnectionPoolEnabled";
+  public static final boolean LDAP_CONNECTION_POOL_ENABLED_DEFAULT = true;
 
   // Properties for handling nested access groups recursively
   public static final String LDAP_NESTED_GROUPS_ENABLED = "ldapNestedGroupsEnabled";
@@ -132,6 +135,14 @@ public class LdapUserAttributeSourceParams implements UserAttributeSourceParams
     this.enableStartTls = enableStartTls;
   }
 
+  public boolean isConnectionPoolEnabled() {
+    return enableConnectionPool;
+  }
+
+  public void setEnableConnectionPool(boolean enableConnectionPool) {
+    this.enableConnectionPool = enableConnectionPool;
+  }
+
   public boolean isNestedQueryEnabled() {
     return doNestedQuery;
   }
@@ -218,6 +229,7 @@ public class LdapUserAttributeSourceParams implements UserAttributeSourceParams
     setPassword(solrParams.get(LDAP_ADMIN_PASSWORD));
     setEnableStartTls(solrParams.getBool(LDAP_TLS_ENABLED, LDAP_TLS_ENABLED_DEFAULT));
     setDisableHostNameVerification(solrParams.getBool(LDAP_TLS_DISABLE_HOSTNAME_VERIFICATION, LDAP_TLS_DISABLE_HOSTNAME_VERIFICATION_DEFAULT));
+    setEnableConnectionPool(solrParams.getBool(LDAP_CONNECTION_POOL_ENABLED, LDAP_CONNECTION_POOL_ENABLED_DEFAULT));
     setNestedQueryEnabled(solrParams.getBool(LDAP_NESTED_GROUPS_ENABLED, LDAP_NESTED_GROUPS_ENABLED_DEFAULT));
     setRecursiveAttribute(solrParams.get(LDAP_RECURSIVE_ATTRIBUTE, LDAP_RECURSIVE_ATTRIBUTE_DEFAULT));
     setMaxRecurseDepth(solrParams.getInt(LDAP_MAX_RECURSE_DEPTH, LDAP_MAX_RECURSE_DEPTH_DEFAULT));
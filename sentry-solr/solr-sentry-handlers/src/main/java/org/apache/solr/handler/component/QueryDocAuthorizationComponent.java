@@ -16,7 +16,17 @@
  */
 package org.apache.solr.handler.component;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSortedSet;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.params.ModifiableSolrParams;
 import org.apache.solr.common.params.SolrParams;
@@ -25,6 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
@@ -41,7 +53,12 @@ public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
   public static final String TOKEN_COUNT_PROP = "tokenCountField";
   public static final String DEFAULT_TOKEN_COUNT_FIELD_PROP = "sentry_auth_count";
   public static final String QPARSER_PROP = "qParser";
-
+  public static final String FILTER_CACHE_SIZE_PROP = "filterCacheSize";
+  public static final long DEFAULT_FILTER_CACHE_SIZE = 1000;
+  // Add the filter of requests executed on this node as a query rather than as a "fq"
+  // parameter, which skips parsing it. Only for handlers whose components apply the
+  // filters of the ResponseBuilder, like the QueryComponent of a SearchHandler.
+  public static final String FILTER_AS_QUERY_PROP = "filterAsQuery";
 
   private String authField;
   private String allRolesToken;
@@ -52,6 +69,11 @@ public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
 
   private String qParserName;
 
+  // Filters are built once per distinct set of roles. The sets are sorted, so that users
+  // with the same roles share a filter and the filter text does not depend on role order.
+  private LoadingCache<ImmutableSortedSet<String>, String> filterQueryStrings;
+  private LoadingCache<ImmutableSortedSet<String>, Query> filterQueries;
+
   private enum MatchType {
     DISJUNCTIVE,
     CONJUNCTIVE
@@ -77,6 +99,28 @@ public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
       this.tokenCountField = params.get(TOKEN_COUNT_PROP, DEFAULT_TOKEN_COUNT_FIELD_PROP);
       LOG.debug("QueryDocAuthorizationComponent tokenCountField: {}", this.tokenCountField);
     }
+
+    long filterCacheSize = params.getLong(FILTER_CACHE_SIZE_PROP, DEFAULT_FILTER_CACHE_SIZE);
+    LOG.info("QueryDocAuthorizationComponent filterCacheSize: {}", filterCacheSize);
+    this.filterQueryStrings = CacheBuilder.newBuilder().maximumSize(filterCacheSize)
+        .build(new CacheLoader<ImmutableSortedSet<String>, String>() {
+          @Override
+          public String load(ImmutableSortedSet<String> roles) {
+            return matchMode == MatchType.DISJUNCTIVE ? getDisjunctiveFilterQueryStr(roles)
+                : getConjunctiveFilterQueryStr(roles);
+          }
+        });
+    if (params.getBool(FILTER_AS_QUERY_PROP, false)) {
+      LOG.info("QueryDocAuthorizationComponent adds filters as queries");
+      this.filterQueries = CacheBuilder.newBuilder().maximumSize(filterCacheSize)
+          .build(new CacheLoader<ImmutableSortedSet<String>, Query>() {
+            @Override
+            public Query load(ImmutableSortedSet<String> roles) {
+              return matchMode == MatchType.DISJUNCTIVE ? getDisjunctiveFilterQuery(roles)
+                  : getConjunctiveFilterQuery(roles);
+            }
+          });
+    }
   }
 
   private void addDisjunctiveRawClause(StringBuilder builder, String value) {
@@ -100,16 +144,41 @@ public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
     return null;
   }
 
+  /**
+   * Builds the query that the filter of {@link #getDisjunctiveFilterQueryStr(Set)} parses to.
+   */
+  @VisibleForTesting
+  Query getDisjunctiveFilterQuery(Set<String> roles) {
+    BooleanQuery.Builder builder = new BooleanQuery.Builder();
+    for (String role : roles) {
+      builder.add(new TermQuery(new Term(authField, role)), BooleanClause.Occur.SHOULD);
+    }
+    if (allRolesToken != null && !allRolesToken.isEmpty()) {
+      builder.add(new TermQuery(new Term(authField, allRolesToken)), BooleanClause.Occur.SHOULD);
+    }
+    return builder.build();
+  }
+
   @Override
   public void prepare(ResponseBuilder rb, String userName) throws IOException {
     Set<String> roles = getRoles(rb.req, userName);
     if (roles != null && !roles.isEmpty()) {
-      String filterQuery;
-      if (matchMode == MatchType.DISJUNCTIVE) {
-        filterQuery = getDisjunctiveFilterQueryStr(roles);
-      } else {
-        filterQuery = getConjunctiveFilterQueryStr(roles);
+      ImmutableSortedSet<String> sortedRoles = ImmutableSortedSet.copyOf(roles);
+      if (filterQueries != null && !rb.isDistrib) {
+        // The request is executed here, so the filter does not need to reach other nodes
+        // as a parameter, and the query built for these roles is added as is
+        Query filter = filterQueries.getUnchecked(sortedRoles);
+        List<Query> filters = rb.getFilters() == null ? new ArrayList<Query>()
+            : new ArrayList<>(rb.getFilters());
+        filters.add(filter);
+        rb.setFilters(filters);
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Adding filter {} for user {} with roles {}", filter, userName, roles);
+        }
+        return;
       }
+
+      String filterQuery = filterQueryStrings.getUnchecked(sortedRoles);
       ModifiableSolrParams newParams = new ModifiableSolrParams(rb.req.getParams());
       newParams.add("fq", filterQuery);
       rb.req.setParams(newParams);
@@ -138,6 +207,11 @@ public class QueryDocAuthorizationComponent extends DocAuthorizationComponent {
     return filterQuery.toString();
   }
 
+  private Query getConjunctiveFilterQuery(Set<String> roles) {
+    return SubsetQueryPlugin.createSubsetQuery(authField, roles, tokenCountField, allRolesToken,
+        allowMissingValue);
+  }
+
   @Override
   public void process(ResponseBuilder rb) throws IOException {
   }
@@ -35,6 +35,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,6 +63,8 @@ public class SolrAttrBasedFilter extends DocAuthorizationComponent {
   public static final long CACHE_TTL_DEFAULT = 30;
   public static final String CACHE_MAX_SIZE_PROP = "cache_max_size";
   public static final long CACHE_MAX_SIZE_DEFAULT = 1000;
+  public static final String CACHE_REFRESH_THREADS_PROP = "cache_refresh_threads";
+  public static final int CACHE_REFRESH_THREADS_DEFAULT = 2;
   public static final String ENABLED_PROP = "enabled";
   public static final String FIELD_ATTR_MAPPINGS = "field_attr_mappings";
 
@@ -113,7 +116,8 @@ public class SolrAttrBasedFilter extends DocAuthorizationComponent {
 
     if (this.userAttributeSource == null) {
       if (solrParams.getBool(CACHE_ENABLED_PROP, CACHE_ENABLED_DEFAULT)) {
-        this.userAttributeSource = new CachingUserAttributeSource(buildUserAttributeSource(solrParams), solrParams.getLong(CACHE_TTL_PROP, CACHE_TTL_DEFAULT), solrParams.getLong(CACHE_MAX_SIZE_PROP, CACHE_MAX_SIZE_DEFAULT));
+        this.userAttributeSource = new CachingUserAttributeSource(buildUserAttributeSource(solrParams), solrParams.getLong(CACHE_TTL_PROP, CACHE_TTL_DEFAULT), solrParams.getLong(CACHE_MAX_SIZE_PROP, CACHE_MAX_SIZE_DEFAULT),
+            CachingUserAttributeSource.getRefreshExecutor(solrParams.getInt(CACHE_REFRESH_THREADS_PROP, CACHE_REFRESH_THREADS_DEFAULT)));
       } else {
         this.userAttributeSource = buildUserAttributeSource(solrParams);
       }
@@ -149,6 +153,16 @@ public class SolrAttrBasedFilter extends DocAuthorizationComponent {
 
   }
 
+  /**
+   * Load the attributes of the specified (e.g. currently active) users in the background, so that their
+   * queries do not wait for the user attribute source. Does nothing unless the cache is enabled.
+   */
+  public void prefetchUserAttributes(Collection<String> userNames) {
+    if (userAttributeSource instanceof CachingUserAttributeSource) {
+      ((CachingUserAttributeSource) userAttributeSource).prefetch(userNames);
+    }
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public void prepare(ResponseBuilder rb, String userName) throws IOException {
@@ -167,7 +181,9 @@ public class SolrAttrBasedFilter extends DocAuthorizationComponent {
 
   private String buildFilterQueryString(Multimap<String, String> userAttributes, FieldToAttributeMapping mapping) {
     String fieldName = mapping.getFieldName();
-    Collection<String> attributeValues = getUserAttributesForField(userAttributes, mapping);
+    // Sorted, so that the filter of users with the same attribute values does not depend on
+    // the order of the values, and is found in the filter cache
+    Collection<String> attributeValues = new TreeSet<>(getUserAttributesForField(userAttributes, mapping));
     switch (mapping.getFilterType()) {
       case OR:
         return buildSimpleORFilterQuery(fieldName, attributeValues, mapping.getAcceptEmpty(), mapping.getAllUsersValue(), mapping.getExtraOpts());
@@ -34,6 +34,7 @@ import org.apache.solr.search.QParserPlugin;
 import org.apache.solr.search.SyntaxError;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -64,31 +65,47 @@ public class SubsetQueryPlugin extends QParserPlugin {
         boolean allowMissingValues = Boolean.parseBoolean(Preconditions.checkNotNull(localParams.get(MISSING_VAL_ALLOWED)));
         String wildcardToken = localParams.get(WILDCARD_CHAR);
 
-        LongValuesSource minimumNumberMatch = LongValuesSource.fromIntField(countFieldName);
-        Collection<Query> queries = new ArrayList<>();
-
         String fieldVals = Preconditions.checkNotNull(localParams.get(SETVAL_PARAM_NAME));
-        for (String v : fieldVals.split(",")) {
-          queries.add(new TermQuery(new Term(fieldName, v)));
-        }
-        if (wildcardToken != null && !wildcardToken.equals("")) {
-          queries.add(new TermQuery(new Term(fieldName, wildcardToken)));
-        }
-        if (allowMissingValues) {
-          // To construct this query we need to do a little trick tho construct a test for an empty field as follows:
-          // (*:* AND -fieldName:*) ==> parses as: (+*:* -fieldName:*)
-          // It is a feature of Lucene that pure negative queries are not allowed (although Solr allows them as a top level construct)
-          // therefore we need to AND with *:*
-          // We can then pass this BooleanQuery to the CoveringQuery as one of its allowed matches.
-          BooleanQuery.Builder builder = new BooleanQuery.Builder();
-          builder.add(new BooleanClause(new MatchAllDocsQuery(), BooleanClause.Occur.SHOULD));
-          builder.add(new BooleanClause(new WildcardQuery(new Term(fieldName, "*")), BooleanClause.Occur.MUST_NOT));
-
-          queries.add(builder.build());
-        }
-        return new CoveringQuery(queries, minimumNumberMatch);
+        return createSubsetQuery(fieldName, Arrays.asList(fieldVals.split(",")), countFieldName,
+            wildcardToken, allowMissingValues);
       }
     };
   }
 
+  /**
+   * Builds the query parsed by this plugin directly, for callers which already hold the
+   * values of the set.
+   *
+   * @param fieldName name of the field whose values must be a subset of the given values
+   * @param values the set of values
+   * @param countFieldName name of the field holding the number of values of each document
+   * @param wildcardToken value which matches any set, or null
+   * @param allowMissingValues whether documents without values match as well
+   */
+  public static Query createSubsetQuery(String fieldName, Collection<String> values,
+      String countFieldName, String wildcardToken, boolean allowMissingValues) {
+    LongValuesSource minimumNumberMatch = LongValuesSource.fromIntField(countFieldName);
+    Collection<Query> queries = new ArrayList<>();
+
+    for (String v : values) {
+      queries.add(new TermQuery(new Term(fieldName, v)));
+    }
+    if (wildcardToken != null && !wildcardToken.equals("")) {
+      queries.add(new TermQuery(new Term(fieldName, wildcardToken)));
+    }
+    if (allowMissingValues) {
+      // To construct this query we need to do a little trick tho construct a test for an empty field as follows:
+      // (*:* AND -fieldName:*) ==> parses as: (+*:* -fieldName:*)
+      // It is a feature of Lucene that pure negative queries are not allowed (although Solr allows them as a top level construct)
+      // therefore we need to AND with *:*
+      // We can then pass this BooleanQuery to the CoveringQuery as one of its allowed matches.
+      BooleanQuery.Builder builder = new BooleanQuery.Builder();
+      builder.add(new BooleanClause(new MatchAllDocsQuery(), BooleanClause.Occur.SHOULD));
+      builder.add(new BooleanClause(new WildcardQuery(new Term(fieldName, "*")), BooleanClause.Occur.MUST_NOT));
+
+      queries.add(builder.build());
+    }
+    return new CoveringQuery(queries, minimumNumberMatch);
+  }
+
 }
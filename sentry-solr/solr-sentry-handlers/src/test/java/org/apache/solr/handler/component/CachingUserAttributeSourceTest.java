@@ -20,6 +20,7 @@ package org.apache.solr.handler.component;
 import com.google.common.base.Ticker;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -29,6 +30,7 @@ import org.mockito.MockitoAnnotations;
 import java.time.Duration;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.times;
 
 public class CachingUserAttributeSourceTest {
@@ -139,6 +141,57 @@ public class CachingUserAttributeSourceTest {
 
   }
 
+  @Test
+  public void testCacheRefreshWithMocks(){
+
+    // configure mock LDAP responses: the attributes change between the first and the second lookup
+    Multimap<String, String> oldUserAttributes = LinkedListMultimap.create();
+    oldUserAttributes.put("attr1", "A");
+    Multimap<String, String> newUserAttributes = LinkedListMultimap.create();
+    newUserAttributes.put("attr1", "B");
+    Mockito.when(mockUserAttributeSource.getAttributesForUser("user1")).thenReturn(oldUserAttributes, newUserAttributes);
+
+    // Create a cache with a 4s TTL, which refreshes entries on the calling thread to keep the test deterministic
+    FastForwardTicker time = new FastForwardTicker();
+    CachingUserAttributeSource cachingUserAttributeSource = new CachingUserAttributeSource(mockUserAttributeSource, 4, 100, time, MoreExecutors.sameThreadExecutor());
+
+    assertEquals(oldUserAttributes, cachingUserAttributeSource.getAttributesForUser("user1"));
+
+    // Before three quarters of the TTL the entry is served from the cache...
+    time.fastForward(Duration.ofSeconds(2));
+    assertEquals(oldUserAttributes, cachingUserAttributeSource.getAttributesForUser("user1"));
+    Mockito.verify(mockUserAttributeSource, times(1)).getAttributesForUser("user1");
+
+    // ... and after it, the entry is reloaded once without expiring
+    time.fastForward(Duration.ofMillis(1500));
+    cachingUserAttributeSource.getAttributesForUser("user1");
+    assertEquals(newUserAttributes, cachingUserAttributeSource.getAttributesForUser("user1"));
+    Mockito.verify(mockUserAttributeSource, times(2)).getAttributesForUser("user1");
+
+  }
+
+  @Test
+  public void testPrefetchWithMocks(){
+
+    // configure mock LDAP response
+    Multimap<String, String> mockUserAttributes = LinkedListMultimap.create();
+    mockUserAttributes.put("attr1", "A");
+    Mockito.when(mockUserAttributeSource.getAttributesForUser(Mockito.<String>any())).thenReturn(mockUserAttributes);
+
+    CachingUserAttributeSource cachingUserAttributeSource = new CachingUserAttributeSource(mockUserAttributeSource, SolrAttrBasedFilter.CACHE_TTL_DEFAULT, SolrAttrBasedFilter.CACHE_MAX_SIZE_DEFAULT, MoreExecutors.sameThreadExecutor());
+
+    cachingUserAttributeSource.prefetch(Arrays.asList("user1", "user2"));
+    Mockito.verify(mockUserAttributeSource, times(1)).getAttributesForUser("user1");
+    Mockito.verify(mockUserAttributeSource, times(1)).getAttributesForUser("user2");
+
+    // Prefetched users are served from the cache
+    assertEquals(mockUserAttributes, cachingUserAttributeSource.getAttributesForUser("user1"));
+    assertEquals(mockUserAttributes, cachingUserAttributeSource.getAttributesForUser("user2"));
+    Mockito.verify(mockUserAttributeSource, times(1)).getAttributesForUser("user1");
+    Mockito.verify(mockUserAttributeSource, times(1)).getAttributesForUser("user2");
+
+  }
+
   private static class FastForwardTicker extends Ticker {
     private long tnanos = 0L;
 
@@ -16,12 +16,21 @@ package org.apache.solr.handler.component;
  * limitations under the License.
  */
 
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import org.apache.lucene.search.Query;
 import org.apache.solr.SolrTestCaseJ4;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.request.SolrQueryRequest;
 import org.apache.solr.schema.IndexSchema;
 import org.apache.solr.schema.SchemaField;
+import org.apache.solr.search.QParser;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Set;
+
 /**
  * Test for QueryDocAuthorizationComponent (with conjunctive match) and SubsetQueryPlugin
  */
@@ -326,4 +335,31 @@ public class SubsetQueryTest extends SolrTestCaseJ4 {
     );
   }
 
+
+  /** Tests that the queries built without parsing are the ones the filter strings parse to
+   */
+  @Test
+  public void testFilterQueriesMatchParsedQueries() throws Exception {
+    NamedList<Object> args = new NamedList<>();
+    args.add(QueryDocAuthorizationComponent.AUTH_FIELD_PROP, f);
+    args.add(QueryDocAuthorizationComponent.ALL_ROLES_TOKEN_PROP, "foo");
+    args.add(QueryDocAuthorizationComponent.FILTER_AS_QUERY_PROP, "true");
+    QueryDocAuthorizationComponent component = new QueryDocAuthorizationComponent();
+    component.init(args);
+
+    SolrQueryRequest req = req();
+    try {
+      Set<String> roles = ImmutableSortedSet.of("a", "b");
+      assertEquals(QParser.getParser(component.getDisjunctiveFilterQueryStr(roles), req).getQuery(),
+          component.getDisjunctiveFilterQuery(roles));
+      // The order of the roles does not matter
+      assertEquals(component.getDisjunctiveFilterQuery(roles),
+          component.getDisjunctiveFilterQuery(Sets.newLinkedHashSet(Arrays.asList("b", "a"))));
+
+      Query parsed = QParser.getParser("{!" + qParser + " count_field=\"valcount\" set_value=\"a,b\" set_field=\"stringdv\" allow_missing_val=true wildcard_token=\"foo\" }", req).getQuery();
+      assertEquals(parsed, SubsetQueryPlugin.createSubsetQuery(f, Arrays.asList("b", "a"), countField, "foo", true));
+    } finally {
+      req.close();
+    }
+  }
 }